@@ -19,7 +19,9 @@ public class MagicScriptLexer implements FlexLexer {
 
   /** lexical states */
   public static final int YYINITIAL = 0;
-  public static final int WAITING_VALUE = 2;
+  public static final int TEXT_BLOCK = 2;
+  public static final int TEMPLATE = 4;
+  public static final int INTERPOLATION = 6;
 
   /**
    * ZZ_LEXSTATE[l] is the state in the DFA for the lexical state l
@@ -28,7 +30,7 @@ public class MagicScriptLexer implements FlexLexer {
    * l is of the form l = 2*k, k a non negative integer
    */
   private static final int ZZ_LEXSTATE[] = {
-     0,  0,  1, 1
+     0,  0,  1,  1,  2,  2,  3, 3
   };
 
   /**
@@ -37,7 +39,7 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_CMAP_TOP = zzUnpackcmap_top();
 
   private static final String ZZ_CMAP_TOP_PACKED_0 =
-    "\1\0\37\u0100\1\u0200\267\u0100\10\u0300\u1020\u0100";
+    "\1\0\37\u0100\1\u0200\u10df\u0100";
 
   private static int [] zzUnpackcmap_top() {
     int [] result = new int[4352];
@@ -65,19 +67,18 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_CMAP_BLOCKS = zzUnpackcmap_blocks();
 
   private static final String ZZ_CMAP_BLOCKS_PACKED_0 =
-    "\11\0\1\1\1\2\1\3\1\4\1\5\22\0\1\1"+
-    "\1\6\1\7\2\0\1\10\1\11\1\12\1\13\1\14"+
-    "\1\15\1\16\1\17\1\20\1\21\1\22\12\23\1\24"+
-    "\1\25\1\26\1\27\1\30\1\31\1\0\4\32\1\33"+
-    "\25\32\1\34\1\35\1\36\1\0\1\32\1\0\1\37"+
-    "\1\40\1\41\1\42\1\43\1\44\1\45\1\46\1\47"+
-    "\1\32\1\50\1\51\1\52\1\53\1\54\1\55\1\56"+
-    "\1\57\1\60\1\61\1\62\1\63\1\64\1\65\1\66"+
-    "\1\32\1\67\1\70\1\71\7\0\1\3\u01a2\0\2\3"+
-    "\326\0\u0100\3";
+    "\11\0\1\1\1\2\1\0\1\1\1\3\22\0\1\1"+
+    "\1\4\1\5\1\0\1\6\1\7\1\10\1\11\1\12"+
+    "\1\13\1\14\1\15\1\16\1\17\1\20\1\21\12\22"+
+    "\1\23\1\24\1\25\1\26\1\27\1\30\1\0\4\31"+
+    "\1\32\25\31\1\33\1\34\1\35\1\0\1\31\1\36"+
+    "\1\37\1\40\1\41\1\42\1\43\1\44\1\45\1\46"+
+    "\1\47\1\31\1\50\1\51\1\52\1\53\1\54\1\55"+
+    "\1\56\1\57\1\60\1\61\1\62\1\63\1\64\1\65"+
+    "\1\66\1\31\1\67\1\70\1\71\u0282\0";
 
   private static int [] zzUnpackcmap_blocks() {
-    int [] result = new int[1024];
+    int [] result = new int[768];
     int offset = 0;
     offset = zzUnpackcmap_blocks(ZZ_CMAP_BLOCKS_PACKED_0, offset, result);
     return result;
@@ -101,21 +102,23 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_ACTION = zzUnpackAction();
 
   private static final String ZZ_ACTION_PACKED_0 =
-    "\2\0\1\1\1\2\1\3\1\1\1\4\2\1\1\5"+
+    "\4\0\1\1\1\2\1\3\1\4\1\5\1\1\1\4"+
     "\1\6\1\7\1\10\1\11\1\12\1\13\1\14\1\15"+
     "\1\16\1\17\1\20\1\21\1\22\1\23\1\24\1\25"+
-    "\1\26\16\24\1\27\1\1\1\30\1\31\1\0\1\32"+
-    "\1\0\1\33\2\0\1\34\1\35\1\36\1\37\1\40"+
-    "\1\0\1\41\1\42\1\15\1\0\1\43\1\44\1\45"+
-    "\3\24\1\46\1\47\10\24\1\50\11\24\1\51\4\0"+
-    "\1\15\7\24\1\52\11\24\1\53\1\24\1\54\1\24"+
-    "\1\55\3\24\1\56\5\24\1\57\4\24\1\60\2\24"+
-    "\1\61\1\62\2\24\1\63\6\24\1\64\1\24\1\65"+
-    "\1\24\1\66\2\24\1\67\2\24\1\70\2\24\1\71"+
-    "\3\24\1\72\1\73\1\24\1\74";
+    "\1\26\1\27\1\30\17\25\1\31\1\1\1\32\4\33"+
+    "\1\0\2\33\1\34\1\35\1\36\1\37\2\4\1\0"+
+    "\1\40\1\4\1\0\1\41\1\42\1\43\1\44\1\45"+
+    "\2\0\1\46\1\47\1\16\1\0\1\50\1\51\1\52"+
+    "\1\53\1\54\1\55\4\25\1\56\1\57\10\25\1\60"+
+    "\11\25\1\61\1\0\1\62\1\63\1\64\2\0\1\16"+
+    "\11\25\1\65\11\25\1\66\1\25\1\67\1\25\1\70"+
+    "\1\71\4\25\1\72\1\73\5\25\1\74\4\25\1\75"+
+    "\2\25\1\76\1\77\1\100\2\25\1\101\6\25\1\102"+
+    "\1\25\1\103\1\25\1\104\2\25\1\105\2\25\1\106"+
+    "\2\25\1\107\3\25\1\110\1\111\1\25\1\112";
 
   private static int [] zzUnpackAction() {
-    int [] result = new int[164];
+    int [] result = new int[191];
     int offset = 0;
     offset = zzUnpackAction(ZZ_ACTION_PACKED_0, offset, result);
     return result;
@@ -140,30 +143,33 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_ROWMAP = zzUnpackRowMap();
 
   private static final String ZZ_ROWMAP_PACKED_0 =
-    "\0\0\0\72\0\72\0\164\0\256\0\350\0\72\0\u0122"+
-    "\0\u015c\0\72\0\72\0\u0196\0\u01d0\0\72\0\u020a\0\72"+
-    "\0\u0244\0\u027e\0\72\0\72\0\u02b8\0\u02f2\0\u032c\0\72"+
-    "\0\u0366\0\72\0\72\0\u03a0\0\u03da\0\u0414\0\u044e\0\u0488"+
-    "\0\u04c2\0\u04fc\0\u0536\0\u0570\0\u05aa\0\u05e4\0\u061e\0\u0658"+
-    "\0\u0692\0\72\0\u06cc\0\72\0\72\0\350\0\72\0\u0706"+
-    "\0\72\0\u015c\0\u0740\0\72\0\72\0\72\0\72\0\72"+
-    "\0\u077a\0\u07b4\0\72\0\u07ee\0\u0828\0\72\0\72\0\72"+
-    "\0\u0862\0\u089c\0\u08d6\0\u0366\0\u0366\0\u0910\0\u094a\0\u0984"+
-    "\0\u09be\0\u09f8\0\u0a32\0\u0a6c\0\u0aa6\0\u0366\0\u0ae0\0\u0b1a"+
-    "\0\u0b54\0\u0b8e\0\u0bc8\0\u0c02\0\u0c3c\0\u0c76\0\u0cb0\0\72"+
-    "\0\u0cea\0\u0d24\0\u0d5e\0\u0d98\0\u0d98\0\u0dd2\0\u0e0c\0\u0e46"+
-    "\0\u0e80\0\u0eba\0\u0ef4\0\u0f2e\0\u0366\0\u0f68\0\u0fa2\0\u0fdc"+
-    "\0\u1016\0\u1050\0\u108a\0\u10c4\0\u10fe\0\u1138\0\u0366\0\u1172"+
-    "\0\u0366\0\u11ac\0\72\0\u11e6\0\u1220\0\u125a\0\u0366\0\u1294"+
-    "\0\u12ce\0\u1308\0\u1342\0\u137c\0\u0366\0\u13b6\0\u13f0\0\u142a"+
-    "\0\u1464\0\u0366\0\u149e\0\u14d8\0\u0366\0\u0366\0\u1512\0\u154c"+
-    "\0\u0366\0\u1586\0\u15c0\0\u15fa\0\u1634\0\u166e\0\u16a8\0\u0366"+
-    "\0\u16e2\0\u0366\0\u171c\0\u0366\0\u1756\0\u1790\0\u0366\0\u17ca"+
-    "\0\u1804\0\u0366\0\u183e\0\u1878\0\u0366\0\u18b2\0\u18ec\0\u1926"+
-    "\0\u0366\0\u0366\0\u1960\0\u0366";
+    "\0\0\0\72\0\164\0\256\0\350\0\u0122\0\u015c\0\u0196"+
+    "\0\350\0\u01d0\0\u020a\0\350\0\350\0\u0244\0\u027e\0\350"+
+    "\0\u02b8\0\u02f2\0\u032c\0\u0366\0\u03a0\0\350\0\u03da\0\u0414"+
+    "\0\u044e\0\u0488\0\u04c2\0\350\0\350\0\350\0\u04fc\0\u0536"+
+    "\0\u0570\0\u05aa\0\u05e4\0\u061e\0\u0658\0\u0692\0\u06cc\0\u0706"+
+    "\0\u0740\0\u077a\0\u07b4\0\u07ee\0\u0828\0\350\0\u0862\0\350"+
+    "\0\u089c\0\350\0\u08d6\0\u0910\0\u094a\0\u0984\0\u09be\0\350"+
+    "\0\350\0\350\0\350\0\u09f8\0\u0a32\0\u0a6c\0\350\0\350"+
+    "\0\u0aa6\0\350\0\350\0\350\0\350\0\350\0\u0ae0\0\u0b1a"+
+    "\0\u0b54\0\350\0\u0b8e\0\u0bc8\0\350\0\350\0\350\0\350"+
+    "\0\350\0\350\0\u0c02\0\u0c3c\0\u0c76\0\u0cb0\0\u04c2\0\u04c2"+
+    "\0\u0cea\0\u0d24\0\u0d5e\0\u0d98\0\u0dd2\0\u0e0c\0\u0e46\0\u0e80"+
+    "\0\u04c2\0\u0eba\0\u0ef4\0\u0f2e\0\u0f68\0\u0fa2\0\u0fdc\0\u1016"+
+    "\0\u1050\0\u108a\0\350\0\u10c4\0\350\0\350\0\350\0\u10fe"+
+    "\0\u1138\0\u1138\0\u1172\0\u11ac\0\u11e6\0\u1220\0\u125a\0\u1294"+
+    "\0\u12ce\0\u1308\0\u1342\0\u04c2\0\u137c\0\u13b6\0\u13f0\0\u142a"+
+    "\0\u1464\0\u149e\0\u14d8\0\u1512\0\u154c\0\u04c2\0\u1586\0\u04c2"+
+    "\0\u15c0\0\350\0\350\0\u15fa\0\u1634\0\u166e\0\u16a8\0\u04c2"+
+    "\0\u04c2\0\u16e2\0\u171c\0\u1756\0\u1790\0\u17ca\0\u04c2\0\u1804"+
+    "\0\u183e\0\u1878\0\u18b2\0\u04c2\0\u18ec\0\u1926\0\u04c2\0\u04c2"+
+    "\0\u04c2\0\u1960\0\u199a\0\u04c2\0\u19d4\0\u1a0e\0\u1a48\0\u1a82"+
+    "\0\u1abc\0\u1af6\0\u04c2\0\u1b30\0\u04c2\0\u1b6a\0\u04c2\0\u1ba4"+
+    "\0\u1bde\0\u04c2\0\u1c18\0\u1c52\0\u04c2\0\u1c8c\0\u1cc6\0\u04c2"+
+    "\0\u1d00\0\u1d3a\0\u1d74\0\u04c2\0\u04c2\0\u1dae\0\u04c2";
 
   private static int [] zzUnpackRowMap() {
-    int [] result = new int[164];
+    int [] result = new int[191];
     int offset = 0;
     offset = zzUnpackRowMap(ZZ_ROWMAP_PACKED_0, offset, result);
     return result;
@@ -186,116 +192,135 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_TRANS = zzUnpacktrans();
 
   private static final String ZZ_TRANS_PACKED_0 =
-    "\1\3\2\4\1\3\1\4\1\3\1\5\1\6\1\7"+
-    "\1\10\1\11\1\12\1\13\1\14\1\15\1\16\1\17"+
-    "\1\20\1\21\1\22\1\23\1\24\1\25\1\26\1\27"+
-    "\1\30\2\31\1\32\1\3\1\33\1\31\1\34\1\35"+
-    "\1\36\1\37\1\40\1\31\1\41\1\42\1\31\1\43"+
-    "\1\31\1\44\3\31\1\45\1\31\1\46\1\47\1\50"+
-    "\1\51\2\31\1\52\1\53\1\54\73\0\2\4\1\0"+
-    "\1\4\114\0\1\55\42\0\7\56\1\57\25\56\1\60"+
-    "\34\56\11\0\1\61\60\0\12\62\1\57\22\62\1\63"+
-    "\34\62\27\0\1\64\60\0\1\65\10\0\1\66\62\0"+
-    "\1\67\6\0\1\70\57\0\1\71\4\0\1\72\4\0"+
-    "\1\73\63\0\1\74\1\0\1\22\7\0\1\75\7\0"+
-    "\1\75\55\0\1\76\71\0\1\77\71\0\1\100\65\0"+
-    "\1\31\6\0\2\31\3\0\30\31\26\0\1\31\6\0"+
-    "\2\31\3\0\20\31\1\101\7\31\26\0\1\31\6\0"+
-    "\2\31\3\0\1\102\14\31\1\103\12\31\26\0\1\31"+
-    "\6\0\2\31\3\0\1\31\1\104\13\31\1\105\12\31"+
-    "\26\0\1\31\6\0\2\31\3\0\12\31\1\106\1\31"+
-    "\1\107\11\31\1\110\1\31\26\0\1\31\6\0\2\31"+
-    "\3\0\1\111\7\31\1\112\4\31\1\113\5\31\1\114"+
-    "\4\31\26\0\1\31\6\0\2\31\3\0\22\31\1\115"+
-    "\5\31\26\0\1\31\6\0\2\31\3\0\5\31\1\116"+
-    "\5\31\1\117\14\31\26\0\1\31\6\0\2\31\3\0"+
-    "\15\31\1\120\12\31\26\0\1\31\6\0\2\31\3\0"+
-    "\23\31\1\121\4\31\26\0\1\31\6\0\2\31\3\0"+
-    "\4\31\1\122\23\31\26\0\1\31\6\0\2\31\3\0"+
-    "\7\31\1\123\10\31\1\124\7\31\26\0\1\31\6\0"+
-    "\2\31\3\0\14\31\1\125\13\31\26\0\1\31\6\0"+
-    "\2\31\3\0\1\126\27\31\26\0\1\31\6\0\2\31"+
-    "\3\0\7\31\1\127\20\31\73\0\1\130\36\0\1\131"+
-    "\71\0\1\132\34\0\15\71\1\133\54\71\2\72\1\0"+
-    "\2\72\1\0\64\72\23\0\1\74\7\0\1\75\7\0"+
-    "\1\75\44\0\1\134\1\0\1\134\2\0\1\135\71\0"+
-    "\1\31\6\0\2\31\3\0\4\31\1\136\23\31\26\0"+
-    "\1\31\6\0\2\31\3\0\22\31\1\137\5\31\26\0"+
-    "\1\31\6\0\2\31\3\0\14\31\1\140\13\31\26\0"+
-    "\1\31\6\0\2\31\3\0\21\31\1\141\6\31\26\0"+
-    "\1\31\6\0\2\31\3\0\24\31\1\104\3\31\26\0"+
-    "\1\31\6\0\2\31\3\0\16\31\1\142\11\31\26\0"+
-    "\1\31\6\0\2\31\3\0\12\31\1\143\15\31\26\0"+
-    "\1\31\6\0\2\31\3\0\14\31\1\144\13\31\26\0"+
-    "\1\31\6\0\2\31\3\0\20\31\1\145\7\31\26\0"+
-    "\1\31\6\0\2\31\3\0\14\31\1\146\13\31\26\0"+
-    "\1\31\6\0\2\31\3\0\22\31\1\147\5\31\26\0"+
-    "\1\31\6\0\2\31\3\0\16\31\1\150\11\31\26\0"+
-    "\1\31\6\0\2\31\3\0\6\31\1\104\21\31\26\0"+
-    "\1\31\6\0\2\31\3\0\12\31\1\151\15\31\26\0"+
-    "\1\31\6\0\2\31\3\0\17\31\1\152\1\31\1\153"+
-    "\1\154\5\31\26\0\1\31\6\0\2\31\3\0\20\31"+
-    "\1\155\7\31\26\0\1\31\6\0\2\31\3\0\23\31"+
-    "\1\156\3\31\1\157\26\0\1\31\6\0\2\31\3\0"+
-    "\3\31\1\160\24\31\26\0\1\31\6\0\2\31\3\0"+
-    "\20\31\1\161\7\31\26\0\1\31\6\0\2\31\3\0"+
-    "\10\31\1\162\17\31\3\0\2\56\4\0\64\56\2\62"+
-    "\4\0\64\62\22\71\1\163\47\71\23\0\1\135\71\0"+
-    "\1\31\6\0\2\31\3\0\1\164\27\31\26\0\1\31"+
-    "\6\0\2\31\3\0\2\31\1\165\25\31\26\0\1\31"+
-    "\6\0\2\31\3\0\22\31\1\166\5\31\26\0\1\31"+
-    "\6\0\2\31\3\0\4\31\1\167\23\31\26\0\1\31"+
-    "\6\0\2\31\3\0\15\31\1\170\12\31\26\0\1\31"+
-    "\6\0\2\31\3\0\21\31\1\171\6\31\26\0\1\31"+
-    "\6\0\2\31\3\0\1\172\27\31\26\0\1\31\6\0"+
-    "\2\31\3\0\2\31\1\173\25\31\26\0\1\31\6\0"+
-    "\2\31\3\0\16\31\1\104\11\31\26\0\1\31\6\0"+
-    "\2\31\3\0\15\31\1\174\12\31\26\0\1\31\6\0"+
-    "\2\31\3\0\12\31\1\175\15\31\26\0\1\31\6\0"+
-    "\2\31\3\0\23\31\1\176\4\31\26\0\1\31\6\0"+
-    "\2\31\3\0\16\31\1\177\11\31\26\0\1\31\6\0"+
-    "\2\31\3\0\23\31\1\200\4\31\26\0\1\31\6\0"+
-    "\2\31\3\0\15\31\1\201\12\31\26\0\1\31\6\0"+
-    "\2\31\3\0\4\31\1\202\23\31\26\0\1\31\6\0"+
-    "\2\31\3\0\4\31\1\203\23\31\26\0\1\31\6\0"+
-    "\2\31\3\0\12\31\1\204\15\31\26\0\1\31\6\0"+
-    "\2\31\3\0\11\31\1\205\16\31\26\0\1\31\6\0"+
-    "\2\31\3\0\7\31\1\206\20\31\26\0\1\31\6\0"+
-    "\2\31\3\0\10\31\1\207\17\31\26\0\1\31\6\0"+
-    "\2\31\3\0\20\31\1\210\7\31\26\0\1\31\6\0"+
-    "\2\31\3\0\4\31\1\211\23\31\26\0\1\31\6\0"+
-    "\2\31\3\0\12\31\1\212\15\31\26\0\1\31\6\0"+
-    "\2\31\3\0\22\31\1\213\5\31\26\0\1\31\6\0"+
-    "\2\31\3\0\20\31\1\214\7\31\26\0\1\31\6\0"+
-    "\2\31\3\0\4\31\1\215\23\31\26\0\1\31\6\0"+
-    "\2\31\3\0\15\31\1\216\12\31\26\0\1\31\6\0"+
-    "\2\31\3\0\20\31\1\217\7\31\26\0\1\31\6\0"+
-    "\2\31\3\0\25\31\1\220\2\31\26\0\1\31\6\0"+
-    "\2\31\3\0\5\31\1\221\22\31\26\0\1\31\6\0"+
-    "\2\31\3\0\4\31\1\222\23\31\26\0\1\31\6\0"+
-    "\2\31\3\0\14\31\1\223\13\31\26\0\1\31\6\0"+
-    "\2\31\3\0\22\31\1\224\5\31\26\0\1\31\6\0"+
-    "\2\31\3\0\12\31\1\225\15\31\26\0\1\31\6\0"+
-    "\2\31\3\0\10\31\1\226\17\31\26\0\1\31\6\0"+
-    "\2\31\3\0\22\31\1\227\5\31\26\0\1\31\6\0"+
-    "\2\31\3\0\21\31\1\230\6\31\26\0\1\31\6\0"+
-    "\2\31\3\0\14\31\1\231\13\31\26\0\1\31\6\0"+
-    "\2\31\3\0\14\31\1\232\13\31\26\0\1\31\6\0"+
-    "\2\31\3\0\10\31\1\233\17\31\26\0\1\31\6\0"+
-    "\2\31\3\0\23\31\1\234\4\31\26\0\1\31\6\0"+
-    "\2\31\3\0\27\31\1\235\26\0\1\31\6\0\2\31"+
-    "\3\0\15\31\1\236\12\31\26\0\1\31\6\0\2\31"+
-    "\3\0\22\31\1\104\5\31\26\0\1\31\6\0\2\31"+
-    "\3\0\21\31\1\237\6\31\26\0\1\31\6\0\2\31"+
-    "\3\0\14\31\1\240\13\31\26\0\1\31\6\0\2\31"+
-    "\3\0\4\31\1\241\23\31\26\0\1\31\6\0\2\31"+
-    "\3\0\14\31\1\242\13\31\26\0\1\31\6\0\2\31"+
-    "\3\0\4\31\1\104\23\31\26\0\1\31\6\0\2\31"+
-    "\3\0\4\31\1\243\23\31\26\0\1\31\6\0\2\31"+
-    "\3\0\3\31\1\244\24\31\3\0";
+    "\1\5\3\6\1\7\1\10\1\5\1\11\1\12\1\13"+
+    "\1\14\1\15\1\16\1\17\1\20\1\21\1\22\1\23"+
+    "\1\24\1\25\1\26\1\27\1\30\1\31\1\32\2\33"+
+    "\1\34\1\5\1\35\1\36\1\37\1\40\1\41\1\42"+
+    "\1\43\1\44\1\33\1\45\1\46\1\33\1\47\1\33"+
+    "\1\50\3\33\1\51\1\33\1\52\1\53\1\54\1\55"+
+    "\2\33\1\56\1\57\1\60\2\61\1\62\1\63\1\61"+
+    "\1\64\26\61\1\65\35\61\2\66\1\62\1\63\2\66"+
+    "\1\67\25\66\1\65\1\66\1\70\33\66\1\5\3\6"+
+    "\1\7\1\10\1\5\1\11\1\12\1\13\1\14\1\15"+
+    "\1\16\1\17\1\20\1\21\1\22\1\23\1\24\1\25"+
+    "\1\26\1\27\1\30\1\31\1\32\2\33\1\34\1\5"+
+    "\1\35\1\36\1\37\1\40\1\41\1\42\1\43\1\44"+
+    "\1\33\1\45\1\46\1\33\1\47\1\33\1\50\3\33"+
+    "\1\51\1\33\1\52\1\53\1\54\1\55\2\33\1\71"+
+    "\1\57\1\72\73\0\3\6\114\0\1\73\43\0\2\74"+
+    "\2\0\1\74\1\75\26\74\1\76\35\74\10\0\1\77"+
+    "\61\0\2\13\2\0\5\13\1\100\22\13\1\101\35\13"+
+    "\26\0\1\102\60\0\1\103\10\0\1\104\62\0\1\105"+
+    "\6\0\1\106\63\0\1\107\65\0\1\110\4\0\1\111"+
+    "\4\0\1\112\63\0\1\113\1\0\1\24\7\0\1\114"+
+    "\10\0\1\114\51\0\1\115\74\0\1\116\71\0\1\117"+
+    "\1\120\70\0\1\121\63\0\1\122\73\0\1\33\6\0"+
+    "\2\33\4\0\30\33\25\0\1\33\6\0\2\33\4\0"+
+    "\21\33\1\123\6\33\25\0\1\33\6\0\2\33\4\0"+
+    "\20\33\1\124\7\33\25\0\1\33\6\0\2\33\4\0"+
+    "\1\125\14\33\1\126\12\33\25\0\1\33\6\0\2\33"+
+    "\4\0\1\33\1\127\13\33\1\130\12\33\25\0\1\33"+
+    "\6\0\2\33\4\0\12\33\1\131\1\33\1\132\11\33"+
+    "\1\133\1\33\25\0\1\33\6\0\2\33\4\0\1\134"+
+    "\7\33\1\135\4\33\1\136\5\33\1\137\4\33\25\0"+
+    "\1\33\6\0\2\33\4\0\22\33\1\140\5\33\25\0"+
+    "\1\33\6\0\2\33\4\0\5\33\1\141\5\33\1\142"+
+    "\14\33\25\0\1\33\6\0\2\33\4\0\15\33\1\143"+
+    "\12\33\25\0\1\33\6\0\2\33\4\0\23\33\1\144"+
+    "\4\33\25\0\1\33\6\0\2\33\4\0\4\33\1\145"+
+    "\23\33\25\0\1\33\6\0\2\33\4\0\7\33\1\146"+
+    "\10\33\1\147\7\33\25\0\1\33\6\0\2\33\4\0"+
+    "\14\33\1\150\13\33\25\0\1\33\6\0\2\33\4\0"+
+    "\1\151\27\33\25\0\1\33\6\0\2\33\4\0\7\33"+
+    "\1\152\20\33\73\0\1\153\1\0\2\61\2\0\1\61"+
+    "\1\0\26\61\1\0\35\61\2\0\1\62\74\0\1\154"+
+    "\64\0\72\62\2\66\2\0\2\66\1\0\25\66\1\0"+
+    "\1\66\1\0\33\66\67\0\1\155\2\0\2\74\2\0"+
+    "\1\74\1\100\26\74\1\76\35\74\5\0\1\156\64\0"+
+    "\2\74\2\0\66\74\2\13\2\0\66\13\20\0\1\157"+
+    "\51\0\14\110\1\160\55\110\2\111\2\0\66\111\22\0"+
+    "\1\113\7\0\1\114\10\0\1\114\43\0\1\161\1\0"+
+    "\1\161\2\0\1\162\71\0\1\33\6\0\2\33\4\0"+
+    "\27\33\1\163\25\0\1\33\6\0\2\33\4\0\4\33"+
+    "\1\164\23\33\25\0\1\33\6\0\2\33\4\0\22\33"+
+    "\1\165\5\33\25\0\1\33\6\0\2\33\4\0\14\33"+
+    "\1\166\13\33\25\0\1\33\6\0\2\33\4\0\21\33"+
+    "\1\167\6\33\25\0\1\33\6\0\2\33\4\0\24\33"+
+    "\1\127\3\33\25\0\1\33\6\0\2\33\4\0\10\33"+
+    "\1\170\5\33\1\171\11\33\25\0\1\33\6\0\2\33"+
+    "\4\0\12\33\1\172\15\33\25\0\1\33\6\0\2\33"+
+    "\4\0\14\33\1\173\13\33\25\0\1\33\6\0\2\33"+
+    "\4\0\20\33\1\174\7\33\25\0\1\33\6\0\2\33"+
+    "\4\0\14\33\1\175\13\33\25\0\1\33\6\0\2\33"+
+    "\4\0\22\33\1\176\5\33\25\0\1\33\6\0\2\33"+
+    "\4\0\16\33\1\177\11\33\25\0\1\33\6\0\2\33"+
+    "\4\0\6\33\1\127\21\33\25\0\1\33\6\0\2\33"+
+    "\4\0\12\33\1\200\15\33\25\0\1\33\6\0\2\33"+
+    "\4\0\17\33\1\201\1\33\1\202\1\203\5\33\25\0"+
+    "\1\33\6\0\2\33\4\0\20\33\1\204\7\33\25\0"+
+    "\1\33\6\0\2\33\4\0\23\33\1\205\3\33\1\206"+
+    "\25\0\1\33\6\0\2\33\4\0\3\33\1\207\24\33"+
+    "\25\0\1\33\6\0\2\33\4\0\20\33\1\210\7\33"+
+    "\25\0\1\33\6\0\2\33\4\0\10\33\1\211\17\33"+
+    "\10\0\1\212\64\0\21\110\1\213\50\110\22\0\1\162"+
+    "\71\0\1\33\6\0\2\33\4\0\14\33\1\214\13\33"+
+    "\25\0\1\33\6\0\2\33\4\0\1\215\27\33\25\0"+
+    "\1\33\6\0\2\33\4\0\2\33\1\216\25\33\25\0"+
+    "\1\33\6\0\2\33\4\0\22\33\1\217\5\33\25\0"+
+    "\1\33\6\0\2\33\4\0\4\33\1\220\23\33\25\0"+
+    "\1\33\6\0\2\33\4\0\22\33\1\221\5\33\25\0"+
+    "\1\33\6\0\2\33\4\0\15\33\1\222\12\33\25\0"+
+    "\1\33\6\0\2\33\4\0\21\33\1\223\6\33\25\0"+
+    "\1\33\6\0\2\33\4\0\1\224\27\33\25\0\1\33"+
+    "\6\0\2\33\4\0\2\33\1\225\25\33\25\0\1\33"+
+    "\6\0\2\33\4\0\16\33\1\127\11\33\25\0\1\33"+
+    "\6\0\2\33\4\0\15\33\1\226\12\33\25\0\1\33"+
+    "\6\0\2\33\4\0\12\33\1\227\15\33\25\0\1\33"+
+    "\6\0\2\33\4\0\23\33\1\230\4\33\25\0\1\33"+
+    "\6\0\2\33\4\0\16\33\1\231\11\33\25\0\1\33"+
+    "\6\0\2\33\4\0\23\33\1\232\4\33\25\0\1\33"+
+    "\6\0\2\33\4\0\15\33\1\233\12\33\25\0\1\33"+
+    "\6\0\2\33\4\0\4\33\1\234\23\33\25\0\1\33"+
+    "\6\0\2\33\4\0\4\33\1\235\23\33\25\0\1\33"+
+    "\6\0\2\33\4\0\12\33\1\236\15\33\25\0\1\33"+
+    "\6\0\2\33\4\0\2\33\1\237\25\33\25\0\1\33"+
+    "\6\0\2\33\4\0\11\33\1\240\16\33\25\0\1\33"+
+    "\6\0\2\33\4\0\7\33\1\241\20\33\25\0\1\33"+
+    "\6\0\2\33\4\0\10\33\1\242\17\33\25\0\1\33"+
+    "\6\0\2\33\4\0\20\33\1\243\7\33\25\0\1\33"+
+    "\6\0\2\33\4\0\4\33\1\244\23\33\25\0\1\33"+
+    "\6\0\2\33\4\0\12\33\1\245\15\33\25\0\1\33"+
+    "\6\0\2\33\4\0\22\33\1\246\5\33\25\0\1\33"+
+    "\6\0\2\33\4\0\20\33\1\247\7\33\25\0\1\33"+
+    "\6\0\2\33\4\0\4\33\1\250\23\33\25\0\1\33"+
+    "\6\0\2\33\4\0\15\33\1\251\12\33\25\0\1\33"+
+    "\6\0\2\33\4\0\20\33\1\252\7\33\25\0\1\33"+
+    "\6\0\2\33\4\0\25\33\1\253\2\33\25\0\1\33"+
+    "\6\0\2\33\4\0\5\33\1\254\22\33\25\0\1\33"+
+    "\6\0\2\33\4\0\4\33\1\255\23\33\25\0\1\33"+
+    "\6\0\2\33\4\0\14\33\1\256\13\33\25\0\1\33"+
+    "\6\0\2\33\4\0\22\33\1\257\5\33\25\0\1\33"+
+    "\6\0\2\33\4\0\12\33\1\260\15\33\25\0\1\33"+
+    "\6\0\2\33\4\0\10\33\1\261\17\33\25\0\1\33"+
+    "\6\0\2\33\4\0\22\33\1\262\5\33\25\0\1\33"+
+    "\6\0\2\33\4\0\21\33\1\263\6\33\25\0\1\33"+
+    "\6\0\2\33\4\0\14\33\1\264\13\33\25\0\1\33"+
+    "\6\0\2\33\4\0\14\33\1\265\13\33\25\0\1\33"+
+    "\6\0\2\33\4\0\10\33\1\266\17\33\25\0\1\33"+
+    "\6\0\2\33\4\0\23\33\1\267\4\33\25\0\1\33"+
+    "\6\0\2\33\4\0\27\33\1\270\25\0\1\33\6\0"+
+    "\2\33\4\0\15\33\1\271\12\33\25\0\1\33\6\0"+
+    "\2\33\4\0\22\33\1\127\5\33\25\0\1\33\6\0"+
+    "\2\33\4\0\21\33\1\272\6\33\25\0\1\33\6\0"+
+    "\2\33\4\0\14\33\1\273\13\33\25\0\1\33\6\0"+
+    "\2\33\4\0\4\33\1\274\23\33\25\0\1\33\6\0"+
+    "\2\33\4\0\14\33\1\275\13\33\25\0\1\33\6\0"+
+    "\2\33\4\0\4\33\1\127\23\33\25\0\1\33\6\0"+
+    "\2\33\4\0\4\33\1\276\23\33\25\0\1\33\6\0"+
+    "\2\33\4\0\3\33\1\277\24\33\3\0";
 
   private static int [] zzUnpacktrans() {
-    int [] result = new int[6554];
+    int [] result = new int[7656];
     int offset = 0;
     offset = zzUnpacktrans(ZZ_TRANS_PACKED_0, offset, result);
     return result;
@@ -333,14 +358,15 @@ public class MagicScriptLexer implements FlexLexer {
   private static final int [] ZZ_ATTRIBUTE = zzUnpackAttribute();
 
   private static final String ZZ_ATTRIBUTE_PACKED_0 =
-    "\1\0\1\10\1\11\3\1\1\11\2\1\2\11\2\1"+
-    "\1\11\1\1\1\11\2\1\2\11\3\1\1\11\1\1"+
-    "\2\11\16\1\1\11\1\1\2\11\1\0\1\11\1\0"+
-    "\1\11\2\0\5\11\1\0\1\1\1\11\1\1\1\0"+
-    "\3\11\27\1\1\11\4\0\26\1\1\11\61\1";
+    "\4\0\1\11\3\1\1\11\2\1\2\11\2\1\1\11"+
+    "\5\1\1\11\5\1\3\11\17\1\1\11\1\1\1\11"+
+    "\1\1\1\11\2\1\1\0\2\1\4\11\2\1\1\0"+
+    "\2\11\1\0\5\11\2\0\1\1\1\11\1\1\1\0"+
+    "\6\11\30\1\1\11\1\0\3\11\2\0\30\1\2\11"+
+    "\64\1";
 
   private static int [] zzUnpackAttribute() {
-    int [] result = new int[164];
+    int [] result = new int[191];
     int offset = 0;
     offset = zzUnpackAttribute(ZZ_ATTRIBUTE_PACKED_0, offset, result);
     return result;
@@ -386,7 +412,6 @@ public class MagicScriptLexer implements FlexLexer {
 
   /** zzAtEOF == true <=> the scanner is at the EOF */
   private boolean zzAtEOF;
-
   /** Number of newlines encountered up to the start of the matched text. */
   @SuppressWarnings("unused")
   private int yyline;
@@ -406,6 +431,66 @@ public class MagicScriptLexer implements FlexLexer {
   /** Whether the user-EOF-code has already been executed. */
   private boolean zzEOFDone;
 
+  /* user code: */
+  // 未闭合的 ${...} 插值嵌套：低 3 位为层数，其后每层 4 位记录该层内尚未配对的 '{' 数量。
+  // 由 MagicScriptLexerAdapter 与词法状态一起编码进 getState()，使词法分析器可以从任意记录过的位置重启。
+  private static final int LEVEL_BITS = 3;
+  private static final int DEPTH_BITS = 4;
+  private static final int MAX_LEVELS = 6;
+  private static final int MAX_DEPTH = (1 << DEPTH_BITS) - 1;
+
+  private int nesting;
+
+  public int getNestingState() {
+    return nesting;
+  }
+
+  public void setNestingState(int nesting) {
+    this.nesting = nesting;
+  }
+
+  private int levels() {
+    return nesting & ((1 << LEVEL_BITS) - 1);
+  }
+
+  private int depthShift(int level) {
+    return LEVEL_BITS + DEPTH_BITS * level;
+  }
+
+  private void pushInterpolation() {
+    int levels = levels();
+    if (levels < MAX_LEVELS) {
+      nesting = (nesting & ~(MAX_DEPTH << depthShift(levels)) & ~((1 << LEVEL_BITS) - 1)) | (levels + 1);
+    }
+    yybegin(INTERPOLATION);
+  }
+
+  private void popInterpolation() {
+    int levels = levels();
+    if (levels > 0) {
+      nesting = (nesting & ~(MAX_DEPTH << depthShift(levels - 1)) & ~((1 << LEVEL_BITS) - 1)) | (levels - 1);
+    }
+    yybegin(TEMPLATE);
+  }
+
+  private int braceDepth() {
+    int levels = levels();
+    return levels == 0 ? 0 : (nesting >>> depthShift(levels - 1)) & MAX_DEPTH;
+  }
+
+  private void setBraceDepth(int depth) {
+    int levels = levels();
+    if (levels > 0) {
+      int shift = depthShift(levels - 1);
+      nesting = (nesting & ~(MAX_DEPTH << shift)) | (Math.min(depth, MAX_DEPTH) << shift);
+    }
+  }
+
+  /** 字符串结束后回到外层：仍在某个插值表达式内部时回到 INTERPOLATION，否则回到 YYINITIAL */
+  private void leaveString() {
+    yybegin(levels() > 0 ? INTERPOLATION : YYINITIAL);
+  }
+
 
   /**
    * Creates a new scanner
@@ -556,7 +641,6 @@ public class MagicScriptLexer implements FlexLexer {
     zzMarkedPos -= number;
   }
 
-
   /**
    * Contains user EOF-code, which will be executed exactly once,
    * when the end of file is reached
@@ -570,6 +654,8 @@ public class MagicScriptLexer implements FlexLexer {
   }
 
 
+
+
   /**
    * Resumes scanning until the next regular expression is matched,
    * the end of input is encountered or an I/O-Error occurs.
@@ -666,305 +752,381 @@ public class MagicScriptLexer implements FlexLexer {
             { return TokenType.BAD_CHARACTER;
             }
           // fall through
-          case 61: break;
+          case 75: break;
           case 2:
             { return TokenType.WHITE_SPACE;
             }
           // fall through
-          case 62: break;
+          case 76: break;
           case 3:
             { return MSTypes.NOT;
             }
           // fall through
-          case 63: break;
+          case 77: break;
           case 4:
-            { return MSTypes.MODULO;
+            { return MSTypes.STRING_LITERAL;
             }
           // fall through
-          case 64: break;
+          case 78: break;
           case 5:
-            { return MSTypes.LPAREN;
+            { return MSTypes.MODULO;
             }
           // fall through
-          case 65: break;
+          case 79: break;
           case 6:
-            { return MSTypes.RPAREN;
+            { return MSTypes.LPAREN;
             }
           // fall through
-          case 66: break;
+          case 80: break;
           case 7:
-            { return MSTypes.MULTIPLY;
+            { return MSTypes.RPAREN;
             }
           // fall through
-          case 67: break;
+          case 81: break;
           case 8:
-            { return MSTypes.PLUS;
+            { return MSTypes.MULTIPLY;
             }
           // fall through
-          case 68: break;
+          case 82: break;
           case 9:
-            { return MSTypes.COMMA;
+            { return MSTypes.PLUS;
             }
           // fall through
-          case 69: break;
+          case 83: break;
           case 10:
-            { return MSTypes.MINUS;
+            { return MSTypes.COMMA;
             }
           // fall through
-          case 70: break;
+          case 84: break;
           case 11:
-            { return MSTypes.DOT;
+            { return MSTypes.MINUS;
             }
           // fall through
-          case 71: break;
+          case 85: break;
           case 12:
-            { return MSTypes.DIVIDE;
+            { return MSTypes.DOT;
             }
           // fall through
-          case 72: break;
+          case 86: break;
           case 13:
-            { return MSTypes.NUMBER_LITERAL;
+            { return MSTypes.DIVIDE;
             }
           // fall through
-          case 73: break;
+          case 87: break;
           case 14:
-            { return MSTypes.COLON;
+            { return MSTypes.NUMBER_LITERAL;
             }
           // fall through
-          case 74: break;
+          case 88: break;
           case 15:
-            { return MSTypes.SEMICOLON;
+            { return MSTypes.COLON;
             }
           // fall through
-          case 75: break;
+          case 89: break;
           case 16:
-            { return MSTypes.LT;
+            { return MSTypes.SEMICOLON;
             }
           // fall through
-          case 76: break;
+          case 90: break;
           case 17:
-            { return MSTypes.ASSIGN;
+            { return MSTypes.LT;
             }
           // fall through
-          case 77: break;
+          case 91: break;
           case 18:
-            { return MSTypes.GT;
+            { return MSTypes.ASSIGN;
             }
           // fall through
-          case 78: break;
+          case 92: break;
           case 19:
-            { return MSTypes.QUESTION;
+            { return MSTypes.GT;
             }
           // fall through
-          case 79: break;
+          case 93: break;
           case 20:
-            { return MSTypes.IDENTIFIER;
+            { return MSTypes.QUESTION;
             }
           // fall through
-          case 80: break;
+          case 94: break;
           case 21:
-            { return MSTypes.LBRACKET;
+            { return MSTypes.IDENTIFIER;
             }
           // fall through
-          case 81: break;
+          case 95: break;
           case 22:
-            { return MSTypes.RBRACKET;
+            { return MSTypes.LBRACKET;
             }
           // fall through
-          case 82: break;
+          case 96: break;
           case 23:
-            { return MSTypes.LBRACE;
+            { return MSTypes.RBRACKET;
             }
           // fall through
-          case 83: break;
+          case 97: break;
           case 24:
-            { return MSTypes.RBRACE;
+            { yybegin(TEMPLATE); return MSTypes.TEMPLATE_QUOTE;
             }
           // fall through
-          case 84: break;
+          case 98: break;
           case 25:
-            { return MSTypes.NE;
+            { return MSTypes.LBRACE;
             }
           // fall through
-          case 85: break;
+          case 99: break;
           case 26:
-            { return MSTypes.STRING_LITERAL;
+            { return MSTypes.RBRACE;
             }
           // fall through
-          case 86: break;
+          case 100: break;
           case 27:
-            { return MSTypes.AND;
+            { return MSTypes.STRING_CONTENT;
             }
           // fall through
-          case 87: break;
+          case 101: break;
           case 28:
-            { return MSTypes.MULTIPLY_ASSIGN;
+            { leaveString(); return MSTypes.TEMPLATE_QUOTE;
             }
           // fall through
-          case 88: break;
+          case 102: break;
           case 29:
-            { return MSTypes.INCREMENT;
+            { setBraceDepth(braceDepth() + 1); return MSTypes.LBRACE;
             }
           // fall through
-          case 89: break;
+          case 103: break;
           case 30:
-            { return MSTypes.PLUS_ASSIGN;
+            { int depth = braceDepth();
+                           if (depth == 0) {
+                             popInterpolation();
+                             return MSTypes.INTERPOLATION_END;
+                           }
+                           setBraceDepth(depth - 1);
+                           return MSTypes.RBRACE;
             }
           // fall through
-          case 90: break;
+          case 104: break;
           case 31:
-            { return MSTypes.DECREMENT;
+            { return MSTypes.NE;
             }
           // fall through
-          case 91: break;
+          case 105: break;
           case 32:
-            { return MSTypes.MINUS_ASSIGN;
+            { return MSTypes.AND;
             }
           // fall through
-          case 92: break;
+          case 106: break;
           case 33:
-            { return MSTypes.LINE_COMMENT;
+            { return MSTypes.MULTIPLY_ASSIGN;
             }
           // fall through
-          case 93: break;
+          case 107: break;
           case 34:
-            { return MSTypes.DIVIDE_ASSIGN;
+            { return MSTypes.INCREMENT;
             }
           // fall through
-          case 94: break;
+          case 108: break;
           case 35:
-            { return MSTypes.LE;
+            { return MSTypes.PLUS_ASSIGN;
             }
           // fall through
-          case 95: break;
+          case 109: break;
           case 36:
-            { return MSTypes.EQ;
+            { return MSTypes.DECREMENT;
             }
           // fall through
-          case 96: break;
+          case 110: break;
           case 37:
-            { return MSTypes.GE;
+            { return MSTypes.MINUS_ASSIGN;
             }
           // fall through
-          case 97: break;
+          case 111: break;
           case 38:
-            { return MSTypes.BUILTIN_MODULE;
+            { return MSTypes.LINE_COMMENT;
             }
           // fall through
-          case 98: break;
+          case 112: break;
           case 39:
-            { return MSTypes.DO;
+            { return MSTypes.DIVIDE_ASSIGN;
             }
           // fall through
-          case 99: break;
+          case 113: break;
           case 40:
-            { return MSTypes.IF;
+            { return MSTypes.DOUBLE_COLON;
             }
           // fall through
-          case 100: break;
+          case 114: break;
           case 41:
-            { return MSTypes.OR;
+            { return MSTypes.LE;
             }
           // fall through
-          case 101: break;
+          case 115: break;
           case 42:
-            { return MSTypes.FOR;
+            { return MSTypes.EQ;
             }
           // fall through
-          case 102: break;
+          case 116: break;
           case 43:
-            { return MSTypes.TRY;
+            { return MSTypes.ARROW;
             }
           // fall through
-          case 103: break;
+          case 117: break;
           case 44:
-            { return MSTypes.VAR;
+            { return MSTypes.GE;
             }
           // fall through
-          case 104: break;
+          case 118: break;
           case 45:
-            { return MSTypes.BLOCK_COMMENT;
+            { return MSTypes.QUESTION_DOT;
             }
           // fall through
-          case 105: break;
+          case 119: break;
           case 46:
-            { return MSTypes.ELSE;
+            { return MSTypes.BUILTIN_MODULE;
             }
           // fall through
-          case 106: break;
+          case 120: break;
           case 47:
-            { return MSTypes.NULL;
+            { return MSTypes.DO;
             }
           // fall through
-          case 107: break;
+          case 121: break;
           case 48:
-            { return MSTypes.TRUE;
+            { return MSTypes.IF;
             }
           // fall through
-          case 108: break;
+          case 122: break;
           case 49:
-            { return MSTypes.BREAK;
+            { return MSTypes.OR;
             }
           // fall through
-          case 109: break;
+          case 123: break;
           case 50:
-            { return MSTypes.CATCH;
+            { pushInterpolation(); return MSTypes.INTERPOLATION_START;
             }
           // fall through
-          case 110: break;
+          case 124: break;
           case 51:
-            { return MSTypes.FALSE;
+            { yybegin(TEXT_BLOCK); return MSTypes.TEXT_BLOCK_QUOTE;
             }
           // fall through
-          case 111: break;
+          case 125: break;
           case 52:
-            { return MSTypes.THROW;
+            { return MSTypes.SPREAD;
             }
           // fall through
-          case 112: break;
+          case 126: break;
           case 53:
-            { return MSTypes.WHILE;
+            { return MSTypes.FOR;
             }
           // fall through
-          case 113: break;
+          case 127: break;
           case 54:
-            { return MSTypes.EXPORT;
+            { return MSTypes.TRY;
             }
           // fall through
-          case 114: break;
+          case 128: break;
           case 55:
-            { return MSTypes.IMPORT;
+            { return MSTypes.VAR;
             }
           // fall through
-          case 115: break;
+          case 129: break;
           case 56:
-            { return MSTypes.RETURN;
+            { leaveString(); return MSTypes.TEXT_BLOCK_QUOTE;
             }
           // fall through
-          case 116: break;
+          case 130: break;
           case 57:
-            { return MSTypes.FINALLY;
+            { return MSTypes.BLOCK_COMMENT;
             }
           // fall through
-          case 117: break;
+          case 131: break;
           case 58:
-            { return MSTypes.CONTINUE;
+            { return MSTypes.ELSE;
             }
           // fall through
-          case 118: break;
+          case 132: break;
           case 59:
-            { return MSTypes.FUNCTION;
+            { return MSTypes.EXIT;
             }
           // fall through
-          case 119: break;
+          case 133: break;
           case 60:
+            { return MSTypes.NULL;
+            }
+          // fall through
+          case 134: break;
+          case 61:
+            { return MSTypes.TRUE;
+            }
+          // fall through
+          case 135: break;
+          case 62:
+            { return MSTypes.ASYNC;
+            }
+          // fall through
+          case 136: break;
+          case 63:
+            { return MSTypes.BREAK;
+            }
+          // fall through
+          case 137: break;
+          case 64:
+            { return MSTypes.CATCH;
+            }
+          // fall through
+          case 138: break;
+          case 65:
+            { return MSTypes.FALSE;
+            }
+          // fall through
+          case 139: break;
+          case 66:
+            { return MSTypes.THROW;
+            }
+          // fall through
+          case 140: break;
+          case 67:
+            { return MSTypes.WHILE;
+            }
+          // fall through
+          case 141: break;
+          case 68:
+            { return MSTypes.EXPORT;
+            }
+          // fall through
+          case 142: break;
+          case 69:
+            { return MSTypes.IMPORT;
+            }
+          // fall through
+          case 143: break;
+          case 70:
+            { return MSTypes.RETURN;
+            }
+          // fall through
+          case 144: break;
+          case 71:
+            { return MSTypes.FINALLY;
+            }
+          // fall through
+          case 145: break;
+          case 72:
+            { return MSTypes.CONTINUE;
+            }
+          // fall through
+          case 146: break;
+          case 73:
+            { return MSTypes.FUNCTION;
+            }
+          // fall through
+          case 147: break;
+          case 74:
             { return MSTypes.UNDEFINED;
             }
           // fall through
-          case 120: break;
+          case 148: break;
           default:
             zzScanError(ZZ_NO_MATCH);
-          }
+        }
       }
     }
   }
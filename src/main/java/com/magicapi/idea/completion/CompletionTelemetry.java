@@ -0,0 +1,85 @@
+package com.magicapi.idea.completion;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 补全各阶段的耗时统计
+ *
+ * 补全分两个阶段：先加入本文件和注册表中的候选项，再从索引中读取 import 的脚本导出的名称。
+ * 这里记录自启动以来每个阶段的次数、总耗时和最长耗时，以及跨文件阶段因超出时间预算而提前结束的次数，
+ * 在设置页面中显示。
+ */
+public final class CompletionTelemetry {
+
+    /**
+     * 补全阶段
+     */
+    public enum Phase {
+        LOCAL,      // 本文件和注册表
+        CROSS_FILE  // 其它脚本
+    }
+
+    private static final AtomicLong[] COUNT = counters();
+    private static final AtomicLong[] TOTAL_NANOS = counters();
+    private static final AtomicLong[] MAX_NANOS = counters();
+    private static final AtomicLong CROSS_FILE_TRUNCATED_COUNT = new AtomicLong();
+
+    private CompletionTelemetry() {
+    }
+
+    /**
+     * 记录一次阶段耗时
+     */
+    static void record(@NotNull Phase phase, long nanos) {
+        COUNT[phase.ordinal()].incrementAndGet();
+        TOTAL_NANOS[phase.ordinal()].addAndGet(nanos);
+        MAX_NANOS[phase.ordinal()].accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * 记录一次因超出时间预算而未读完全部脚本的跨文件阶段
+     */
+    static void recordCrossFileTruncated() {
+        CROSS_FILE_TRUNCATED_COUNT.incrementAndGet();
+    }
+
+    /**
+     * 阶段执行的次数
+     */
+    public static long getCount(@NotNull Phase phase) {
+        return COUNT[phase.ordinal()].get();
+    }
+
+    /**
+     * 阶段的平均耗时（毫秒）
+     */
+    public static double getAverageMillis(@NotNull Phase phase) {
+        long count = getCount(phase);
+        return count == 0 ? 0 : TOTAL_NANOS[phase.ordinal()].get() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 阶段的最长耗时（毫秒）
+     */
+    public static double getMaxMillis(@NotNull Phase phase) {
+        return MAX_NANOS[phase.ordinal()].get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 跨文件阶段因超出时间预算而提前结束的次数
+     */
+    public static long getCrossFileTruncatedCount() {
+        return CROSS_FILE_TRUNCATED_COUNT.get();
+    }
+
+    private static AtomicLong[] counters() {
+        AtomicLong[] counters = new AtomicLong[Phase.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicLong();
+        }
+        return counters;
+    }
+}
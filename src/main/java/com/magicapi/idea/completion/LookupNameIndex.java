@@ -0,0 +1,153 @@
+package com.magicapi.idea.completion;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 补全候选项的名称索引
+ *
+ * 名称按驼峰和下划线切分成若干段（selectOne -> select、one；group_concat -> group_、concat），
+ * 以段为边建成前缀树，每层的子节点按段排序存放在数组中。查找时输入的每个字符要么接着匹配当前段，
+ * 要么匹配下一段的首字母，因此 sel、selecto、so 都能找到 selectOne，gc 能找到 group_concat。
+ * 匹配时只进入首字母相同的子节点，输入匹配完后直接取该子树预先汇总的候选项，
+ * 查找的开销取决于命中的候选项数量，与索引中名称的总数无关。不区分大小写。
+ */
+final class LookupNameIndex {
+
+    private final Node root;
+
+    LookupNameIndex(@NotNull Collection<? extends LookupElement> elements) {
+        Builder builder = new Builder();
+        for (LookupElement element : elements) {
+            Builder node = builder;
+            for (String segment : split(element.getLookupString())) {
+                node = node.children.computeIfAbsent(segment, key -> new Builder());
+            }
+            node.elements.add(element);
+        }
+        this.root = builder.build();
+    }
+
+    /**
+     * 查找名称与 prefix 匹配的候选项，prefix 为空时返回全部
+     */
+    @NotNull
+    List<LookupElement> find(@NotNull String prefix) {
+        if (prefix.isEmpty()) {
+            return root.all;
+        }
+        Set<LookupElement> found = new LinkedHashSet<>();
+        match(root, prefix.toLowerCase(Locale.ROOT), 0, found);
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * 从 node 开始匹配 pattern 中 from 之后的部分
+     */
+    private static void match(@NotNull Node node, @NotNull String pattern, int from, @NotNull Set<LookupElement> found) {
+        char c = pattern.charAt(from);
+        for (int i = node.firstStartingWith(c); i < node.segments.length && node.segments[i].charAt(0) == c; i++) {
+            String segment = node.segments[i];
+            Node child = node.children[i];
+            int common = 1;
+            while (common < segment.length() && from + common < pattern.length()
+                && segment.charAt(common) == pattern.charAt(from + common)) {
+                common++;
+            }
+            if (from + common == pattern.length()) {
+                // 剩余的输入都落在这一段内，整棵子树都匹配
+                found.addAll(child.all);
+                continue;
+            }
+            // 这一段取前 1..common 个字符，其余输入交给后面的段
+            for (int length = 1; length <= common; length++) {
+                match(child, pattern, from + length, found);
+            }
+        }
+    }
+
+    /**
+     * 按驼峰和下划线把名称切分成小写的段，下划线留在它前面的段中
+     */
+    @NotNull
+    private static List<String> split(@NotNull String name) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < name.length(); i++) {
+            char previous = name.charAt(i - 1);
+            char current = name.charAt(i);
+            // getHTTPUrl -> get、http、url：连续大写的最后一个字母后面接小写时开始新的一段
+            boolean humpStart = Character.isUpperCase(current) && (!Character.isUpperCase(previous)
+                || i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1)));
+            if (previous == '_' || humpStart) {
+                segments.add(name.substring(start, i).toLowerCase(Locale.ROOT));
+                start = i;
+            }
+        }
+        if (start < name.length()) {
+            segments.add(name.substring(start).toLowerCase(Locale.ROOT));
+        }
+        return segments;
+    }
+
+    /**
+     * 索引节点：子节点按段排序，all 为该子树中全部候选项
+     */
+    private static final class Node {
+        final String[] segments;
+        final Node[] children;
+        final List<LookupElement> all;
+
+        Node(String[] segments, Node[] children, List<LookupElement> all) {
+            this.segments = segments;
+            this.children = children;
+            this.all = all;
+        }
+
+        /**
+         * 第一个首字母不小于 c 的段的下标
+         */
+        int firstStartingWith(char c) {
+            int low = 0;
+            int high = segments.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (segments[middle].charAt(0) < c) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * 构建期间的可变节点
+     */
+    private static final class Builder {
+        final Map<String, Builder> children = new TreeMap<>();
+        final List<LookupElement> elements = new ArrayList<>();
+
+        Node build() {
+            String[] segments = children.keySet().toArray(new String[0]);
+            Node[] nodes = new Node[segments.length];
+            List<LookupElement> all = new ArrayList<>(elements);
+            for (int i = 0; i < segments.length; i++) {
+                nodes[i] = children.get(segments[i]).build();
+                all.addAll(nodes[i].all);
+            }
+            return new Node(segments, nodes, Collections.unmodifiableList(all));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.magicapi.idea.completion;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import com.magicapi.idea.completion.model.ApiMethod;
+import com.magicapi.idea.completion.model.MagicApiModule;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.icons.MagicScriptIcons;
+import com.magicapi.idea.registry.ModuleRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 补全候选项表
+ *
+ * 关键字、内置模块、全局函数、各类型上的成员（模块方法、扩展方法）、import 路径和参数值提示的补全元素
+ * 由 {@link ModuleRegistry} 生成一次，
+ * 之后每次补全交出同一批元素，不再每次弹出补全都重新创建。候选项按名称建立 {@link LookupNameIndex}，
+ * 补全时只取出与已输入前缀匹配的部分，不再逐个遍历过滤。LookupElementBuilder 不可变，插入处理器不保存状态，
+ * 可以在多次补全之间共享。注册表 {@link ModuleRegistry#reload()} 之后整张表按新的数据重建。
+ */
+public final class MagicScriptLookupElements {
+
+    // Magic Script关键字
+    private static final String[] KEYWORDS = {
+        "var", "function", "return", "if", "else", "for", "while",
+        "do", "break", "continue", "try", "catch", "finally", "throw",
+        "import", "export", "true", "false", "null", "undefined"
+    };
+
+    // 常用变量和常量：名称、类型、说明
+    private static final String[][] COMMON_VARIABLES = {
+        {"this", "Object", "当前对象"},
+        {"arguments", "Array", "函数参数"},
+        {"__LINE__", "Integer", "当前行号"},
+        {"__FILE__", "String", "当前文件"},
+        {"__METHOD__", "String", "当前方法"},
+        {"PI", "Double", "圆周率"},
+        {"E", "Double", "自然常数"}
+    };
+
+    // 模块之外常用的 import 路径：路径、类型、说明
+    private static final String[][] COMMON_IMPORTS = {
+        {"/common/utils", "module", "通用工具模块"},
+        {"./utils", "relative module", "相对路径导入"},
+        {"../common/helper", "relative module", "上级目录导入"}
+    };
+
+    // 参数值提示：模块方法、参数位置、取值、说明；只在模块已注册时提供
+    private static final String[][] PARAMETER_HINTS = {
+        {"db.select", "0", "\"SELECT * FROM table\"", "SQL查询语句"},
+        {"http.get", "0", "\"https://api.example.com\"", "请求URL"}
+    };
+
+    private static volatile MagicScriptLookupElements instance;
+
+    private final ModuleRegistry registry;
+    private final long registryModificationCount;
+    // 关键字、内置模块、全局函数和常用变量
+    private final LookupNameIndex globalSymbols;
+    // 原始类型 -> 该类型上全部成员的补全元素，第一次用到时生成
+    private final Map<MagicType, LookupNameIndex> members = new ConcurrentHashMap<>();
+    // import 语句中的路径：已注册的模块和常用路径
+    private final List<LookupElement> importPaths;
+    // "方法#参数位置" -> 该参数的取值提示
+    private final Map<String, List<LookupElement>> parameterHints = new HashMap<>();
+    // 任意参数位置都适用的取值
+    private final List<LookupElement> commonParameterValues;
+
+    private MagicScriptLookupElements(@NotNull ModuleRegistry registry) {
+        this.registry = registry;
+        this.registryModificationCount = registry.getModificationCount();
+        SmartLookupElementBuilder builder = new SmartLookupElementBuilder();
+
+        List<LookupElement> symbols = new ArrayList<>();
+        for (String keyword : KEYWORDS) {
+            symbols.add(builder.createKeywordElement(keyword, getKeywordDescription(keyword)));
+        }
+
+        for (String moduleName : registry.getModuleNames()) {
+            MagicApiModule module = registry.getModule(moduleName);
+            if (module != null) {
+                symbols.add(builder.createModuleElement(moduleName, module.getDescription()));
+            }
+        }
+
+        for (ApiMethod function : registry.getGlobalFunctions()) {
+            symbols.add(builder.createMethodElement(function, "global"));
+        }
+
+        for (String[] variable : COMMON_VARIABLES) {
+            symbols.add(LookupElementBuilder.create(variable[0])
+                .withIcon(MagicScriptIcons.VARIABLE)
+                .withTypeText(variable[1])
+                .withTailText(" - " + variable[2]));
+        }
+        this.globalSymbols = new LookupNameIndex(symbols);
+
+        List<LookupElement> paths = new ArrayList<>();
+        List<String> moduleNames = new ArrayList<>(registry.getModuleNames());
+        Collections.sort(moduleNames);
+        for (String moduleName : moduleNames) {
+            paths.add(LookupElementBuilder.create("\"/builtin/" + moduleName + "\"")
+                .withIcon(MagicScriptIcons.MODULE)
+                .withTypeText("builtin module")
+                .withTailText(" - 内置" + moduleName + "模块"));
+        }
+        for (String[] path : COMMON_IMPORTS) {
+            paths.add(LookupElementBuilder.create("\"" + path[0] + "\"")
+                .withIcon(MagicScriptIcons.MODULE)
+                .withTypeText(path[1])
+                .withTailText(" - " + path[2]));
+        }
+        this.importPaths = Collections.unmodifiableList(paths);
+
+        for (String[] hint : PARAMETER_HINTS) {
+            String moduleName = hint[0].substring(0, hint[0].indexOf('.'));
+            if (registry.hasModule(moduleName)) {
+                parameterHints.computeIfAbsent(parameterKey(hint[0], Integer.parseInt(hint[1])), key -> new ArrayList<>())
+                    .add(LookupElementBuilder.create(hint[2])
+                        .withIcon(MagicScriptIcons.PARAMETER)
+                        .withTypeText("String")
+                        .withTailText(" - " + hint[3]));
+            }
+        }
+
+        this.commonParameterValues = List.of(
+            LookupElementBuilder.create("null").withIcon(MagicScriptIcons.KEYWORD).withTypeText("null").withTailText(" - 空值"),
+            LookupElementBuilder.create("true").withIcon(MagicScriptIcons.KEYWORD).withTypeText("Boolean").withTailText(" - 布尔真值"),
+            LookupElementBuilder.create("false").withIcon(MagicScriptIcons.KEYWORD).withTypeText("Boolean").withTailText(" - 布尔假值"));
+    }
+
+    /**
+     * 获取当前注册表对应的候选项表，注册表重新加载过时重建
+     */
+    @NotNull
+    public static MagicScriptLookupElements getInstance() {
+        ModuleRegistry registry = ModuleRegistry.getInstance();
+        MagicScriptLookupElements tables = instance;
+        if (tables == null || tables.registry != registry || tables.registryModificationCount != registry.getModificationCount()) {
+            synchronized (MagicScriptLookupElements.class) {
+                tables = instance;
+                if (tables == null || tables.registry != registry || tables.registryModificationCount != registry.getModificationCount()) {
+                    tables = new MagicScriptLookupElements(registry);
+                    instance = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 名称与 prefix 匹配的关键字、内置模块、全局函数和常用变量，支持驼峰和下划线分段匹配
+     */
+    @NotNull
+    public List<LookupElement> findGlobalSymbols(@NotNull String prefix) {
+        return globalSymbols.find(prefix);
+    }
+
+    /**
+     * 类型上名称与 prefix 匹配的成员，包括从父类型继承的扩展方法；模块类型为模块的方法
+     * 同一原始类型的成员相同，按原始类型建立一次索引
+     */
+    @NotNull
+    public List<LookupElement> findMembers(@NotNull MagicType type, @NotNull String prefix) {
+        return members.computeIfAbsent(type.getRawType(), rawType -> {
+            String category = registry.hasModule(rawType.getName()) ? "builtin" : "extension";
+            SmartLookupElementBuilder builder = new SmartLookupElementBuilder();
+            List<LookupElement> elements = new ArrayList<>();
+            for (ApiMethod method : registry.getTypeSystemProvider().getMembers(rawType).values()) {
+                elements.add(builder.createMethodElement(method, category));
+            }
+            return new LookupNameIndex(elements);
+        }).find(prefix);
+    }
+
+    /**
+     * import 语句中可用的路径：已注册的内置模块和常用路径
+     */
+    @NotNull
+    public List<LookupElement> getImportPaths() {
+        return importPaths;
+    }
+
+    /**
+     * 调用参数位置的取值提示：该方法该位置特有的取值，以及 null、true、false
+     * @param functionName 被调用的方法，如 db.select；未知时为 null
+     * @param parameterIndex 参数位置
+     */
+    @NotNull
+    public List<LookupElement> getParameterValues(@Nullable String functionName, int parameterIndex) {
+        List<LookupElement> hints = functionName != null ? parameterHints.get(parameterKey(functionName, parameterIndex)) : null;
+        if (hints == null) {
+            return commonParameterValues;
+        }
+        List<LookupElement> values = new ArrayList<>(hints);
+        values.addAll(commonParameterValues);
+        return values;
+    }
+
+    @NotNull
+    private static String parameterKey(@NotNull String functionName, int parameterIndex) {
+        return functionName + "#" + parameterIndex;
+    }
+
+    @NotNull
+    private static String getKeywordDescription(@NotNull String keyword) {
+        return switch (keyword) {
+            case "var" -> "变量声明";
+            case "function" -> "函数声明";
+            case "return" -> "返回语句";
+            case "if" -> "条件语句";
+            case "else" -> "否则分支";
+            case "for" -> "循环语句";
+            case "while" -> "条件循环";
+            case "do" -> "do-while循环";
+            case "break" -> "跳出循环";
+            case "continue" -> "继续循环";
+            case "try" -> "异常处理";
+            case "catch" -> "异常捕获";
+            case "finally" -> "最终执行";
+            case "throw" -> "抛出异常";
+            case "import" -> "导入模块";
+            case "export" -> "导出模块";
+            case "true" -> "布尔真值";
+            case "false" -> "布尔假值";
+            case "null" -> "空值";
+            case "undefined" -> "未定义值";
+            default -> "关键字";
+        };
+    }
+}
@@ -27,7 +27,7 @@ public class SmartLookupElementBuilder {
     public LookupElement createMethodElement(@NotNull ApiMethod method, @NotNull String category) {
         LookupElementBuilder builder = LookupElementBuilder.create(method.getName())
                 .withIcon(getMethodIcon(category))
-                .withTypeText(method.getReturnType())
+                .withTypeText(method.getReturnTypeText())
                 .withTailText(method.getParameterHint())
                 .withPresentableText(method.getName())
                 .appendTailText(" - " + method.getDescription(), true)
@@ -222,7 +222,7 @@ public class SmartLookupElementBuilder {
         StringBuilder doc = new StringBuilder();
         doc.append("<b>").append(method.getName()).append("</b>");
         doc.append("(").append(method.getParameterHint()).append(")");
-        doc.append(": <i>").append(method.getReturnType()).append("</i><br><br>");
+        doc.append(": <i>").append(method.getReturnTypeText()).append("</i><br><br>");
         
         doc.append("<b>描述:</b> ").append(method.getDescription()).append("<br>");
         
@@ -1,5 +1,6 @@
 package com.magicapi.idea.completion.context;
 
+import com.magicapi.idea.completion.model.MagicType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -24,17 +25,17 @@ public class CompletionContext {
     
     private final Type type;
     private final String qualifier;  // 限定符（如成员访问中的对象名）
-    private final String qualifierType; // 限定符类型
+    private final MagicType qualifierType; // 限定符类型
     private final String functionName;  // 函数名称
     private final int parameterIndex;   // 参数索引
-    private final String chainReturnType; // 链式调用返回类型
+    private final MagicType chainReturnType; // 链式调用返回类型
     
-    public CompletionContext(@NotNull Type type, @Nullable String qualifier, @Nullable String qualifierType) {
+    public CompletionContext(@NotNull Type type, @Nullable String qualifier, @Nullable MagicType qualifierType) {
         this(type, qualifier, qualifierType, null, 0, null);
     }
     
-    public CompletionContext(@NotNull Type type, @Nullable String qualifier, @Nullable String qualifierType,
-                           @Nullable String functionName, int parameterIndex, @Nullable String chainReturnType) {
+    public CompletionContext(@NotNull Type type, @Nullable String qualifier, @Nullable MagicType qualifierType,
+                           @Nullable String functionName, int parameterIndex, @Nullable MagicType chainReturnType) {
         this.type = type;
         this.qualifier = qualifier;
         this.qualifierType = qualifierType;
@@ -54,7 +55,7 @@ public class CompletionContext {
     }
     
     @Nullable
-    public String getQualifierType() {
+    public MagicType getQualifierType() {
         return qualifierType;
     }
     
@@ -87,8 +88,8 @@ public class CompletionContext {
             return false;
         }
         
-        String type = getQualifierType();
-        return type != null && isBuiltinModuleType(type);
+        MagicType type = getQualifierType();
+        return type != null && !type.isParameterized() && isBuiltinModuleType(type.getName());
     }
     
     /**
@@ -102,7 +103,7 @@ public class CompletionContext {
      * 获取链式调用返回类型
      */
     @Nullable
-    public String getChainReturnType() {
+    public MagicType getChainReturnType() {
         return chainReturnType;
     }
     
@@ -1,23 +1,49 @@
 package com.magicapi.idea.completion.context;
 
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.Key;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.PsiFile;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.ProcessingContext;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.CallExpression;
+import com.magicapi.idea.lang.psi.ChainableCall;
 import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.TypeAware;
 import com.magicapi.idea.lang.psi.MSVarDeclaration;
-import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * 代码补全上下文分析器 (增强版)
  * 使用PsiTreeUtil进行精确的PSI树遍历，支持复杂表达式解析
+ * 分析过程可取消，并受 {@link InferenceBudget} 的时间预算限制
  */
 public class CompletionContextAnalyzer {
     
+    // 本次补全的上下文，保存在 ProcessingContext 中
+    private static final Key<CompletionContext> CONTEXT = Key.create("MagicScript.CompletionContext");
+    
+    /**
+     * 获取补全位置的上下文，一次补全只分析一次
+     * 结果保存在本次补全的 ProcessingContext 中，同一次补全中的各个提供器共用一份结果，
+     * 分析只沿 PSI 从补全位置向上查看，不读取文档全文，耗时与文件大小无关
+     * @param position 补全位置（CompletionParameters.getPosition()）
+     * @param context 提供器收到的 ProcessingContext
+     * @return 补全上下文信息
+     */
+    @NotNull
+    public static CompletionContext getContext(@NotNull PsiElement position, @NotNull ProcessingContext context) {
+        CompletionContext result = context.get(CONTEXT);
+        if (result == null) {
+            result = analyzeContext(position);
+            context.put(CONTEXT, result);
+        }
+        return result;
+    }
+    
     /**
      * 分析补全上下文 (增强版)
      * @param element 当前PSI元素
@@ -25,6 +51,13 @@ public class CompletionContextAnalyzer {
      */
     @NotNull
     public static CompletionContext analyzeContext(@NotNull PsiElement element) {
+        // 整个分析作为一次推断请求，其中各处类型推断共享同一个时间预算
+        return InferenceBudget.run(() -> doAnalyzeContext(element),
+            new CompletionContext(CompletionContext.Type.EXPRESSION, null, null));
+    }
+    
+    @NotNull
+    private static CompletionContext doAnalyzeContext(@NotNull PsiElement element) {
         // 1. 分析链式调用上下文 (优先级最高)
         CompletionContext chainContext = analyzeChainedCallContext(element);
         if (chainContext != null) {
@@ -61,91 +94,68 @@ public class CompletionContextAnalyzer {
     
     /**
      * 分析链式调用上下文 (如 db.select().map())
-     * 使用PSI树遍历检查链式调用模式
+     * 前一个环节是调用时，接收者类型即该调用的返回类型
      */
     @Nullable
     private static CompletionContext analyzeChainedCallContext(@NotNull PsiElement element) {
-        // 检查是否在点号后面
-        if (!isAfterDot(element)) {
-            return null;
-        }
-        
-        // 检查前面是否有方法调用（包含括号）
-        if (!hasMethodCallBefore(element)) {
-            return null;
-        }
-        
-        // 分析链式调用的前一个方法
-        ChainAnalysisResult chainResult = analyzeChainStructure(element);
-        if (chainResult == null) {
+        ChainableCall link = getEnclosingLink(element);
+        if (link == null || !(link.getPreviousCall() instanceof CallExpression)) {
             return null;
         }
         
+        MagicType returnType = ((TypeAware) link).getTargetType();
         return new CompletionContext(
             CompletionContext.Type.MEMBER_ACCESS,
-            chainResult.getBaseObject(),
-            chainResult.getReturnType(),
+            getQualifierText(link),
+            returnType,
             null,
             0,
-            chainResult.getReturnType()
+            returnType
         );
     }
     
     /**
      * 分析成员访问上下文 (如 obj.method)
-     * 使用PsiTreeUtil进行精确匹配
+     * 接收者类型由调用链上前面各环节逐段推断，已推断过的环节直接命中缓存
      */
     @Nullable
     private static CompletionContext analyzeMemberAccessContext(@NotNull PsiElement element) {
-        // 检查是否在点号后面
-        if (!isAfterDot(element)) {
+        ChainableCall link = getEnclosingLink(element);
+        if (link == null || link.getPreviousCall() == null) {
             return null;
         }
         
-        // 获取点号前的限定符
-        PsiElement qualifier = getQualifierBeforeDot(element);
-        if (qualifier == null) {
-            return null;
-        }
-        
-        // 推断限定符类型
-        String qualifierText = qualifier.getText();
-        String qualifierType = inferQualifierType(qualifier);
-        
         return new CompletionContext(
             CompletionContext.Type.MEMBER_ACCESS,
-            qualifierText,
-            qualifierType
+            getQualifierText(link),
+            ((TypeAware) link).getTargetType()
         );
     }
     
     /**
      * 分析函数参数上下文
-     * 使用PsiTreeUtil找到函数调用和参数位置
+     * 补全位置在某个调用的参数列表中时，函数名为被调用的方法（带接收者类型，如 db.select）或全局函数名，
+     * 参数位置为参数列表中补全位置之前的逗号数
      */
     @Nullable
     private static CompletionContext analyzeFunctionParameterContext(@NotNull PsiElement element) {
-        // 查找最近的函数调用
-        PsiElement functionCall = findEnclosingFunctionCall(element);
-        if (functionCall == null) {
+        PsiElement argumentList = findEnclosingArgumentList(element);
+        if (argumentList == null) {
             return null;
         }
-        
-        // 获取函数名
-        String functionName = extractFunctionName(functionCall);
+        CallExpression call = (CallExpression) argumentList.getParent();
+        String functionName = call.getFunctionName();
         if (functionName == null) {
             return null;
         }
         
-        // 计算参数位置
-        int parameterIndex = calculateParameterIndex(element, functionCall);
-        
+        MagicType receiverType = call.getReceiverType();
         return new CompletionContext(
             CompletionContext.Type.FUNCTION_PARAMETER,
             null,
-            null,
-            functionName,
-            parameterIndex,
+            receiverType,
+            receiverType != null ? receiverType.getRawType().getName() + "." + functionName : functionName,
+            calculateParameterIndex(element, argumentList),
             null
         );
     }
@@ -156,7 +166,7 @@ public class CompletionContextAnalyzer {
     @Nullable
     private static CompletionContext analyzeImportContext(@NotNull PsiElement element) {
         // 检查是否在import关键字后面
-        if (isAfterKeyword(element, "import")) {
+        if (isAfterKeyword(element, MSTypes.IMPORT)) {
             return new CompletionContext(CompletionContext.Type.IMPORT_STATEMENT, null, null);
         }
         
@@ -180,58 +190,35 @@ public class CompletionContextAnalyzer {
     // ==================== 辅助方法 ====================
     
     /**
-     * 检查元素是否在点号后面
-     */
-    private static boolean isAfterDot(@NotNull PsiElement element) {
-        PsiElement prevSibling = skipWhitespace(element.getPrevSibling());
-        return prevSibling != null && prevSibling.getNode().getElementType() == MSTypes.DOT;
-    }
-    
-    /**
-     * 检查前面是否有方法调用
+     * 元素为成员名时所在的调用链环节
      */
-    private static boolean hasMethodCallBefore(@NotNull PsiElement element) {
-        PsiElement current = element;
-        int searchDepth = 10;
-        
-        while (current != null && searchDepth-- > 0) {
-            PsiElement prev = skipWhitespace(current.getPrevSibling());
-            
-            if (prev != null && prev.getNode().getElementType() == MSTypes.RPAREN) {
-                return true;
-            }
-            
-            current = current.getParent();
-        }
-        
-        return false;
+    @Nullable
+    private static ChainableCall getEnclosingLink(@NotNull PsiElement element) {
+        PsiElement parent = element.getParent();
+        return parent instanceof ChainableCall && parent instanceof TypeAware ? (ChainableCall) parent : null;
     }
     
     /**
-     * 获取点号前的限定符
+     * 调用链中位于该环节之前的部分，如 db.table("t").select
      */
-    @Nullable
-    private static PsiElement getQualifierBeforeDot(@NotNull PsiElement element) {
-        PsiElement dotElement = skipWhitespace(element.getPrevSibling());
-        
-        if (dotElement != null && dotElement.getNode().getElementType() == MSTypes.DOT) {
-            return skipWhitespace(dotElement.getPrevSibling());
-        }
-        
-        return null;
+    @NotNull
+    private static String getQualifierText(@NotNull ChainableCall link) {
+        PsiElement chain = link.getParent();
+        return chain.getText().substring(0, link.getStartOffsetInParent()).trim();
     }
     
     /**
      * 检查元素是否在指定关键字后面
+     * 按前一个兄弟节点的符号类型判断，不比较文本：同名的标识符、字符串或整个语句都不算关键字
      */
-    private static boolean isAfterKeyword(@NotNull PsiElement element, @NotNull String keyword) {
+    private static boolean isAfterKeyword(@NotNull PsiElement element, @NotNull IElementType keyword) {
         PsiElement current = element;
         int searchDepth = 5; // 限制搜索深度
         
         while (current != null && searchDepth-- > 0) {
             PsiElement prev = skipWhitespace(current.getPrevSibling());
             
-            if (prev != null && keyword.equals(prev.getText())) {
+            if (prev != null && prev.getNode().getElementType() == keyword) {
                 return true;
             }
             
@@ -242,26 +229,20 @@ public class CompletionContextAnalyzer {
     }
     
     /**
-     * 查找包围的函数调用
+     * 查找包围补全位置的调用参数列表，不越过函数、lambda 和语句块
      */
     @Nullable
-    private static PsiElement findEnclosingFunctionCall(@NotNull PsiElement element) {
-        PsiElement current = element;
-        
-        while (current != null) {
-            // 简单查找：向上查找直到找到左括号
-            if (current.getNode().getElementType() == MSTypes.LPAREN) {
-                // 找到前面的标识符（函数名）
-                PsiElement functionName = skipWhitespace(current.getPrevSibling());
-                
-                if (functionName != null && functionName.getNode().getElementType() == MSTypes.IDENTIFIER) {
-                    return functionName;
-                }
+    private static PsiElement findEnclosingArgumentList(@NotNull PsiElement element) {
+        for (PsiElement current = element.getParent(); current != null && !(current instanceof PsiFile); current = current.getParent()) {
+            InferenceBudget.checkpoint();
+            IElementType type = current.getNode().getElementType();
+            if (type == MSTypes.ARGUMENT_LIST) {
+                return current.getParent() instanceof CallExpression ? current : null;
+            }
+            if (ControlFlowGraph.SCOPE_OWNERS.contains(type) || type == MSTypes.BLOCK_STATEMENT) {
+                return null;
             }
-            
-            current = current.getParent();
         }
-        
         return null;
     }
     
@@ -277,470 +258,17 @@ public class CompletionContextAnalyzer {
     }
     
     /**
-     * 提取函数名
+     * 计算参数位置索引：参数列表中位于补全位置所在参数之前的逗号数
      */
-    @Nullable
-    private static String extractFunctionName(@NotNull PsiElement functionCall) {
-        if (functionCall.getNode().getElementType() == MSTypes.IDENTIFIER) {
-            return functionCall.getText();
-        }
-        return null;
-    }
-    
-    /**
-     * 计算参数位置索引
-     */
-    private static int calculateParameterIndex(@NotNull PsiElement element, @NotNull PsiElement functionCall) {
-        // 简化实现：计算逗号数量来确定参数位置
-        PsiElement current = element;
+    private static int calculateParameterIndex(@NotNull PsiElement element, @NotNull PsiElement argumentList) {
+        PsiElement argument = PsiTreeUtil.findPrevParent(argumentList, element);
         int commaCount = 0;
-        
-        // 向前搜索逗号
-        while (current != null && !current.equals(functionCall)) {
-            if (current.getNode().getElementType() == MSTypes.COMMA) {
+        for (ASTNode child = argumentList.getNode().getFirstChildNode(); child != null && child != argument.getNode();
+             child = child.getTreeNext()) {
+            if (child.getElementType() == MSTypes.COMMA) {
                 commaCount++;
             }
-            current = PsiTreeUtil.prevLeaf(current);
         }
-        
         return commaCount;
     }
-    
-    /**
-     * 分析链式调用结构
-     */
-    @Nullable
-    private static ChainAnalysisResult analyzeChainStructure(@NotNull PsiElement element) {
-        // 向前查找链式调用结构
-        String baseObject = null;
-        String lastMethod = null;
-        
-        // 从当前位置向前搜索
-        PsiElement current = element;
-        PsiElement dotElement = skipWhitespace(current.getPrevSibling());
-        
-        if (dotElement == null || dotElement.getNode().getElementType() != MSTypes.DOT) {
-            return null;
-        }
-        
-        // 查找右括号（表示方法调用）
-        PsiElement rparenElement = skipWhitespace(dotElement.getPrevSibling());
-        if (rparenElement == null || rparenElement.getNode().getElementType() != MSTypes.RPAREN) {
-            return null;
-        }
-        
-        // 向前查找匹配的左括号和方法名
-        PsiElement searchCurrent = rparenElement;
-        int parenCount = 1;
-        
-        while (searchCurrent != null && parenCount > 0) {
-            searchCurrent = skipWhitespace(searchCurrent.getPrevSibling());
-            if (searchCurrent == null) break;
-            
-            IElementType type = searchCurrent.getNode().getElementType();
-            if (type == MSTypes.RPAREN) {
-                parenCount++;
-            } else if (type == MSTypes.LPAREN) {
-                parenCount--;
-            }
-        }
-        
-        if (parenCount == 0 && searchCurrent != null) {
-            // 找到方法名
-            PsiElement methodElement = skipWhitespace(searchCurrent.getPrevSibling());
-            if (methodElement != null && methodElement.getNode().getElementType() == MSTypes.IDENTIFIER) {
-                lastMethod = methodElement.getText();
-                
-                // 继续向前查找基础对象
-                PsiElement dotBeforeMethod = skipWhitespace(methodElement.getPrevSibling());
-                if (dotBeforeMethod != null && dotBeforeMethod.getNode().getElementType() == MSTypes.DOT) {
-                    PsiElement baseObjectElement = skipWhitespace(dotBeforeMethod.getPrevSibling());
-                    if (baseObjectElement != null && baseObjectElement.getNode().getElementType() == MSTypes.IDENTIFIER) {
-                        baseObject = baseObjectElement.getText();
-                    }
-                }
-            }
-        }
-        
-        if (baseObject != null && lastMethod != null) {
-            String returnType = inferMethodReturnType(baseObject, lastMethod);
-            return new ChainAnalysisResult(baseObject, lastMethod, returnType);
-        }
-        
-        return null;
-    }
-    
-    /**
-     * 提取方法名
-     */
-    @Nullable
-    private static String extractMethodName(@NotNull PsiElement methodElement) {
-        if (methodElement.getNode().getElementType() == MSTypes.IDENTIFIER) {
-            return methodElement.getText();
-        }
-        return null;
-    }
-    
-    /**
-     * 推断方法返回类型
-     */
-    @NotNull
-    private static String inferMethodReturnType(@NotNull String baseObject, @NotNull String methodName) {
-        // 内置模块方法返回类型推断
-        if (isBuiltinModule(baseObject)) {
-            return inferBuiltinModuleMethodReturnType(baseObject, methodName);
-        }
-        
-        // 扩展方法返回类型推断
-        return inferExtensionMethodReturnType(methodName);
-    }
-    
-    /**
-     * 推断内置模块方法返回类型
-     */
-    @NotNull
-    private static String inferBuiltinModuleMethodReturnType(@NotNull String moduleName, @NotNull String methodName) {
-        switch (moduleName) {
-            case "db":
-                return inferDatabaseMethodReturnType(methodName);
-            case "http":
-                return inferHttpMethodReturnType(methodName);
-            case "request":
-                return "Object";
-            case "response":
-                return "ResponseBuilder";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 推断数据库方法返回类型
-     */
-    @NotNull
-    private static String inferDatabaseMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "select":
-            case "selectByKey":
-                return "List";
-            case "selectOne":
-            case "selectByPrimaryKey":
-                return "Object";
-            case "selectInt":
-            case "selectLong":
-            case "count":
-                return "Number";
-            case "selectValue":
-                return "Object";
-            case "page":
-                return "PageResult";
-            case "cache":
-                return "CacheableQuery";
-            case "transaction":
-                return "TransactionManager";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 推断HTTP方法返回类型
-     */
-    @NotNull
-    private static String inferHttpMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "get":
-            case "post":
-            case "put":
-            case "delete":
-            case "patch":
-                return "HttpResponse";
-            case "connect":
-            case "header":
-            case "data":
-            case "body":
-                return "HttpRequestBuilder";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 推断扩展方法返回类型
-     */
-    @NotNull
-    private static String inferExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "map":
-            case "filter":
-            case "sort":
-                return "Array";
-            case "first":
-            case "last":
-                return "Object";
-            case "asInt":
-                return "Integer";
-            case "asDouble":
-                return "Double";
-            case "asString":
-            case "toString":
-                return "String";
-            case "size":
-                return "Integer";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 推断限定符类型 (增强版)
-     * 使用PsiTreeUtil进行精确的类型推断
-     */
-    @NotNull
-    private static String inferQualifierType(@NotNull PsiElement qualifier) {
-        String qualifierText = qualifier.getText();
-        
-        // 1. 检查是否为内置模块
-        if (isBuiltinModule(qualifierText)) {
-            return qualifierText;
-        }
-        
-        // 2. 检查是否为字面量
-        String literalType = inferLiteralType(qualifierText);
-        if (literalType != null) {
-            return literalType;
-        }
-        
-        // 3. 检查是否为函数调用结果
-        if (qualifierText.contains("(") && qualifierText.contains(")")) {
-            return inferFunctionCallReturnType(qualifier);
-        }
-        
-        // 4. 检查是否为变量引用
-        String variableType = inferVariableType(qualifier);
-        if (variableType != null) {
-            return variableType;
-        }
-        
-        // 5. 基于命名约定推断
-        return inferTypeByNamingConvention(qualifierText);
-    }
-    
-    /**
-     * 推断字面量类型
-     */
-    @Nullable
-    private static String inferLiteralType(@NotNull String text) {
-        if (text.startsWith("\"") && text.endsWith("\"")) {
-            return "String";
-        }
-        if (text.matches("\\d+")) {
-            return "Integer";
-        }
-        if (text.matches("\\d+\\.\\d+")) {
-            return "Double";
-        }
-        if ("true".equals(text) || "false".equals(text)) {
-            return "Boolean";
-        }
-        if ("null".equals(text)) {
-            return "Object";
-        }
-        if (text.startsWith("[") && text.endsWith("]")) {
-            return "Array";
-        }
-        if (text.startsWith("{") && text.endsWith("}")) {
-            return "Map";
-        }
-        return null;
-    }
-    
-    /**
-     * 推断函数调用返回类型
-     */
-    @NotNull
-    private static String inferFunctionCallReturnType(@NotNull PsiElement functionCallElement) {
-        String functionCallText = functionCallElement.getText();
-        
-        // 数据库相关函数
-        if (functionCallText.contains("db.select") || functionCallText.contains("db.query")) {
-            return "Array";
-        }
-        if (functionCallText.contains("db.selectOne") || functionCallText.contains("db.findOne")) {
-            return "Object";
-        }
-        if (functionCallText.contains("db.count") || functionCallText.contains("db.selectInt")) {
-            return "Number";
-        }
-        
-        // HTTP相关函数
-        if (functionCallText.contains("http.get") || functionCallText.contains("http.post")) {
-            return "HttpResponse";
-        }
-        
-        // 字符串函数
-        if (functionCallText.contains("concat") || functionCallText.contains("format") || 
-            functionCallText.contains("uuid") || functionCallText.contains("md5")) {
-            return "String";
-        }
-        
-        // 数组构造函数
-        if (functionCallText.contains("new_array") || functionCallText.contains("new_list")) {
-            return "Array";
-        }
-        
-        // Map构造函数
-        if (functionCallText.contains("new_map") || functionCallText.contains("new_hash")) {
-            return "Map";
-        }
-        
-        return "Object";
-    }
-    
-    /**
-     * 推断变量类型
-     * 通过查找变量声明或赋值语句
-     */
-    @Nullable
-    private static String inferVariableType(@NotNull PsiElement variable) {
-        // 使用PsiTreeUtil查找变量声明
-        MSVarDeclaration varDeclaration = findVariableDeclaration(variable.getText(), variable);
-        
-        if (varDeclaration != null) {
-            // 分析变量的初始化表达式
-            return analyzeInitializerType(varDeclaration);
-        }
-        
-        return null;
-    }
-    
-    /**
-     * 查找变量声明
-     */
-    @Nullable
-    private static MSVarDeclaration findVariableDeclaration(@NotNull String variableName, @NotNull PsiElement context) {
-        // 向上查找作用域中的变量声明
-        PsiElement current = context;
-        
-        while (current != null) {
-            // 查找同级或父级作用域中的变量声明
-            List<MSVarDeclaration> declarations = PsiTreeUtil.getChildrenOfTypeAsList(current, MSVarDeclaration.class);
-            
-            for (MSVarDeclaration declaration : declarations) {
-                if (variableName.equals(declaration.getName())) {
-                    return declaration;
-                }
-            }
-            
-            // 查找函数参数
-            MSFunctionDeclaration functionDecl = PsiTreeUtil.getParentOfType(current, MSFunctionDeclaration.class);
-            if (functionDecl != null) {
-                // 检查函数参数中是否有同名变量
-                // 这里简化处理，实际实现需要解析函数参数
-            }
-            
-            current = current.getParent();
-        }
-        
-        return null;
-    }
-    
-    /**
-     * 分析初始化表达式类型
-     */
-    @Nullable
-    private static String analyzeInitializerType(@NotNull MSVarDeclaration varDeclaration) {
-        // 这里需要分析变量的初始化表达式
-        // 简化实现：通过变量名推断
-        String varName = varDeclaration.getName();
-        if (varName != null) {
-            return inferTypeByNamingConvention(varName);
-        }
-        
-        return null;
-    }
-    
-    /**
-     * 基于命名约定推断类型
-     */
-    @NotNull
-    private static String inferTypeByNamingConvention(@NotNull String name) {
-        String lowerName = name.toLowerCase();
-        
-        if (lowerName.contains("str") || lowerName.contains("name") || 
-            lowerName.contains("text") || lowerName.contains("message") ||
-            lowerName.contains("desc") || lowerName.contains("title")) {
-            return "String";
-        }
-        
-        if (lowerName.contains("list") || lowerName.contains("array") || 
-            lowerName.contains("items") || lowerName.endsWith("s")) {
-            return "Array";
-        }
-        
-        if (lowerName.contains("map") || lowerName.contains("dict") || 
-            lowerName.contains("config") || lowerName.contains("params") ||
-            lowerName.contains("props") || lowerName.contains("attrs")) {
-            return "Map";
-        }
-        
-        if (lowerName.contains("count") || lowerName.contains("num") || 
-            lowerName.contains("size") || lowerName.contains("id") ||
-            lowerName.contains("index") || lowerName.contains("length")) {
-            return "Number";
-        }
-        
-        if (lowerName.contains("date") || lowerName.contains("time") || 
-            lowerName.contains("timestamp") || lowerName.contains("created") ||
-            lowerName.contains("updated") || lowerName.contains("modified")) {
-            return "Date";
-        }
-        
-        if (lowerName.contains("flag") || lowerName.contains("is") || 
-            lowerName.contains("has") || lowerName.contains("can") ||
-            lowerName.contains("should") || lowerName.contains("enable")) {
-            return "Boolean";
-        }
-        
-        return "Object";
-    }
-    
-    /**
-     * 检查是否为内置模块
-     */
-    private static boolean isBuiltinModule(@NotNull String name) {
-        return name.equals("db") || name.equals("http") || name.equals("request") || 
-               name.equals("response") || name.equals("env") || name.equals("log") ||
-               name.equals("magic");
-    }
-    
-    /**
-     * 链式调用分析结果
-     */
-    private static class ChainAnalysisResult {
-        private final String baseObject;
-        private final String methodName;
-        private final String returnType;
-        
-        public ChainAnalysisResult(@NotNull String baseObject, @NotNull String methodName, @NotNull String returnType) {
-            this.baseObject = baseObject;
-            this.methodName = methodName;
-            this.returnType = returnType;
-        }
-        
-        @NotNull
-        public String getBaseObject() {
-            return baseObject;
-        }
-        
-        @NotNull
-        public String getMethodName() {
-            return methodName;
-        }
-        
-        @NotNull
-        public String getReturnType() {
-            return returnType;
-        }
-    }
-}
\ No newline at end of file
+}
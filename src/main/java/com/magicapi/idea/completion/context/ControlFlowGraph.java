@@ -0,0 +1,597 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 函数级控制流图
+ *
+ * 以一个函数（函数声明、匿名函数、lambda）或脚本文件的顶层语句为单位，把语句展开成指令：
+ * 变量写入（参数、var 声明、赋值、自增）、变量读取（标识符引用）、嵌套函数的位置以及分支汇合点。
+ * 嵌套函数各自构成独立的控制流图，这里只记录它们出现的位置，供其中引用外层变量时查询。
+ */
+public final class ControlFlowGraph {
+
+    /**
+     * 函数及 lambda 节点，各自拥有独立的控制流图
+     */
+    public static final TokenSet SCOPE_OWNERS = TokenSet.create(
+        MSTypes.FUNCTION_DECLARATION, MSTypes.FUNCTION_EXPRESSION, MSTypes.LAMBDA_EXPRESSION
+    );
+
+    private static final TokenSet ASSIGNMENT_OPERATORS = TokenSet.create(
+        MSTypes.ASSIGN, MSTypes.PLUS_ASSIGN, MSTypes.MINUS_ASSIGN, MSTypes.MULTIPLY_ASSIGN, MSTypes.DIVIDE_ASSIGN
+    );
+
+    private static final TokenSet STEP_OPERATORS = TokenSet.create(MSTypes.INCREMENT, MSTypes.DECREMENT);
+
+    public enum Kind {
+        ENTRY,   // 入口
+        EXIT,    // 出口，return/throw/exit 都连到这里
+        WRITE,   // 变量写入，element 为决定新类型的节点
+        READ,    // 变量读取，element 为标识符
+        NESTED,  // 嵌套函数或 lambda 所在位置
+        JOIN     // 分支汇合点
+    }
+
+    /**
+     * 控制流图中的一条指令
+     */
+    public static final class Instruction {
+        private final int index;
+        private final Kind kind;
+        private final String variable;
+        private final ASTNode element;
+        private final List<Instruction> successors = new ArrayList<>(2);
+        private final List<Instruction> predecessors = new ArrayList<>(2);
+
+        private Instruction(int index, @NotNull Kind kind, @Nullable String variable, @Nullable ASTNode element) {
+            this.index = index;
+            this.kind = kind;
+            this.variable = variable;
+            this.element = element;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        @NotNull
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * 写入或读取的变量名，其它指令为 null
+         */
+        @Nullable
+        public String getVariable() {
+            return variable;
+        }
+
+        /**
+         * 写入：参数、声明、初始值或赋值表达式；读取：标识符；嵌套函数：函数节点
+         */
+        @Nullable
+        public ASTNode getElement() {
+            return element;
+        }
+
+        @NotNull
+        public List<Instruction> getSuccessors() {
+            return successors;
+        }
+
+        @NotNull
+        public List<Instruction> getPredecessors() {
+            return predecessors;
+        }
+
+        @Override
+        public String toString() {
+            return index + ":" + kind + (variable != null ? "(" + variable + ")" : "");
+        }
+    }
+
+    private final ASTNode owner;
+    private final List<Instruction> instructions;
+
+    private ControlFlowGraph(@NotNull ASTNode owner, @NotNull List<Instruction> instructions) {
+        this.owner = owner;
+        this.instructions = instructions;
+    }
+
+    /**
+     * 为函数节点或文件根节点构建控制流图
+     */
+    @NotNull
+    public static ControlFlowGraph build(@NotNull ASTNode owner) {
+        Builder builder = new Builder();
+        builder.buildOwner(owner);
+        return new ControlFlowGraph(owner, Collections.unmodifiableList(builder.instructions));
+    }
+
+    /**
+     * 查找节点所属的函数或 lambda；位于顶层时返回文件根节点
+     */
+    @NotNull
+    public static ASTNode findOwner(@NotNull ASTNode node) {
+        ASTNode current = node.getTreeParent();
+        while (current != null) {
+            if (SCOPE_OWNERS.contains(current.getElementType()) || current.getTreeParent() == null) {
+                return current;
+            }
+            current = current.getTreeParent();
+        }
+        return node;
+    }
+
+    @NotNull
+    public ASTNode getOwner() {
+        return owner;
+    }
+
+    /**
+     * 全部指令，按创建顺序（大致即源码顺序）排列，第一条为入口
+     */
+    @NotNull
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    @NotNull
+    public Instruction getEntry() {
+        return instructions.get(0);
+    }
+
+    // ==================== 构建 ====================
+
+    private static final class Loop {
+        final List<Instruction> breaks = new ArrayList<>();
+        final List<Instruction> continues = new ArrayList<>();
+    }
+
+    private static final class Builder {
+        final List<Instruction> instructions = new ArrayList<>();
+        final Deque<Loop> loops = new ArrayDeque<>();
+        // return/throw/exit 所在位置，最后连到出口
+        final List<Instruction> exits = new ArrayList<>();
+        // 当前位置；为 null 表示不可达（如 return 之后）
+        Instruction current;
+
+        void buildOwner(@NotNull ASTNode owner) {
+            current = create(Kind.ENTRY, null, null);
+
+            if (owner.getTreeParent() == null) {
+                statements(owner);
+            } else {
+                for (ASTNode child = owner.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                    IElementType type = child.getElementType();
+                    if (type == MSTypes.PARAMETER_LIST) {
+                        parameters(child);
+                    } else if (type == MSTypes.FUNCTION_BODY) {
+                        statements(child);
+                    } else if (owner.getElementType() == MSTypes.LAMBDA_EXPRESSION && isExpression(child)) {
+                        // 表达式形式的 lambda 体
+                        expression(child);
+                    }
+                }
+            }
+
+            Instruction exit = create(Kind.EXIT, null, null);
+            link(current, exit);
+            for (Instruction predecessor : exits) {
+                link(predecessor, exit);
+            }
+        }
+
+        void parameters(@NotNull ASTNode parameterList) {
+            for (ASTNode parameter = parameterList.getFirstChildNode(); parameter != null; parameter = parameter.getTreeNext()) {
+                if (parameter.getElementType() == MSTypes.PARAMETER) {
+                    ASTNode name = firstChild(parameter, MSTypes.NAMES);
+                    if (name != null) {
+                        add(Kind.WRITE, name.getText(), parameter);
+                    }
+                }
+            }
+        }
+
+        // ==================== 语句 ====================
+
+        void statements(@NotNull ASTNode container) {
+            for (ASTNode child = container.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                statement(child);
+            }
+        }
+
+        void statement(@Nullable ASTNode node) {
+            if (node == null || node.getFirstChildNode() == null) {
+                // 符号（括号、分号、空白、注释）
+                return;
+            }
+            IElementType type = node.getElementType();
+            if (type == MSTypes.VAR_DECLARATION) {
+                varDeclaration(node);
+            } else if (type == MSTypes.FUNCTION_DECLARATION) {
+                ASTNode name = firstChild(node, MSTypes.NAMES);
+                add(Kind.NESTED, null, node);
+                if (name != null) {
+                    add(Kind.WRITE, name.getText(), node);
+                }
+            } else if (type == MSTypes.BLOCK_STATEMENT || type == MSTypes.FUNCTION_BODY || type == MSTypes.EXPORT_STATEMENT) {
+                statements(node);
+            } else if (type == MSTypes.IF_STATEMENT) {
+                ifStatement(node);
+            } else if (type == MSTypes.WHILE_STATEMENT) {
+                whileStatement(node);
+            } else if (type == MSTypes.DO_WHILE_STATEMENT) {
+                doWhileStatement(node);
+            } else if (type == MSTypes.FOR_STATEMENT) {
+                forStatement(node);
+            } else if (type == MSTypes.TRY_STATEMENT) {
+                tryStatement(node);
+            } else if (type == MSTypes.BREAK_STATEMENT || type == MSTypes.CONTINUE_STATEMENT) {
+                Loop loop = loops.peek();
+                if (loop != null && current != null) {
+                    (type == MSTypes.BREAK_STATEMENT ? loop.breaks : loop.continues).add(current);
+                }
+                current = null;
+            } else if (type == MSTypes.RETURN_STATEMENT || type == MSTypes.THROW_STATEMENT || type == MSTypes.EXIT_STATEMENT) {
+                expressions(node);
+                if (current != null) {
+                    exits.add(current);
+                }
+                current = null;
+            } else {
+                // 表达式语句以及解析错误节点中的表达式
+                expression(node);
+            }
+        }
+
+        void varDeclaration(@NotNull ASTNode node) {
+            ASTNode name = firstChild(node, MSTypes.NAMES);
+            ASTNode initializer = null;
+            boolean afterAssign = false;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (child.getElementType() == MSTypes.ASSIGN) {
+                    afterAssign = true;
+                } else if (afterAssign && isExpression(child)) {
+                    initializer = child;
+                    break;
+                }
+            }
+            if (initializer != null) {
+                expression(initializer);
+            }
+            if (name != null) {
+                // 没有初始值时以声明本身作为写入位置，类型为 null
+                add(Kind.WRITE, name.getText(), initializer != null ? initializer : node);
+            }
+        }
+
+        void ifStatement(@NotNull ASTNode node) {
+            ASTNode condition = null;
+            ASTNode thenBranch = null;
+            ASTNode elseBranch = null;
+            boolean afterCondition = false;
+            boolean afterElse = false;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                IElementType type = child.getElementType();
+                if (type == MSTypes.RPAREN) {
+                    afterCondition = true;
+                } else if (type == MSTypes.ELSE) {
+                    afterElse = true;
+                } else if (child.getFirstChildNode() != null) {
+                    if (afterElse) {
+                        elseBranch = child;
+                    } else if (afterCondition) {
+                        thenBranch = child;
+                    } else {
+                        condition = child;
+                    }
+                }
+            }
+
+            expression(condition);
+            Instruction branch = current;
+            statement(thenBranch);
+            Instruction afterThen = current;
+            current = branch;
+            statement(elseBranch);
+            current = join(afterThen, current);
+        }
+
+        void whileStatement(@NotNull ASTNode node) {
+            ASTNode condition = null;
+            ASTNode body = null;
+            boolean afterCondition = false;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (child.getElementType() == MSTypes.RPAREN) {
+                    afterCondition = true;
+                } else if (child.getFirstChildNode() != null) {
+                    if (afterCondition) {
+                        body = child;
+                    } else {
+                        condition = child;
+                    }
+                }
+            }
+
+            Instruction head = join(current);
+            expression(condition);
+            Instruction exitBranch = current;
+            Loop loop = new Loop();
+            loops.push(loop);
+            statement(body);
+            loops.pop();
+            link(join(current, loop.continues), head);
+            current = join(exitBranch, loop.breaks);
+        }
+
+        void doWhileStatement(@NotNull ASTNode node) {
+            ASTNode body = null;
+            ASTNode condition = null;
+            boolean afterWhile = false;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (child.getElementType() == MSTypes.WHILE) {
+                    afterWhile = true;
+                } else if (child.getFirstChildNode() != null) {
+                    if (afterWhile) {
+                        condition = child;
+                    } else {
+                        body = child;
+                    }
+                }
+            }
+
+            Instruction head = join(current);
+            Loop loop = new Loop();
+            loops.push(loop);
+            statement(body);
+            loops.pop();
+            current = join(current, loop.continues);
+            expression(condition);
+            link(current, head);
+            current = join(current, loop.breaks);
+        }
+
+        void forStatement(@NotNull ASTNode node) {
+            // for (初始化; 条件; 更新) 循环体，按分号和右括号划分各部分
+            ASTNode[] parts = new ASTNode[4];
+            int part = 0;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                IElementType type = child.getElementType();
+                if (type == MSTypes.SEMICOLON && part < 2) {
+                    part++;
+                } else if (type == MSTypes.RPAREN) {
+                    part = 3;
+                } else if (child.getFirstChildNode() != null) {
+                    parts[part] = child;
+                }
+            }
+
+            statement(parts[0]);
+            Instruction head = join(current);
+            expression(parts[1]);
+            Instruction exitBranch = current;
+            Loop loop = new Loop();
+            loops.push(loop);
+            statement(parts[3]);
+            loops.pop();
+            current = join(current, loop.continues);
+            expression(parts[2]);
+            link(current, head);
+            current = join(exitBranch, loop.breaks);
+        }
+
+        void tryStatement(@NotNull ASTNode node) {
+            Instruction entry = join(current);
+            List<Instruction> ends = new ArrayList<>();
+            Instruction tryEnd = null;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                IElementType type = child.getElementType();
+                if (type == MSTypes.BLOCK_STATEMENT) {
+                    statement(child);
+                    tryEnd = current;
+                    ends.add(tryEnd);
+                } else if (type == MSTypes.CATCH_CLAUSE) {
+                    // 异常可能在 try 块的任意位置抛出，近似为从入口或正常结束处进入
+                    current = join(entry, tryEnd);
+                    ASTNode name = firstChild(child, MSTypes.NAMES);
+                    if (name != null) {
+                        add(Kind.WRITE, name.getText(), child);
+                    }
+                    statement(firstChild(child, TokenSet.create(MSTypes.BLOCK_STATEMENT)));
+                    ends.add(current);
+                } else if (type == MSTypes.FINALLY_CLAUSE) {
+                    current = join(null, ends);
+                    ends.clear();
+                    statement(firstChild(child, TokenSet.create(MSTypes.BLOCK_STATEMENT)));
+                    ends.add(current);
+                }
+            }
+            current = join(null, ends);
+        }
+
+        // ==================== 表达式 ====================
+
+        void expressions(@NotNull ASTNode node) {
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                expression(child);
+            }
+        }
+
+        void expression(@Nullable ASTNode node) {
+            if (node == null) {
+                return;
+            }
+            IElementType type = node.getElementType();
+            if (MSTypes.NAMES.contains(type)) {
+                ASTNode parent = node.getTreeParent();
+                if (parent != null && parent.getElementType() == MSTypes.PRIMARY_EXPRESSION) {
+                    add(Kind.READ, node.getText(), node);
+                }
+            } else if (SCOPE_OWNERS.contains(type)) {
+                add(Kind.NESTED, null, node);
+            } else if (type == MSTypes.ASSIGNMENT_EXPRESSION) {
+                assignment(node);
+            } else if ((type == MSTypes.POSTFIX_EXPRESSION || type == MSTypes.UNARY_EXPRESSION) && step(node)) {
+                // ++x / x++ 已处理
+            } else if (type == MSTypes.VAR_DECLARATION) {
+                varDeclaration(node);
+            } else if (node.getFirstChildNode() != null) {
+                expressions(node);
+            }
+        }
+
+        void assignment(@NotNull ASTNode node) {
+            ASTNode target = null;
+            ASTNode operator = null;
+            ASTNode value = null;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (ASSIGNMENT_OPERATORS.contains(child.getElementType())) {
+                    operator = child;
+                } else if (isExpression(child)) {
+                    if (operator == null) {
+                        target = child;
+                    } else if (value == null) {
+                        value = child;
+                    }
+                }
+            }
+
+            ASTNode name = target != null ? simpleName(target) : null;
+            if (name == null || operator == null) {
+                // 成员或下标赋值，只产生读取
+                expressions(node);
+                return;
+            }
+            if (operator.getElementType() != MSTypes.ASSIGN) {
+                add(Kind.READ, name.getText(), name);
+            }
+            expression(value);
+            // 简单赋值以右侧表达式决定类型，复合赋值以整个表达式决定
+            add(Kind.WRITE, name.getText(), operator.getElementType() == MSTypes.ASSIGN && value != null ? value : node);
+        }
+
+        /**
+         * ++x、x--：读取后写入数值
+         */
+        boolean step(@NotNull ASTNode node) {
+            ASTNode operand = null;
+            boolean stepped = false;
+            int operands = 0;
+            for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+                if (STEP_OPERATORS.contains(child.getElementType())) {
+                    stepped = true;
+                } else if (isExpression(child)) {
+                    operand = child;
+                    operands++;
+                }
+            }
+            ASTNode name = stepped && operands == 1 ? simpleName(operand) : null;
+            if (name == null) {
+                return false;
+            }
+            add(Kind.READ, name.getText(), name);
+            add(Kind.WRITE, name.getText(), node);
+            return true;
+        }
+
+        // ==================== 图操作 ====================
+
+        @NotNull
+        Instruction create(@NotNull Kind kind, @Nullable String variable, @Nullable ASTNode element) {
+            Instruction instruction = new Instruction(instructions.size(), kind, variable, element);
+            instructions.add(instruction);
+            return instruction;
+        }
+
+        void add(@NotNull Kind kind, @Nullable String variable, @Nullable ASTNode element) {
+            Instruction instruction = create(kind, variable, element);
+            link(current, instruction);
+            current = instruction;
+        }
+
+        /**
+         * 新建汇合点；所有来源都不可达时返回 null
+         */
+        @Nullable
+        Instruction join(@Nullable Instruction first, @NotNull List<Instruction> others) {
+            if (first == null && others.isEmpty()) {
+                return null;
+            }
+            Instruction join = create(Kind.JOIN, null, null);
+            link(first, join);
+            for (Instruction other : others) {
+                link(other, join);
+            }
+            return join;
+        }
+
+        @Nullable
+        Instruction join(@Nullable Instruction first, @Nullable Instruction second) {
+            return join(first, second != null ? Collections.singletonList(second) : Collections.emptyList());
+        }
+
+        /**
+         * 循环头：即使当前不可达也要建立，循环体的回边需要落点
+         */
+        @NotNull
+        Instruction join(@Nullable Instruction first) {
+            Instruction join = create(Kind.JOIN, null, null);
+            link(first, join);
+            current = join;
+            return join;
+        }
+
+        static void link(@Nullable Instruction from, @Nullable Instruction to) {
+            if (from != null && to != null && !from.successors.contains(to)) {
+                from.successors.add(to);
+                to.predecessors.add(from);
+            }
+        }
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 是否为表达式节点（非符号、非空白注释、非错误节点本身的分隔符）
+     */
+    private static boolean isExpression(@NotNull ASTNode node) {
+        return node.getFirstChildNode() != null || MSTypes.NAMES.contains(node.getElementType())
+            || MSTypes.LITERALS.contains(node.getElementType());
+    }
+
+    /**
+     * 形如 x 的简单变量引用，返回其标识符
+     */
+    @Nullable
+    static ASTNode simpleName(@Nullable ASTNode expression) {
+        if (expression == null || expression.getElementType() != MSTypes.PRIMARY_EXPRESSION) {
+            return null;
+        }
+        ASTNode name = firstChild(expression, MSTypes.NAMES);
+        return name != null && name.getTreeNext() == null && name.getTreePrev() == null ? name : null;
+    }
+
+    @Nullable
+    static ASTNode firstChild(@NotNull ASTNode node, @NotNull TokenSet types) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (types.contains(child.getElementType())) {
+                return child;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,1033 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.codeInsight.completion.CompletionUtil;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.impl.source.tree.CompositeElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.magicapi.idea.completion.context.ControlFlowGraph.Instruction;
+import com.magicapi.idea.completion.model.ApiMethod;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.MSExportStatement;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.registry.ModuleRegistry;
+import com.magicapi.idea.search.MagicScriptFunctionSummaries;
+import com.magicapi.idea.search.MagicScriptFunctionSummary;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 流敏感的变量类型推断
+ *
+ * 对每个函数（以及顶层脚本）构建 {@link ControlFlowGraph}，沿控制流做前向数据流分析：
+ * 变量的类型由到达该位置的初始化和重新赋值决定，分支汇合处取公共父类型。
+ * 这样 {@code var page = db.page(...)} 之后的 {@code page.} 得到的是 PageResult，
+ * 而不是根据变量名猜出来的类型。
+ *
+ * 分析结果缓存在函数节点上，依赖该函数子树自身的修改计数：编辑某个函数只会让这个函数重新分析，
+ * 文件中其它函数的结果保持有效。读取了外层变量的内层函数只依赖读到的那几个外层变量的类型，
+ * 外层函数的其它编辑不会使其失效。
+ *
+ * 调用用户定义的函数时使用该函数的摘要（参数类型和返回类型）：同一文件中的顶层函数直接分析，
+ * import 的脚本中的函数从 {@link MagicScriptFunctionSummaries} 读取，只有摘要变化时才使依赖它的结果失效。
+ * import 的脚本中的顶层变量同样使用持久化索引中的类型，不重新分析被 import 的脚本。
+ *
+ * 参数的类型由 {@link ParameterTypeSolver} 根据函数体中的用法和同一文件中调用处的实参求解，
+ * 没有任何约束的参数按命名约定推断。
+ *
+ * 分析和表达式求值中设有 {@link InferenceBudget} 检查点，响应取消和时间预算。
+ *
+ * 补全在文件副本上进行，副本中只有补全位置所在的函数多了占位标识符：其它函数中的查询映射回原文件中
+ * 对应的节点，使用原文件上已有的（打开文件时预热的）缓存，只有补全位置所在的函数在副本上重新分析。
+ */
+public final class FlowTypeInference {
+
+    // 单个节点的最大重新计算次数，保证含循环的图一定收敛
+    private static final int MAX_VISITS_PER_INSTRUCTION = 16;
+
+    private static final TokenSet PLUS_ASSIGN = TokenSet.create(MSTypes.PLUS_ASSIGN);
+    private static final TokenSet NOT = TokenSet.create(MSTypes.NOT);
+
+    // 结果只取决于前一环节类型的调用链环节
+    private static final TokenSet LINKS = TokenSet.create(MSTypes.MEMBER_ACCESS, MSTypes.ARRAY_ACCESS, MSTypes.TYPE_CONVERSION);
+    private static final Key<LinkType> LINK_TYPE = Key.create("MagicScript.LinkType");
+
+    // 为索引计算摘要时的会话；非 null 时不读写 PSI 缓存，也不查询其它文件
+    private static final ThreadLocal<Session> INDEPENDENT = new ThreadLocal<>();
+    // 求解参数类型时的一轮分析；非 null 时参数取求解过程中假设的类型，分析结果不写入 PSI 缓存
+    private static final ThreadLocal<Session> SOLVING = new ThreadLocal<>();
+
+    // 函数（不含顶层脚本）的分析次数
+    private static final AtomicLong FUNCTION_ANALYSIS_COUNT = new AtomicLong();
+    // 外层变量依赖的戳记
+    private static final AtomicLong OUTER_STAMPS = new AtomicLong();
+
+    private FlowTypeInference() {
+    }
+
+    /**
+     * 推断变量引用在该位置的类型
+     * @param reference 标识符或只包含标识符的表达式
+     * @return 变量类型；不是当前作用域链中定义的变量时返回 null
+     */
+    @Nullable
+    public static MagicType getVariableType(@NotNull PsiElement reference) {
+        ASTNode name = nameOf(reference.getNode());
+        if (name == null) {
+            return null;
+        }
+        name = inOriginal(name);
+        return analysis(ControlFlowGraph.findOwner(name)).readTypes.get(name);
+    }
+
+    /**
+     * 推断任意表达式的类型，其中的变量引用使用流敏感的结果
+     * @param expression 表达式
+     * @return 表达式类型；无法推断时为 Object
+     */
+    @NotNull
+    public static MagicType getExpressionType(@NotNull PsiElement expression) {
+        ASTNode node = expression.getNode();
+        if (node == null) {
+            return MagicType.OBJECT;
+        }
+        node = inOriginal(node);
+        Analysis analysis = analysis(ControlFlowGraph.findOwner(node));
+        return typeOf(node, name -> analysis.readTypes.get(name));
+    }
+
+    /**
+     * 推断调用链到某一环节（含）为止的类型
+     * @param link 后缀表达式中的成员访问、调用、下标或类型转换
+     * @return 该环节的结果类型
+     */
+    @NotNull
+    public static MagicType getLinkType(@NotNull ASTNode link) {
+        link = inOriginal(link);
+        ASTNode postfix = link.getTreeParent();
+        if (postfix == null || postfix.getElementType() != MSTypes.POSTFIX_EXPRESSION) {
+            return MagicType.OBJECT;
+        }
+        Analysis analysis = analysis(ControlFlowGraph.findOwner(link));
+        return chainType(postfix, link, name -> analysis.readTypes.get(name));
+    }
+
+    /**
+     * 推断某一环节的接收者类型，即调用链上前一个环节（或根对象）的类型
+     * @param link 后缀表达式中的成员访问、调用、下标或类型转换
+     * @return 接收者类型
+     */
+    @NotNull
+    public static MagicType getReceiverType(@NotNull ASTNode link) {
+        ASTNode previous = inOriginal(link).getTreePrev();
+        while (previous != null && previous.getFirstChildNode() == null
+            && previous.getElementType() != MSTypes.INCREMENT && previous.getElementType() != MSTypes.DECREMENT) {
+            // 跳过空白和注释
+            previous = previous.getTreePrev();
+        }
+        if (previous == null) {
+            return MagicType.OBJECT;
+        }
+        return previous.getElementType() == MSTypes.PRIMARY_EXPRESSION ? getExpressionType(previous.getPsi()) : getLinkType(previous);
+    }
+
+    /**
+     * 预先分析顶层脚本和各顶层函数，之后对其中变量和调用的查询直接命中缓存
+     * @param file 脚本文件
+     */
+    public static void warmUp(@NotNull MSFile file) {
+        analysis(file.getNode());
+        for (PsiElement element : file.getChildren()) {
+            PsiElement declaration = element instanceof MSExportStatement ? ((MSExportStatement) element).getDeclaration() : element;
+            if (declaration instanceof MSFunctionDeclaration) {
+                getSummary((MSFunctionDeclaration) declaration);
+            }
+        }
+    }
+
+    /**
+     * 获取函数摘要，结果缓存在函数上，随所在文件和 import 的函数摘要失效
+     * @param function 函数声明
+     * @return 函数摘要；递归调用自身时返回 null
+     */
+    @Nullable
+    public static MagicScriptFunctionSummary getSummary(@NotNull MSFunctionDeclaration function) {
+        if (INDEPENDENT.get() != null || SOLVING.get() != null) {
+            return RecursionManager.doPreventingRecursion(function, false, () -> summarize(function.getNode()));
+        }
+        ASTNode original = original(function.getNode());
+        if (original != null && original.getPsi() instanceof MSFunctionDeclaration) {
+            return getSummary((MSFunctionDeclaration) original.getPsi());
+        }
+        return CachedValuesManager.getCachedValue(function, () -> CachedValueProvider.Result.create(
+            RecursionManager.doPreventingRecursion(function, false, () -> summarize(function.getNode())),
+            function.getContainingFile(), MagicScriptFunctionSummaries.getInstance(function.getProject()), ModuleRegistry.getInstance()));
+    }
+
+    /**
+     * 只依据函数所在文件的内容计算摘要，调用其它文件中的函数按 Object 处理，供索引使用
+     * @param function 函数声明节点
+     * @return 函数摘要
+     */
+    @NotNull
+    public static MagicScriptFunctionSummary computeIndependentSummary(@NotNull ASTNode function) {
+        return independently(() -> summarize(function));
+    }
+
+    /**
+     * 只依据文件自身的内容计算顶层变量在脚本结束处的类型，供索引使用
+     * @param file 文件根节点
+     * @return 顶层 var 声明（含 export 的）的变量名 -> 类型
+     */
+    @NotNull
+    public static Map<String, MagicType> computeIndependentTopLevelTypes(@NotNull ASTNode file) {
+        return independently(() -> {
+            Map<String, MagicType> exitTypes = analysis(file).exitTypes;
+            Map<String, MagicType> result = new HashMap<>();
+            for (ASTNode statement = file.getFirstChildNode(); statement != null; statement = statement.getTreeNext()) {
+                ASTNode declaration = statement.getElementType() == MSTypes.EXPORT_STATEMENT
+                    ? statement.findChildByType(MSTypes.VAR_DECLARATION)
+                    : statement.getElementType() == MSTypes.VAR_DECLARATION ? statement : null;
+                ASTNode name = declaration != null ? ControlFlowGraph.firstChild(declaration, MSTypes.NAMES) : null;
+                MagicType type = name != null ? exitTypes.get(name.getText()) : null;
+                if (type != null) {
+                    result.putIfAbsent(name.getText(), type);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 不读写 PSI 缓存、不查询其它文件、不受请求预算限制地执行分析
+     */
+    private static <T> T independently(@NotNull Supplier<T> computation) {
+        Session previous = INDEPENDENT.get();
+        INDEPENDENT.set(new Session(null));
+        try {
+            return InferenceBudget.unbounded(computation);
+        } finally {
+            INDEPENDENT.set(previous);
+        }
+    }
+
+    /**
+     * 以假设的参数类型执行分析，期间的分析结果不写入缓存，供参数类型求解的每一轮使用
+     * @param parameterTypes 参数节点 -> 假设的类型，不在其中的参数按命名约定推断
+     */
+    static <T> T assuming(@NotNull Map<ASTNode, MagicType> parameterTypes, @NotNull Supplier<T> computation) {
+        Session previous = SOLVING.get();
+        SOLVING.set(new Session(parameterTypes));
+        try {
+            return computation.get();
+        } finally {
+            SOLVING.set(previous);
+        }
+    }
+
+    /**
+     * 变量引用在所属函数中的类型，供参数类型求解计算调用处实参的类型
+     */
+    @Nullable
+    static MagicType variableType(@NotNull ASTNode owner, @NotNull ASTNode reference) {
+        return analysis(owner).readTypes.get(reference);
+    }
+
+    /**
+     * 是否正在为索引计算，此时不读写 PSI 缓存
+     */
+    static boolean isIndependent() {
+        return INDEPENDENT.get() != null;
+    }
+
+    /**
+     * 自启动以来分析函数（不含顶层脚本）的次数
+     */
+    @TestOnly
+    static long getFunctionAnalysisCount() {
+        return FUNCTION_ANALYSIS_COUNT.get();
+    }
+
+    // ==================== 补全副本 ====================
+
+    /**
+     * 补全副本中的节点在原文件中对应的节点；不在副本中、或节点范围包含补全位置时返回 null
+     */
+    @Nullable
+    private static ASTNode original(@NotNull ASTNode node) {
+        if (INDEPENDENT.get() != null || SOLVING.get() != null) {
+            return null;
+        }
+        PsiElement element = node.getPsi();
+        PsiFile file = element.getContainingFile();
+        if (file == null || file.getOriginalFile() == file) {
+            return null;
+        }
+        // 原文件中与之范围相同的节点；范围跨过占位标识符时找不到
+        PsiElement original = CompletionUtil.getOriginalElement(element, file);
+        ASTNode result = original != null ? original.getNode() : null;
+        return result != null && result.getElementType() == node.getElementType() && result.getTextLength() == node.getTextLength()
+            ? result : null;
+    }
+
+    /**
+     * 所在函数不包含补全位置时换成原文件中的节点，否则保持不变
+     */
+    @NotNull
+    private static ASTNode inOriginal(@NotNull ASTNode node) {
+        if (original(ControlFlowGraph.findOwner(node)) == null) {
+            return node;
+        }
+        ASTNode original = original(node);
+        return original != null ? original : node;
+    }
+
+    // ==================== 分析与缓存 ====================
+
+    /**
+     * 不使用 PSI 缓存的一次计算：其中的分析结果，以及参数类型
+     */
+    private static final class Session {
+        final Map<ASTNode, Analysis> analyses = new HashMap<>();
+        // 参数节点 -> 类型；为索引计算时在第一次用到时求解
+        Map<ASTNode, MagicType> parameterTypes;
+
+        Session(@Nullable Map<ASTNode, MagicType> parameterTypes) {
+            this.parameterTypes = parameterTypes;
+        }
+    }
+
+    /**
+     * 单个函数的分析结果
+     */
+    private static final class Analysis {
+        // 变量引用（标识符节点）-> 该处的类型
+        final Map<ASTNode, MagicType> readTypes = new HashMap<>();
+        // 内层函数节点 -> 其定义处可见的变量类型，供内层函数查询外层变量
+        final Map<ASTNode, Map<String, MagicType>> nestedScopes = new HashMap<>();
+        // 出口处的变量类型
+        Map<String, MagicType> exitTypes = Collections.emptyMap();
+        // 读取的外层变量名 -> 分析时读到的类型（未找到时为 null）
+        final Map<String, MagicType> outerReads = new HashMap<>();
+    }
+
+    @NotNull
+    private static Analysis analysis(@NotNull ASTNode owner) {
+        Session session = SOLVING.get() != null ? SOLVING.get() : INDEPENDENT.get();
+        if (session != null) {
+            Analysis analysis = session.analyses.get(owner);
+            if (analysis == null) {
+                analysis = analyze(owner);
+                session.analyses.put(owner, analysis);
+            }
+            return analysis;
+        }
+        PsiElement element = owner.getPsi();
+        return CachedValuesManager.getCachedValue(element, () -> {
+            Analysis analysis = analyze(owner);
+            List<Object> dependencies = new ArrayList<>();
+            dependencies.add(dependencyOf(owner));
+            dependencies.add(MagicScriptFunctionSummaries.getInstance(element.getProject()));
+            // 模块方法和全局函数的返回类型来自注册表
+            dependencies.add(ModuleRegistry.getInstance());
+            PsiFile file = element.getContainingFile();
+            if (file != null && file.getOriginalFile() != file) {
+                // 副本中的参数类型取原文件的求解结果，不在副本上重新求解
+                dependencies.add(file);
+                dependencies.add(file.getOriginalFile());
+            } else if (owner.getTreeParent() != null) {
+                // 参数类型取决于文件中的调用处，只在求解结果变化时失效
+                dependencies.add(ParameterTypeSolver.tracker(owner));
+            }
+            if (!analysis.outerReads.isEmpty()) {
+                // 引用了外层变量的 lambda 只随读到的外层变量类型失效，不依赖外层函数的其它内容
+                dependencies.add(outerReadsTracker(owner, analysis.outerReads));
+            }
+            return CachedValueProvider.Result.create(analysis, dependencies);
+        });
+    }
+
+    /**
+     * 函数节点以自身子树的修改计数作为依赖，顶层脚本以文件作为依赖
+     */
+    @NotNull
+    private static Object dependencyOf(@NotNull ASTNode owner) {
+        if (owner.getTreeParent() != null && owner instanceof CompositeElement) {
+            CompositeElement composite = (CompositeElement) owner;
+            return (ModificationTracker) composite::getModificationCount;
+        }
+        return owner.getPsi();
+    }
+
+    /**
+     * 外层变量的修改追踪器：读到的外层变量类型都不变时保持同一戳记，任何一个变化时换成新的戳记
+     */
+    @NotNull
+    private static ModificationTracker outerReadsTracker(@NotNull ASTNode owner, @NotNull Map<String, MagicType> outerReads) {
+        long stamp = OUTER_STAMPS.incrementAndGet();
+        return () -> {
+            for (Map.Entry<String, MagicType> read : outerReads.entrySet()) {
+                if (outerVariableType(owner, read.getKey()) != read.getValue()) {
+                    return OUTER_STAMPS.incrementAndGet();
+                }
+            }
+            return stamp;
+        };
+    }
+
+    @Nullable
+    private static ASTNode enclosingOwner(@NotNull ASTNode owner) {
+        return owner.getTreeParent() != null ? ControlFlowGraph.findOwner(owner) : null;
+    }
+
+    /**
+     * 查询外层函数中 nested 定义处可见的变量类型
+     */
+    @Nullable
+    private static MagicType outerVariableType(@NotNull ASTNode nested, @NotNull String name) {
+        for (ASTNode inner = nested, outer = enclosingOwner(nested); outer != null; inner = outer, outer = enclosingOwner(outer)) {
+            Map<String, MagicType> scope = analysis(outer).nestedScopes.get(inner);
+            MagicType type = scope != null ? scope.get(name) : null;
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 前向数据流分析：每条指令入口处的变量类型表为所有前驱出口处类型表的合并
+     */
+    @NotNull
+    static Analysis analyze(@NotNull ASTNode owner) {
+        if (owner.getTreeParent() != null) {
+            FUNCTION_ANALYSIS_COUNT.incrementAndGet();
+        }
+        ControlFlowGraph graph = ControlFlowGraph.build(owner);
+        List<Instruction> instructions = graph.getInstructions();
+        List<Map<String, MagicType>> in = new ArrayList<>(Collections.nCopies(instructions.size(), null));
+        int[] visits = new int[instructions.size()];
+        boolean[] queued = new boolean[instructions.size()];
+        Analysis analysis = new Analysis();
+
+        Deque<Instruction> worklist = new ArrayDeque<>();
+        in.set(graph.getEntry().getIndex(), new HashMap<>());
+        worklist.add(graph.getEntry());
+        while (!worklist.isEmpty()) {
+            InferenceBudget.checkpoint();
+            Instruction instruction = worklist.poll();
+            queued[instruction.getIndex()] = false;
+            Map<String, MagicType> out = transfer(instruction, in.get(instruction.getIndex()), owner, analysis);
+            for (Instruction successor : instruction.getSuccessors()) {
+                Map<String, MagicType> current = in.get(successor.getIndex());
+                Map<String, MagicType> merged = current == null ? out : merge(current, out);
+                if (!merged.equals(current) && visits[successor.getIndex()]++ < MAX_VISITS_PER_INSTRUCTION) {
+                    in.set(successor.getIndex(), merged);
+                    if (!queued[successor.getIndex()]) {
+                        queued[successor.getIndex()] = true;
+                        worklist.add(successor);
+                    }
+                }
+            }
+        }
+
+        // 不动点上记录每个引用处的类型和内层函数可见的变量
+        for (Instruction instruction : instructions) {
+            Map<String, MagicType> env = in.get(instruction.getIndex());
+            if (env == null) {
+                continue;
+            }
+            if (instruction.getKind() == ControlFlowGraph.Kind.READ) {
+                MagicType type = lookup(env, instruction.getVariable(), owner, analysis);
+                if (type != null) {
+                    analysis.readTypes.put(instruction.getElement(), type);
+                }
+            } else if (instruction.getKind() == ControlFlowGraph.Kind.NESTED) {
+                analysis.nestedScopes.put(instruction.getElement(), env);
+            } else if (instruction.getKind() == ControlFlowGraph.Kind.EXIT) {
+                analysis.exitTypes = env;
+            }
+        }
+        return analysis;
+    }
+
+    @NotNull
+    private static Map<String, MagicType> transfer(@NotNull Instruction instruction, @NotNull Map<String, MagicType> env,
+                                                   @NotNull ASTNode owner, @NotNull Analysis analysis) {
+        if (instruction.getKind() != ControlFlowGraph.Kind.WRITE) {
+            return env;
+        }
+        String variable = instruction.getVariable();
+        MagicType type = writtenType(instruction.getElement(), env, variable,
+            name -> lookup(env, name.getText(), owner, analysis));
+        Map<String, MagicType> result = new HashMap<>(env);
+        result.put(variable, type);
+        return result;
+    }
+
+    @Nullable
+    private static MagicType lookup(@NotNull Map<String, MagicType> env, @NotNull String name,
+                                    @NotNull ASTNode owner, @NotNull Analysis analysis) {
+        MagicType type = env.get(name);
+        if (type == null && owner.getTreeParent() != null && !isGlobalName(name)) {
+            type = outerVariableType(owner, name);
+            analysis.outerReads.put(name, type);
+        }
+        return type;
+    }
+
+    /**
+     * 内置模块和全局函数不会被外层变量覆盖，引用它们不必依赖外层函数
+     */
+    private static boolean isGlobalName(@NotNull String name) {
+        ModuleRegistry registry = ModuleRegistry.getInstance();
+        return registry.hasModule(name) || registry.getGlobalFunction(name) != null;
+    }
+
+    /**
+     * 写入指令产生的类型
+     */
+    @NotNull
+    private static MagicType writtenType(@NotNull ASTNode element, @NotNull Map<String, MagicType> env, @NotNull String variable,
+                                         @NotNull Function<ASTNode, MagicType> names) {
+        IElementType type = element.getElementType();
+        if (type == MSTypes.PARAMETER) {
+            return parameterType(element, variable);
+        }
+        if (type == MSTypes.VAR_DECLARATION) {
+            // 只声明未赋值
+            return MagicType.NULL;
+        }
+        if (type == MSTypes.CATCH_CLAUSE) {
+            return MagicType.OBJECT;
+        }
+        if (type == MSTypes.FUNCTION_DECLARATION) {
+            return MagicType.FUNCTION;
+        }
+        if (type == MSTypes.ASSIGNMENT_EXPRESSION) {
+            return compoundAssignmentType(element, env.get(variable), names);
+        }
+        return typeOf(element, names);
+    }
+
+    /**
+     * 参数的类型：求解结果，没有约束时按命名约定
+     */
+    @NotNull
+    private static MagicType parameterType(@NotNull ASTNode parameter, @NotNull String name) {
+        MagicType type;
+        Session solving = SOLVING.get();
+        Session independent = INDEPENDENT.get();
+        if (solving != null) {
+            type = solving.parameterTypes.get(parameter);
+        } else if (independent != null) {
+            if (independent.parameterTypes == null) {
+                ASTNode root = parameter;
+                while (root.getTreeParent() != null) {
+                    root = root.getTreeParent();
+                }
+                independent.parameterTypes = ParameterTypeSolver.solve(root, null).types;
+            }
+            type = independent.parameterTypes.get(parameter);
+        } else {
+            ASTNode original = original(parameter);
+            type = ParameterTypeSolver.getParameterType(original != null ? original : parameter);
+        }
+        return type != null ? type : ModuleRegistry.getInstance().getTypeSystemProvider().inferTypeByNaming(name);
+    }
+
+    /**
+     * x += y：字符串拼接或数值运算
+     */
+    @NotNull
+    private static MagicType compoundAssignmentType(@NotNull ASTNode assignment, @Nullable MagicType previous,
+                                                    @NotNull Function<ASTNode, MagicType> names) {
+        boolean plus = ControlFlowGraph.firstChild(assignment, PLUS_ASSIGN) != null;
+        List<ASTNode> operands = operands(assignment);
+        MagicType valueType = operands.size() > 1 ? typeOf(operands.get(operands.size() - 1), names) : MagicType.OBJECT;
+        if (plus && (previous == MagicType.STRING || valueType == MagicType.STRING)) {
+            return MagicType.STRING;
+        }
+        return previous != null && previous == valueType && isNumber(previous) ? previous : MagicType.NUMBER;
+    }
+
+    // ==================== 函数摘要 ====================
+
+    /**
+     * 参数类型为求解结果（没有约束时按命名约定）；返回类型为函数体中各 return 表达式类型的合并
+     */
+    @NotNull
+    private static MagicScriptFunctionSummary summarize(@NotNull ASTNode function) {
+        List<MagicType> parameterTypes = new ArrayList<>();
+        ASTNode parameterList = function.findChildByType(MSTypes.PARAMETER_LIST);
+        if (parameterList != null) {
+            for (ASTNode parameter = parameterList.getFirstChildNode(); parameter != null; parameter = parameter.getTreeNext()) {
+                ASTNode name = parameter.getElementType() == MSTypes.PARAMETER
+                    ? ControlFlowGraph.firstChild(parameter, MSTypes.NAMES) : null;
+                if (name != null) {
+                    parameterTypes.add(parameterType(parameter, name.getText()));
+                }
+            }
+        }
+
+        Analysis analysis = analysis(function);
+        MagicType returnType = MagicType.NULL;
+        ASTNode body = function.findChildByType(MSTypes.FUNCTION_BODY);
+        if (body != null) {
+            List<ASTNode> returns = new ArrayList<>();
+            collectReturns(body, returns);
+            for (ASTNode statement : returns) {
+                ASTNode value = firstOperand(statement);
+                if (value != null) {
+                    returnType = join(returnType, typeOf(value, name -> analysis.readTypes.get(name)));
+                }
+            }
+        }
+        return new MagicScriptFunctionSummary(Collections.unmodifiableList(parameterTypes), returnType);
+    }
+
+    /**
+     * 收集属于当前函数的 return 语句，不进入内层函数和 lambda
+     */
+    private static void collectReturns(@NotNull ASTNode node, @NotNull List<ASTNode> returns) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            IElementType type = child.getElementType();
+            if (type == MSTypes.RETURN_STATEMENT) {
+                returns.add(child);
+            } else if (!ControlFlowGraph.SCOPE_OWNERS.contains(type)) {
+                collectReturns(child, returns);
+            }
+        }
+    }
+
+    // ==================== 表达式类型 ====================
+
+    /**
+     * 计算表达式类型；names 给出变量引用（标识符节点）的类型，返回 null 表示未知
+     */
+    @NotNull
+    static MagicType typeOf(@NotNull ASTNode node, @NotNull Function<ASTNode, MagicType> names) {
+        InferenceBudget.checkpoint();
+        IElementType type = node.getElementType();
+
+        if (MSTypes.NAMES.contains(type)) {
+            MagicType variableType = names.apply(node);
+            if (variableType != null) {
+                return variableType;
+            }
+            // 未定义的变量名可能是内置模块，模块以模块名作为类型名
+            String name = node.getText();
+            if (type == MSTypes.BUILTIN_MODULE || ModuleRegistry.getInstance().hasModule(name)) {
+                return MagicType.of(name);
+            }
+            // 或者是 import 的脚本中的顶层变量
+            MagicType importedType = INDEPENDENT.get() == null
+                ? MagicScriptFunctionSummaries.getInstance(node.getPsi().getProject()).findImportedVariable(node.getPsi(), name)
+                : null;
+            return importedType != null ? importedType : MagicType.OBJECT;
+        }
+        if (MSTypes.LITERALS.contains(type)) {
+            return literalType(node);
+        }
+        if (type == MSTypes.PRIMARY_EXPRESSION) {
+            ASTNode inner = firstOperand(node);
+            return inner != null ? typeOf(inner, names) : MagicType.OBJECT;
+        }
+        if (type == MSTypes.POSTFIX_EXPRESSION) {
+            return postfixType(node, names);
+        }
+        if (type == MSTypes.ASSIGNMENT_EXPRESSION) {
+            List<ASTNode> operands = operands(node);
+            return operands.size() > 1 ? typeOf(operands.get(operands.size() - 1), names) : MagicType.OBJECT;
+        }
+        if (type == MSTypes.CONDITIONAL_EXPRESSION || type == MSTypes.LOGICAL_OR_EXPRESSION) {
+            // a ? b : c 与 a || b 的值来自后面的分支
+            List<ASTNode> operands = operands(node);
+            int first = type == MSTypes.CONDITIONAL_EXPRESSION ? 1 : 0;
+            MagicType result = null;
+            for (int i = first; i < operands.size(); i++) {
+                MagicType operandType = typeOf(operands.get(i), names);
+                result = result == null ? operandType : join(result, operandType);
+            }
+            return result != null ? result : MagicType.OBJECT;
+        }
+        if (type == MSTypes.LOGICAL_AND_EXPRESSION || type == MSTypes.EQUALITY_EXPRESSION
+            || type == MSTypes.RELATIONAL_EXPRESSION) {
+            return MagicType.BOOLEAN;
+        }
+        if (type == MSTypes.ADDITIVE_EXPRESSION || type == MSTypes.MULTIPLICATIVE_EXPRESSION) {
+            return arithmeticType(node, type == MSTypes.ADDITIVE_EXPRESSION, names);
+        }
+        if (type == MSTypes.UNARY_EXPRESSION) {
+            if (ControlFlowGraph.firstChild(node, NOT) != null) {
+                return MagicType.BOOLEAN;
+            }
+            ASTNode operand = firstOperand(node);
+            MagicType operandType = operand != null ? typeOf(operand, names) : MagicType.NUMBER;
+            return isNumber(operandType) ? operandType : MagicType.NUMBER;
+        }
+        if (ControlFlowGraph.SCOPE_OWNERS.contains(type)) {
+            return MagicType.FUNCTION;
+        }
+        if (type == MSTypes.ARRAY_LITERAL) {
+            return MagicType.ARRAY;
+        }
+        if (type == MSTypes.OBJECT_LITERAL) {
+            return MagicType.MAP;
+        }
+        if (type == MSTypes.TEMPLATE_STRING || type == MSTypes.TEXT_BLOCK) {
+            return MagicType.STRING;
+        }
+        if (type == MSTypes.LINQ_EXPRESSION) {
+            return MagicType.parameterized(MagicType.LIST, MagicType.parameterized(MagicType.MAP, MagicType.STRING, MagicType.OBJECT));
+        }
+        if (type == MSTypes.EXPRESSION_STATEMENT) {
+            ASTNode inner = firstOperand(node);
+            return inner != null ? typeOf(inner, names) : MagicType.OBJECT;
+        }
+        return MagicType.OBJECT;
+    }
+
+    /**
+     * 调用链：主表达式之后依次应用成员访问、调用、下标和类型转换
+     */
+    @NotNull
+    private static MagicType postfixType(@NotNull ASTNode postfix, @NotNull Function<ASTNode, MagicType> names) {
+        return chainType(postfix, null, names);
+    }
+
+    /**
+     * 调用链到 last（含）为止的类型，last 为 null 时到调用链末尾
+     * 链头（主表达式，以及紧随其后的以名称调用）每次查询时求值；之后每个环节的结果只取决于直接限定它的前一环节，
+     * 按前一环节的类型缓存在环节上。调用链没有被修改、链头类型和注册表都没有变化时，查询直接取 last 上缓存的结果；
+     * 否则从 last 向前找到第一个仍然有效的缓存，只重新计算其后的环节
+     */
+    @NotNull
+    private static MagicType chainType(@NotNull ASTNode postfix, @Nullable ASTNode last,
+                                       @NotNull Function<ASTNode, MagicType> names) {
+        ASTNode start = postfix.findChildByType(MSTypes.PRIMARY_EXPRESSION);
+        MagicType head = MagicType.OBJECT;
+        if (start != null) {
+            head = typeOf(start, names);
+            ASTNode callee = ControlFlowGraph.simpleName(start);
+            ASTNode call = nextLink(start);
+            if (callee != null && call != null && call.getElementType() == MSTypes.FUNCTION_CALL) {
+                head = callType(callee, names.apply(callee) != null);
+                start = call;
+            }
+        }
+        if (last == null) {
+            last = postfix.getLastChildNode();
+            while (last != null && !isLink(last)) {
+                last = last.getTreePrev();
+            }
+        }
+        if (last == null || last == start) {
+            return head;
+        }
+
+        long chainStamp = stampOf(postfix);
+        long registryStamp = ModuleRegistry.getInstance().getModificationCount();
+        // 从 last 向前找到链头或第一个仍然有效的缓存
+        Deque<ASTNode> pending = new ArrayDeque<>();
+        MagicType current = MagicType.OBJECT;
+        for (ASTNode link = last; link != null; link = previousLink(link)) {
+            if (link == start) {
+                current = head;
+                break;
+            }
+            LinkType cached = link.getUserData(LINK_TYPE);
+            if (cached != null && cached.chainStamp == chainStamp && cached.stamp == stampOf(link)
+                && cached.registryStamp == registryStamp && cached.head == head) {
+                current = cached.output;
+                break;
+            }
+            pending.push(link);
+        }
+        while (!pending.isEmpty()) {
+            current = linkType(pending.pop(), current, head, chainStamp, registryStamp);
+        }
+        return current;
+    }
+
+    /**
+     * 环节的类型：环节自身未被修改、注册表未重新加载且前一环节的类型相同时沿用缓存，
+     * 否则重新计算；结果连同调用链和链头的状态一起存回环节
+     */
+    @NotNull
+    private static MagicType linkType(@NotNull ASTNode link, @NotNull MagicType input, @NotNull MagicType head,
+                                      long chainStamp, long registryStamp) {
+        InferenceBudget.checkpoint();
+        long stamp = stampOf(link);
+        LinkType cached = link.getUserData(LINK_TYPE);
+        MagicType output;
+        if (cached != null && cached.stamp == stamp && cached.registryStamp == registryStamp && cached.input == input) {
+            output = cached.output;
+        } else {
+            output = computeLinkType(link, input);
+        }
+        link.putUserData(LINK_TYPE, new LinkType(stamp, chainStamp, registryStamp, head, input, output));
+        return output;
+    }
+
+    @NotNull
+    private static MagicType computeLinkType(@NotNull ASTNode link, @NotNull MagicType input) {
+        IElementType type = link.getElementType();
+        if (type == MSTypes.MEMBER_ACCESS) {
+            ASTNode name = ControlFlowGraph.firstChild(link, MSTypes.NAMES);
+            return name != null ? ModuleRegistry.getInstance().getMethodReturnType(input, name.getText()) : MagicType.OBJECT;
+        }
+        if (type == MSTypes.ARRAY_ACCESS) {
+            return elementType(input);
+        }
+        if (type == MSTypes.TYPE_CONVERSION) {
+            ASTNode target = ControlFlowGraph.firstChild(link, MSTypes.NAMES);
+            return target != null ? MagicType.of(target.getText()) : MagicType.OBJECT;
+        }
+        if (type == MSTypes.INCREMENT || type == MSTypes.DECREMENT) {
+            return isNumber(input) ? input : MagicType.NUMBER;
+        }
+        // 方法调用的返回类型已在成员访问时得到
+        return input;
+    }
+
+    /**
+     * 环节上缓存的类型
+     */
+    private static final class LinkType {
+        // 环节自身的修改计数
+        final long stamp;
+        // 所在调用链的修改计数，未变化时前面的环节都没有被修改
+        final long chainStamp;
+        final long registryStamp;
+        final MagicType head;
+        final MagicType input;
+        final MagicType output;
+
+        LinkType(long stamp, long chainStamp, long registryStamp, @NotNull MagicType head,
+                 @NotNull MagicType input, @NotNull MagicType output) {
+            this.stamp = stamp;
+            this.chainStamp = chainStamp;
+            this.registryStamp = registryStamp;
+            this.head = head;
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    private static long stampOf(@NotNull ASTNode node) {
+        return node instanceof CompositeElement ? ((CompositeElement) node).getModificationCount() : 0;
+    }
+
+    private static boolean isLink(@NotNull ASTNode node) {
+        IElementType type = node.getElementType();
+        return LINKS.contains(type) || type == MSTypes.FUNCTION_CALL || type == MSTypes.PRIMARY_EXPRESSION
+            || type == MSTypes.INCREMENT || type == MSTypes.DECREMENT;
+    }
+
+    /**
+     * 调用链上直接限定 link 的前一环节（跳过空白和注释）
+     */
+    @Nullable
+    private static ASTNode previousLink(@NotNull ASTNode link) {
+        ASTNode previous = link.getTreePrev();
+        while (previous != null && !isLink(previous)) {
+            previous = previous.getTreePrev();
+        }
+        return previous;
+    }
+
+    @Nullable
+    private static ASTNode nextLink(@NotNull ASTNode link) {
+        ASTNode next = link.getTreeNext();
+        while (next != null && !isLink(next)) {
+            next = next.getTreeNext();
+        }
+        return next;
+    }
+
+    /**
+     * 直接以名称调用的返回类型：局部定义的名称查同一文件中的顶层函数，
+     * 其余先查全局函数（如 uuid()），再查 import 的脚本中的函数
+     */
+    @NotNull
+    private static MagicType callType(@NotNull ASTNode callee, boolean local) {
+        String name = callee.getText();
+        MagicScriptFunctionSummary summary = null;
+        if (local) {
+            PsiFile file = callee.getPsi().getContainingFile();
+            PsiNamedElement declaration = file instanceof MSFile ? ((MSFile) file).findTopLevelDeclaration(name) : null;
+            if (declaration instanceof MSFunctionDeclaration) {
+                summary = getSummary((MSFunctionDeclaration) declaration);
+            }
+        } else {
+            ApiMethod function = ModuleRegistry.getInstance().getGlobalFunction(name);
+            if (function != null) {
+                return function.getReturnType() != null ? function.getReturnType() : MagicType.OBJECT;
+            }
+            if (INDEPENDENT.get() == null) {
+                PsiElement element = callee.getPsi();
+                summary = MagicScriptFunctionSummaries.getInstance(element.getProject()).findImportedFunction(element, name);
+            }
+        }
+        return summary != null ? summary.getReturnType() : MagicType.OBJECT;
+    }
+
+    /**
+     * 下标访问的结果：集合取元素类型，Map 取值类型
+     */
+    @NotNull
+    private static MagicType elementType(@NotNull MagicType container) {
+        MagicType raw = container.getRawType();
+        if (raw == MagicType.MAP) {
+            return container.getTypeArgument(1);
+        }
+        if (raw == MagicType.ARRAY || raw == MagicType.LIST || raw == MagicType.SET) {
+            return container.getTypeArgument(0);
+        }
+        return MagicType.OBJECT;
+    }
+
+    /**
+     * 加法有字符串参与时为字符串；操作数类型相同的数值运算保持该类型，否则为 Number
+     */
+    @NotNull
+    private static MagicType arithmeticType(@NotNull ASTNode node, boolean additive, @NotNull Function<ASTNode, MagicType> names) {
+        MagicType common = null;
+        for (ASTNode operand : operands(node)) {
+            MagicType operandType = typeOf(operand, names);
+            if (additive && operandType == MagicType.STRING) {
+                return MagicType.STRING;
+            }
+            common = common == null || common == operandType ? operandType : MagicType.NUMBER;
+        }
+        return common != null && isNumber(common) ? common : MagicType.NUMBER;
+    }
+
+    @NotNull
+    private static MagicType literalType(@NotNull ASTNode literal) {
+        IElementType type = literal.getElementType();
+        if (type == MSTypes.STRING_LITERAL) {
+            return MagicType.STRING;
+        }
+        if (type == MSTypes.TRUE || type == MSTypes.FALSE) {
+            return MagicType.BOOLEAN;
+        }
+        if (type == MSTypes.NULL || type == MSTypes.UNDEFINED) {
+            return MagicType.NULL;
+        }
+        String text = literal.getText().toLowerCase();
+        if (text.endsWith("l")) {
+            return MagicType.LONG;
+        }
+        if (text.startsWith("0x")) {
+            return MagicType.INTEGER;
+        }
+        if (text.endsWith("f")) {
+            return MagicType.FLOAT;
+        }
+        if (text.contains(".") || text.contains("e") || text.endsWith("d")) {
+            return MagicType.DOUBLE;
+        }
+        return MagicType.INTEGER;
+    }
+
+    /**
+     * 合并两个分支上的类型：null 不影响结果，有继承关系时取父类型，否则为 Object
+     */
+    @NotNull
+    static MagicType join(@NotNull MagicType first, @NotNull MagicType second) {
+        if (first == second || second == MagicType.NULL) {
+            return first;
+        }
+        if (first == MagicType.NULL) {
+            return second;
+        }
+        ModuleRegistry registry = ModuleRegistry.getInstance();
+        if (registry.getTypeSystemProvider().isSubtypeOf(first, second)) {
+            return second;
+        }
+        if (registry.getTypeSystemProvider().isSubtypeOf(second, first)) {
+            return first;
+        }
+        return MagicType.OBJECT;
+    }
+
+    @NotNull
+    private static Map<String, MagicType> merge(@NotNull Map<String, MagicType> first, @NotNull Map<String, MagicType> second) {
+        Map<String, MagicType> result = new HashMap<>(first);
+        second.forEach((name, type) -> result.merge(name, type, FlowTypeInference::join));
+        return result;
+    }
+
+    private static boolean isNumber(@NotNull MagicType type) {
+        return ModuleRegistry.getInstance().getTypeSystemProvider().isNumberType(type);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    /**
+     * 标识符本身，或只包含一个标识符的主表达式
+     */
+    @Nullable
+    static ASTNode nameOf(@Nullable ASTNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (MSTypes.NAMES.contains(node.getElementType())) {
+            return node;
+        }
+        return ControlFlowGraph.simpleName(node);
+    }
+
+    /**
+     * 表达式的操作数子节点（跳过运算符、括号等符号）
+     */
+    @NotNull
+    private static List<ASTNode> operands(@NotNull ASTNode node) {
+        List<ASTNode> operands = new ArrayList<>();
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (isOperand(child)) {
+                operands.add(child);
+            }
+        }
+        return operands;
+    }
+
+    @Nullable
+    private static ASTNode firstOperand(@NotNull ASTNode node) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (isOperand(child)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isOperand(@NotNull ASTNode node) {
+        IElementType type = node.getElementType();
+        return node.getFirstChildNode() != null || MSTypes.NAMES.contains(type) || MSTypes.LITERALS.contains(type);
+    }
+}
@@ -0,0 +1,114 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.ControlFlowException;
+import com.intellij.openapi.progress.ProgressManager;
+import com.magicapi.idea.settings.MagicScriptSettings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 类型推断的时间预算
+ *
+ * 一次推断请求（一次补全的上下文分析、一次对某个表达式的类型查询）在最外层的入口处开始计时，
+ * 推断过程中的检查点既响应 IDE 的取消，也在超出预算时中止正在进行的推断，该推断返回未知类型（Object）。
+ * 中止的推断不会写入任何缓存，之后的请求会重新计算。
+ */
+public final class InferenceBudget {
+
+    // 当前线程上正在进行的请求，没有请求时为 null
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    private static final AtomicLong EXCEEDED_COUNT = new AtomicLong();
+
+    private InferenceBudget() {
+    }
+
+    /**
+     * 在预算内执行推断；已在请求内时沿用外层的截止时间
+     * 超出预算后该请求内的每一次推断都立即返回 unknown，调用方仍能得到其余不依赖类型的结果
+     * @param inference 推断过程
+     * @param unknown 超出预算时的结果
+     * @return 推断结果
+     */
+    public static <T> T run(@NotNull Supplier<T> inference, T unknown) {
+        Request request = CURRENT.get();
+        boolean outermost = request == null;
+        if (outermost) {
+            request = new Request(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(getBudgetMillis()));
+            CURRENT.set(request);
+        }
+        try {
+            return inference.get();
+        } catch (BudgetExceededException e) {
+            request.exceeded = true;
+            return unknown;
+        } finally {
+            if (outermost) {
+                CURRENT.remove();
+                if (request.exceeded) {
+                    EXCEEDED_COUNT.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * 不受预算限制地执行，如为索引计算函数摘要：索引结果是持久的，不能因为某次请求超时而不完整
+     */
+    public static <T> T unbounded(@NotNull Supplier<T> computation) {
+        Request request = CURRENT.get();
+        CURRENT.remove();
+        try {
+            return computation.get();
+        } finally {
+            if (request != null) {
+                CURRENT.set(request);
+            }
+        }
+    }
+
+    /**
+     * 检查点：响应取消，超出预算时中止当前推断
+     */
+    public static void checkpoint() {
+        ProgressManager.checkCanceled();
+        Request request = CURRENT.get();
+        if (request != null && System.nanoTime() - request.deadline > 0) {
+            throw new BudgetExceededException();
+        }
+    }
+
+    /**
+     * 自启动以来因超出预算而中止的请求数
+     */
+    public static long getExceededCount() {
+        return EXCEEDED_COUNT.get();
+    }
+
+    private static long getBudgetMillis() {
+        MagicScriptSettings settings = ApplicationManager.getApplication() != null ? MagicScriptSettings.getInstance() : null;
+        return settings != null ? settings.getInferenceBudgetMillis() : MagicScriptSettings.DEFAULT_INFERENCE_BUDGET_MILLIS;
+    }
+
+    private static final class Request {
+        final long deadline;
+        boolean exceeded;
+
+        Request(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * 超出预算；作为控制流异常，不会被当作错误记录
+     */
+    private static final class BudgetExceededException extends RuntimeException implements ControlFlowException {
+        BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,709 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.util.RecursionManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.impl.source.tree.CompositeElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.magicapi.idea.completion.model.ApiMethod;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.completion.model.Parameter;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.registry.ModuleRegistry;
+import com.magicapi.idea.search.MagicScriptFunctionSummaries;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 参数类型求解
+ *
+ * 脚本中的参数没有声明类型，这里由两类约束得到参数类型：
+ * <ul>
+ *   <li>函数体中的用法：在参数上调用的方法（调用了 size() 和 get() 的参数是 List）、
+ *       参与乘除或取负的运算（数值）、作为实参传给参数类型已知的全局函数或同一文件中的函数；</li>
+ *   <li>调用处：同一文件中以名称调用该函数时对应实参的类型，多个调用处取公共父类型。</li>
+ * </ul>
+ * 调用处实参的类型又取决于调用方自身参数的类型（递归的辅助函数尤其如此），因此以不动点迭代求解：
+ * 初值只含用法约束，之后每一轮只重新计算参数类型发生了变化的函数中的调用处，直到不再变化。
+ * 迭代轮数有硬上限，到达上限时停在当前结果；没有任何约束的参数仍按命名约定推断。
+ *
+ * 各函数的用法约束和调用处只依赖函数自身的内容，缓存在函数上；调用处实参的类型也缓存在函数上，
+ * 以函数自身、外层函数和（间接）被调用函数的修改计数及其参数的假设类型为键：重新求解时只有这些输入变化了的函数
+ * 重新分析，其余函数直接取得上一次的实参类型，参数的合并只是表的运算。
+ * 求解结果缓存在文件上，函数的戳记在第一次被查询时生成，只在该函数自身的参数类型变化时才改变，
+ * 作为该函数分析结果的依赖：编辑某个函数而没有改变其它函数的参数类型时，其它函数的分析结果保持有效。
+ */
+final class ParameterTypeSolver {
+
+    // 不动点迭代的轮数上限
+    static final int MAX_ROUNDS = 8;
+
+    private static final TokenSet NOT = TokenSet.create(MSTypes.NOT);
+    private static final TokenSet ASSIGNMENT_OPERATORS = TokenSet.create(
+        MSTypes.ASSIGN, MSTypes.PLUS_ASSIGN, MSTypes.MINUS_ASSIGN, MSTypes.MULTIPLY_ASSIGN, MSTypes.DIVIDE_ASSIGN
+    );
+
+    // 单个函数上保留的调用处实参类型的条数，一次求解的各轮假设不同，最多需要 MAX_ROUNDS 条
+    private static final int MAX_CACHED_CALL_TYPES = MAX_ROUNDS;
+
+    // 上一次的求解结果，用于沿用参数类型没有变化的函数的戳记
+    private static final Key<Solution> PREVIOUS_SOLUTION = Key.create("MagicScript.ParameterSolution");
+    // 函数中各调用处的实参类型
+    private static final Key<CallTypes> CALL_TYPES = Key.create("MagicScript.CallTypes");
+    private static final AtomicLong STAMPS = new AtomicLong();
+
+    private ParameterTypeSolver() {
+    }
+
+    /**
+     * 参数的求解结果，结果缓存在文件上
+     * @param parameter 参数节点
+     * @return 参数类型；没有约束时返回 null
+     */
+    @Nullable
+    static MagicType getParameterType(@NotNull ASTNode parameter) {
+        PsiFile file = parameter.getPsi().getContainingFile();
+        Solution solution = file instanceof MSFile ? getSolution((MSFile) file) : null;
+        return solution != null ? solution.types.get(parameter) : null;
+    }
+
+    /**
+     * 函数参数类型的修改追踪器，只在该函数自身的参数类型变化时改变
+     * @param owner 函数或 lambda 节点
+     */
+    @NotNull
+    static ModificationTracker tracker(@NotNull ASTNode owner) {
+        return () -> {
+            PsiFile file = owner.getPsi().getContainingFile();
+            Solution solution = file instanceof MSFile ? getSolution((MSFile) file) : null;
+            return solution != null ? solution.stamp(owner) : 0;
+        };
+    }
+
+    @Nullable
+    private static Solution getSolution(@NotNull MSFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            Solution solution = RecursionManager.doPreventingRecursion(file, false, () -> {
+                Solution computed = solve(file.getNode(), file.getUserData(PREVIOUS_SOLUTION));
+                file.putUserData(PREVIOUS_SOLUTION, computed);
+                return computed;
+            });
+            return CachedValueProvider.Result.create(solution, file, MagicScriptFunctionSummaries.getInstance(file.getProject()),
+                ModuleRegistry.getInstance());
+        });
+    }
+
+    // ==================== 求解 ====================
+
+    /**
+     * 求解文件中全部参数的类型
+     * @param root 文件根节点
+     * @param previous 上一次的求解结果，用于沿用戳记；可为 null
+     */
+    @NotNull
+    static Solution solve(@NotNull ASTNode root, @Nullable Solution previous) {
+        List<ASTNode> owners = new ArrayList<>();
+        owners.add(root);
+        collectOwners(root, owners);
+        Map<String, ASTNode> functions = topLevelFunctions(root);
+
+        Map<ASTNode, Constraints> constraints = new HashMap<>();
+        for (ASTNode owner : owners) {
+            constraints.put(owner, constraints(owner));
+        }
+
+        // 初值：只含用法约束
+        Map<ASTNode, MagicType> types = new HashMap<>();
+        for (Constraints owner : constraints.values()) {
+            for (int i = 0; i < owner.parameters.size(); i++) {
+                if (owner.usageTypes.get(i) != null) {
+                    types.put(owner.parameters.get(i), owner.usageTypes.get(i));
+                }
+            }
+        }
+
+        // 各函数中的调用处对参数的贡献：参数节点 -> 该函数中各调用处实参类型的合并
+        Map<ASTNode, Map<ASTNode, MagicType>> contributions = new HashMap<>();
+        Set<ASTNode> dirty = new LinkedHashSet<>();
+        for (ASTNode owner : owners) {
+            if (!constraints.get(owner).calls.isEmpty()) {
+                dirty.add(owner);
+            }
+        }
+        int round = 0;
+        for (; round < MAX_ROUNDS && !dirty.isEmpty(); round++) {
+            Map<ASTNode, MagicType> assumed = Collections.unmodifiableMap(new HashMap<>(types));
+            Set<ASTNode> evaluating = dirty;
+            FlowTypeInference.assuming(assumed, () -> {
+                for (ASTNode owner : evaluating) {
+                    contributions.put(owner, callTypes(owner, constraints, functions, assumed));
+                }
+                return null;
+            });
+
+            Map<ASTNode, MagicType> next = combine(constraints, contributions, functions, assumed);
+            dirty = new LinkedHashSet<>();
+            for (ASTNode owner : owners) {
+                if (!constraints.get(owner).calls.isEmpty() && dependsOnChanged(owner, constraints, assumed, next)) {
+                    dirty.add(owner);
+                }
+            }
+            types = next;
+        }
+        return new Solution(types, signatures(constraints, types), round, previous);
+    }
+
+    /**
+     * 合并用法约束、调用处实参类型和实参去向：用法约束决定函数体需要的类型，
+     * 调用处的类型是其子类型时取更具体的调用处类型（如 List 与 List&lt;Map&gt;）
+     */
+    @NotNull
+    private static Map<ASTNode, MagicType> combine(@NotNull Map<ASTNode, Constraints> constraints,
+                                                   @NotNull Map<ASTNode, Map<ASTNode, MagicType>> contributions,
+                                                   @NotNull Map<String, ASTNode> functions,
+                                                   @NotNull Map<ASTNode, MagicType> assumed) {
+        Map<ASTNode, MagicType> arguments = new HashMap<>();
+        for (Map<ASTNode, MagicType> contribution : contributions.values()) {
+            contribution.forEach((parameter, type) -> arguments.merge(parameter, type, FlowTypeInference::join));
+        }
+        Map<ASTNode, MagicType> result = new HashMap<>();
+        for (Constraints owner : constraints.values()) {
+            for (int i = 0; i < owner.parameters.size(); i++) {
+                ASTNode parameter = owner.parameters.get(i);
+                MagicType usage = owner.usageTypes.get(i);
+                MagicType argument = arguments.get(parameter);
+                if (argument == MagicType.NULL || argument == MagicType.OBJECT) {
+                    argument = null;
+                }
+                MagicType type;
+                if (usage != null && argument != null) {
+                    type = ModuleRegistry.getInstance().getTypeSystemProvider().isSubtypeOf(argument, usage) ? argument : usage;
+                } else if (usage != null || argument != null) {
+                    type = usage != null ? usage : argument;
+                } else {
+                    // 只被原样传给同一文件中的其它函数：取目标参数当前的类型
+                    type = flowType(owner.flows.get(i), functions, constraints, assumed);
+                }
+                if (type != null) {
+                    result.put(parameter, type);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private static MagicType flowType(@NotNull List<Flow> flows, @NotNull Map<String, ASTNode> functions,
+                                      @NotNull Map<ASTNode, Constraints> constraints, @NotNull Map<ASTNode, MagicType> assumed) {
+        MagicType result = null;
+        for (Flow flow : flows) {
+            ASTNode function = functions.get(flow.function);
+            Constraints target = function != null ? constraints.get(function) : null;
+            MagicType type = target != null && flow.index < target.parameters.size()
+                ? assumed.get(target.parameters.get(flow.index)) : null;
+            if (type != null) {
+                result = result == null ? type : FlowTypeInference.join(result, type);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 函数中各调用处的实参类型，按输入缓存在函数上；函数自身被修改后丢弃全部缓存
+     */
+    @NotNull
+    private static Map<ASTNode, MagicType> callTypes(@NotNull ASTNode owner, @NotNull Map<ASTNode, Constraints> constraints,
+                                                     @NotNull Map<String, ASTNode> functions,
+                                                     @NotNull Map<ASTNode, MagicType> assumed) {
+        List<CallSite> calls = constraints.get(owner).calls;
+        if (!(owner instanceof CompositeElement) || FlowTypeInference.isIndependent()) {
+            return evaluateCalls(owner, calls, functions);
+        }
+        long stamp = ((CompositeElement) owner).getModificationCount();
+        CallTypes cached = owner.getUserData(CALL_TYPES);
+        if (cached == null || cached.stamp != stamp) {
+            cached = new CallTypes(stamp);
+            owner.putUserData(CALL_TYPES, cached);
+        }
+        List<Object> key = callInputs(owner, constraints, functions, assumed);
+        Map<ASTNode, MagicType> result = cached.results.get(key);
+        if (result == null) {
+            result = evaluateCalls(owner, calls, functions);
+            if (cached.results.size() >= MAX_CACHED_CALL_TYPES) {
+                cached.results.clear();
+            }
+            cached.results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * 调用处实参类型的输入：函数自身和外层函数（内层函数可见外层变量）、以及它们直接或间接调用的同一文件中的函数
+     * （实参可以是这些函数的返回值），各自的修改计数和参数的假设类型；再加上 import 的函数摘要和注册表。
+     * 顶层脚本的修改计数随文件中的任何编辑变化，只有这些函数读取了与顶层变量同名的变量时才作为输入
+     */
+    @NotNull
+    private static List<Object> callInputs(@NotNull ASTNode owner, @NotNull Map<ASTNode, Constraints> constraints,
+                                           @NotNull Map<String, ASTNode> functions, @NotNull Map<ASTNode, MagicType> assumed) {
+        Set<ASTNode> inputs = new LinkedHashSet<>();
+        ASTNode root = owner;
+        for (ASTNode current = owner; current != null; current = current.getTreeParent()) {
+            if (current.getTreeParent() == null) {
+                root = current;
+            } else if (constraints.containsKey(current)) {
+                inputs.add(current);
+            }
+        }
+        List<ASTNode> pending = new ArrayList<>(inputs);
+        while (!pending.isEmpty()) {
+            Constraints scope = constraints.get(pending.remove(pending.size() - 1));
+            for (CallSite call : scope != null ? scope.calls : Collections.<CallSite>emptyList()) {
+                ASTNode function = functions.get(call.function);
+                if (function != null && inputs.add(function)) {
+                    pending.add(function);
+                }
+            }
+        }
+        Constraints topLevel = constraints.get(root);
+        if (owner == root || topLevel != null && readsAny(inputs, constraints, topLevel.declaredNames)) {
+            inputs.add(root);
+        }
+
+        List<Object> key = new ArrayList<>();
+        key.add(MagicScriptFunctionSummaries.getInstance(owner.getPsi().getProject()).getModificationCount());
+        key.add(ModuleRegistry.getInstance().getModificationCount());
+        for (ASTNode input : inputs) {
+            key.add(input);
+            key.add(input instanceof CompositeElement ? ((CompositeElement) input).getModificationCount() : 0L);
+            Constraints scope = constraints.get(input);
+            for (ASTNode parameter : scope != null ? scope.parameters : Collections.<ASTNode>emptyList()) {
+                key.add(assumed.get(parameter));
+            }
+        }
+        return key;
+    }
+
+    private static boolean readsAny(@NotNull Set<ASTNode> owners, @NotNull Map<ASTNode, Constraints> constraints,
+                                    @NotNull Set<String> names) {
+        for (ASTNode owner : owners) {
+            Constraints scope = constraints.get(owner);
+            if (scope != null && !Collections.disjoint(scope.freeNames, names)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算函数中各调用处的实参类型，变量引用使用以当前假设的参数类型分析的结果
+     */
+    @NotNull
+    private static Map<ASTNode, MagicType> evaluateCalls(@NotNull ASTNode owner, @NotNull List<CallSite> calls,
+                                                         @NotNull Map<String, ASTNode> functions) {
+        Map<ASTNode, MagicType> result = new HashMap<>();
+        for (CallSite call : calls) {
+            ASTNode function = functions.get(call.function);
+            List<ASTNode> parameters = function != null ? parameters(function) : Collections.emptyList();
+            for (int i = 0; i < call.arguments.size() && i < parameters.size(); i++) {
+                MagicType type = FlowTypeInference.typeOf(call.arguments.get(i), name -> FlowTypeInference.variableType(owner, name));
+                result.merge(parameters.get(i), type, FlowTypeInference::join);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 调用处需要重新计算：所在函数或外层函数的参数类型发生了变化（内层函数可见外层参数）
+     */
+    private static boolean dependsOnChanged(@NotNull ASTNode owner, @NotNull Map<ASTNode, Constraints> constraints,
+                                            @NotNull Map<ASTNode, MagicType> before, @NotNull Map<ASTNode, MagicType> after) {
+        for (ASTNode current = owner; current != null; current = current.getTreeParent()) {
+            Constraints scope = constraints.get(current);
+            if (scope != null) {
+                for (ASTNode parameter : scope.parameters) {
+                    if (!Objects.equals(before.get(parameter), after.get(parameter))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private static Map<ASTNode, List<MagicType>> signatures(@NotNull Map<ASTNode, Constraints> constraints,
+                                                           @NotNull Map<ASTNode, MagicType> types) {
+        Map<ASTNode, List<MagicType>> signatures = new HashMap<>();
+        constraints.forEach((owner, scope) -> {
+            if (!scope.parameters.isEmpty()) {
+                List<MagicType> signature = new ArrayList<>();
+                for (ASTNode parameter : scope.parameters) {
+                    signature.add(types.get(parameter));
+                }
+                signatures.put(owner, signature);
+            }
+        });
+        return signatures;
+    }
+
+    // ==================== 约束收集 ====================
+
+    /**
+     * 函数自身的约束，结果缓存在函数上，只依赖函数子树的修改计数
+     */
+    @NotNull
+    private static Constraints constraints(@NotNull ASTNode owner) {
+        if (owner.getTreeParent() == null || !(owner instanceof CompositeElement) || FlowTypeInference.isIndependent()) {
+            return collect(owner);
+        }
+        PsiElement element = owner.getPsi();
+        return CachedValuesManager.getCachedValue(element, () -> CachedValueProvider.Result.create(
+            collect(owner), (ModificationTracker) ((CompositeElement) owner)::getModificationCount, ModuleRegistry.getInstance()));
+    }
+
+    @NotNull
+    private static Constraints collect(@NotNull ASTNode owner) {
+        Constraints constraints = new Constraints(owner.getTreeParent() != null ? parameters(owner) : Collections.emptyList());
+        Map<String, Usage> usages = new HashMap<>();
+        for (ASTNode parameter : constraints.parameters) {
+            ASTNode name = ControlFlowGraph.firstChild(parameter, MSTypes.NAMES);
+            if (name != null) {
+                usages.putIfAbsent(name.getText(), new Usage());
+            }
+        }
+        ASTNode body = owner.getTreeParent() == null ? owner
+            : owner.findChildByType(MSTypes.FUNCTION_BODY) != null ? owner.findChildByType(MSTypes.FUNCTION_BODY) : owner;
+        collect(body, usages, constraints);
+        constraints.freeNames.removeAll(usages.keySet());
+
+        for (ASTNode parameter : constraints.parameters) {
+            ASTNode name = ControlFlowGraph.firstChild(parameter, MSTypes.NAMES);
+            Usage usage = name != null ? usages.get(name.getText()) : null;
+            boolean usable = usage != null && !usage.reassigned;
+            constraints.usageTypes.add(usable ? usage.type() : null);
+            constraints.flows.add(usable ? usage.flows : Collections.emptyList());
+        }
+        return constraints;
+    }
+
+    /**
+     * 收集参数的用法、以名称调用的调用处、读取和声明的变量名，不进入内层函数和 lambda
+     */
+    private static void collect(@NotNull ASTNode node, @NotNull Map<String, Usage> usages, @NotNull Constraints constraints) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            IElementType type = child.getElementType();
+            if (ControlFlowGraph.SCOPE_OWNERS.contains(type)) {
+                continue;
+            }
+            if (type == MSTypes.PRIMARY_EXPRESSION) {
+                ASTNode name = ControlFlowGraph.simpleName(child);
+                Usage usage = name != null ? usages.get(name.getText()) : null;
+                if (usage != null) {
+                    use(child, usage);
+                }
+                if (name != null) {
+                    constraints.freeNames.add(name.getText());
+                }
+            } else if (type == MSTypes.FUNCTION_CALL) {
+                CallSite call = callSite(child);
+                if (call != null) {
+                    constraints.calls.add(call);
+                }
+            } else if (type == MSTypes.VAR_DECLARATION || type == MSTypes.ASSIGNMENT_EXPRESSION) {
+                // 被重新赋值的参数，函数体中的用法不一定针对传入的值
+                ASTNode target = firstExpression(child);
+                ASTNode name = type == MSTypes.VAR_DECLARATION ? ControlFlowGraph.firstChild(child, MSTypes.NAMES)
+                    : ControlFlowGraph.firstChild(child, ASSIGNMENT_OPERATORS) != null ? ControlFlowGraph.simpleName(target) : null;
+                if (type == MSTypes.VAR_DECLARATION && name != null) {
+                    constraints.declaredNames.add(name.getText());
+                }
+                Usage usage = name != null ? usages.get(name.getText()) : null;
+                if (usage != null) {
+                    usage.reassigned = true;
+                }
+            }
+            collect(child, usages, constraints);
+        }
+    }
+
+    /**
+     * 参数引用所在位置提供的约束
+     */
+    private static void use(@NotNull ASTNode reference, @NotNull Usage usage) {
+        ASTNode parent = reference.getTreeParent();
+        IElementType parentType = parent != null ? parent.getElementType() : null;
+        if (parentType == MSTypes.POSTFIX_EXPRESSION && firstExpression(parent) == reference) {
+            ASTNode next = nextExpression(reference);
+            ASTNode member = next != null && next.getElementType() == MSTypes.MEMBER_ACCESS
+                ? ControlFlowGraph.firstChild(next, MSTypes.NAMES) : null;
+            if (member != null) {
+                usage.members.add(member.getText());
+            } else if (next != null && (next.getElementType() == MSTypes.INCREMENT || next.getElementType() == MSTypes.DECREMENT)) {
+                usage.reassigned = true;
+            }
+        } else if (parentType == MSTypes.MULTIPLICATIVE_EXPRESSION) {
+            usage.numeric = true;
+        } else if (parentType == MSTypes.UNARY_EXPRESSION && ControlFlowGraph.firstChild(parent, NOT) == null) {
+            usage.numeric = true;
+        } else if (parentType == MSTypes.ARGUMENT_LIST) {
+            CallSite call = parent.getTreeParent() != null ? callSite(parent.getTreeParent()) : null;
+            int index = call != null ? call.arguments.indexOf(reference) : -1;
+            if (index < 0) {
+                return;
+            }
+            ApiMethod function = ModuleRegistry.getInstance().getGlobalFunction(call.function);
+            if (function == null) {
+                usage.flows.add(new Flow(call.function, index));
+            } else if (index < function.getParameters().size()) {
+                Parameter parameter = function.getParameters().get(index);
+                MagicType expected = parameter.getType() != null ? MagicType.of(parameter.getType()) : MagicType.OBJECT;
+                if (expected != MagicType.OBJECT && usage.expected == null) {
+                    usage.expected = expected;
+                }
+            }
+        }
+    }
+
+    /**
+     * 以简单名称调用的调用处；方法调用的接收者类型需要推断，不作为约束
+     */
+    @Nullable
+    private static CallSite callSite(@NotNull ASTNode call) {
+        if (call.getElementType() != MSTypes.FUNCTION_CALL) {
+            return null;
+        }
+        ASTNode callee = previousExpression(call);
+        ASTNode name = ControlFlowGraph.simpleName(callee);
+        if (name == null) {
+            return null;
+        }
+        List<ASTNode> arguments = new ArrayList<>();
+        ASTNode argumentList = call.findChildByType(MSTypes.ARGUMENT_LIST);
+        if (argumentList != null) {
+            for (ASTNode argument = argumentList.getFirstChildNode(); argument != null; argument = argument.getTreeNext()) {
+                if (isExpression(argument)) {
+                    arguments.add(argument);
+                }
+            }
+        }
+        return new CallSite(name.getText(), arguments);
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private static void collectOwners(@NotNull ASTNode node, @NotNull List<ASTNode> owners) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (ControlFlowGraph.SCOPE_OWNERS.contains(child.getElementType())) {
+                owners.add(child);
+            }
+            collectOwners(child, owners);
+        }
+    }
+
+    /**
+     * 顶层函数（含 export 的），同名函数以第一个为准，与引用解析一致
+     */
+    @NotNull
+    private static Map<String, ASTNode> topLevelFunctions(@NotNull ASTNode root) {
+        Map<String, ASTNode> functions = new HashMap<>();
+        for (ASTNode statement = root.getFirstChildNode(); statement != null; statement = statement.getTreeNext()) {
+            ASTNode function = statement.getElementType() == MSTypes.EXPORT_STATEMENT
+                ? statement.findChildByType(MSTypes.FUNCTION_DECLARATION)
+                : statement.getElementType() == MSTypes.FUNCTION_DECLARATION ? statement : null;
+            ASTNode name = function != null ? function.findChildByType(MSTypes.NAMES) : null;
+            if (name != null) {
+                functions.putIfAbsent(name.getText(), function);
+            }
+        }
+        return functions;
+    }
+
+    @NotNull
+    private static List<ASTNode> parameters(@NotNull ASTNode owner) {
+        ASTNode parameterList = owner.findChildByType(MSTypes.PARAMETER_LIST);
+        if (parameterList == null) {
+            return Collections.emptyList();
+        }
+        List<ASTNode> parameters = new ArrayList<>();
+        for (ASTNode parameter = parameterList.getFirstChildNode(); parameter != null; parameter = parameter.getTreeNext()) {
+            if (parameter.getElementType() == MSTypes.PARAMETER && ControlFlowGraph.firstChild(parameter, MSTypes.NAMES) != null) {
+                parameters.add(parameter);
+            }
+        }
+        return parameters;
+    }
+
+    @Nullable
+    private static ASTNode firstExpression(@NotNull ASTNode node) {
+        for (ASTNode child = node.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (isExpression(child)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 后缀表达式中的后一个环节（跳过空白和注释），++/-- 也算作环节
+     */
+    @Nullable
+    private static ASTNode nextExpression(@NotNull ASTNode node) {
+        for (ASTNode next = node.getTreeNext(); next != null; next = next.getTreeNext()) {
+            if (isExpression(next) || next.getElementType() == MSTypes.INCREMENT || next.getElementType() == MSTypes.DECREMENT) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static ASTNode previousExpression(@NotNull ASTNode node) {
+        for (ASTNode previous = node.getTreePrev(); previous != null; previous = previous.getTreePrev()) {
+            if (isExpression(previous)) {
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isExpression(@NotNull ASTNode node) {
+        return node.getFirstChildNode() != null || MSTypes.NAMES.contains(node.getElementType())
+            || MSTypes.LITERALS.contains(node.getElementType());
+    }
+
+    // ==================== 数据结构 ====================
+
+    /**
+     * 求解结果
+     */
+    static final class Solution {
+        // 参数节点 -> 类型，没有约束的参数不在其中
+        final Map<ASTNode, MagicType> types;
+        // 函数节点 -> 各参数的类型，用于和下一次求解比较；没有参数的函数不在其中
+        final Map<ASTNode, List<MagicType>> signatures;
+        // 函数节点 -> 戳记，只为被查询过的函数生成
+        private final Map<ASTNode, Long> stamps = new ConcurrentHashMap<>();
+        // 实际迭代的轮数，不超过 MAX_ROUNDS
+        final int rounds;
+
+        Solution(@NotNull Map<ASTNode, MagicType> types, @NotNull Map<ASTNode, List<MagicType>> signatures,
+                 int rounds, @Nullable Solution previous) {
+            this.types = types;
+            this.signatures = signatures;
+            this.rounds = rounds;
+            if (previous != null) {
+                // 沿用参数类型没有变化的函数的戳记
+                previous.stamps.forEach((owner, stamp) -> {
+                    if (Objects.equals(signatures.get(owner), previous.signatures.get(owner))) {
+                        stamps.put(owner, stamp);
+                    }
+                });
+            }
+        }
+
+        /**
+         * 函数的戳记，只在该函数自身的参数类型变化时改变
+         */
+        long stamp(@NotNull ASTNode owner) {
+            return stamps.computeIfAbsent(owner, key -> STAMPS.incrementAndGet());
+        }
+    }
+
+    /**
+     * 函数中各调用处的实参类型：输入 -> 参数节点 -> 实参类型的合并，只对应函数自身的某个修改计数
+     */
+    private static final class CallTypes {
+        final long stamp;
+        final Map<List<Object>, Map<ASTNode, MagicType>> results = new ConcurrentHashMap<>();
+
+        CallTypes(long stamp) {
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * 单个函数的约束：各参数的用法类型和去向，以及函数中以名称调用的调用处
+     */
+    private static final class Constraints {
+        final List<ASTNode> parameters;
+        final List<MagicType> usageTypes = new ArrayList<>();
+        final List<List<Flow>> flows = new ArrayList<>();
+        final List<CallSite> calls = new ArrayList<>();
+        // 读取的不是参数的变量名（可能来自外层）
+        final Set<String> freeNames = new HashSet<>();
+        // 用 var 声明的变量名
+        final Set<String> declaredNames = new HashSet<>();
+
+        Constraints(@NotNull List<ASTNode> parameters) {
+            this.parameters = parameters;
+        }
+    }
+
+    /**
+     * 函数体中对某个参数的用法
+     */
+    private static final class Usage {
+        final Set<String> members = new HashSet<>();
+        final List<Flow> flows = new ArrayList<>();
+        MagicType expected;
+        boolean numeric;
+        boolean reassigned;
+
+        /**
+         * 调用的方法最能说明类型，其次是传给全局函数时的参数类型，最后是数值运算
+         */
+        @Nullable
+        MagicType type() {
+            MagicType memberType = ModuleRegistry.getInstance().getTypeSystemProvider().findTypeWithMembers(members);
+            if (memberType != null) {
+                return memberType;
+            }
+            return expected != null ? expected : numeric ? MagicType.NUMBER : null;
+        }
+    }
+
+    /**
+     * 参数被原样作为第 index 个实参传给名为 function 的函数
+     */
+    private static final class Flow {
+        final String function;
+        final int index;
+
+        Flow(@NotNull String function, int index) {
+            this.function = function;
+            this.index = index;
+        }
+    }
+
+    /**
+     * 以名称调用的调用处
+     */
+    private static final class CallSite {
+        final String function;
+        final List<ASTNode> arguments;
+
+        CallSite(@NotNull String function, @NotNull List<ASTNode> arguments) {
+            this.function = function;
+            this.arguments = arguments;
+        }
+    }
+}
@@ -12,7 +12,7 @@ public class ApiMethod {
     private final String name;
     private final String description;
     private final List<Parameter> parameters;
-    private final String returnType;
+    private final MagicType returnType;
     private final String returnDescription;
     private final String example;
     private final boolean chainable;
@@ -22,7 +22,8 @@ public class ApiMethod {
         this.name = name;
         this.description = description;
         this.parameters = parameters;
-        this.returnType = returnType;
+        // 注册时解析一次，之后以驻留的类型实例参与比较
+        this.returnType = returnType == null || returnType.trim().isEmpty() ? null : MagicType.of(returnType);
         this.returnDescription = returnDescription;
         this.example = example;
         this.chainable = chainable;
@@ -45,10 +46,20 @@ public class ApiMethod {
         return parameters;
     }
 
-    public String getReturnType() {
+    /**
+     * 返回类型，未声明时为 null
+     */
+    public MagicType getReturnType() {
         return returnType;
     }
 
+    /**
+     * 返回类型的展示文本，未声明时为空串
+     */
+    public String getReturnTypeText() {
+        return returnType != null ? returnType.getPresentableText() : "";
+    }
+
     public String getReturnDescription() {
         return returnDescription;
     }
@@ -78,8 +89,8 @@ public class ApiMethod {
         }
         
         sb.append(")");
-        if (returnType != null && !returnType.isEmpty()) {
-            sb.append(": ").append(returnType);
+        if (returnType != null) {
+            sb.append(": ").append(returnType.getPresentableText());
         }
         return sb.toString();
     }
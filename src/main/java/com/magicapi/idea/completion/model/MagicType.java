@@ -0,0 +1,254 @@
+package com.magicapi.idea.completion.model;
+
+import com.intellij.util.containers.CollectionFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Magic Script 类型
+ *
+ * 类型实例全局驻留：同一类型（别名解析、去除空白之后）只有一个实例，可以直接用 == 比较，
+ * 也可以作为 Map/Set 的键而不必重新解析类型文本。
+ * 驻留表弱引用类型实例，脚本中 ::xxx 写出的任意类型名、索引中读出的类型在不再被引用后随之回收，
+ * 内置常量和注册表中的类型始终被强引用，不受影响。
+ * 参数化类型如 List&lt;Map&lt;String,Object&gt;&gt; 与其原始类型 List 是不同的实例，通过 {@link #getRawType()} 关联。
+ */
+public final class MagicType {
+
+    // 规范文本 -> 类型实例；只登记规范文本，其它写法（别名、带空白）每次规范化后查找，不会让表随写法无限增长。
+    // 值为弱引用：没有其它引用的类型会被回收，同一时刻仍只有一个实例，== 比较依然成立
+    private static final Map<String, MagicType> INTERNED = CollectionFactory.createConcurrentWeakValueMap();
+
+    // 类型别名，在创建任何类型之前登记，保证 int 和 Integer 解析到同一个实例
+    private static final Map<String, String> ALIASES = new HashMap<>();
+
+    static {
+        // 基础类型别名
+        ALIASES.put("int", "Integer");
+        ALIASES.put("long", "Long");
+        ALIASES.put("double", "Double");
+        ALIASES.put("float", "Float");
+        ALIASES.put("boolean", "Boolean");
+        ALIASES.put("char", "Char");
+        ALIASES.put("byte", "Byte");
+        ALIASES.put("string", "String");
+
+        // 集合类型别名
+        ALIASES.put("list", "List");
+        ALIASES.put("array", "Array");
+        ALIASES.put("map", "Map");
+        ALIASES.put("set", "Set");
+
+        // 特殊类型别名
+        ALIASES.put("date", "Date");
+        ALIASES.put("object", "Object");
+        ALIASES.put("number", "Number");
+    }
+
+    // 基础类型
+    public static final MagicType OBJECT = of("Object");
+    public static final MagicType NULL = of("null");
+    public static final MagicType VOID = of("void");
+    public static final MagicType STRING = of("String");
+    public static final MagicType BOOLEAN = of("Boolean");
+    public static final MagicType NUMBER = of("Number");
+    public static final MagicType INTEGER = of("Integer");
+    public static final MagicType LONG = of("Long");
+    public static final MagicType DOUBLE = of("Double");
+    public static final MagicType FLOAT = of("Float");
+    public static final MagicType BYTE = of("Byte");
+    public static final MagicType DATE = of("Date");
+    public static final MagicType FILE = of("File");
+    public static final MagicType FUNCTION = of("Function");
+
+    // 集合类型
+    public static final MagicType ARRAY = of("Array");
+    public static final MagicType LIST = of("List");
+    public static final MagicType SET = of("Set");
+    public static final MagicType MAP = of("Map");
+
+    // Magic API 特殊类型
+    public static final MagicType PAGE_RESULT = of("PageResult");
+    public static final MagicType HTTP_RESPONSE = of("HttpResponse");
+    public static final MagicType HTTP_REQUEST_BUILDER = of("HttpRequestBuilder");
+    public static final MagicType RESPONSE_BUILDER = of("ResponseBuilder");
+    public static final MagicType CACHEABLE_QUERY = of("CacheableQuery");
+    public static final MagicType TRANSACTION_MANAGER = of("TransactionManager");
+    public static final MagicType MULTIPART_FILE = of("MultipartFile");
+
+    private final String name;
+    private final List<MagicType> typeArguments;
+    private final MagicType rawType;
+    private final String text;
+
+    private MagicType(@NotNull String name, @NotNull List<MagicType> typeArguments, @NotNull String text) {
+        this.name = name;
+        this.typeArguments = typeArguments;
+        this.rawType = typeArguments.isEmpty() ? this : of(name);
+        this.text = text;
+    }
+
+    /**
+     * 获取类型文本对应的驻留实例，支持别名和任意层嵌套的泛型参数，如 List&lt;Map&lt;String, Object&gt;&gt;
+     */
+    @NotNull
+    public static MagicType of(@NotNull String text) {
+        MagicType type = INTERNED.get(text);
+        if (type != null) {
+            return type;
+        }
+
+        String canonical = canonicalize(text);
+        type = INTERNED.get(canonical);
+        return type != null ? type : create(canonical);
+    }
+
+    /**
+     * 获取以指定类型为参数的参数化类型，如 parameterized(LIST, STRING) 得到 List&lt;String&gt;
+     */
+    @NotNull
+    public static MagicType parameterized(@NotNull MagicType rawType, @NotNull MagicType... typeArguments) {
+        if (typeArguments.length == 0) {
+            return rawType.rawType;
+        }
+        StringBuilder text = new StringBuilder(rawType.name).append('<');
+        for (int i = 0; i < typeArguments.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(typeArguments[i].text);
+        }
+        return of(text.append('>').toString());
+    }
+
+    /**
+     * 获取所有类型别名（别名 -> 目标类型名）
+     */
+    @NotNull
+    public static Map<String, String> getAliases() {
+        return Collections.unmodifiableMap(ALIASES);
+    }
+
+    @NotNull
+    private static MagicType create(@NotNull String canonical) {
+        int open = canonical.indexOf('<');
+        MagicType type;
+        if (open <= 0 || !canonical.endsWith(">")) {
+            type = new MagicType(canonical, Collections.emptyList(), canonical);
+        } else {
+            List<MagicType> arguments = new ArrayList<>();
+            for (String argument : splitArguments(canonical.substring(open + 1, canonical.length() - 1))) {
+                arguments.add(of(argument));
+            }
+            type = new MagicType(canonical.substring(0, open), Collections.unmodifiableList(arguments), canonical);
+        }
+        MagicType existing = INTERNED.putIfAbsent(canonical, type);
+        return existing != null ? existing : type;
+    }
+
+    /**
+     * 去掉空白并解析别名，得到规范文本
+     */
+    @NotNull
+    private static String canonicalize(@NotNull String text) {
+        String compact = containsWhitespace(text) ? text.replaceAll("\\s+", "") : text;
+        int open = compact.indexOf('<');
+        if (open <= 0 || !compact.endsWith(">")) {
+            return ALIASES.getOrDefault(compact, compact.isEmpty() ? "Object" : compact);
+        }
+
+        StringBuilder result = new StringBuilder(ALIASES.getOrDefault(compact.substring(0, open), compact.substring(0, open)));
+        result.append('<');
+        List<String> arguments = splitArguments(compact.substring(open + 1, compact.length() - 1));
+        for (int i = 0; i < arguments.size(); i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(canonicalize(arguments.get(i)));
+        }
+        return result.append('>').toString();
+    }
+
+    private static boolean containsWhitespace(@NotNull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按顶层逗号切分泛型参数列表
+     */
+    @NotNull
+    private static List<String> splitArguments(@NotNull String arguments) {
+        List<String> result = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < arguments.length(); i++) {
+            char c = arguments.charAt(i);
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(arguments.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(arguments.substring(start));
+        return result;
+    }
+
+    /**
+     * 类型名（不含泛型参数）
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 原始类型；非参数化类型返回自身
+     */
+    @NotNull
+    public MagicType getRawType() {
+        return rawType;
+    }
+
+    @NotNull
+    public List<MagicType> getTypeArguments() {
+        return typeArguments;
+    }
+
+    public boolean isParameterized() {
+        return !typeArguments.isEmpty();
+    }
+
+    /**
+     * 第 index 个泛型参数，未声明时为 Object
+     */
+    @NotNull
+    public MagicType getTypeArgument(int index) {
+        return index < typeArguments.size() ? typeArguments.get(index) : OBJECT;
+    }
+
+    /**
+     * 规范文本，如 List&lt;Map&lt;String,Object&gt;&gt;
+     */
+    @NotNull
+    public String getPresentableText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -76,7 +76,7 @@ public class MagicScriptDocumentationProvider extends AbstractDocumentationProvi
     private String generateMethodDoc(@NotNull PsiElement element) {
         // 尝试从上下文推断方法信息
         PsiElement prev = element.getPrevSibling();
-        if (prev != null && prev.getNode().getElementType() == MSTypes.DOT) {
+        if (prev != null && MSTypes.MEMBER_ACCESS_OPERATORS.contains(prev.getNode().getElementType())) {
             PsiElement qualifier = prev.getPrevSibling();
             if (qualifier != null && qualifier.getNode().getElementType() == MSTypes.IDENTIFIER) {
                 String moduleName = qualifier.getText();
@@ -133,9 +133,9 @@ public class MagicScriptDocumentationProvider extends AbstractDocumentationProvi
         }
         
         // 返回值
-        if (method.getReturnType() != null && !method.getReturnType().isEmpty()) {
+        if (method.getReturnType() != null) {
             doc.append("<h4>返回值:</h4>");
-            doc.append("<p><code>").append(method.getReturnType()).append("</code>");
+            doc.append("<p><code>").append(method.getReturnTypeText()).append("</code>");
             if (method.getReturnDescription() != null && !method.getReturnDescription().isEmpty()) {
                 doc.append(" - ").append(method.getReturnDescription());
             }
@@ -48,6 +48,9 @@ public class MagicScriptBlock implements Block {
             .around(MSTypes.DIV).spaces(1)
             .around(MSTypes.AND).spaces(1)
             .around(MSTypes.OR).spaces(1)
+            .around(MSTypes.ARROW).spaces(1)
+            .around(MSTypes.DOUBLE_COLON).spaces(0)
+            .after(MSTypes.SPREAD).spaces(0)
             .after(MSTypes.COMMA).spaces(1)
             .before(MSTypes.COMMA).spaces(0)
             .after(MSTypes.LPAREN).spaces(0)
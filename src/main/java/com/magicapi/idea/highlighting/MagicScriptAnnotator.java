@@ -0,0 +1,24 @@
+package com.magicapi.idea.highlighting;
+
+import com.intellij.lang.annotation.AnnotationHolder;
+import com.intellij.lang.annotation.Annotator;
+import com.intellij.lang.annotation.HighlightSeverity;
+import com.intellij.psi.PsiElement;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Magic Script 语义高亮
+ * LINQ 关键字在词法上是标识符，词法高亮无法区分，由解析器在 select 查询内重映射后在这里按关键字着色
+ */
+public class MagicScriptAnnotator implements Annotator {
+    
+    @Override
+    public void annotate(@NotNull PsiElement element, @NotNull AnnotationHolder holder) {
+        if (MSTypes.LINQ_KEYWORDS.contains(element.getNode().getElementType())) {
+            holder.newSilentAnnotation(HighlightSeverity.INFORMATION)
+                .textAttributes(MagicScriptSyntaxHighlighter.KEYWORD)
+                .create();
+        }
+    }
+}
@@ -15,7 +15,7 @@ import java.util.Map;
 public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
     
     // 定义高亮样式
-    private static final TextAttributesKey KEYWORD = TextAttributesKey.createTextAttributesKey(
+    static final TextAttributesKey KEYWORD = TextAttributesKey.createTextAttributesKey(
             "MAGIC_SCRIPT_KEYWORD", DefaultLanguageHighlighterColors.KEYWORD);
     private static final TextAttributesKey STRING = TextAttributesKey.createTextAttributesKey(
             "MAGIC_SCRIPT_STRING", DefaultLanguageHighlighterColors.STRING);
@@ -32,6 +32,11 @@ public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
     
     private static final Map<IElementType, TextAttributesKey> ATTRIBUTES = new HashMap<>();
     
+    /**
+     * 每种符号对应的高亮数组，预先构建并共享，逐符号高亮时不再分配新数组
+     */
+    private static final Map<IElementType, TextAttributesKey[]> HIGHLIGHTS = new HashMap<>();
+    
     static {
         // 关键字
         ATTRIBUTES.put(MSTypes.VAR, KEYWORD);
@@ -50,6 +55,8 @@ public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
         ATTRIBUTES.put(MSTypes.THROW, KEYWORD);
         ATTRIBUTES.put(MSTypes.IMPORT, KEYWORD);
         ATTRIBUTES.put(MSTypes.EXPORT, KEYWORD);
+        ATTRIBUTES.put(MSTypes.EXIT, KEYWORD);
+        ATTRIBUTES.put(MSTypes.ASYNC, KEYWORD);
         ATTRIBUTES.put(MSTypes.TRUE, KEYWORD);
         ATTRIBUTES.put(MSTypes.FALSE, KEYWORD);
         ATTRIBUTES.put(MSTypes.NULL, KEYWORD);
@@ -57,6 +64,11 @@ public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
         
         // 字面量
         ATTRIBUTES.put(MSTypes.STRING_LITERAL, STRING);
+        ATTRIBUTES.put(MSTypes.STRING_CONTENT, STRING);
+        ATTRIBUTES.put(MSTypes.TEXT_BLOCK_QUOTE, STRING);
+        ATTRIBUTES.put(MSTypes.TEMPLATE_QUOTE, STRING);
+        ATTRIBUTES.put(MSTypes.INTERPOLATION_START, KEYWORD);
+        ATTRIBUTES.put(MSTypes.INTERPOLATION_END, KEYWORD);
         ATTRIBUTES.put(MSTypes.NUMBER_LITERAL, NUMBER);
         ATTRIBUTES.put(MSTypes.INTEGER_LITERAL, NUMBER);
         
@@ -82,9 +94,14 @@ public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
         ATTRIBUTES.put(MSTypes.AND, OPERATOR);
         ATTRIBUTES.put(MSTypes.OR, OPERATOR);
         ATTRIBUTES.put(MSTypes.NOT, OPERATOR);
+        ATTRIBUTES.put(MSTypes.ARROW, OPERATOR);
+        ATTRIBUTES.put(MSTypes.SPREAD, OPERATOR);
+        ATTRIBUTES.put(MSTypes.DOUBLE_COLON, OPERATOR);
         
         // 标识符
         ATTRIBUTES.put(MSTypes.IDENTIFIER, IDENTIFIER);
+        
+        ATTRIBUTES.forEach((type, key) -> HIGHLIGHTS.put(type, pack(key)));
     }
     
     @NotNull
@@ -96,7 +113,7 @@ public class MagicScriptSyntaxHighlighter extends SyntaxHighlighterBase {
     @NotNull
     @Override
     public TextAttributesKey[] getTokenHighlights(IElementType tokenType) {
-        TextAttributesKey key = ATTRIBUTES.get(tokenType);
-        return key != null ? new TextAttributesKey[]{key} : new TextAttributesKey[0];
+        TextAttributesKey[] keys = HIGHLIGHTS.get(tokenType);
+        return keys != null ? keys : TextAttributesKey.EMPTY_ARRAY;
     }
 }
\ No newline at end of file
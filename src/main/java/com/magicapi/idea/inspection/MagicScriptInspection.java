@@ -1,18 +1,43 @@
 package com.magicapi.idea.inspection;
 
 import com.intellij.codeInspection.*;
+import com.intellij.lang.ASTNode;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.util.containers.CollectionFactory;
 import com.magicapi.idea.lang.psi.MSTypes;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
 
 /**
  * Magic Script代码检查和快速修复
  */
 public class MagicScriptInspection extends LocalInspectionTool {
     
+    /**
+     * 常见的内置模块拼写错误（不区分大小写），键按字符序列比较，查询时不需要创建小写字符串
+     */
+    private static final Map<CharSequence, String> BUILTIN_MODULE_TYPOS = CollectionFactory.createCharSequenceMap(false);
+    
+    static {
+        addTypos("db", "database", "databse", "dab");
+        addTypos("http", "htttp", "htp", "httpd");
+        addTypos("request", "req", "request_", "rquest");
+        addTypos("response", "resp", "response_", "reponse");
+        addTypos("env", "env_", "environment", "environ");
+        addTypos("log", "logger", "logging", "logg");
+        addTypos("magic", "magic_", "magicapi", "magic_api");
+    }
+    
+    private static void addTypos(String module, String... typos) {
+        for (String typo : typos) {
+            BUILTIN_MODULE_TYPOS.put(typo, module);
+        }
+    }
+    
     @Override
     @NotNull
     public String getShortName() {
@@ -53,16 +78,18 @@ public class MagicScriptInspection extends LocalInspectionTool {
         public void visitElement(@NotNull PsiElement element) {
             super.visitElement(element);
             
-            if (element.getNode().getElementType() == MSTypes.IDENTIFIER) {
-                checkUnusedVariable(element);
-                checkTypoInBuiltinModule(element);
+            ASTNode node = element.getNode();
+            if (node != null && node.getElementType() == MSTypes.IDENTIFIER) {
+                // 叶子节点的字符序列直接引用文件文本，比较时不复制字符串
+                CharSequence text = node.getChars();
+                checkUnusedVariable(element, text);
+                checkTypoInBuiltinModule(element, text);
             }
         }
         
-        private void checkUnusedVariable(@NotNull PsiElement element) {
+        private void checkUnusedVariable(@NotNull PsiElement element, @NotNull CharSequence text) {
             // 简单的未使用变量检查
-            String text = element.getText();
-            if (text.startsWith("unused")) {
+            if (StringUtil.startsWith(text, "unused")) {
                 holder.registerProblem(element, 
                     "变量可能未使用", 
                     ProblemHighlightType.LIKE_UNUSED_SYMBOL,
@@ -70,9 +97,8 @@ public class MagicScriptInspection extends LocalInspectionTool {
             }
         }
         
-        private void checkTypoInBuiltinModule(@NotNull PsiElement element) {
-            String text = element.getText();
-            String correction = getBuiltinModuleCorrection(text);
+        private void checkTypoInBuiltinModule(@NotNull PsiElement element, @NotNull CharSequence text) {
+            String correction = BUILTIN_MODULE_TYPOS.get(text);
             if (correction != null) {
                 holder.registerProblem(element,
                     "可能是内置模块拼写错误，您是否想写 '" + correction + "'？",
@@ -80,20 +106,6 @@ public class MagicScriptInspection extends LocalInspectionTool {
                     new CorrectTypoFix(correction));
             }
         }
-        
-        @Nullable
-        private String getBuiltinModuleCorrection(String text) {
-            switch (text.toLowerCase()) {
-                case "database": case "databse": case "dab": return "db";
-                case "htttp": case "htp": case "httpd": return "http";
-                case "req": case "request_": case "rquest": return "request";
-                case "resp": case "response_": case "reponse": return "response";
-                case "env_": case "environment": case "environ": return "env";
-                case "logger": case "logging": case "logg": return "log";
-                case "magic_": case "magicapi": case "magic_api": return "magic";
-                default: return null;
-            }
-        }
     }
     
     /**
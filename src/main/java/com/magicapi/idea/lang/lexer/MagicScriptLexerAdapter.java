@@ -1,9 +1,69 @@
 package com.magicapi.idea.lang.lexer;
 
 import com.intellij.lexer.FlexAdapter;
+import com.intellij.lexer.FlexLexer;
+import com.intellij.psi.tree.IElementType;
+import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+
+/**
+ * Magic Script 词法分析器适配器
+ *
+ * 模板字符串中 ${...} 插值的嵌套层数和括号深度保存在 JFlex 词法状态之外，
+ * 这里把它们和词法状态一起编码进 {@link #getState()}，编辑器高亮可以从任意记录过的
+ * 符号位置重启，只重新分析被修改的区域。
+ */
 public class MagicScriptLexerAdapter extends FlexAdapter {
+
     public MagicScriptLexerAdapter() {
-        super(new MagicScriptLexer(null));
+        super(new RestartableFlexLexer(new MagicScriptLexer(null)));
+    }
+
+    /**
+     * 状态编码：低 3 位为 JFlex 词法状态（YYINITIAL/TEXT_BLOCK/TEMPLATE/INTERPOLATION），其余位为插值嵌套信息
+     */
+    private static final class RestartableFlexLexer implements FlexLexer {
+        private static final int LEXICAL_STATE_BITS = 3;
+        private static final int LEXICAL_STATE_MASK = (1 << LEXICAL_STATE_BITS) - 1;
+
+        private final MagicScriptLexer delegate;
+
+        RestartableFlexLexer(@NotNull MagicScriptLexer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void yybegin(int state) {
+            delegate.yybegin(state & LEXICAL_STATE_MASK);
+            delegate.setNestingState(state >>> LEXICAL_STATE_BITS);
+        }
+
+        @Override
+        public int yystate() {
+            // FlexAdapter 在读取每个符号之前调用，得到的是该符号起始处的完整状态
+            return delegate.yystate() | delegate.getNestingState() << LEXICAL_STATE_BITS;
+        }
+
+        @Override
+        public int getTokenStart() {
+            return delegate.getTokenStart();
+        }
+
+        @Override
+        public int getTokenEnd() {
+            return delegate.getTokenEnd();
+        }
+
+        @Override
+        public IElementType advance() throws IOException {
+            return delegate.advance();
+        }
+
+        @Override
+        public void reset(CharSequence buf, int start, int end, int initialState) {
+            delegate.reset(buf, start, end, initialState & LEXICAL_STATE_MASK);
+            delegate.setNestingState(initialState >>> LEXICAL_STATE_BITS);
+        }
     }
-}
\ No newline at end of file
+}
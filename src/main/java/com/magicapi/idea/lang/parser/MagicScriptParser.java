@@ -4,38 +4,1204 @@ import com.intellij.lang.ASTNode;
 import com.intellij.lang.PsiBuilder;
 import com.intellij.lang.PsiParser;
 import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.magicapi.idea.lang.psi.MSLazyElementType;
+import com.magicapi.idea.lang.psi.MSTypes;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * Magic Script Parser
- * 简化的语法分析器实现
+ * 按 MagicScript.bnf 手写的递归下降语法分析器
+ *
+ * 二元运算符采用优先级爬升（precedence climbing）解析，只有真正出现运算符时才生成
+ * 对应的表达式节点，避免为每个操作数包一层空壳；语句级出错时跳到下一个语句起始
+ * 符号继续解析，使错误只影响当前语句；括号内的参数、条件和字面量元素出错时跳到
+ * 下一个 ',' 或右括号，已解析的部分保持原样。
+ *
+ * 代码块、函数体以及对象/数组字面量是懒解析元素（{@link MSLazyElementType}），外层解析
+ * 只按括号配对跳过其内容，展开该元素时再以它的类型为根调用本解析器解析内部结构。
+ * 缺少右括号时区域在下一个顶格的语句处结束，而不是吞掉文件剩余部分，
+ * 后面未修改的函数在重解析后仍保留原来的 PSI 及其缓存。
  */
 public class MagicScriptParser implements PsiParser {
+
+    /**
+     * 二元运算符优先级表，下标越大优先级越高，与 BNF 中表达式规则的层次一一对应
+     */
+    private static final TokenSet[] BINARY_OPERATORS = {
+        TokenSet.create(MSTypes.OR),
+        TokenSet.create(MSTypes.AND),
+        TokenSet.create(MSTypes.EQ, MSTypes.NE),
+        TokenSet.create(MSTypes.LT, MSTypes.GT, MSTypes.LE, MSTypes.GE),
+        TokenSet.create(MSTypes.PLUS, MSTypes.MINUS),
+        TokenSet.create(MSTypes.MULTIPLY, MSTypes.DIVIDE, MSTypes.MODULO)
+    };
+
+    private static final IElementType[] BINARY_EXPRESSIONS = {
+        MSTypes.LOGICAL_OR_EXPRESSION,
+        MSTypes.LOGICAL_AND_EXPRESSION,
+        MSTypes.EQUALITY_EXPRESSION,
+        MSTypes.RELATIONAL_EXPRESSION,
+        MSTypes.ADDITIVE_EXPRESSION,
+        MSTypes.MULTIPLICATIVE_EXPRESSION
+    };
+
+    private static final TokenSet ASSIGNMENT_OPERATORS = TokenSet.create(
+        MSTypes.ASSIGN, MSTypes.PLUS_ASSIGN, MSTypes.MINUS_ASSIGN,
+        MSTypes.MULTIPLY_ASSIGN, MSTypes.DIVIDE_ASSIGN
+    );
+
+    private static final TokenSet UNARY_OPERATORS = TokenSet.create(
+        MSTypes.NOT, MSTypes.MINUS, MSTypes.PLUS, MSTypes.INCREMENT, MSTypes.DECREMENT
+    );
+
+    private static final TokenSet LITERALS = TokenSet.create(
+        MSTypes.NUMBER_LITERAL, MSTypes.INTEGER_LITERAL, MSTypes.STRING_LITERAL,
+        MSTypes.TRUE, MSTypes.FALSE, MSTypes.NULL, MSTypes.UNDEFINED
+    );
+
+    private static final TokenSet EXPRESSION_START = TokenSet.orSet(
+        LITERALS,
+        UNARY_OPERATORS,
+        MSTypes.NAMES,
+        TokenSet.create(MSTypes.LPAREN, MSTypes.LBRACKET, MSTypes.LBRACE, MSTypes.FUNCTION, MSTypes.ASYNC,
+            MSTypes.TEXT_BLOCK_QUOTE, MSTypes.TEMPLATE_QUOTE)
+    );
+
+    /**
+     * select 后紧跟这些符号时才按 LINQ 查询解析，select(...)、select.x、select - 1 等仍是普通表达式
+     */
+    private static final TokenSet LINQ_FIELD_START = TokenSet.orSet(
+        MSTypes.NAMES, LITERALS, TokenSet.create(MSTypes.TEXT_BLOCK_QUOTE, MSTypes.TEMPLATE_QUOTE)
+    );
+
+    /**
+     * LINQ 子句关键字，不能作为省略 as 的别名
+     */
+    private static final String[] LINQ_CLAUSE_WORDS = {
+        "from", "left", "join", "on", "where", "group", "having", "order", "limit", "offset", "as", "asc", "desc"
+    };
+
+    private static final TokenSet PROPERTY_KEYS = TokenSet.orSet(
+        MSTypes.NAMES, TokenSet.create(MSTypes.STRING_LITERAL)
+    );
+
+    /**
+     * 语句级错误恢复点：跳过错误内容直到遇到这些符号
+     */
+    private static final TokenSet STATEMENT_RECOVERY = TokenSet.create(
+        MSTypes.VAR, MSTypes.FUNCTION, MSTypes.IF, MSTypes.FOR, MSTypes.WHILE, MSTypes.DO,
+        MSTypes.TRY, MSTypes.THROW, MSTypes.BREAK, MSTypes.CONTINUE, MSTypes.RETURN,
+        MSTypes.IMPORT, MSTypes.EXPORT, MSTypes.EXIT, MSTypes.SEMICOLON, MSTypes.LBRACE, MSTypes.RBRACE
+    );
+
+    /**
+     * 括号内的错误恢复点：参数列表、条件和 for 头部跳到右括号或下一条语句
+     */
+    private static final TokenSet PARENTHESES_RECOVERY = TokenSet.orSet(
+        STATEMENT_RECOVERY, TokenSet.create(MSTypes.RPAREN)
+    );
+
+    private static final TokenSet ARGUMENT_RECOVERY = TokenSet.orSet(
+        PARENTHESES_RECOVERY, TokenSet.create(MSTypes.COMMA)
+    );
+
+    private static final TokenSet ARRAY_ELEMENT_RECOVERY = TokenSet.create(MSTypes.COMMA, MSTypes.RBRACKET);
+
+    private static final TokenSet OBJECT_PROPERTY_RECOVERY = TokenSet.create(MSTypes.COMMA, MSTypes.RBRACE);
+
+    /**
+     * 未闭合的懒解析区域在这些关键字处结束（须位于行首且缩进不超过区域起始行）
+     */
+    private static final TokenSet REGION_RECOVERY = TokenSet.create(
+        MSTypes.VAR, MSTypes.FUNCTION, MSTypes.IF, MSTypes.FOR, MSTypes.WHILE, MSTypes.DO,
+        MSTypes.TRY, MSTypes.THROW, MSTypes.RETURN, MSTypes.IMPORT, MSTypes.EXPORT, MSTypes.EXIT
+    );
+
+    private static final TokenSet OPENING_BRACKETS = TokenSet.create(
+        MSTypes.LPAREN, MSTypes.LBRACKET, MSTypes.LBRACE
+    );
+
+    private static final TokenSet CLOSING_BRACKETS = TokenSet.create(
+        MSTypes.RPAREN, MSTypes.RBRACKET, MSTypes.RBRACE
+    );
+
     @NotNull
     @Override
     public ASTNode parse(@NotNull IElementType root, @NotNull PsiBuilder builder) {
-        // 简化的解析实现
         PsiBuilder.Marker rootMarker = builder.mark();
-        
+
+        if (root instanceof MSLazyElementType) {
+            parseLazyContents(builder, root);
+            rootMarker.done(root);
+            return builder.getTreeBuilt();
+        }
+
         while (!builder.eof()) {
-            if (!parseStatement(builder)) {
+            if (builder.getTokenType() == MSTypes.RBRACE) {
+                // 顶层多余的右括号
+                PsiBuilder.Marker error = builder.mark();
                 builder.advanceLexer();
+                error.error("多余的 '}'");
+            } else {
+                parseStatement(builder);
             }
         }
-        
+
         rootMarker.done(root);
         return builder.getTreeBuilt();
     }
-    
-    private boolean parseStatement(PsiBuilder builder) {
-        // 简化的语句解析
-        if (builder.eof()) {
+
+    // ==================== 语句 ====================
+
+    /**
+     * 解析单条语句，调用前保证当前位置不是文件结尾或 '}'，解析后至少前进一个符号
+     */
+    private void parseStatement(PsiBuilder builder) {
+        IElementType type = builder.getTokenType();
+
+        if (type == MSTypes.VAR) {
+            parseVarDeclaration(builder, true);
+        } else if (type == MSTypes.FUNCTION && builder.lookAhead(1) != MSTypes.LPAREN) {
+            parseFunctionDeclaration(builder);
+        } else if (type == MSTypes.IF) {
+            parseIfStatement(builder);
+        } else if (type == MSTypes.FOR) {
+            parseForStatement(builder);
+        } else if (type == MSTypes.WHILE) {
+            parseWhileStatement(builder);
+        } else if (type == MSTypes.DO) {
+            parseDoWhileStatement(builder);
+        } else if (type == MSTypes.TRY) {
+            parseTryStatement(builder);
+        } else if (type == MSTypes.THROW) {
+            parseKeywordStatement(builder, MSTypes.THROW_STATEMENT, true);
+        } else if (type == MSTypes.BREAK) {
+            parseKeywordStatement(builder, MSTypes.BREAK_STATEMENT, false);
+        } else if (type == MSTypes.CONTINUE) {
+            parseKeywordStatement(builder, MSTypes.CONTINUE_STATEMENT, false);
+        } else if (type == MSTypes.RETURN) {
+            parseReturnStatement(builder);
+        } else if (type == MSTypes.IMPORT) {
+            parseImportStatement(builder);
+        } else if (type == MSTypes.EXPORT) {
+            parseExportStatement(builder);
+        } else if (type == MSTypes.EXIT) {
+            parseExitStatement(builder);
+        } else if (type == MSTypes.LBRACE) {
+            parseBlock(builder, MSTypes.BLOCK_STATEMENT);
+        } else if (type == MSTypes.SEMICOLON) {
+            // 空语句
+            builder.advanceLexer();
+        } else if (EXPRESSION_START.contains(type)) {
+            parseExpressionStatement(builder);
+        } else {
+            recoverStatement(builder, "不是合法的语句");
+        }
+    }
+
+    /**
+     * 解析作为子语句出现的语句（if/for/while 的循环体等），缺失时只报错不前进
+     */
+    private void parseRequiredStatement(PsiBuilder builder) {
+        if (builder.eof() || builder.getTokenType() == MSTypes.RBRACE) {
+            builder.error("缺少语句");
+            return;
+        }
+        parseStatement(builder);
+    }
+
+    /**
+     * 把当前符号到下一个恢复点之间的内容包成一个错误元素
+     */
+    private void recoverStatement(PsiBuilder builder, String message) {
+        PsiBuilder.Marker error = builder.mark();
+        builder.advanceLexer();
+        while (!builder.eof() && !STATEMENT_RECOVERY.contains(builder.getTokenType())) {
+            builder.advanceLexer();
+        }
+        if (builder.getTokenType() == MSTypes.SEMICOLON) {
+            builder.advanceLexer();
+        }
+        error.error(message);
+    }
+
+    private void parseVarDeclaration(PsiBuilder builder, boolean consumeSemicolon) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // var
+
+        if (expectName(builder, "缺少变量名")) {
+            if (builder.getTokenType() == MSTypes.ASSIGN) {
+                builder.advanceLexer();
+                expectExpression(builder);
+            }
+        }
+        if (consumeSemicolon) {
+            consumeOptional(builder, MSTypes.SEMICOLON);
+        }
+        marker.done(MSTypes.VAR_DECLARATION);
+    }
+
+    private void parseFunctionDeclaration(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // function
+
+        expectName(builder, "缺少函数名");
+        parseFunctionSignatureAndBody(builder);
+        marker.done(MSTypes.FUNCTION_DECLARATION);
+    }
+
+    /**
+     * 解析 (参数列表) { 函数体 }，函数声明与匿名函数共用
+     */
+    private void parseFunctionSignatureAndBody(PsiBuilder builder) {
+        if (expect(builder, MSTypes.LPAREN, "缺少 '('")) {
+            if (MSTypes.NAMES.contains(builder.getTokenType())) {
+                parseParameterList(builder);
+            }
+            if (canSkipInParentheses(builder)) {
+                recoverUntil(builder, PARENTHESES_RECOVERY, true, "多余的内容");
+            }
+            expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        }
+        parseBlock(builder, MSTypes.FUNCTION_BODY);
+    }
+
+    private void parseParameterList(PsiBuilder builder) {
+        PsiBuilder.Marker list = builder.mark();
+        do {
+            if (!MSTypes.NAMES.contains(builder.getTokenType())) {
+                builder.error("缺少参数名");
+                break;
+            }
+            PsiBuilder.Marker parameter = builder.mark();
+            builder.advanceLexer();
+            parameter.done(MSTypes.PARAMETER);
+        } while (consumeOptional(builder, MSTypes.COMMA));
+        list.done(MSTypes.PARAMETER_LIST);
+    }
+
+    private void parseIfStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // if
+
+        parseParenthesizedCondition(builder);
+        parseRequiredStatement(builder);
+        if (consumeOptional(builder, MSTypes.ELSE)) {
+            parseRequiredStatement(builder);
+        }
+        marker.done(MSTypes.IF_STATEMENT);
+    }
+
+    private void parseForStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // for
+
+        if (expect(builder, MSTypes.LPAREN, "缺少 '('")) {
+            if (builder.getTokenType() == MSTypes.VAR) {
+                parseVarDeclaration(builder, false);
+            } else if (EXPRESSION_START.contains(builder.getTokenType())) {
+                parseExpression(builder);
+            }
+            expect(builder, MSTypes.SEMICOLON, "缺少 ';'");
+            if (EXPRESSION_START.contains(builder.getTokenType())) {
+                parseExpression(builder);
+            }
+            expect(builder, MSTypes.SEMICOLON, "缺少 ';'");
+            if (EXPRESSION_START.contains(builder.getTokenType())) {
+                parseExpression(builder);
+            }
+            if (canSkipInParentheses(builder)) {
+                recoverUntil(builder, PARENTHESES_RECOVERY, true, "多余的内容");
+            }
+            expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        }
+        parseRequiredStatement(builder);
+        marker.done(MSTypes.FOR_STATEMENT);
+    }
+
+    private void parseWhileStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // while
+
+        parseParenthesizedCondition(builder);
+        parseRequiredStatement(builder);
+        marker.done(MSTypes.WHILE_STATEMENT);
+    }
+
+    private void parseDoWhileStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // do
+
+        parseRequiredStatement(builder);
+        if (expect(builder, MSTypes.WHILE, "缺少 'while'")) {
+            parseParenthesizedCondition(builder);
+            consumeOptional(builder, MSTypes.SEMICOLON);
+        }
+        marker.done(MSTypes.DO_WHILE_STATEMENT);
+    }
+
+    private void parseParenthesizedCondition(PsiBuilder builder) {
+        if (expect(builder, MSTypes.LPAREN, "缺少 '('")) {
+            expectExpression(builder);
+            if (canSkipInParentheses(builder)) {
+                recoverUntil(builder, PARENTHESES_RECOVERY, true, "多余的内容");
+            }
+            expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        }
+    }
+
+    private void parseTryStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // try
+
+        parseBlock(builder, MSTypes.BLOCK_STATEMENT);
+        while (builder.getTokenType() == MSTypes.CATCH) {
+            PsiBuilder.Marker catchClause = builder.mark();
+            builder.advanceLexer();
+            if (expect(builder, MSTypes.LPAREN, "缺少 '('")) {
+                expectName(builder, "缺少异常变量名");
+                expect(builder, MSTypes.RPAREN, "缺少 ')'");
+            }
+            parseBlock(builder, MSTypes.BLOCK_STATEMENT);
+            catchClause.done(MSTypes.CATCH_CLAUSE);
+        }
+        if (builder.getTokenType() == MSTypes.FINALLY) {
+            PsiBuilder.Marker finallyClause = builder.mark();
+            builder.advanceLexer();
+            parseBlock(builder, MSTypes.BLOCK_STATEMENT);
+            finallyClause.done(MSTypes.FINALLY_CLAUSE);
+        }
+        marker.done(MSTypes.TRY_STATEMENT);
+    }
+
+    /**
+     * throw / break / continue 这类 "关键字 [表达式] [;]" 形式的语句
+     */
+    private void parseKeywordStatement(PsiBuilder builder, IElementType statementType, boolean requiresExpression) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer();
+
+        if (requiresExpression) {
+            expectExpression(builder);
+        }
+        consumeOptional(builder, MSTypes.SEMICOLON);
+        marker.done(statementType);
+    }
+
+    private void parseReturnStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // return
+
+        if (EXPRESSION_START.contains(builder.getTokenType())) {
+            parseExpression(builder);
+        }
+        consumeOptional(builder, MSTypes.SEMICOLON);
+        marker.done(MSTypes.RETURN_STATEMENT);
+    }
+
+    private void parseImportStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // import
+
+        expect(builder, MSTypes.STRING_LITERAL, "缺少导入路径");
+        consumeOptional(builder, MSTypes.SEMICOLON);
+        marker.done(MSTypes.IMPORT_STATEMENT);
+    }
+
+    private void parseExportStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // export
+
+        IElementType type = builder.getTokenType();
+        if (type == MSTypes.VAR) {
+            parseVarDeclaration(builder, true);
+        } else if (type == MSTypes.FUNCTION && builder.lookAhead(1) != MSTypes.LPAREN) {
+            parseFunctionDeclaration(builder);
+        } else {
+            expectExpression(builder);
+            consumeOptional(builder, MSTypes.SEMICOLON);
+        }
+        marker.done(MSTypes.EXPORT_STATEMENT);
+    }
+
+    /**
+     * exit [状态码 [, 消息 [, 数据]]] [;]
+     */
+    private void parseExitStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // exit
+
+        if (EXPRESSION_START.contains(builder.getTokenType())) {
+            do {
+                expectExpression(builder);
+            } while (consumeOptional(builder, MSTypes.COMMA));
+        }
+        consumeOptional(builder, MSTypes.SEMICOLON);
+        marker.done(MSTypes.EXIT_STATEMENT);
+    }
+
+    private void parseExpressionStatement(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        parseExpression(builder);
+        consumeOptional(builder, MSTypes.SEMICOLON);
+        marker.done(MSTypes.EXPRESSION_STATEMENT);
+    }
+
+    /**
+     * 解析 { statement* }，缺少右括号时报错但保留已解析的语句
+     */
+    private void parseBlock(PsiBuilder builder, MSLazyElementType blockType) {
+        if (!parseLazyRegion(builder, blockType)) {
+            builder.error("缺少 '{'");
+        }
+    }
+
+    /**
+     * 按括号配对跳过懒解析区域并折叠为 type 节点，当前符号不是左括号时返回 false。
+     * 到文件结尾仍未闭合时，区域在第一个恢复点之前结束，缺少右括号的错误在展开区域时报告
+     */
+    private static boolean parseLazyRegion(PsiBuilder builder, MSLazyElementType type) {
+        IElementType leftBrace = type.getLeftBrace();
+        IElementType rightBrace = type.getRightBrace();
+        if (builder.getTokenType() != leftBrace) {
+            return false;
+        }
+
+        CharSequence text = builder.getOriginalText();
+        int regionIndent = lineIndent(text, builder.getCurrentOffset());
+        boolean literal = type == MSTypes.OBJECT_LITERAL || type == MSTypes.ARRAY_LITERAL;
+
+        PsiBuilder.Marker region = builder.mark();
+        builder.advanceLexer();
+
+        PsiBuilder.Marker recoveryPoint = null;
+        int depth = 1;
+        int nesting = 1;
+        while (!builder.eof()) {
+            IElementType token = builder.getTokenType();
+            if (recoveryPoint == null && isRegionRecoveryPoint(builder, text, regionIndent, literal && nesting == 1)) {
+                recoveryPoint = builder.mark();
+            }
+            if (token == leftBrace) {
+                depth++;
+            } else if (token == rightBrace) {
+                depth--;
+            }
+            if (OPENING_BRACKETS.contains(token)) {
+                nesting++;
+            } else if (CLOSING_BRACKETS.contains(token)) {
+                nesting--;
+            }
+            builder.advanceLexer();
+            if (depth == 0) {
+                break;
+            }
+        }
+
+        if (recoveryPoint != null) {
+            if (depth > 0) {
+                recoveryPoint.rollbackTo();
+            } else {
+                recoveryPoint.drop();
+            }
+        }
+        region.collapse(type);
+        return true;
+    }
+
+    /**
+     * 行首、缩进不超过区域起始行的语句关键字（function 须带函数名）；字面量最外层的 ';' 也视为恢复点
+     */
+    private static boolean isRegionRecoveryPoint(PsiBuilder builder, CharSequence text, int regionIndent,
+                                                 boolean semicolonEndsRegion) {
+        IElementType token = builder.getTokenType();
+        if (token == MSTypes.SEMICOLON) {
+            return semicolonEndsRegion;
+        }
+        if (!REGION_RECOVERY.contains(token)) {
+            return false;
+        }
+        if (token == MSTypes.FUNCTION && !MSTypes.NAMES.contains(builder.lookAhead(1))) {
             return false;
         }
-        
+        int offset = builder.getCurrentOffset();
+        return isLineStart(text, offset) && lineIndent(text, offset) <= regionIndent;
+    }
+
+    /**
+     * 展开懒解析元素时调用：根节点就是该元素本身，这里只解析括号内的结构
+     */
+    private void parseLazyContents(PsiBuilder builder, IElementType root) {
+        if (root == MSTypes.OBJECT_LITERAL) {
+            parseObjectLiteralContents(builder);
+        } else if (root == MSTypes.ARRAY_LITERAL) {
+            parseArrayLiteralContents(builder);
+        } else if (expect(builder, MSTypes.LBRACE, "缺少 '{'")) {
+            while (!builder.eof() && builder.getTokenType() != MSTypes.RBRACE) {
+                parseStatement(builder);
+            }
+            expect(builder, MSTypes.RBRACE, "缺少 '}'");
+        }
+        if (!builder.eof()) {
+            PsiBuilder.Marker error = builder.mark();
+            while (!builder.eof()) {
+                builder.advanceLexer();
+            }
+            error.error("多余的内容");
+        }
+    }
+
+    // ==================== 表达式 ====================
+
+    private void expectExpression(PsiBuilder builder) {
+        if (!parseExpression(builder)) {
+            builder.error("缺少表达式");
+        }
+    }
+
+    /**
+     * expression ::= assignmentExpression（赋值为右结合）
+     */
+    private boolean parseExpression(PsiBuilder builder) {
         PsiBuilder.Marker marker = builder.mark();
+        if (!parseConditionalExpression(builder)) {
+            marker.drop();
+            return false;
+        }
+        if (ASSIGNMENT_OPERATORS.contains(builder.getTokenType())) {
+            builder.advanceLexer();
+            expectExpression(builder);
+            marker.done(MSTypes.ASSIGNMENT_EXPRESSION);
+        } else {
+            marker.drop();
+        }
+        return true;
+    }
+
+    private boolean parseConditionalExpression(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        if (!parseBinaryExpression(builder, 0)) {
+            marker.drop();
+            return false;
+        }
+        if (builder.getTokenType() == MSTypes.QUESTION) {
+            builder.advanceLexer();
+            expectExpression(builder);
+            if (expect(builder, MSTypes.COLON, "缺少 ':'")) {
+                if (!parseConditionalExpression(builder)) {
+                    builder.error("缺少表达式");
+                }
+            }
+            marker.done(MSTypes.CONDITIONAL_EXPRESSION);
+        } else {
+            marker.drop();
+        }
+        return true;
+    }
+
+    /**
+     * 优先级爬升：解析优先级不低于 minLevel 的二元表达式，同级运算符左结合
+     */
+    private boolean parseBinaryExpression(PsiBuilder builder, int minLevel) {
+        PsiBuilder.Marker left = builder.mark();
+        if (!parseUnaryExpression(builder)) {
+            left.drop();
+            return false;
+        }
+
+        int level;
+        while ((level = binaryLevel(builder.getTokenType())) >= minLevel) {
+            builder.advanceLexer();
+            if (!parseBinaryExpression(builder, level + 1)) {
+                builder.error("缺少表达式");
+            }
+            left.done(BINARY_EXPRESSIONS[level]);
+            left = left.precede();
+        }
+        left.drop();
+        return true;
+    }
+
+    private static int binaryLevel(IElementType type) {
+        for (int i = 0; i < BINARY_OPERATORS.length; i++) {
+            if (BINARY_OPERATORS[i].contains(type)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean parseUnaryExpression(PsiBuilder builder) {
+        IElementType type = builder.getTokenType();
+        if (!UNARY_OPERATORS.contains(type) && type != MSTypes.ASYNC) {
+            return parsePostfixExpression(builder);
+        }
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer();
+        if (!parseUnaryExpression(builder)) {
+            builder.error("缺少表达式");
+        }
+        marker.done(type == MSTypes.ASYNC ? MSTypes.ASYNC_EXPRESSION : MSTypes.UNARY_EXPRESSION);
+        return true;
+    }
+
+    /**
+     * postfixExpression ::= primaryExpression (memberAccess | functionCall | arrayAccess | typeConversion | ++ | --)*
+     * 与 BNF 一致，调用链上的各环节作为 POSTFIX_EXPRESSION 的平级子节点
+     */
+    private boolean parsePostfixExpression(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        if (!parsePrimaryExpression(builder)) {
+            marker.drop();
+            return false;
+        }
+
+        boolean hasSuffix = false;
+        while (true) {
+            IElementType type = builder.getTokenType();
+            if (MSTypes.MEMBER_ACCESS_OPERATORS.contains(type)) {
+                PsiBuilder.Marker access = builder.mark();
+                builder.advanceLexer();
+                expectName(builder, "缺少成员名");
+                access.done(MSTypes.MEMBER_ACCESS);
+            } else if (type == MSTypes.DOUBLE_COLON) {
+                PsiBuilder.Marker conversion = builder.mark();
+                builder.advanceLexer();
+                expectName(builder, "缺少类型名");
+                conversion.done(MSTypes.TYPE_CONVERSION);
+            } else if (type == MSTypes.LPAREN) {
+                parseFunctionCall(builder);
+            } else if (type == MSTypes.LBRACKET) {
+                PsiBuilder.Marker access = builder.mark();
+                builder.advanceLexer();
+                expectExpression(builder);
+                expect(builder, MSTypes.RBRACKET, "缺少 ']'");
+                access.done(MSTypes.ARRAY_ACCESS);
+            } else if (type == MSTypes.INCREMENT || type == MSTypes.DECREMENT) {
+                builder.advanceLexer();
+            } else {
+                break;
+            }
+            hasSuffix = true;
+        }
+
+        if (hasSuffix) {
+            marker.done(MSTypes.POSTFIX_EXPRESSION);
+        } else {
+            marker.drop();
+        }
+        return true;
+    }
+
+    private void parseFunctionCall(PsiBuilder builder) {
+        PsiBuilder.Marker call = builder.mark();
+        builder.advanceLexer(); // (
+
+        if (builder.getTokenType() != MSTypes.RPAREN) {
+            PsiBuilder.Marker arguments = builder.mark();
+            do {
+                if (!parseElement(builder)) {
+                    builder.error("缺少表达式");
+                }
+                if (canSkipInParentheses(builder) && builder.getTokenType() != MSTypes.COMMA) {
+                    recoverUntil(builder, ARGUMENT_RECOVERY, true, "缺少 ','");
+                }
+            } while (consumeOptional(builder, MSTypes.COMMA));
+            arguments.done(MSTypes.ARGUMENT_LIST);
+        }
+        expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        call.done(MSTypes.FUNCTION_CALL);
+    }
+
+    /**
+     * 参数和数组元素：表达式或 ...展开
+     */
+    private boolean parseElement(PsiBuilder builder) {
+        if (builder.getTokenType() != MSTypes.SPREAD) {
+            return parseExpression(builder);
+        }
+        PsiBuilder.Marker spread = builder.mark();
+        builder.advanceLexer(); // ...
+        expectExpression(builder);
+        spread.done(MSTypes.SPREAD_EXPRESSION);
+        return true;
+    }
+
+    private boolean parsePrimaryExpression(PsiBuilder builder) {
+        IElementType type = builder.getTokenType();
+        if (!EXPRESSION_START.contains(type) || UNARY_OPERATORS.contains(type) || type == MSTypes.ASYNC) {
+            return false;
+        }
+
+        PsiBuilder.Marker marker = builder.mark();
+        if (isLambdaStart(builder)) {
+            parseLambdaExpression(builder);
+        } else if (isLinqStart(builder)) {
+            parseLinqExpression(builder);
+        } else if (type == MSTypes.LPAREN) {
+            builder.advanceLexer();
+            expectExpression(builder);
+            expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        } else if (type == MSTypes.LBRACKET) {
+            parseArrayLiteral(builder);
+        } else if (type == MSTypes.LBRACE) {
+            parseObjectLiteral(builder);
+        } else if (type == MSTypes.TEXT_BLOCK_QUOTE) {
+            parseTextBlock(builder);
+        } else if (type == MSTypes.TEMPLATE_QUOTE) {
+            parseTemplateString(builder);
+        } else if (type == MSTypes.FUNCTION) {
+            PsiBuilder.Marker function = builder.mark();
+            builder.advanceLexer();
+            parseFunctionSignatureAndBody(builder);
+            function.done(MSTypes.FUNCTION_EXPRESSION);
+        } else {
+            // 标识符、内置模块、字面量
+            builder.advanceLexer();
+        }
+        marker.done(MSTypes.PRIMARY_EXPRESSION);
+        return true;
+    }
+
+    /**
+     * 向前查看是否为箭头函数：name => 或 (name, ...) =>，不回溯
+     */
+    private static boolean isLambdaStart(PsiBuilder builder) {
+        IElementType type = builder.getTokenType();
+        if (MSTypes.NAMES.contains(type)) {
+            return builder.lookAhead(1) == MSTypes.ARROW;
+        }
+        if (type != MSTypes.LPAREN) {
+            return false;
+        }
+        int steps = 1;
+        if (builder.lookAhead(steps) != MSTypes.RPAREN) {
+            while (MSTypes.NAMES.contains(builder.lookAhead(steps))) {
+                steps++;
+                if (builder.lookAhead(steps) != MSTypes.COMMA) {
+                    break;
+                }
+                steps++;
+            }
+            if (builder.lookAhead(steps) != MSTypes.RPAREN) {
+                return false;
+            }
+        }
+        return builder.lookAhead(steps + 1) == MSTypes.ARROW;
+    }
+
+    /**
+     * lambdaExpression ::= (parameter | LPAREN parameterList? RPAREN) ARROW (functionBody | expression)
+     */
+    private void parseLambdaExpression(PsiBuilder builder) {
+        PsiBuilder.Marker lambda = builder.mark();
+        if (builder.getTokenType() == MSTypes.LPAREN) {
+            builder.advanceLexer();
+            if (MSTypes.NAMES.contains(builder.getTokenType())) {
+                parseParameterList(builder);
+            }
+            expect(builder, MSTypes.RPAREN, "缺少 ')'");
+        } else {
+            PsiBuilder.Marker list = builder.mark();
+            PsiBuilder.Marker parameter = builder.mark();
+            builder.advanceLexer();
+            parameter.done(MSTypes.PARAMETER);
+            list.done(MSTypes.PARAMETER_LIST);
+        }
+        builder.advanceLexer(); // =>
+
+        if (builder.getTokenType() == MSTypes.LBRACE) {
+            parseBlock(builder, MSTypes.FUNCTION_BODY);
+        } else {
+            expectExpression(builder);
+        }
+        lambda.done(MSTypes.LAMBDA_EXPRESSION);
+    }
+
+    // ==================== LINQ 查询 ====================
+
+    private static boolean isLinqStart(PsiBuilder builder) {
+        return isContextualKeyword(builder, "select") && LINQ_FIELD_START.contains(builder.lookAhead(1));
+    }
+
+    /**
+     * linqExpression ::= SELECT linqField (COMMA linqField)* linqFromClause linqJoinClause* linqWhereClause?
+     *                    (linqGroupByClause linqHavingClause?)? linqOrderByClause? linqLimitClause?
+     */
+    private void parseLinqExpression(PsiBuilder builder) {
+        PsiBuilder.Marker linq = builder.mark();
+        consumeContextualKeyword(builder, "select", MSTypes.SELECT);
+
+        do {
+            parseLinqAliased(builder, MSTypes.LINQ_FIELD, "缺少查询字段");
+        } while (consumeOptional(builder, MSTypes.COMMA));
+
+        if (isContextualKeyword(builder, "from")) {
+            PsiBuilder.Marker from = builder.mark();
+            consumeContextualKeyword(builder, "from", MSTypes.FROM);
+            parseLinqAliased(builder, MSTypes.LINQ_SOURCE, "缺少查询来源");
+            from.done(MSTypes.LINQ_FROM_CLAUSE);
+        } else {
+            builder.error("缺少 'from'");
+        }
+
+        while (isContextualKeyword(builder, "join")
+            || isContextualKeyword(builder, "left") && builder.lookAhead(1) == MSTypes.IDENTIFIER) {
+            parseLinqJoinClause(builder);
+        }
+        parseLinqConditionClause(builder, "where", MSTypes.WHERE, MSTypes.LINQ_WHERE_CLAUSE);
+        if (isContextualKeyword(builder, "group") && builder.lookAhead(1) == MSTypes.IDENTIFIER) {
+            PsiBuilder.Marker group = builder.mark();
+            consumeContextualKeyword(builder, "group", MSTypes.GROUP);
+            expectContextualKeyword(builder, "by", MSTypes.BY);
+            do {
+                expectExpression(builder);
+            } while (consumeOptional(builder, MSTypes.COMMA));
+            group.done(MSTypes.LINQ_GROUP_BY_CLAUSE);
+            parseLinqConditionClause(builder, "having", MSTypes.HAVING, MSTypes.LINQ_HAVING_CLAUSE);
+        }
+        if (isContextualKeyword(builder, "order") && builder.lookAhead(1) == MSTypes.IDENTIFIER) {
+            parseLinqOrderByClause(builder);
+        }
+        if (isContextualKeyword(builder, "limit")) {
+            PsiBuilder.Marker limit = builder.mark();
+            consumeContextualKeyword(builder, "limit", MSTypes.LIMIT);
+            expectExpression(builder);
+            if (consumeContextualKeyword(builder, "offset", MSTypes.OFFSET)) {
+                expectExpression(builder);
+            }
+            limit.done(MSTypes.LINQ_LIMIT_CLAUSE);
+        }
+        linq.done(MSTypes.LINQ_EXPRESSION);
+    }
+
+    /**
+     * linqJoinClause ::= LEFT? JOIN linqSource ON expression
+     */
+    private void parseLinqJoinClause(PsiBuilder builder) {
+        PsiBuilder.Marker join = builder.mark();
+        if (consumeContextualKeyword(builder, "left", MSTypes.LEFT)) {
+            expectContextualKeyword(builder, "join", MSTypes.JOIN);
+        } else {
+            consumeContextualKeyword(builder, "join", MSTypes.JOIN);
+        }
+        parseLinqAliased(builder, MSTypes.LINQ_SOURCE, "缺少查询来源");
+        if (expectContextualKeyword(builder, "on", MSTypes.ON)) {
+            expectExpression(builder);
+        }
+        join.done(MSTypes.LINQ_JOIN_CLAUSE);
+    }
+
+    /**
+     * where / having 这类 "关键字 表达式" 形式的子句，关键字不存在时不做任何事
+     */
+    private void parseLinqConditionClause(PsiBuilder builder, String word, IElementType keyword, IElementType clauseType) {
+        if (!isContextualKeyword(builder, word)) {
+            return;
+        }
+        PsiBuilder.Marker clause = builder.mark();
+        consumeContextualKeyword(builder, word, keyword);
+        expectExpression(builder);
+        clause.done(clauseType);
+    }
+
+    /**
+     * linqOrderByClause ::= ORDER BY linqOrderItem (COMMA linqOrderItem)*
+     * linqOrderItem ::= expression (ASC | DESC)?
+     */
+    private void parseLinqOrderByClause(PsiBuilder builder) {
+        PsiBuilder.Marker order = builder.mark();
+        consumeContextualKeyword(builder, "order", MSTypes.ORDER);
+        expectContextualKeyword(builder, "by", MSTypes.BY);
+        do {
+            PsiBuilder.Marker item = builder.mark();
+            if (!parseExpression(builder)) {
+                item.drop();
+                builder.error("缺少表达式");
+                break;
+            }
+            if (!consumeContextualKeyword(builder, "asc", MSTypes.ASC)) {
+                consumeContextualKeyword(builder, "desc", MSTypes.DESC);
+            }
+            item.done(MSTypes.LINQ_ORDER_ITEM);
+        } while (consumeOptional(builder, MSTypes.COMMA));
+        order.done(MSTypes.LINQ_ORDER_BY_CLAUSE);
+    }
+
+    /**
+     * 查询字段和查询来源：expression (AS? linqAlias)?
+     * 省略 as 时别名须与表达式在同一行且不是子句关键字
+     */
+    private void parseLinqAliased(PsiBuilder builder, IElementType type, String message) {
+        PsiBuilder.Marker marker = builder.mark();
+        if (!parseExpression(builder)) {
+            marker.drop();
+            builder.error(message);
+            return;
+        }
+        if (consumeContextualKeyword(builder, "as", MSTypes.AS)) {
+            if (MSTypes.NAMES.contains(builder.getTokenType())) {
+                parseLinqAlias(builder);
+            } else {
+                builder.error("缺少别名");
+            }
+        } else if (MSTypes.NAMES.contains(builder.getTokenType()) && !isLinqClauseWord(builder)
+            && !isLineStart(builder.getOriginalText(), builder.getCurrentOffset())) {
+            parseLinqAlias(builder);
+        }
+        marker.done(type);
+    }
+
+    private static void parseLinqAlias(PsiBuilder builder) {
+        PsiBuilder.Marker alias = builder.mark();
+        builder.advanceLexer();
+        alias.done(MSTypes.LINQ_ALIAS);
+    }
+
+    private static boolean isLinqClauseWord(PsiBuilder builder) {
+        for (String word : LINQ_CLAUSE_WORDS) {
+            if (isContextualKeyword(builder, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * textBlock ::= TEXT_BLOCK_QUOTE STRING_CONTENT* TEXT_BLOCK_QUOTE
+     */
+    private void parseTextBlock(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // """
+
+        while (builder.getTokenType() == MSTypes.STRING_CONTENT) {
+            builder.advanceLexer();
+        }
+        expect(builder, MSTypes.TEXT_BLOCK_QUOTE, "缺少结束的 '\"\"\"'");
+        marker.done(MSTypes.TEXT_BLOCK);
+    }
+
+    /**
+     * templateString ::= TEMPLATE_QUOTE (STRING_CONTENT | interpolation)* TEMPLATE_QUOTE
+     * interpolation ::= INTERPOLATION_START expression INTERPOLATION_END
+     */
+    private void parseTemplateString(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // `
+
+        while (!builder.eof() && builder.getTokenType() != MSTypes.TEMPLATE_QUOTE) {
+            if (builder.getTokenType() == MSTypes.INTERPOLATION_START) {
+                parseInterpolation(builder);
+            } else if (builder.getTokenType() == MSTypes.STRING_CONTENT) {
+                builder.advanceLexer();
+            } else {
+                break;
+            }
+        }
+        expect(builder, MSTypes.TEMPLATE_QUOTE, "缺少结束的 '`'");
+        marker.done(MSTypes.TEMPLATE_STRING);
+    }
+
+    private void parseInterpolation(PsiBuilder builder) {
+        PsiBuilder.Marker marker = builder.mark();
+        builder.advanceLexer(); // ${
+
+        expectExpression(builder);
+        if (builder.getTokenType() != MSTypes.INTERPOLATION_END) {
+            // 插值内多余的内容，词法分析器保证其在 '}' 处结束
+            PsiBuilder.Marker error = builder.mark();
+            while (!builder.eof() && builder.getTokenType() != MSTypes.INTERPOLATION_END) {
+                builder.advanceLexer();
+            }
+            error.error("缺少 '}'");
+        }
+        consumeOptional(builder, MSTypes.INTERPOLATION_END);
+        marker.done(MSTypes.INTERPOLATION);
+    }
+
+    /**
+     * 数组和对象字面量同样按括号配对懒解析，大段内联 JSON 只有在被访问时才展开
+     */
+    private void parseArrayLiteral(PsiBuilder builder) {
+        parseLazyRegion(builder, MSTypes.ARRAY_LITERAL);
+    }
+
+    private void parseObjectLiteral(PsiBuilder builder) {
+        parseLazyRegion(builder, MSTypes.OBJECT_LITERAL);
+    }
+
+    /**
+     * 元素出错时跳到下一个 ',' 或 ']' 继续解析后面的元素
+     */
+    private void parseArrayLiteralContents(PsiBuilder builder) {
+        builder.advanceLexer(); // [
+
+        while (!builder.eof() && builder.getTokenType() != MSTypes.RBRACKET) {
+            if (!parseElement(builder)) {
+                recoverUntil(builder, ARRAY_ELEMENT_RECOVERY, false, "缺少表达式");
+            } else if (!builder.eof() && !ARRAY_ELEMENT_RECOVERY.contains(builder.getTokenType())) {
+                recoverUntil(builder, ARRAY_ELEMENT_RECOVERY, false, "缺少 ','");
+            }
+            if (!consumeOptional(builder, MSTypes.COMMA)) {
+                break;
+            }
+        }
+        expect(builder, MSTypes.RBRACKET, "缺少 ']'");
+    }
+
+    /**
+     * 属性出错时跳到下一个 ',' 或 '}' 继续解析后面的属性
+     */
+    private void parseObjectLiteralContents(PsiBuilder builder) {
+        builder.advanceLexer(); // {
+
+        while (!builder.eof() && builder.getTokenType() != MSTypes.RBRACE) {
+            if (builder.getTokenType() == MSTypes.SPREAD) {
+                parseElement(builder);
+            } else if (!PROPERTY_KEYS.contains(builder.getTokenType())) {
+                recoverUntil(builder, OBJECT_PROPERTY_RECOVERY, false, "缺少属性名");
+            } else {
+                PsiBuilder.Marker property = builder.mark();
+                builder.advanceLexer();
+                if (expect(builder, MSTypes.COLON, "缺少 ':'")) {
+                    expectExpression(builder);
+                }
+                property.done(MSTypes.PROPERTY);
+            }
+            if (!builder.eof() && !OBJECT_PROPERTY_RECOVERY.contains(builder.getTokenType())) {
+                recoverUntil(builder, OBJECT_PROPERTY_RECOVERY, false, "缺少 ','");
+            }
+            if (!consumeOptional(builder, MSTypes.COMMA)) {
+                break;
+            }
+        }
+        expect(builder, MSTypes.RBRACE, "缺少 '}'");
+    }
+
+    // ==================== 工具方法 ====================
+
+    /**
+     * 括号内当前符号是否是可以跳过的多余内容：不是右括号或语句起始符号，且与前面的内容在同一行。
+     * 换行后的内容更可能是下一条语句，此时只报缺少右括号
+     */
+    private static boolean canSkipInParentheses(PsiBuilder builder) {
+        return !builder.eof()
+            && !PARENTHESES_RECOVERY.contains(builder.getTokenType())
+            && !isLineStart(builder.getOriginalText(), builder.getCurrentOffset());
+    }
+
+    /**
+     * 把当前符号到 stopAt 中的符号（不在嵌套括号内）之间的内容包成一个错误元素，
+     * 遇到未配对的右括号时也停止；stopAtLineStart 为 true 时在换行处停止
+     */
+    private static void recoverUntil(PsiBuilder builder, TokenSet stopAt, boolean stopAtLineStart, String message) {
+        if (builder.eof() || stopAt.contains(builder.getTokenType())) {
+            builder.error(message);
+            return;
+        }
+
+        CharSequence text = builder.getOriginalText();
+        PsiBuilder.Marker error = builder.mark();
+        int start = builder.getCurrentOffset();
+        int depth = 0;
+        while (!builder.eof()) {
+            IElementType type = builder.getTokenType();
+            if (depth == 0 && builder.getCurrentOffset() > start && (stopAt.contains(type)
+                || stopAtLineStart && isLineStart(text, builder.getCurrentOffset()))) {
+                break;
+            }
+            if (OPENING_BRACKETS.contains(type)) {
+                depth++;
+            } else if (CLOSING_BRACKETS.contains(type) && --depth < 0) {
+                break;
+            }
+            builder.advanceLexer();
+        }
+        error.error(message);
+    }
+
+    /**
+     * offset 之前到行首只有空白
+     */
+    private static boolean isLineStart(CharSequence text, int offset) {
+        for (int i = offset - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                return true;
+            }
+            if (c != ' ' && c != '\t' && c != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * offset 所在行的缩进宽度（空格和制表符个数）
+     */
+    private static int lineIndent(CharSequence text, int offset) {
+        int lineStart = offset;
+        while (lineStart > 0 && text.charAt(lineStart - 1) != '\n') {
+            lineStart--;
+        }
+        int end = lineStart;
+        while (end < text.length() && (text.charAt(end) == ' ' || text.charAt(end) == '\t')) {
+            end++;
+        }
+        return end - lineStart;
+    }
+
+    private static boolean expect(PsiBuilder builder, IElementType type, String message) {
+        if (builder.getTokenType() == type) {
+            builder.advanceLexer();
+            return true;
+        }
+        builder.error(message);
+        return false;
+    }
+
+    private static boolean expectName(PsiBuilder builder, String message) {
+        if (MSTypes.NAMES.contains(builder.getTokenType())) {
+            builder.advanceLexer();
+            return true;
+        }
+        builder.error(message);
+        return false;
+    }
+
+    /**
+     * 当前符号是否是文本为 word 的标识符（LINQ 上下文关键字）
+     */
+    private static boolean isContextualKeyword(PsiBuilder builder, String word) {
+        return builder.getTokenType() == MSTypes.IDENTIFIER && word.contentEquals(builder.getTokenSequence());
+    }
+
+    /**
+     * 当前符号是上下文关键字 word 时重映射为 keyword 并前进
+     */
+    private static boolean consumeContextualKeyword(PsiBuilder builder, String word, IElementType keyword) {
+        if (!isContextualKeyword(builder, word)) {
+            return false;
+        }
+        builder.remapCurrentToken(keyword);
         builder.advanceLexer();
-        marker.done(com.magicapi.idea.lang.psi.MSTypes.IDENTIFIER);
         return true;
     }
-}
\ No newline at end of file
+
+    private static boolean expectContextualKeyword(PsiBuilder builder, String word, IElementType keyword) {
+        if (consumeContextualKeyword(builder, word, keyword)) {
+            return true;
+        }
+        builder.error("缺少 '" + word + "'");
+        return false;
+    }
+
+    private static boolean consumeOptional(PsiBuilder builder, IElementType type) {
+        if (builder.getTokenType() == type) {
+            builder.advanceLexer();
+            return true;
+        }
+        return false;
+    }
+}
@@ -11,18 +11,18 @@ import com.intellij.psi.PsiFile;
 import com.intellij.psi.tree.IFileElementType;
 import com.intellij.psi.tree.TokenSet;
 import com.intellij.psi.TokenType;
-import com.magicapi.idea.lang.MagicScriptLanguage;
 import com.magicapi.idea.lang.lexer.MagicScriptLexerAdapter;
 import com.magicapi.idea.lang.psi.MSFile;
 import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.stubs.MSFileElementType;
 import org.jetbrains.annotations.NotNull;
 
 public class MagicScriptParserDefinition implements ParserDefinition {
-    public static final IFileElementType FILE = new IFileElementType(MagicScriptLanguage.INSTANCE);
+    public static final IFileElementType FILE = new MSFileElementType();
     
     public static final TokenSet WHITE_SPACES = TokenSet.create(TokenType.WHITE_SPACE);
     public static final TokenSet COMMENTS = TokenSet.create(MSTypes.LINE_COMMENT, MSTypes.BLOCK_COMMENT);
-    public static final TokenSet STRINGS = TokenSet.create(MSTypes.STRING_LITERAL);
+    public static final TokenSet STRINGS = TokenSet.create(MSTypes.STRING_LITERAL, MSTypes.STRING_CONTENT);
     public static final TokenSet KEYWORDS = TokenSet.create(
         MSTypes.VAR, MSTypes.FUNCTION, MSTypes.RETURN, MSTypes.IF, MSTypes.ELSE,
         MSTypes.FOR, MSTypes.WHILE, MSTypes.DO, MSTypes.BREAK, MSTypes.CONTINUE,
@@ -1,13 +1,14 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
+import com.magicapi.idea.completion.model.MagicType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.util.List;
 
 /**
  * 函数调用表达式接口
- * 用于处理方法调用和参数信息
+ * 用于处理方法调用和参数信息，对应调用链中的一对括号及其中的参数
  */
 public interface CallExpression extends PsiElement {
     
@@ -26,7 +27,7 @@ public interface CallExpression extends PsiElement {
     
     /**
      * 获取期望的参数列表（用于智能提示）
-     * @return 期望的参数信息
+     * @return 期望的参数名，被调用的不是已登记的方法或函数时返回null
      */
     @Nullable
     List<String> getExpectedParameters();
@@ -38,6 +39,13 @@ public interface CallExpression extends PsiElement {
     @Nullable
     String getFunctionName();
     
+    /**
+     * 获取方法调用的接收者类型
+     * @return 接收者类型，以名称直接调用的函数返回null
+     */
+    @Nullable
+    MagicType getReceiverType();
+    
     /**
      * 判断是否支持链式调用
      * @return true if chainable
@@ -46,8 +54,8 @@ public interface CallExpression extends PsiElement {
     
     /**
      * 获取返回类型
-     * @return 方法返回类型
+     * @return 方法返回类型，无法推断时为 Object
      */
-    @Nullable
-    String getReturnType();
-}
\ No newline at end of file
+    @NotNull
+    MagicType getReturnType();
+}
@@ -1,6 +1,7 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
+import com.magicapi.idea.completion.model.MagicType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.util.List;
@@ -8,36 +9,37 @@ import java.util.List;
 /**
  * 链式调用接口
  * 用于处理链式方法调用，如 db.cache().select().first()
+ * 对应调用链中的一次成员访问 .name / ?.name，其后紧跟的调用参数属于同一环节
  */
 public interface ChainableCall extends PsiElement {
     
     /**
      * 获取方法名称
-     * @return 当前方法名
+     * @return 当前方法名，成员名尚未输入时为空串
      */
     @NotNull
     String getMethodName();
     
     /**
      * 获取参数列表
-     * @return 参数表达式列表
+     * @return 参数表达式列表，属性访问时为空
      */
     @NotNull
     List<PsiElement> getArguments();
     
     /**
      * 获取前一个调用（链式调用中的上一个环节）
-     * @return 前一个调用元素
+     * @return 前一个环节，位于调用链开头时为根对象表达式
      */
     @Nullable
     PsiElement getPreviousCall();
     
     /**
      * 获取返回类型
-     * @return 当前方法的返回类型
+     * @return 当前方法的返回类型，或属性的类型
      */
-    @Nullable
-    String getReturnType();
+    @NotNull
+    MagicType getReturnType();
     
     /**
      * 获取完整的调用链
@@ -56,6 +58,6 @@ public interface ChainableCall extends PsiElement {
      * 获取链式调用的根对象类型
      * @return 调用链起始对象的类型
      */
-    @Nullable
-    String getRootObjectType();
-}
\ No newline at end of file
+    @NotNull
+    MagicType getRootObjectType();
+}
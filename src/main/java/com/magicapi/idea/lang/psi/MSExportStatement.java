@@ -1,11 +1,37 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
 
 /**
  * Export语句PSI元素接口
- * 临时占位符，实际应由Grammar-Kit生成
+ * 对应 BNF 中的 exportStatement ::= EXPORT (varDeclaration | functionDeclaration | expression)
  */
 public interface MSExportStatement extends PsiElement {
-    // 这个接口应该由Grammar-Kit根据BNF文件生成
-}
\ No newline at end of file
+    
+    /**
+     * 获取导出的名称：导出声明时为声明名，导出标识符时为标识符本身，导出对象字面量时为各属性名
+     * @return 导出的名称列表
+     */
+    @NotNull
+    List<String> getExportedNames();
+    
+    /**
+     * 获取被导出的变量或函数声明
+     * @return 声明元素，导出的是表达式时返回null
+     */
+    @Nullable
+    PsiNamedElement getDeclaration();
+    
+    /**
+     * 查找以指定名称导出的元素
+     * @param name 导出名称
+     * @return 对应的声明、对象属性或标识符，未导出该名称时返回null
+     */
+    @Nullable
+    PsiElement findExportedElement(@NotNull String name);
+}
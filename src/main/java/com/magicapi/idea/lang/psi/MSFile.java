@@ -3,9 +3,17 @@ package com.magicapi.idea.lang.psi;
 import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.util.PsiTreeUtil;
 import com.magicapi.idea.lang.MagicScriptFileType;
 import com.magicapi.idea.lang.MagicScriptLanguage;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class MSFile extends PsiFileBase {
     public MSFile(@NotNull FileViewProvider viewProvider) {
@@ -17,8 +25,62 @@ public class MSFile extends PsiFileBase {
         return MagicScriptFileType.INSTANCE;
     }
     
+    /**
+     * 获取文件中的export语句，AST 未加载时直接从存根读取
+     */
+    @NotNull
+    public List<MSExportStatement> getExportStatements() {
+        return getTopLevelElements(MSExportStatement.class);
+    }
+    
+    /**
+     * 获取文件导出的全部名称
+     */
+    @NotNull
+    public List<String> getExportedNames() {
+        List<String> names = new ArrayList<>();
+        for (MSExportStatement export : getExportStatements()) {
+            names.addAll(export.getExportedNames());
+        }
+        return names;
+    }
+    
+    /**
+     * 按名称查找顶层（含 export 中的）函数或变量声明
+     */
+    @Nullable
+    public PsiNamedElement findTopLevelDeclaration(@NotNull String name) {
+        for (PsiElement element : getTopLevelElements(PsiElement.class)) {
+            PsiNamedElement declaration = element instanceof MSExportStatement
+                ? ((MSExportStatement) element).getDeclaration()
+                : element instanceof MSFunctionDeclaration || element instanceof MSVarDeclaration
+                    ? (PsiNamedElement) element : null;
+            if (declaration != null && name.equals(declaration.getName())) {
+                return declaration;
+            }
+        }
+        return null;
+    }
+    
+    @NotNull
+    private <T extends PsiElement> List<T> getTopLevelElements(@NotNull Class<T> type) {
+        StubElement<?> stub = getStub();
+        if (stub == null) {
+            return PsiTreeUtil.getChildrenOfTypeAsList(this, type);
+        }
+        
+        List<T> result = new ArrayList<>();
+        for (StubElement<?> child : stub.getChildrenStubs()) {
+            PsiElement psi = child.getPsi();
+            if (type.isInstance(psi)) {
+                result.add(type.cast(psi));
+            }
+        }
+        return result;
+    }
+    
     @Override
     public String toString() {
         return "Magic Script File";
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.PsiNameIdentifierOwner;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -11,7 +11,7 @@ import java.util.List;
  * 函数声明PSI元素接口
  * 表示 Magic Script 中的函数声明语句
  */
-public interface MSFunctionDeclaration extends PsiNamedElement {
+public interface MSFunctionDeclaration extends PsiNameIdentifierOwner {
     
     /**
      * 获取函数参数列表
@@ -38,4 +38,10 @@ public interface MSFunctionDeclaration extends PsiNamedElement {
      * @return true如果函数有参数
      */
     boolean hasParameters();
+    
+    /**
+     * 检查函数是否通过 export 导出
+     * @return true如果函数声明位于 export 语句中
+     */
+    boolean isExported();
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Import语句PSI元素接口
- * 临时占位符，实际应由Grammar-Kit生成
+ * 对应 BNF 中的 importStatement ::= IMPORT STRING_LITERAL SEMICOLON?
  */
 public interface MSImportStatement extends PsiElement {
+    
+    /**
+     * 获取导入路径字面量
+     * @return 带引号的路径文本，语句不完整时返回null
+     */
+    @Nullable
     String getImportPath();
-    // 这个接口应该由Grammar-Kit根据BNF文件生成
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.magicapi.idea.lang.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.lang.Language;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.IReparseableElementType;
+import com.magicapi.idea.lang.MagicScriptLanguage;
+import com.magicapi.idea.lang.lexer.MagicScriptLexerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Magic Script 懒解析元素类型
+ * 以一对括号包围、可懒解析且可增量重解析的元素：代码块、函数体、对象字面量和数组字面量
+ *
+ * 主解析器只按括号配对跳过其内容，内部结构在首次访问子节点时才解析；
+ * 编辑发生在元素内部且修改后的文本仍是一个完整的括号配对区域时，
+ * 平台只对该区域重新词法分析和语法分析，而不是整个文件。
+ */
+public class MSLazyElementType extends IReparseableElementType {
+
+    private final IElementType leftBrace;
+    private final IElementType rightBrace;
+
+    public MSLazyElementType(@NotNull String debugName,
+                             @NotNull IElementType leftBrace,
+                             @NotNull IElementType rightBrace) {
+        super(debugName, MagicScriptLanguage.INSTANCE);
+        this.leftBrace = leftBrace;
+        this.rightBrace = rightBrace;
+    }
+
+    @NotNull
+    public IElementType getLeftBrace() {
+        return leftBrace;
+    }
+
+    @NotNull
+    public IElementType getRightBrace() {
+        return rightBrace;
+    }
+
+    @Override
+    public boolean isParsable(@Nullable ASTNode parent,
+                              @NotNull CharSequence buffer,
+                              @NotNull Language fileLanguage,
+                              @NotNull Project project) {
+        return isSingleBracedRegion(buffer);
+    }
+
+    /**
+     * 检查文本是否恰好是一个以左括号开始、以与之配对的右括号结束的区域
+     */
+    public boolean isSingleBracedRegion(@NotNull CharSequence buffer) {
+        Lexer lexer = new MagicScriptLexerAdapter();
+        lexer.start(buffer);
+        if (lexer.getTokenType() != leftBrace) {
+            return false;
+        }
+
+        int depth = 0;
+        IElementType type;
+        while ((type = lexer.getTokenType()) != null) {
+            if (type == leftBrace) {
+                depth++;
+            } else if (type == rightBrace && --depth == 0) {
+                lexer.advance();
+                return lexer.getTokenType() == null;
+            }
+            lexer.advance();
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "MSElementType." + super.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.magicapi.idea.lang.psi;
+
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * LINQ 查询表达式PSI元素接口
+ * 对应 BNF 中的 linqExpression ::= SELECT linqField (COMMA linqField)* linqFromClause linqJoinClause* ...
+ */
+public interface MSLinqExpression extends PsiElement {
+    
+    /**
+     * 获取查询字段（LINQ_FIELD），按书写顺序
+     */
+    @NotNull
+    List<PsiElement> getFields();
+    
+    /**
+     * 获取结果行的字段名：有别名时为别名，否则为字段表达式的最后一个成员名或标识符，无法确定时跳过
+     */
+    @NotNull
+    List<String> getFieldNames();
+    
+    /**
+     * 获取查询来源（LINQ_SOURCE）：from 子句的来源在前，随后是各 join 子句的来源
+     */
+    @NotNull
+    List<PsiElement> getSources();
+    
+    /**
+     * 获取 join 子句（LINQ_JOIN_CLAUSE）
+     */
+    @NotNull
+    List<PsiElement> getJoinClauses();
+    
+    /**
+     * 按别名查找查询来源
+     * @param alias 来源别名
+     * @return 对应的 LINQ_SOURCE，未找到时返回null
+     */
+    @Nullable
+    PsiElement findSource(@NotNull String alias);
+    
+    /**
+     * 获取 where 子句的条件表达式
+     * @return 条件表达式，没有 where 子句或条件缺失时返回null
+     */
+    @Nullable
+    PsiElement getWhereCondition();
+}
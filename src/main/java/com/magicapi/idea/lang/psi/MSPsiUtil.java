@@ -0,0 +1,63 @@
+package com.magicapi.idea.lang.psi;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiNameIdentifierOwner;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.tree.TokenSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Magic Script PSI 工具方法
+ */
+public final class MSPsiUtil {
+    
+    /**
+     * 对象/数组字面量：懒解析，查找声明时不需要展开
+     */
+    public static final TokenSet LITERAL_CONTAINERS = TokenSet.create(MSTypes.OBJECT_LITERAL, MSTypes.ARRAY_LITERAL);
+    
+    private MSPsiUtil() {
+    }
+    
+    /**
+     * 收集 root 之下指定类型的声明元素（不含 root 本身），跳过对象/数组字面量内部，
+     * 这样大段内联 JSON 配置不会因为解析、结构视图等操作被展开
+     */
+    @NotNull
+    public static <T extends PsiElement> List<T> findDeclarations(@NotNull PsiElement root, @NotNull Class<T> type) {
+        List<T> result = new ArrayList<>();
+        root.accept(new PsiRecursiveElementWalkingVisitor() {
+            @Override
+            public void visitElement(@NotNull PsiElement element) {
+                if (element != root && type.isInstance(element)) {
+                    result.add(type.cast(element));
+                }
+                if (!isLiteralContainer(element)) {
+                    super.visitElement(element);
+                }
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 比较声明的名字符号与给定字符序列，直接比较文件文本中的区间，不创建名字字符串
+     */
+    public static boolean isNamed(@NotNull PsiNameIdentifierOwner declaration, @NotNull CharSequence name) {
+        PsiElement identifier = declaration.getNameIdentifier();
+        return identifier != null && StringUtil.equals(identifier.getNode().getChars(), name);
+    }
+    
+    /**
+     * 是否为对象或数组字面量节点
+     */
+    public static boolean isLiteralContainer(@NotNull PsiElement element) {
+        ASTNode node = element.getNode();
+        return node != null && LITERAL_CONTAINERS.contains(node.getElementType());
+    }
+}
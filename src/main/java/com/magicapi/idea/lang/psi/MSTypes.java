@@ -2,6 +2,16 @@ package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.TokenSet;
+import com.magicapi.idea.lang.psi.impl.MSExportStatementImpl;
+import com.magicapi.idea.lang.psi.impl.MSFunctionCallImpl;
+import com.magicapi.idea.lang.psi.impl.MSFunctionDeclarationImpl;
+import com.magicapi.idea.lang.psi.impl.MSImportStatementImpl;
+import com.magicapi.idea.lang.psi.impl.MSLinqExpressionImpl;
+import com.magicapi.idea.lang.psi.impl.MSMemberAccessImpl;
+import com.magicapi.idea.lang.psi.impl.MSVarDeclarationImpl;
+import com.magicapi.idea.lang.psi.stubs.MSExportStatementElementType;
+import com.magicapi.idea.lang.psi.stubs.MSFunctionDeclarationElementType;
+import com.magicapi.idea.lang.psi.stubs.MSVarDeclarationElementType;
 
 /**
  * Magic Script Token Types
@@ -25,11 +35,30 @@ public class MSTypes {
     public static final IElementType THROW = new MSTokenType("THROW");
     public static final IElementType IMPORT = new MSTokenType("IMPORT");
     public static final IElementType EXPORT = new MSTokenType("EXPORT");
+    public static final IElementType EXIT = new MSTokenType("EXIT");
+    public static final IElementType ASYNC = new MSTokenType("ASYNC");
     public static final IElementType TRUE = new MSTokenType("TRUE");
     public static final IElementType FALSE = new MSTokenType("FALSE");
     public static final IElementType NULL = new MSTokenType("NULL");
     public static final IElementType UNDEFINED = new MSTokenType("UNDEFINED");
     
+    // LINQ 上下文关键字：词法上是 IDENTIFIER，只在 select 查询内部由解析器重映射
+    public static final IElementType SELECT = new MSTokenType("SELECT");
+    public static final IElementType FROM = new MSTokenType("FROM");
+    public static final IElementType LEFT = new MSTokenType("LEFT");
+    public static final IElementType JOIN = new MSTokenType("JOIN");
+    public static final IElementType ON = new MSTokenType("ON");
+    public static final IElementType WHERE = new MSTokenType("WHERE");
+    public static final IElementType GROUP = new MSTokenType("GROUP");
+    public static final IElementType HAVING = new MSTokenType("HAVING");
+    public static final IElementType ORDER = new MSTokenType("ORDER");
+    public static final IElementType BY = new MSTokenType("BY");
+    public static final IElementType AS = new MSTokenType("AS");
+    public static final IElementType ASC = new MSTokenType("ASC");
+    public static final IElementType DESC = new MSTokenType("DESC");
+    public static final IElementType LIMIT = new MSTokenType("LIMIT");
+    public static final IElementType OFFSET = new MSTokenType("OFFSET");
+    
     // 内置模块
     public static final IElementType BUILTIN_MODULE = new MSTokenType("BUILTIN_MODULE");
     
@@ -57,6 +86,10 @@ public class MSTypes {
     public static final IElementType NOT = new MSTokenType("NOT");
     public static final IElementType INCREMENT = new MSTokenType("INCREMENT");
     public static final IElementType DECREMENT = new MSTokenType("DECREMENT");
+    public static final IElementType ARROW = new MSTokenType("ARROW");
+    public static final IElementType QUESTION_DOT = new MSTokenType("QUESTION_DOT");
+    public static final IElementType SPREAD = new MSTokenType("SPREAD");
+    public static final IElementType DOUBLE_COLON = new MSTokenType("DOUBLE_COLON");
     
     // 分隔符
     public static final IElementType LPAREN = new MSTokenType("LPAREN");
@@ -77,6 +110,13 @@ public class MSTypes {
     public static final IElementType NUMBER = new MSTokenType("NUMBER");
     public static final IElementType INTEGER_LITERAL = new MSTokenType("INTEGER_LITERAL");
     
+    // 多行字符串 """...""" 与模板字符串 `...${expr}...`
+    public static final IElementType TEXT_BLOCK_QUOTE = new MSTokenType("TEXT_BLOCK_QUOTE");
+    public static final IElementType TEMPLATE_QUOTE = new MSTokenType("TEMPLATE_QUOTE");
+    public static final IElementType STRING_CONTENT = new MSTokenType("STRING_CONTENT");
+    public static final IElementType INTERPOLATION_START = new MSTokenType("INTERPOLATION_START");
+    public static final IElementType INTERPOLATION_END = new MSTokenType("INTERPOLATION_END");
+    
     // 标识符
     public static final IElementType IDENTIFIER = new MSTokenType("IDENTIFIER");
     
@@ -90,22 +130,74 @@ public class MSTypes {
     public static final IElementType FUNCTION_CALL = new MSElementType("FUNCTION_CALL");
     public static final IElementType PRIMARY_EXPRESSION = new MSElementType("PRIMARY_EXPRESSION");
     public static final IElementType POSTFIX_EXPRESSION = new MSElementType("POSTFIX_EXPRESSION");
-    public static final IElementType VAR_DECLARATION = new MSElementType("VAR_DECLARATION");
-    public static final IElementType FUNCTION_DECLARATION = new MSElementType("FUNCTION_DECLARATION");
+    public static final MSVarDeclarationElementType VAR_DECLARATION = new MSVarDeclarationElementType("VAR_DECLARATION");
+    public static final MSFunctionDeclarationElementType FUNCTION_DECLARATION = new MSFunctionDeclarationElementType("FUNCTION_DECLARATION");
     public static final IElementType EXPRESSION_STATEMENT = new MSElementType("EXPRESSION_STATEMENT");
     public static final IElementType ASSIGNMENT_EXPRESSION = new MSElementType("ASSIGNMENT_EXPRESSION");
+    public static final IElementType CONDITIONAL_EXPRESSION = new MSElementType("CONDITIONAL_EXPRESSION");
+    public static final IElementType LOGICAL_OR_EXPRESSION = new MSElementType("LOGICAL_OR_EXPRESSION");
+    public static final IElementType LOGICAL_AND_EXPRESSION = new MSElementType("LOGICAL_AND_EXPRESSION");
+    public static final IElementType EQUALITY_EXPRESSION = new MSElementType("EQUALITY_EXPRESSION");
+    public static final IElementType RELATIONAL_EXPRESSION = new MSElementType("RELATIONAL_EXPRESSION");
+    public static final IElementType ADDITIVE_EXPRESSION = new MSElementType("ADDITIVE_EXPRESSION");
+    public static final IElementType MULTIPLICATIVE_EXPRESSION = new MSElementType("MULTIPLICATIVE_EXPRESSION");
+    public static final IElementType UNARY_EXPRESSION = new MSElementType("UNARY_EXPRESSION");
+    public static final IElementType ARRAY_ACCESS = new MSElementType("ARRAY_ACCESS");
+    public static final IElementType ARGUMENT_LIST = new MSElementType("ARGUMENT_LIST");
+    public static final MSLazyElementType ARRAY_LITERAL = new MSLazyElementType("ARRAY_LITERAL", LBRACKET, RBRACKET);
+    public static final MSLazyElementType OBJECT_LITERAL = new MSLazyElementType("OBJECT_LITERAL", LBRACE, RBRACE);
+    public static final IElementType PROPERTY = new MSElementType("PROPERTY");
+    public static final IElementType FUNCTION_EXPRESSION = new MSElementType("FUNCTION_EXPRESSION");
+    public static final IElementType LAMBDA_EXPRESSION = new MSElementType("LAMBDA_EXPRESSION");
+    public static final IElementType ASYNC_EXPRESSION = new MSElementType("ASYNC_EXPRESSION");
+    public static final IElementType SPREAD_EXPRESSION = new MSElementType("SPREAD_EXPRESSION");
+    public static final IElementType TYPE_CONVERSION = new MSElementType("TYPE_CONVERSION");
+    
+    // LINQ 查询 select ... from ... join ... where ... group by ... order by ... limit ...
+    public static final IElementType LINQ_EXPRESSION = new MSElementType("LINQ_EXPRESSION");
+    public static final IElementType LINQ_FIELD = new MSElementType("LINQ_FIELD");
+    public static final IElementType LINQ_ALIAS = new MSElementType("LINQ_ALIAS");
+    public static final IElementType LINQ_SOURCE = new MSElementType("LINQ_SOURCE");
+    public static final IElementType LINQ_FROM_CLAUSE = new MSElementType("LINQ_FROM_CLAUSE");
+    public static final IElementType LINQ_JOIN_CLAUSE = new MSElementType("LINQ_JOIN_CLAUSE");
+    public static final IElementType LINQ_WHERE_CLAUSE = new MSElementType("LINQ_WHERE_CLAUSE");
+    public static final IElementType LINQ_GROUP_BY_CLAUSE = new MSElementType("LINQ_GROUP_BY_CLAUSE");
+    public static final IElementType LINQ_HAVING_CLAUSE = new MSElementType("LINQ_HAVING_CLAUSE");
+    public static final IElementType LINQ_ORDER_BY_CLAUSE = new MSElementType("LINQ_ORDER_BY_CLAUSE");
+    public static final IElementType LINQ_ORDER_ITEM = new MSElementType("LINQ_ORDER_ITEM");
+    public static final IElementType LINQ_LIMIT_CLAUSE = new MSElementType("LINQ_LIMIT_CLAUSE");
+    public static final IElementType PARAMETER_LIST = new MSElementType("PARAMETER_LIST");
+    public static final IElementType PARAMETER = new MSElementType("PARAMETER");
+    public static final IElementType TEXT_BLOCK = new MSElementType("TEXT_BLOCK");
+    public static final IElementType TEMPLATE_STRING = new MSElementType("TEMPLATE_STRING");
+    public static final IElementType INTERPOLATION = new MSElementType("INTERPOLATION");
     
     // 语句和块
-    public static final IElementType BLOCK_STATEMENT = new MSElementType("BLOCK_STATEMENT");
-    public static final IElementType FUNCTION_BODY = new MSElementType("FUNCTION_BODY");
+    public static final MSLazyElementType BLOCK_STATEMENT = new MSLazyElementType("BLOCK_STATEMENT", LBRACE, RBRACE);
+    public static final MSLazyElementType FUNCTION_BODY = new MSLazyElementType("FUNCTION_BODY", LBRACE, RBRACE);
     public static final IElementType IF_STATEMENT = new MSElementType("IF_STATEMENT");
     public static final IElementType FOR_STATEMENT = new MSElementType("FOR_STATEMENT");
     public static final IElementType WHILE_STATEMENT = new MSElementType("WHILE_STATEMENT");
+    public static final IElementType DO_WHILE_STATEMENT = new MSElementType("DO_WHILE_STATEMENT");
+    public static final IElementType TRY_STATEMENT = new MSElementType("TRY_STATEMENT");
+    public static final IElementType CATCH_CLAUSE = new MSElementType("CATCH_CLAUSE");
+    public static final IElementType FINALLY_CLAUSE = new MSElementType("FINALLY_CLAUSE");
+    public static final IElementType THROW_STATEMENT = new MSElementType("THROW_STATEMENT");
+    public static final IElementType BREAK_STATEMENT = new MSElementType("BREAK_STATEMENT");
+    public static final IElementType CONTINUE_STATEMENT = new MSElementType("CONTINUE_STATEMENT");
+    public static final IElementType RETURN_STATEMENT = new MSElementType("RETURN_STATEMENT");
+    public static final IElementType IMPORT_STATEMENT = new MSElementType("IMPORT_STATEMENT");
+    public static final IElementType EXIT_STATEMENT = new MSElementType("EXIT_STATEMENT");
+    public static final MSExportStatementElementType EXPORT_STATEMENT = new MSExportStatementElementType("EXPORT_STATEMENT");
     
     // Token Sets for highlighting
     public static final TokenSet KEYWORDS = TokenSet.create(
         VAR, FUNCTION, RETURN, IF, ELSE, FOR, WHILE, DO, BREAK, CONTINUE,
-        TRY, CATCH, FINALLY, THROW, IMPORT, EXPORT, TRUE, FALSE, NULL, UNDEFINED
+        TRY, CATCH, FINALLY, THROW, IMPORT, EXPORT, EXIT, ASYNC, TRUE, FALSE, NULL, UNDEFINED
+    );
+    
+    public static final TokenSet LINQ_KEYWORDS = TokenSet.create(
+        SELECT, FROM, LEFT, JOIN, ON, WHERE, GROUP, HAVING, ORDER, BY, AS, ASC, DESC, LIMIT, OFFSET
     );
     
     public static final TokenSet COMMENTS = TokenSet.create(LINE_COMMENT, BLOCK_COMMENT);
@@ -114,22 +206,57 @@ public class MSTypes {
         STRING_LITERAL, NUMBER_LITERAL, INTEGER_LITERAL, TRUE, FALSE, NULL, UNDEFINED
     );
     
+    public static final TokenSet STRING_TOKENS = TokenSet.create(
+        STRING_LITERAL, STRING_CONTENT, TEXT_BLOCK_QUOTE, TEMPLATE_QUOTE
+    );
+    
     public static final TokenSet OPERATORS = TokenSet.create(
         PLUS, MINUS, MULTIPLY, DIVIDE, MODULO, ASSIGN, PLUS_ASSIGN, MINUS_ASSIGN,
         MULTIPLY_ASSIGN, DIVIDE_ASSIGN, EQ, NE, LT, GT, LE, GE, AND, OR, NOT,
-        INCREMENT, DECREMENT
+        INCREMENT, DECREMENT, ARROW, SPREAD, DOUBLE_COLON
     );
     
+    /**
+     * 可作为变量名、参数名、成员名的符号（内置模块名允许被局部变量遮蔽）
+     */
+    public static final TokenSet NAMES = TokenSet.create(IDENTIFIER, BUILTIN_MODULE);
+    
     public static final TokenSet SEPARATORS = TokenSet.create(
-        LPAREN, RPAREN, LBRACE, RBRACE, LBRACKET, RBRACKET, SEMICOLON, COMMA, DOT, COLON, QUESTION
+        LPAREN, RPAREN, LBRACE, RBRACE, LBRACKET, RBRACKET, SEMICOLON, COMMA, DOT, QUESTION_DOT, COLON, QUESTION
     );
+
+    /**
+     * 成员访问符号：'.' 与可选链 '?.'
+     */
+    public static final TokenSet MEMBER_ACCESS_OPERATORS = TokenSet.create(DOT, QUESTION_DOT);
     
     /**
      * Factory for creating PSI elements
      */
     public static class Factory {
         public static com.intellij.psi.PsiElement createElement(com.intellij.lang.ASTNode node) {
-            // 简化实现，返回基础PsiElement包装
+            IElementType type = node.getElementType();
+            if (type == VAR_DECLARATION) {
+                return new MSVarDeclarationImpl(node);
+            }
+            if (type == FUNCTION_DECLARATION) {
+                return new MSFunctionDeclarationImpl(node);
+            }
+            if (type == IMPORT_STATEMENT) {
+                return new MSImportStatementImpl(node);
+            }
+            if (type == EXPORT_STATEMENT) {
+                return new MSExportStatementImpl(node);
+            }
+            if (type == LINQ_EXPRESSION) {
+                return new MSLinqExpressionImpl(node);
+            }
+            if (type == MEMBER_ACCESS) {
+                return new MSMemberAccessImpl(node);
+            }
+            if (type == FUNCTION_CALL) {
+                return new MSFunctionCallImpl(node);
+            }
             return new com.intellij.extapi.psi.ASTWrapperPsiElement(node);
         }
     }
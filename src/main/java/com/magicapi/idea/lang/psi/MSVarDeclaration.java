@@ -1,14 +1,14 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.PsiNameIdentifierOwner;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * 变量声明PSI元素接口
  * 表示 Magic Script 中的变量声明语句
  */
-public interface MSVarDeclaration extends PsiNamedElement {
+public interface MSVarDeclaration extends PsiNameIdentifierOwner {
     
     /**
      * 获取变量的初始化表达式
@@ -22,4 +22,10 @@ public interface MSVarDeclaration extends PsiNamedElement {
      * @return true如果变量有初始化值
      */
     boolean hasInitializer();
+    
+    /**
+     * 检查变量是否通过 export 导出
+     * @return true如果变量声明位于 export 语句中
+     */
+    boolean isExported();
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
+import com.magicapi.idea.lang.psi.stubs.MSSymbolNameIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -84,21 +87,15 @@ public class MagicScriptReference extends PsiReferenceBase<PsiElement> {
             return null;
         }
         
-        // 获取当前文件的所有import语句
-        PsiElement[] imports = PsiTreeUtil.collectElements(currentFile, 
-            element -> element instanceof MSImportStatement);
+        // 获取当前文件的所有import语句（只出现在顶层，不需要展开代码块）
+        for (MSImportStatement importStatement : PsiTreeUtil.getChildrenOfTypeAsList(currentFile, MSImportStatement.class)) {
+            PsiElement importedFile = resolveImportPath(importStatement);
             
-        for (PsiElement importElement : imports) {
-            if (importElement instanceof MSImportStatement) {
-                MSImportStatement importStatement = (MSImportStatement) importElement;
-                PsiElement importedFile = resolveImportPath(importStatement);
-                
-                if (importedFile instanceof MSFile) {
-                    // 在导入的文件中查找导出的符号
-                    PsiElement exportedSymbol = findExportedSymbol((MSFile) importedFile, referenceName);
-                    if (exportedSymbol != null) {
-                        return exportedSymbol;
-                    }
+            if (importedFile instanceof MSFile) {
+                // 在导入的文件中查找导出的符号
+                PsiElement exportedSymbol = findExportedSymbol((MSFile) importedFile, referenceName);
+                if (exportedSymbol != null) {
+                    return exportedSymbol;
                 }
             }
         }
@@ -126,7 +123,7 @@ public class MagicScriptReference extends PsiReferenceBase<PsiElement> {
      */
     @Nullable
     private PsiElement findVariableDeclaration(@NotNull PsiFile file, @NotNull String name) {
-        return PsiTreeUtil.findChildrenOfType(file, MSVarDeclaration.class)
+        return MSPsiUtil.findDeclarations(file, MSVarDeclaration.class)
             .stream()
             .filter(var -> name.equals(var.getName()))
             .findFirst()
@@ -138,7 +135,7 @@ public class MagicScriptReference extends PsiReferenceBase<PsiElement> {
      */
     @Nullable
     private PsiElement findFunctionDeclaration(@NotNull PsiFile file, @NotNull String name) {
-        return PsiTreeUtil.findChildrenOfType(file, MSFunctionDeclaration.class)
+        return MSPsiUtil.findDeclarations(file, MSFunctionDeclaration.class)
             .stream()
             .filter(func -> name.equals(func.getName()))
             .findFirst()
@@ -205,25 +202,45 @@ public class MagicScriptReference extends PsiReferenceBase<PsiElement> {
     
     /**
      * 在文件中查找导出的符号
+     * 通过符号名称索引定位，只读取存根，不构建被导入文件的 AST
      */
     @Nullable
     private PsiElement findExportedSymbol(@NotNull MSFile file, @NotNull String symbolName) {
-        // 查找export语句
-        return PsiTreeUtil.findChildrenOfType(file, MSExportStatement.class)
-            .stream()
-            .map(export -> findSymbolInExport(export, symbolName))
-            .filter(symbol -> symbol != null)
-            .findFirst()
-            .orElse(null);
+        VirtualFile virtualFile = file.getVirtualFile();
+        if (virtualFile == null) {
+            // 内存中的文件没有索引，直接遍历其export语句
+            return file.getExportStatements()
+                .stream()
+                .map(export -> export.findExportedElement(symbolName))
+                .filter(symbol -> symbol != null)
+                .findFirst()
+                .orElse(null);
+        }
+        
+        GlobalSearchScope scope = GlobalSearchScope.fileScope(file.getProject(), virtualFile);
+        for (NavigatablePsiElement element : MSSymbolNameIndex.find(symbolName, file.getProject(), scope)) {
+            PsiElement symbol = findSymbolInExport(element, symbolName);
+            if (symbol != null) {
+                return symbol;
+            }
+        }
+        return null;
     }
     
     /**
-     * 在export语句中查找符号
+     * 索引结果中只有导出的声明或 export 语句导出的名字可以被其它文件引用
      */
     @Nullable
-    private PsiElement findSymbolInExport(@NotNull MSExportStatement export, @NotNull String symbolName) {
-        // TODO: 实现export语句的符号查找
-        // 需要根据具体的export语法来实现
+    private PsiElement findSymbolInExport(@NotNull PsiElement element, @NotNull String symbolName) {
+        if (element instanceof MSExportStatement) {
+            return ((MSExportStatement) element).findExportedElement(symbolName);
+        }
+        if (element instanceof MSFunctionDeclaration && ((MSFunctionDeclaration) element).isExported()) {
+            return element;
+        }
+        if (element instanceof MSVarDeclaration && ((MSVarDeclaration) element).isExported()) {
+            return element;
+        }
         return null;
     }
     
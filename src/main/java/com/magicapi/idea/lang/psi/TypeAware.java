@@ -1,8 +1,8 @@
 package com.magicapi.idea.lang.psi;
 
 import com.intellij.psi.PsiElement;
+import com.magicapi.idea.completion.model.MagicType;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 /**
  * 表示具有类型信息的PSI元素
@@ -12,17 +12,10 @@ public interface TypeAware extends PsiElement {
     
     /**
      * 获取表达式的类型
-     * @return 表达式类型，如 "String", "Integer", "List<Map<String,Object>>" 等
+     * @return 表达式类型，如 String、Integer、List&lt;Map&lt;String,Object&gt;&gt; 等；无法推断时为 Object
      */
-    @Nullable
-    String getExpressionType();
-    
-    /**
-     * 推断表达式类型
-     * @return 推断出的类型
-     */
-    @Nullable
-    String inferType();
+    @NotNull
+    MagicType getExpressionType();
     
     /**
      * 判断是否可以进行链式调用
@@ -32,8 +25,8 @@ public interface TypeAware extends PsiElement {
     
     /**
      * 获取目标对象的类型（用于扩展方法推断）
-     * @return 目标对象类型
+     * @return 目标对象类型，即调用链上一个环节的类型
      */
-    @Nullable
-    String getTargetType();
-}
\ No newline at end of file
+    @NotNull
+    MagicType getTargetType();
+}
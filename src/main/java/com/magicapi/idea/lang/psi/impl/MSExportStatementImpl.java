@@ -0,0 +1,132 @@
+package com.magicapi.idea.lang.psi.impl;
+
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiNamedElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.magicapi.idea.lang.psi.MSExportStatement;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.MSVarDeclaration;
+import com.magicapi.idea.lang.psi.stubs.MSExportStatementStub;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export语句PSI元素实现
+ * 导出的名称保存在存根中，跨文件解析时只有名称匹配才会访问 AST
+ */
+public class MSExportStatementImpl extends StubBasedPsiElementBase<MSExportStatementStub> implements MSExportStatement {
+    
+    public MSExportStatementImpl(@NotNull ASTNode node) {
+        super(node);
+    }
+    
+    public MSExportStatementImpl(@NotNull MSExportStatementStub stub, @NotNull IStubElementType<?, ?> nodeType) {
+        super(stub, nodeType);
+    }
+    
+    @Override
+    @NotNull
+    public List<String> getExportedNames() {
+        MSExportStatementStub stub = getGreenStub();
+        if (stub != null) {
+            return stub.getExportedNames();
+        }
+        
+        PsiNamedElement declaration = getDeclaration();
+        if (declaration != null) {
+            String name = declaration.getName();
+            return name != null ? List.of(name) : List.of();
+        }
+        
+        ASTNode expression = getNode().findChildByType(MSTypes.PRIMARY_EXPRESSION);
+        if (expression == null) {
+            return List.of();
+        }
+        
+        // export name
+        ASTNode name = getSingleName(expression);
+        if (name != null) {
+            return List.of(name.getText());
+        }
+        
+        // export { key: value, ... }
+        List<String> names = new ArrayList<>();
+        for (ASTNode property : getProperties(expression)) {
+            ASTNode key = property.getFirstChildNode();
+            if (key != null) {
+                names.add(StringUtil.unquoteString(key.getText()));
+            }
+        }
+        return names;
+    }
+    
+    @Override
+    @Nullable
+    public PsiNamedElement getDeclaration() {
+        MSFunctionDeclaration function = getStubOrPsiChild(MSTypes.FUNCTION_DECLARATION);
+        if (function != null) {
+            return function;
+        }
+        return getStubOrPsiChild(MSTypes.VAR_DECLARATION);
+    }
+    
+    @Override
+    @Nullable
+    public PsiElement findExportedElement(@NotNull String name) {
+        if (!getExportedNames().contains(name)) {
+            return null;
+        }
+        
+        PsiNamedElement declaration = getDeclaration();
+        if (declaration != null) {
+            return declaration;
+        }
+        
+        ASTNode expression = getNode().findChildByType(MSTypes.PRIMARY_EXPRESSION);
+        if (expression == null) {
+            return null;
+        }
+        
+        // 导出的是标识符：指向同一文件中的顶层声明
+        ASTNode nameNode = getSingleName(expression);
+        if (nameNode != null) {
+            PsiFile file = getContainingFile();
+            PsiNamedElement target = file instanceof MSFile ? ((MSFile) file).findTopLevelDeclaration(name) : null;
+            return target != null ? target : nameNode.getPsi();
+        }
+        
+        for (ASTNode property : getProperties(expression)) {
+            ASTNode key = property.getFirstChildNode();
+            if (key != null && name.equals(StringUtil.unquoteString(key.getText()))) {
+                return property.getPsi();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 表达式只由一个名字组成时返回该名字符号
+     */
+    @Nullable
+    private static ASTNode getSingleName(@NotNull ASTNode expression) {
+        ASTNode first = expression.getFirstChildNode();
+        return first != null && first == expression.getLastChildNode()
+            && MSTypes.NAMES.contains(first.getElementType()) ? first : null;
+    }
+    
+    @NotNull
+    private static ASTNode[] getProperties(@NotNull ASTNode expression) {
+        ASTNode literal = expression.findChildByType(MSTypes.OBJECT_LITERAL);
+        return literal != null ? literal.getChildren(TokenSet.create(MSTypes.PROPERTY)) : ASTNode.EMPTY_ARRAY;
+    }
+}
@@ -0,0 +1,153 @@
+package com.magicapi.idea.lang.psi.impl;
+
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.magicapi.idea.completion.context.TypeInferenceEngine;
+import com.magicapi.idea.completion.model.ApiMethod;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.completion.model.Parameter;
+import com.magicapi.idea.lang.psi.CallExpression;
+import com.magicapi.idea.lang.psi.ChainableCall;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.TypeAware;
+import com.magicapi.idea.registry.ModuleRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 函数调用PSI元素实现
+ * 对应调用链中的 (参数...)，被调用的是前一个环节：成员访问时为方法调用，根对象为简单名称时为函数调用
+ */
+public class MSFunctionCallImpl extends ASTWrapperPsiElement implements CallExpression, TypeAware {
+    
+    public MSFunctionCallImpl(@NotNull ASTNode node) {
+        super(node);
+    }
+    
+    @Override
+    @NotNull
+    public List<PsiElement> getArguments() {
+        ASTNode argumentList = getNode().findChildByType(MSTypes.ARGUMENT_LIST);
+        if (argumentList == null) {
+            return List.of();
+        }
+        List<PsiElement> arguments = new ArrayList<>();
+        for (ASTNode child = argumentList.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (isExpression(child)) {
+                arguments.add(child.getPsi());
+            }
+        }
+        return arguments;
+    }
+    
+    @Override
+    public int getArgumentCount() {
+        return getArguments().size();
+    }
+    
+    @Override
+    @Nullable
+    public List<String> getExpectedParameters() {
+        String name = getFunctionName();
+        if (name == null) {
+            return null;
+        }
+        ModuleRegistry registry = ModuleRegistry.getInstance();
+        MagicType receiverType = getReceiverType();
+        ApiMethod method = receiverType != null
+            ? registry.getTypeSystemProvider().findMember(receiverType, name)
+            : registry.getGlobalFunction(name);
+        if (method == null) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (Parameter parameter : method.getParameters()) {
+            names.add(parameter.getName());
+        }
+        return names;
+    }
+    
+    @Override
+    @Nullable
+    public String getFunctionName() {
+        PsiElement callee = previousLink(this);
+        if (callee instanceof ChainableCall) {
+            String name = ((ChainableCall) callee).getMethodName();
+            return name.isEmpty() ? null : name;
+        }
+        if (callee != null && callee.getNode().getElementType() == MSTypes.PRIMARY_EXPRESSION) {
+            ASTNode name = callee.getNode().findChildByType(MSTypes.NAMES);
+            return name != null && name.getTreePrev() == null && name.getTreeNext() == null ? name.getText() : null;
+        }
+        return null;
+    }
+    
+    @Override
+    @Nullable
+    public MagicType getReceiverType() {
+        PsiElement callee = previousLink(this);
+        return callee instanceof ChainableCall && callee instanceof TypeAware ? ((TypeAware) callee).getTargetType() : null;
+    }
+    
+    @Override
+    public boolean isChainable() {
+        MagicType type = getReturnType();
+        return type != MagicType.NULL && type != MagicType.VOID;
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getReturnType() {
+        return TypeInferenceEngine.inferLinkType(this);
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getExpressionType() {
+        return getReturnType();
+    }
+    
+    @Override
+    public boolean canChain() {
+        return isChainable();
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getTargetType() {
+        return TypeInferenceEngine.inferReceiverType(this);
+    }
+    
+    /**
+     * 调用链中的前一个环节（跳过空白和注释）
+     */
+    @Nullable
+    static PsiElement previousLink(@NotNull PsiElement link) {
+        ASTNode previous = link.getNode().getTreePrev();
+        while (previous != null && !isExpression(previous)) {
+            previous = previous.getTreePrev();
+        }
+        return previous != null ? previous.getPsi() : null;
+    }
+    
+    /**
+     * 调用链中的后一个环节（跳过空白和注释）
+     */
+    @Nullable
+    static PsiElement nextLink(@NotNull PsiElement link) {
+        ASTNode next = link.getNode().getTreeNext();
+        while (next != null && !isExpression(next)) {
+            next = next.getTreeNext();
+        }
+        return next != null ? next.getPsi() : null;
+    }
+    
+    private static boolean isExpression(@NotNull ASTNode node) {
+        return node.getFirstChildNode() != null || MSTypes.NAMES.contains(node.getElementType())
+            || MSTypes.LITERALS.contains(node.getElementType());
+    }
+}
@@ -1,29 +1,41 @@
 package com.magicapi.idea.lang.psi.impl;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
+import com.intellij.ide.projectView.PresentationData;
 import com.intellij.lang.ASTNode;
+import com.intellij.navigation.ItemPresentation;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.tree.IElementType;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.psi.tree.TokenSet;
 import com.intellij.util.IncorrectOperationException;
+import com.magicapi.idea.icons.MagicScriptIcons;
+import com.magicapi.idea.lang.psi.MSExportStatement;
 import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
 import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.stubs.MSFunctionDeclarationStub;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 函数声明PSI元素实现
+ * 顶层函数基于存根，函数名和参数数量可以在不构建 AST 的情况下读取
  */
-public class MSFunctionDeclarationImpl extends ASTWrapperPsiElement implements MSFunctionDeclaration {
+public class MSFunctionDeclarationImpl extends StubBasedPsiElementBase<MSFunctionDeclarationStub> implements MSFunctionDeclaration {
     
     public MSFunctionDeclarationImpl(@NotNull ASTNode node) {
         super(node);
     }
     
+    public MSFunctionDeclarationImpl(@NotNull MSFunctionDeclarationStub stub, @NotNull IStubElementType<?, ?> nodeType) {
+        super(stub, nodeType);
+    }
+    
     public void accept(@NotNull PsiElementVisitor visitor) {
         super.accept(visitor);
     }
@@ -31,22 +43,19 @@ public class MSFunctionDeclarationImpl extends ASTWrapperPsiElement implements M
     @Override
     @Nullable
     public String getName() {
+        MSFunctionDeclarationStub stub = getGreenStub();
+        if (stub != null) {
+            return stub.getName();
+        }
         PsiElement nameElement = getNameIdentifier();
         return nameElement != null ? nameElement.getText() : null;
     }
     
     @Nullable
     public PsiElement getNameIdentifier() {
-        // 查找FUNCTION关键字后的第一个IDENTIFIER
-        ASTNode functionNode = getNode().findChildByType(MSTypes.FUNCTION);
-        if (functionNode != null) {
-            ASTNode identifierNode = functionNode.getTreeNext();
-            while (identifierNode != null && identifierNode.getElementType() != MSTypes.IDENTIFIER) {
-                identifierNode = identifierNode.getTreeNext();
-            }
-            return identifierNode != null ? identifierNode.getPsi() : null;
-        }
-        return null;
+        // function 关键字后的第一个名字符号
+        ASTNode nameNode = getNode().findChildByType(MSTypes.NAMES);
+        return nameNode != null ? nameNode.getPsi() : null;
     }
     
     @Override
@@ -60,18 +69,17 @@ public class MSFunctionDeclarationImpl extends ASTWrapperPsiElement implements M
      */
     @NotNull
     public List<PsiElement> getParameters() {
-        // 查找括号内的参数
-        PsiElement lparen = findChildByType(MSTypes.LPAREN);
-        PsiElement rparen = findChildByType(MSTypes.RPAREN);
-        
-        if (lparen != null && rparen != null) {
-            return PsiTreeUtil.getElementsOfRange(lparen, rparen)
-                    .stream()
-                    .filter(element -> element.getNode().getElementType() == MSTypes.IDENTIFIER)
-                    .toList();
+        // 参数列表中的每个 PARAMETER 节点
+        ASTNode parameterList = getNode().findChildByType(MSTypes.PARAMETER_LIST);
+        if (parameterList == null) {
+            return List.of();
         }
         
-        return List.of();
+        List<PsiElement> parameters = new ArrayList<>();
+        for (ASTNode parameter : parameterList.getChildren(TokenSet.create(MSTypes.PARAMETER))) {
+            parameters.add(parameter.getPsi());
+        }
+        return parameters;
     }
     
     /**
@@ -80,21 +88,38 @@ public class MSFunctionDeclarationImpl extends ASTWrapperPsiElement implements M
     @Nullable
     public PsiElement getBody() {
         // 查找函数体代码块
-        return findChildByElementType(MSTypes.LBRACE);
+        return findChildByElementType(MSTypes.FUNCTION_BODY);
     }
     
     /**
      * 获取参数数量
      */
     public int getParameterCount() {
-        return getParameters().size();
+        MSFunctionDeclarationStub stub = getGreenStub();
+        return stub != null ? stub.getParameterCount() : getParameters().size();
     }
     
     /**
      * 检查函数是否有参数
      */
     public boolean hasParameters() {
-        return !getParameters().isEmpty();
+        return getParameterCount() > 0;
+    }
+    
+    @Override
+    public boolean isExported() {
+        return getParentByStub() instanceof MSExportStatement;
+    }
+    
+    @Override
+    public int getTextOffset() {
+        PsiElement nameElement = getNameIdentifier();
+        return nameElement != null ? nameElement.getTextOffset() : super.getTextOffset();
+    }
+    
+    @Override
+    public ItemPresentation getPresentation() {
+        return new PresentationData(getName(), getContainingFile().getName(), MagicScriptIcons.FUNCTION, null);
     }
     
     @Nullable
@@ -102,4 +127,9 @@ public class MSFunctionDeclarationImpl extends ASTWrapperPsiElement implements M
         ASTNode childNode = getNode().findChildByType(elementType);
         return childNode != null ? childNode.getPsi() : null;
     }
+    
+    @Override
+    public String toString() {
+        return "MSFunctionDeclaration(" + getName() + ")";
+    }
 }
\ No newline at end of file
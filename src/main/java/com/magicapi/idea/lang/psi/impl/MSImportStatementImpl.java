@@ -0,0 +1,28 @@
+package com.magicapi.idea.lang.psi.impl;
+
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.magicapi.idea.lang.psi.MSImportStatement;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Import语句PSI元素实现
+ */
+public class MSImportStatementImpl extends ASTWrapperPsiElement implements MSImportStatement {
+    
+    public MSImportStatementImpl(@NotNull ASTNode node) {
+        super(node);
+    }
+    
+    /**
+     * 获取导入路径（保留引号，由调用方去除）
+     */
+    @Override
+    @Nullable
+    public String getImportPath() {
+        ASTNode pathNode = getNode().findChildByType(MSTypes.STRING_LITERAL);
+        return pathNode != null ? pathNode.getText() : null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.magicapi.idea.lang.psi.impl;
+
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.magicapi.idea.lang.psi.MSLinqExpression;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LINQ 查询表达式PSI元素实现
+ * 字段和来源的表达式是 LINQ_FIELD / LINQ_SOURCE 的第一个子节点，别名是其中的 LINQ_ALIAS
+ */
+public class MSLinqExpressionImpl extends ASTWrapperPsiElement implements MSLinqExpression {
+    
+    public MSLinqExpressionImpl(@NotNull ASTNode node) {
+        super(node);
+    }
+    
+    @Override
+    @NotNull
+    public List<PsiElement> getFields() {
+        return childrenOfType(getNode(), MSTypes.LINQ_FIELD);
+    }
+    
+    @Override
+    @NotNull
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>();
+        for (PsiElement field : getFields()) {
+            String name = getFieldName(field.getNode());
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+    
+    @Override
+    @NotNull
+    public List<PsiElement> getSources() {
+        List<PsiElement> sources = new ArrayList<>();
+        for (ASTNode child = getNode().getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            IElementType type = child.getElementType();
+            if (type == MSTypes.LINQ_FROM_CLAUSE || type == MSTypes.LINQ_JOIN_CLAUSE) {
+                ASTNode source = child.findChildByType(MSTypes.LINQ_SOURCE);
+                if (source != null) {
+                    sources.add(source.getPsi());
+                }
+            }
+        }
+        return sources;
+    }
+    
+    @Override
+    @NotNull
+    public List<PsiElement> getJoinClauses() {
+        return childrenOfType(getNode(), MSTypes.LINQ_JOIN_CLAUSE);
+    }
+    
+    @Override
+    @Nullable
+    public PsiElement findSource(@NotNull String alias) {
+        for (PsiElement source : getSources()) {
+            ASTNode aliasNode = source.getNode().findChildByType(MSTypes.LINQ_ALIAS);
+            if (aliasNode != null && aliasNode.getText().equals(alias)) {
+                return source;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    @Nullable
+    public PsiElement getWhereCondition() {
+        ASTNode where = getNode().findChildByType(MSTypes.LINQ_WHERE_CLAUSE);
+        if (where == null) {
+            return null;
+        }
+        ASTNode keyword = where.findChildByType(MSTypes.WHERE);
+        return keyword != null ? PsiTreeUtil.skipWhitespacesAndCommentsForward(keyword.getPsi()) : null;
+    }
+    
+    /**
+     * 字段名：别名优先；t.name 取 name，单个标识符取其本身
+     */
+    @Nullable
+    private static String getFieldName(@NotNull ASTNode field) {
+        ASTNode alias = field.findChildByType(MSTypes.LINQ_ALIAS);
+        if (alias != null) {
+            return alias.getText();
+        }
+        ASTNode expression = field.getFirstChildNode();
+        if (expression == null) {
+            return null;
+        }
+        if (expression.getElementType() == MSTypes.POSTFIX_EXPRESSION) {
+            ASTNode last = expression.getLastChildNode();
+            if (last != null && last.getElementType() == MSTypes.MEMBER_ACCESS) {
+                ASTNode name = last.findChildByType(MSTypes.NAMES);
+                return name != null ? name.getText() : null;
+            }
+            return null;
+        }
+        if (expression.getElementType() == MSTypes.PRIMARY_EXPRESSION) {
+            ASTNode name = expression.getFirstChildNode();
+            if (name != null && name == expression.getLastChildNode() && MSTypes.NAMES.contains(name.getElementType())) {
+                return name.getText();
+            }
+        }
+        return null;
+    }
+    
+    @NotNull
+    private static List<PsiElement> childrenOfType(@NotNull ASTNode parent, @NotNull IElementType type) {
+        List<PsiElement> result = new ArrayList<>();
+        for (ASTNode child = parent.getFirstChildNode(); child != null; child = child.getTreeNext()) {
+            if (child.getElementType() == type) {
+                result.add(child.getPsi());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,104 @@
+package com.magicapi.idea.lang.psi.impl;
+
+import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.magicapi.idea.completion.context.TypeInferenceEngine;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.CallExpression;
+import com.magicapi.idea.lang.psi.ChainableCall;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.TypeAware;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 成员访问PSI元素实现
+ * 调用链上的各环节是 POSTFIX_EXPRESSION 的平级子节点，前一个环节即前一个兄弟节点；
+ * 类型由 {@link TypeInferenceEngine#inferLinkType} 按前一个环节的类型逐段推断并缓存
+ */
+public class MSMemberAccessImpl extends ASTWrapperPsiElement implements ChainableCall, TypeAware {
+    
+    public MSMemberAccessImpl(@NotNull ASTNode node) {
+        super(node);
+    }
+    
+    @Override
+    @NotNull
+    public String getMethodName() {
+        ASTNode name = getNode().findChildByType(MSTypes.NAMES);
+        return name != null ? name.getText() : "";
+    }
+    
+    @Override
+    @NotNull
+    public List<PsiElement> getArguments() {
+        PsiElement next = MSFunctionCallImpl.nextLink(this);
+        return next instanceof CallExpression ? ((CallExpression) next).getArguments() : List.of();
+    }
+    
+    @Override
+    @Nullable
+    public PsiElement getPreviousCall() {
+        return MSFunctionCallImpl.previousLink(this);
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getReturnType() {
+        return TypeInferenceEngine.inferLinkType(this);
+    }
+    
+    @Override
+    @NotNull
+    public List<ChainableCall> getCallChain() {
+        List<ChainableCall> chain = new ArrayList<>();
+        for (PsiElement link = getParent().getFirstChild(); link != null; link = link.getNextSibling()) {
+            if (link instanceof ChainableCall) {
+                chain.add((ChainableCall) link);
+            }
+            if (link == this) {
+                break;
+            }
+        }
+        return chain;
+    }
+    
+    @Override
+    public boolean canContinueChain() {
+        MagicType type = getReturnType();
+        return type != MagicType.NULL && type != MagicType.VOID;
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getRootObjectType() {
+        PsiElement root = getParent().getFirstChild();
+        return root != null && root != this ? TypeInferenceEngine.inferExpressionType(root) : MagicType.OBJECT;
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getExpressionType() {
+        return getReturnType();
+    }
+    
+    @Override
+    public boolean canChain() {
+        return canContinueChain();
+    }
+    
+    @Override
+    @NotNull
+    public MagicType getTargetType() {
+        return TypeInferenceEngine.inferReceiverType(this);
+    }
+    
+    @Override
+    public String toString() {
+        return "MSMemberAccess(" + getMethodName() + ")";
+    }
+}
@@ -1,27 +1,38 @@
 package com.magicapi.idea.lang.psi.impl;
 
-import com.intellij.extapi.psi.ASTWrapperPsiElement;
+import com.intellij.extapi.psi.StubBasedPsiElementBase;
+import com.intellij.ide.projectView.PresentationData;
 import com.intellij.lang.ASTNode;
+import com.intellij.navigation.ItemPresentation;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.stubs.IStubElementType;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.util.PsiTreeUtil;
 import com.intellij.util.IncorrectOperationException;
+import com.magicapi.idea.icons.MagicScriptIcons;
+import com.magicapi.idea.lang.psi.MSExportStatement;
 import com.magicapi.idea.lang.psi.MSVarDeclaration;
 import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.lang.psi.stubs.MSVarDeclarationStub;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * 变量声明PSI元素实现
+ * 顶层变量基于存根，局部变量只有 AST
  */
-public class MSVarDeclarationImpl extends ASTWrapperPsiElement implements MSVarDeclaration {
+public class MSVarDeclarationImpl extends StubBasedPsiElementBase<MSVarDeclarationStub> implements MSVarDeclaration {
     
     public MSVarDeclarationImpl(@NotNull ASTNode node) {
         super(node);
     }
     
+    public MSVarDeclarationImpl(@NotNull MSVarDeclarationStub stub, @NotNull IStubElementType<?, ?> nodeType) {
+        super(stub, nodeType);
+    }
+    
     public void accept(@NotNull PsiElementVisitor visitor) {
         super.accept(visitor);
     }
@@ -29,22 +40,19 @@ public class MSVarDeclarationImpl extends ASTWrapperPsiElement implements MSVarD
     @Override
     @Nullable
     public String getName() {
+        MSVarDeclarationStub stub = getGreenStub();
+        if (stub != null) {
+            return stub.getName();
+        }
         PsiElement nameElement = getNameIdentifier();
         return nameElement != null ? nameElement.getText() : null;
     }
     
     @Nullable
     public PsiElement getNameIdentifier() {
-        // 查找VAR关键字后的第一个IDENTIFIER
-        ASTNode varNode = getNode().findChildByType(MSTypes.VAR);
-        if (varNode != null) {
-            ASTNode identifierNode = varNode.getTreeNext();
-            while (identifierNode != null && identifierNode.getElementType() != MSTypes.IDENTIFIER) {
-                identifierNode = identifierNode.getTreeNext();
-            }
-            return identifierNode != null ? identifierNode.getPsi() : null;
-        }
-        return null;
+        // var 关键字后的第一个名字符号
+        ASTNode nameNode = getNode().findChildByType(MSTypes.NAMES);
+        return nameNode != null ? nameNode.getPsi() : null;
     }
     
     @Override
@@ -58,10 +66,12 @@ public class MSVarDeclarationImpl extends ASTWrapperPsiElement implements MSVarD
      */
     @Nullable
     public PsiElement getInitializer() {
-        // 查找赋值符号后的表达式
+        // 查找赋值符号后的表达式，跳过中间的空白和注释
         PsiElement assign = findChildByElementType(MSTypes.ASSIGN);
         if (assign != null) {
-            return PsiTreeUtil.getNextSiblingOfType(assign, PsiElement.class);
+            PsiElement initializer = PsiTreeUtil.skipWhitespacesAndCommentsForward(assign);
+            return initializer != null && initializer.getNode().getElementType() != MSTypes.SEMICOLON
+                ? initializer : null;
         }
         return null;
     }
@@ -73,9 +83,30 @@ public class MSVarDeclarationImpl extends ASTWrapperPsiElement implements MSVarD
         return getInitializer() != null;
     }
     
+    @Override
+    public boolean isExported() {
+        return getParentByStub() instanceof MSExportStatement;
+    }
+    
+    @Override
+    public int getTextOffset() {
+        PsiElement nameElement = getNameIdentifier();
+        return nameElement != null ? nameElement.getTextOffset() : super.getTextOffset();
+    }
+    
+    @Override
+    public ItemPresentation getPresentation() {
+        return new PresentationData(getName(), getContainingFile().getName(), MagicScriptIcons.VARIABLE, null);
+    }
+    
     @Nullable
     private PsiElement findChildByElementType(IElementType elementType) {
         ASTNode childNode = getNode().findChildByType(elementType);
         return childNode != null ? childNode.getPsi() : null;
     }
+    
+    @Override
+    public String toString() {
+        return "MSVarDeclaration(" + getName() + ")";
+    }
 }
\ No newline at end of file
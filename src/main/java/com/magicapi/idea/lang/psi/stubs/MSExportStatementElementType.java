@@ -0,0 +1,73 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.intellij.psi.tree.IFileElementType;
+import com.magicapi.idea.lang.psi.MSExportStatement;
+import com.magicapi.idea.lang.psi.impl.MSExportStatementImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export 语句存根元素类型
+ */
+public class MSExportStatementElementType extends MSStubElementType<MSExportStatementStub, MSExportStatement> {
+
+    public MSExportStatementElementType(@NotNull String debugName) {
+        super(debugName);
+    }
+
+    @Override
+    public boolean shouldCreateStub(ASTNode node) {
+        ASTNode parent = node.getTreeParent();
+        return parent != null && parent.getElementType() instanceof IFileElementType;
+    }
+
+    @Override
+    public MSExportStatement createPsi(@NotNull MSExportStatementStub stub) {
+        return new MSExportStatementImpl(stub, this);
+    }
+
+    @NotNull
+    @Override
+    public MSExportStatementStub createStub(@NotNull MSExportStatement psi, StubElement parentStub) {
+        return new MSExportStatementStub(parentStub, this, psi.getExportedNames());
+    }
+
+    @Override
+    public void serialize(@NotNull MSExportStatementStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+        List<String> names = stub.getExportedNames();
+        dataStream.writeVarInt(names.size());
+        for (String name : names) {
+            dataStream.writeName(name);
+        }
+    }
+
+    @NotNull
+    @Override
+    public MSExportStatementStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+        int size = dataStream.readVarInt();
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(dataStream.readNameString());
+        }
+        return new MSExportStatementStub(parentStub, this, names);
+    }
+
+    @Override
+    public void indexStub(@NotNull MSExportStatementStub stub, @NotNull IndexSink sink) {
+        // export var/function 的名字已经由其中的声明存根索引，这里只索引 export 表达式导出的名字
+        if (!stub.getChildrenStubs().isEmpty()) {
+            return;
+        }
+        for (String name : stub.getExportedNames()) {
+            sink.occurrence(MSSymbolNameIndex.KEY, name);
+        }
+    }
+}
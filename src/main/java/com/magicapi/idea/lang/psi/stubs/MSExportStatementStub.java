@@ -0,0 +1,29 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubBase;
+import com.intellij.psi.stubs.StubElement;
+import com.magicapi.idea.lang.psi.MSExportStatement;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Export 语句存根：导出的全部名称
+ */
+public class MSExportStatementStub extends StubBase<MSExportStatement> {
+
+    private final List<String> exportedNames;
+
+    public MSExportStatementStub(StubElement parent,
+                                 @NotNull IStubElementType elementType,
+                                 @NotNull List<String> exportedNames) {
+        super(parent, elementType);
+        this.exportedNames = exportedNames;
+    }
+
+    @NotNull
+    public List<String> getExportedNames() {
+        return exportedNames;
+    }
+}
@@ -0,0 +1,48 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.StubBuilder;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.stubs.PsiFileStub;
+import com.intellij.psi.tree.IStubFileElementType;
+import com.magicapi.idea.lang.MagicScriptLanguage;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSLazyElementType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Magic Script 文件存根类型
+ */
+public class MSFileElementType extends IStubFileElementType<PsiFileStub<MSFile>> {
+
+    /**
+     * 存根结构或存根元素类型变化时递增，使已有的存根索引失效
+     */
+    public static final int STUB_VERSION = 1;
+
+    public MSFileElementType() {
+        super("MAGIC_SCRIPT_FILE", MagicScriptLanguage.INSTANCE);
+    }
+
+    @Override
+    public int getStubVersion() {
+        return STUB_VERSION;
+    }
+
+    @NotNull
+    @Override
+    public String getExternalId() {
+        return "magicscript.FILE";
+    }
+
+    @Override
+    public StubBuilder getBuilder() {
+        return new DefaultStubBuilder() {
+            @Override
+            public boolean skipChildProcessingWhenBuildingStubs(@NotNull ASTNode parent, @NotNull ASTNode node) {
+                // 代码块、函数体和字面量中没有需要存根的顶层声明，跳过它们以免构建存根时展开懒解析节点
+                return node.getElementType() instanceof MSLazyElementType;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.impl.MSFunctionDeclarationImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * 函数声明存根元素类型
+ */
+public class MSFunctionDeclarationElementType extends MSStubElementType<MSFunctionDeclarationStub, MSFunctionDeclaration> {
+
+    public MSFunctionDeclarationElementType(@NotNull String debugName) {
+        super(debugName);
+    }
+
+    @Override
+    public MSFunctionDeclaration createPsi(@NotNull MSFunctionDeclarationStub stub) {
+        return new MSFunctionDeclarationImpl(stub, this);
+    }
+
+    @NotNull
+    @Override
+    public MSFunctionDeclarationStub createStub(@NotNull MSFunctionDeclaration psi, StubElement parentStub) {
+        return new MSFunctionDeclarationStub(parentStub, this, psi.getName(), psi.getParameterCount());
+    }
+
+    @Override
+    public void serialize(@NotNull MSFunctionDeclarationStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+        dataStream.writeName(stub.getName());
+        dataStream.writeVarInt(stub.getParameterCount());
+    }
+
+    @NotNull
+    @Override
+    public MSFunctionDeclarationStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+        String name = dataStream.readNameString();
+        int parameterCount = dataStream.readVarInt();
+        return new MSFunctionDeclarationStub(parentStub, this, name, parameterCount);
+    }
+
+    @Override
+    public void indexStub(@NotNull MSFunctionDeclarationStub stub, @NotNull IndexSink sink) {
+        String name = stub.getName();
+        if (name != null) {
+            sink.occurrence(MSSymbolNameIndex.KEY, name);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.NamedStubBase;
+import com.intellij.psi.stubs.StubElement;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 函数声明存根：函数名和参数数量
+ */
+public class MSFunctionDeclarationStub extends NamedStubBase<MSFunctionDeclaration> {
+
+    private final int parameterCount;
+
+    public MSFunctionDeclarationStub(StubElement parent,
+                                     @NotNull IStubElementType elementType,
+                                     @Nullable String name,
+                                     int parameterCount) {
+        super(parent, elementType, name);
+        this.parameterCount = parameterCount;
+    }
+
+    public int getParameterCount() {
+        return parameterCount;
+    }
+}
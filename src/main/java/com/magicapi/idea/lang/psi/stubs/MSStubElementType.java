@@ -0,0 +1,48 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.tree.IFileElementType;
+import com.magicapi.idea.lang.MagicScriptLanguage;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Magic Script 存根元素类型基类
+ * 只为文件顶层（或顶层 export 语句中）的声明创建存根，代码块、函数体内部的声明不进入存根树
+ */
+public abstract class MSStubElementType<S extends StubElement<P>, P extends PsiElement> extends IStubElementType<S, P> {
+
+    public MSStubElementType(@NotNull String debugName) {
+        super(debugName, MagicScriptLanguage.INSTANCE);
+    }
+
+    @NotNull
+    @Override
+    public String getExternalId() {
+        return "magicscript." + super.toString();
+    }
+
+    @Override
+    public boolean shouldCreateStub(ASTNode node) {
+        return isTopLevel(node);
+    }
+
+    /**
+     * 节点是否位于文件顶层，export 语句中的声明也视为顶层
+     */
+    protected static boolean isTopLevel(@NotNull ASTNode node) {
+        ASTNode parent = node.getTreeParent();
+        if (parent != null && parent.getElementType() == MSTypes.EXPORT_STATEMENT) {
+            parent = parent.getTreeParent();
+        }
+        return parent != null && parent.getElementType() instanceof IFileElementType;
+    }
+
+    @Override
+    public String toString() {
+        return "MSElementType." + super.toString();
+    }
+}
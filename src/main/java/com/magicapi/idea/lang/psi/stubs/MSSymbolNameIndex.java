@@ -0,0 +1,42 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.NavigatablePsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StringStubIndexExtension;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.psi.stubs.StubIndexKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * 顶层符号名称索引
+ * 键为符号名，值为顶层函数声明、顶层变量声明，以及以表达式形式导出该名字的 export 语句
+ */
+public class MSSymbolNameIndex extends StringStubIndexExtension<NavigatablePsiElement> {
+
+    public static final StubIndexKey<String, NavigatablePsiElement> KEY =
+        StubIndexKey.createIndexKey("magicscript.symbol.name");
+
+    @NotNull
+    @Override
+    public StubIndexKey<String, NavigatablePsiElement> getKey() {
+        return KEY;
+    }
+
+    @Override
+    public int getVersion() {
+        return super.getVersion() + MSFileElementType.STUB_VERSION;
+    }
+
+    /**
+     * 按名称查找作用域内的顶层符号，结果来自序列化的存根，不会构建 AST
+     */
+    @NotNull
+    public static Collection<NavigatablePsiElement> find(@NotNull String name,
+                                                         @NotNull Project project,
+                                                         @NotNull GlobalSearchScope scope) {
+        return StubIndex.getElements(KEY, name, project, scope, NavigatablePsiElement.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.magicapi.idea.lang.psi.MSVarDeclaration;
+import com.magicapi.idea.lang.psi.impl.MSVarDeclarationImpl;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * 变量声明存根元素类型，只有顶层变量会生成存根
+ */
+public class MSVarDeclarationElementType extends MSStubElementType<MSVarDeclarationStub, MSVarDeclaration> {
+
+    public MSVarDeclarationElementType(@NotNull String debugName) {
+        super(debugName);
+    }
+
+    @Override
+    public MSVarDeclaration createPsi(@NotNull MSVarDeclarationStub stub) {
+        return new MSVarDeclarationImpl(stub, this);
+    }
+
+    @NotNull
+    @Override
+    public MSVarDeclarationStub createStub(@NotNull MSVarDeclaration psi, StubElement parentStub) {
+        return new MSVarDeclarationStub(parentStub, this, psi.getName());
+    }
+
+    @Override
+    public void serialize(@NotNull MSVarDeclarationStub stub, @NotNull StubOutputStream dataStream) throws IOException {
+        dataStream.writeName(stub.getName());
+    }
+
+    @NotNull
+    @Override
+    public MSVarDeclarationStub deserialize(@NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+        return new MSVarDeclarationStub(parentStub, this, dataStream.readNameString());
+    }
+
+    @Override
+    public void indexStub(@NotNull MSVarDeclarationStub stub, @NotNull IndexSink sink) {
+        String name = stub.getName();
+        if (name != null) {
+            sink.occurrence(MSSymbolNameIndex.KEY, name);
+        }
+    }
+}
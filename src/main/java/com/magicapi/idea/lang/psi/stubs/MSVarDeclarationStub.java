@@ -0,0 +1,20 @@
+package com.magicapi.idea.lang.psi.stubs;
+
+import com.intellij.psi.stubs.IStubElementType;
+import com.intellij.psi.stubs.NamedStubBase;
+import com.intellij.psi.stubs.StubElement;
+import com.magicapi.idea.lang.psi.MSVarDeclaration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 顶层变量声明存根：变量名
+ */
+public class MSVarDeclarationStub extends NamedStubBase<MSVarDeclaration> {
+
+    public MSVarDeclarationStub(StubElement parent,
+                                @NotNull IStubElementType elementType,
+                                @Nullable String name) {
+        super(parent, elementType, name);
+    }
+}
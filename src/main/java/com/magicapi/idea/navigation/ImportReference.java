@@ -1,17 +1,20 @@
 package com.magicapi.idea.navigation;
 
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
 import com.intellij.openapi.util.TextRange;
 import com.intellij.psi.*;
-import com.intellij.psi.search.FileTypeIndex;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vfs.VirtualFile;
-import com.magicapi.idea.lang.MagicScriptFileType;
+import com.magicapi.idea.icons.MagicScriptIcons;
+import com.magicapi.idea.search.MagicScriptModuleIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -66,7 +69,7 @@ public class ImportReference extends PsiReferenceBase<PsiElement> {
     @NotNull
     public Object[] getVariants() {
         // 提供可导入的模块建议
-        List<String> variants = new ArrayList<>();
+        List<Object> variants = new ArrayList<>();
         
         // 内置模块
         String[] builtinModules = {"db", "http", "request", "response", "env", "log", "magic"};
@@ -74,19 +77,20 @@ public class ImportReference extends PsiReferenceBase<PsiElement> {
             variants.add("\"/builtin/" + module + "\"");
         }
         
-        // 项目中的.ms文件
+        // 项目中的.ms文件，附带各脚本导出的名称（取自模块索引，不解析脚本）
         Project project = myElement.getProject();
-        Collection<VirtualFile> msFiles = FileTypeIndex.getFiles(
-            MagicScriptFileType.INSTANCE,
-            GlobalSearchScope.projectScope(project)
-        );
-        
-        for (VirtualFile file : msFiles) {
-            String path = getRelativePath(file);
-            if (path != null && !path.isEmpty()) {
-                variants.add("\"" + path + "\"");
-            }
-        }
+        MagicScriptModuleIndex.processScripts(project, GlobalSearchScope.projectScope(project),
+            (file, info) -> {
+                String path = getRelativePath(file);
+                if (path != null && !path.isEmpty()) {
+                    LookupElementBuilder variant = LookupElementBuilder.create("\"" + path + "\"")
+                        .withIcon(MagicScriptIcons.FILE);
+                    if (!info.getExportedNames().isEmpty()) {
+                        variant = variant.withTailText(" " + String.join(", ", info.getExportedNames()), true);
+                    }
+                    variants.add(variant);
+                }
+            });
         
         // 常用的相对路径
         variants.add("\"./utils\"");
@@ -149,24 +153,59 @@ public class ImportReference extends PsiReferenceBase<PsiElement> {
     
     /**
      * 解析项目模块
+     * 按模块名在模块索引中直接定位，不遍历项目中的全部脚本
      */
     @Nullable
     private PsiElement resolveProjectModule(@NotNull Project project) {
-        // 在项目中搜索匹配的文件
-        Collection<VirtualFile> msFiles = FileTypeIndex.getFiles(
-            MagicScriptFileType.INSTANCE,
+        String moduleName = importPath.endsWith(".ms") ? importPath.substring(0, importPath.length() - 3) : importPath;
+        Collection<VirtualFile> candidates = MagicScriptModuleIndex.findScripts(
+            moduleName,
             GlobalSearchScope.projectScope(project)
         );
         
-        for (VirtualFile file : msFiles) {
-            String fileName = file.getNameWithoutExtension();
-            if (fileName.equals(importPath) || file.getName().equals(importPath)) {
-                PsiManager psiManager = PsiManager.getInstance(project);
-                return psiManager.findFile(file);
-            }
+        if (candidates.isEmpty()) {
+            return null;
         }
         
-        return null;
+        PsiManager psiManager = PsiManager.getInstance(project);
+        return psiManager.findFile(closestCandidate(candidates));
+    }
+    
+    /**
+     * 同名模块有多个时确定地选择一个：优先离导入所在目录最近的，其次路径最短的，最后按路径排序
+     */
+    @NotNull
+    private VirtualFile closestCandidate(@NotNull Collection<VirtualFile> candidates) {
+        PsiFile currentFile = myElement.getContainingFile();
+        VirtualFile currentVFile = currentFile != null ? currentFile.getOriginalFile().getVirtualFile() : null;
+        VirtualFile currentDir = currentVFile != null ? currentVFile.getParent() : null;
+        String[] currentSegments = currentDir != null ? pathSegments(currentDir.getPath()) : new String[0];
+        
+        Comparator<VirtualFile> byDistance = Comparator.comparingInt(candidate -> directoryDistance(currentSegments, candidate));
+        return candidates.stream()
+            .min(byDistance
+                .thenComparingInt((VirtualFile candidate) -> candidate.getPath().length())
+                .thenComparing(VirtualFile::getPath))
+            .orElseThrow();
+    }
+    
+    /**
+     * 导入所在目录与候选文件所在目录之间的距离：各自到公共祖先目录的层数之和
+     */
+    private static int directoryDistance(@NotNull String[] currentSegments, @NotNull VirtualFile candidate) {
+        VirtualFile candidateDir = candidate.getParent();
+        String[] candidateSegments = candidateDir != null ? pathSegments(candidateDir.getPath()) : new String[0];
+        int common = 0;
+        while (common < currentSegments.length && common < candidateSegments.length
+            && currentSegments[common].equals(candidateSegments[common])) {
+            common++;
+        }
+        return currentSegments.length - common + candidateSegments.length - common;
+    }
+    
+    @NotNull
+    private static String[] pathSegments(@NotNull String path) {
+        return Arrays.stream(path.split("/")).filter(segment -> !segment.isEmpty()).toArray(String[]::new);
     }
     
     /**
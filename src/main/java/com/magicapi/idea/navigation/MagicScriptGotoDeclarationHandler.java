@@ -4,19 +4,42 @@ import com.intellij.codeInsight.navigation.actions.GotoDeclarationHandler;
 import com.intellij.openapi.actionSystem.DataContext;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.containers.CollectionFactory;
 import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.MSPsiUtil;
 import com.magicapi.idea.lang.psi.MSVarDeclaration;
 import com.magicapi.idea.lang.psi.MSTypes;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * Magic Script的Goto Declaration处理器
  * 处理Ctrl+Click或Go to Declaration操作
  */
 public class MagicScriptGotoDeclarationHandler implements GotoDeclarationHandler {
     
+    // 内置模块
+    private static final Set<CharSequence> BUILTIN_MODULES = charSequenceSet(
+        "db", "http", "request", "response", "env", "log", "magic"
+    );
+    
+    // 内置函数：聚合、数学、字符串、日期、工具函数
+    private static final Set<CharSequence> BUILTIN_FUNCTIONS = charSequenceSet(
+        "count", "sum", "max", "min", "avg", "group_concat",
+        "round", "floor", "ceil", "abs", "sqrt", "pow", "random",
+        "uuid", "concat", "format", "md5", "sha1", "base64_encode", "base64_decode",
+        "now", "current_timestamp", "current_date", "date_format", "parse_date",
+        "is_null", "not_null", "nvl", "coalesce", "typeof", "instanceof"
+    );
+    
+    // 内置变量
+    private static final Set<CharSequence> BUILTIN_VARIABLES = charSequenceSet(
+        "this", "arguments", "__LINE__", "__FILE__", "__METHOD__", "PI", "E"
+    );
+    
     @Override
     @Nullable
     public PsiElement[] getGotoDeclarationTargets(@Nullable PsiElement sourceElement, 
@@ -27,7 +50,8 @@ public class MagicScriptGotoDeclarationHandler implements GotoDeclarationHandler
             return PsiElement.EMPTY_ARRAY;
         }
         
-        String identifierName = sourceElement.getText();
+        // 标识符文本直接取自叶子节点的字符序列，与声明名比较时不复制字符串
+        CharSequence identifierName = sourceElement.getNode().getChars();
         
         // 1. 查找函数定义
         PsiElement functionTarget = findFunctionDeclaration(sourceElement, identifierName);
@@ -60,16 +84,13 @@ public class MagicScriptGotoDeclarationHandler implements GotoDeclarationHandler
      * 查找函数声明
      */
     @Nullable
-    private PsiElement findFunctionDeclaration(@NotNull PsiElement context, @NotNull String functionName) {
-        // 在当前文件中查找函数声明
+    private PsiElement findFunctionDeclaration(@NotNull PsiElement context, @NotNull CharSequence functionName) {
+        // 在当前文件的顶层查找函数声明，逐个访问兄弟节点，不创建子节点数组
         PsiElement root = context.getContainingFile();
         if (root != null) {
-            MSFunctionDeclaration[] functions = PsiTreeUtil.getChildrenOfType(root, MSFunctionDeclaration.class);
-            if (functions != null) {
-                for (MSFunctionDeclaration function : functions) {
-                    if (functionName.equals(function.getName())) {
-                        return function;
-                    }
+            for (PsiElement child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof MSFunctionDeclaration && MSPsiUtil.isNamed((MSFunctionDeclaration) child, functionName)) {
+                    return child;
                 }
             }
         }
@@ -81,37 +102,18 @@ public class MagicScriptGotoDeclarationHandler implements GotoDeclarationHandler
      * 查找变量声明
      */
     @Nullable
-    private PsiElement findVariableDeclaration(@NotNull PsiElement context, @NotNull String variableName) {
-        PsiElement current = context;
-        
-        // 向上遍历PSI树查找变量声明
-        while (current != null) {
-            // 查找当前作用域中的变量声明
-            MSVarDeclaration[] variables = PsiTreeUtil.getChildrenOfType(current, MSVarDeclaration.class);
-            if (variables != null) {
-                for (MSVarDeclaration variable : variables) {
-                    if (variableName.equals(variable.getName()) && 
-                        variable.getTextOffset() < context.getTextOffset()) {
-                        return variable;
-                    }
+    private PsiElement findVariableDeclaration(@NotNull PsiElement context, @NotNull CharSequence variableName) {
+        int contextOffset = context.getTextOffset();
+        
+        // 向上遍历PSI树，在每一层作用域的直接子节点中查找此前声明的变量
+        for (PsiElement current = context; current != null; current = current.getParent()) {
+            for (PsiElement child = current.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child instanceof MSVarDeclaration &&
+                    MSPsiUtil.isNamed((MSVarDeclaration) child, variableName) &&
+                    child.getTextOffset() < contextOffset) {
+                    return child;
                 }
             }
-            
-            // 查找兄弟节点中的变量声明
-            PsiElement parent = current.getParent();
-            if (parent != null) {
-                for (PsiElement sibling : parent.getChildren()) {
-                    if (sibling instanceof MSVarDeclaration && 
-                        sibling.getTextOffset() < context.getTextOffset()) {
-                        MSVarDeclaration varDecl = (MSVarDeclaration) sibling;
-                        if (variableName.equals(varDecl.getName())) {
-                            return varDecl;
-                        }
-                    }
-                }
-            }
-            
-            current = current.getParent();
         }
         
         return null;
@@ -121,86 +123,33 @@ public class MagicScriptGotoDeclarationHandler implements GotoDeclarationHandler
      * 查找内置元素（模块、全局函数等）
      */
     @Nullable
-    private PsiElement findBuiltinElement(@NotNull PsiElement context, @NotNull String elementName) {
+    private PsiElement findBuiltinElement(@NotNull PsiElement context, @NotNull CharSequence elementName) {
         // 检查是否为内置模块
-        if (isBuiltinModule(elementName)) {
-            return new BuiltinElementVirtualPsi(context, elementName, "module");
+        if (BUILTIN_MODULES.contains(elementName)) {
+            return new BuiltinElementVirtualPsi(context, elementName.toString(), "module");
         }
         
         // 检查是否为全局函数
-        if (isBuiltinFunction(elementName)) {
-            return new BuiltinElementVirtualPsi(context, elementName, "function");
+        if (BUILTIN_FUNCTIONS.contains(elementName)) {
+            return new BuiltinElementVirtualPsi(context, elementName.toString(), "function");
         }
         
         // 检查是否为内置变量
-        if (isBuiltinVariable(elementName)) {
-            return new BuiltinElementVirtualPsi(context, elementName, "variable");
+        if (BUILTIN_VARIABLES.contains(elementName)) {
+            return new BuiltinElementVirtualPsi(context, elementName.toString(), "variable");
         }
         
         return null;
     }
     
     /**
-     * 检查是否为内置模块
-     */
-    private boolean isBuiltinModule(@NotNull String name) {
-        String[] builtinModules = {"db", "http", "request", "response", "env", "log", "magic"};
-        for (String module : builtinModules) {
-            if (module.equals(name)) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * 检查是否为内置函数
-     */
-    private boolean isBuiltinFunction(@NotNull String name) {
-        // 聚合函数
-        String[] aggregateFunctions = {"count", "sum", "max", "min", "avg", "group_concat"};
-        for (String func : aggregateFunctions) {
-            if (func.equals(name)) return true;
-        }
-        
-        // 数学函数
-        String[] mathFunctions = {"round", "floor", "ceil", "abs", "sqrt", "pow", "random"};
-        for (String func : mathFunctions) {
-            if (func.equals(name)) return true;
-        }
-        
-        // 字符串函数
-        String[] stringFunctions = {"uuid", "concat", "format", "md5", "sha1", "base64_encode", "base64_decode"};
-        for (String func : stringFunctions) {
-            if (func.equals(name)) return true;
-        }
-        
-        // 日期函数
-        String[] dateFunctions = {"now", "current_timestamp", "current_date", "date_format", "parse_date"};
-        for (String func : dateFunctions) {
-            if (func.equals(name)) return true;
-        }
-        
-        // 工具函数
-        String[] utilityFunctions = {"is_null", "not_null", "nvl", "coalesce", "typeof", "instanceof"};
-        for (String func : utilityFunctions) {
-            if (func.equals(name)) return true;
-        }
-        
-        return false;
-    }
-    
-    /**
-     * 检查是否为内置变量
+     * 按字符序列内容比较的集合，查询时可以直接使用标识符的字符序列
      */
-    private boolean isBuiltinVariable(@NotNull String name) {
-        String[] builtinVars = {"this", "arguments", "__LINE__", "__FILE__", "__METHOD__", "PI", "E"};
-        for (String var : builtinVars) {
-            if (var.equals(name)) {
-                return true;
-            }
-        }
-        return false;
+    @NotNull
+    private static Set<CharSequence> charSequenceSet(@NotNull String... names) {
+        Set<CharSequence> set = CollectionFactory.createCharSequenceSet(true);
+        Collections.addAll(set, names);
+        return set;
     }
     
     /**
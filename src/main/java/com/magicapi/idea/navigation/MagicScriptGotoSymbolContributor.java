@@ -0,0 +1,42 @@
+package com.magicapi.idea.navigation;
+
+import com.intellij.navigation.ChooseByNameContributorEx;
+import com.intellij.navigation.NavigationItem;
+import com.intellij.psi.NavigatablePsiElement;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.stubs.StubIndex;
+import com.intellij.util.Processor;
+import com.intellij.util.indexing.FindSymbolParameters;
+import com.intellij.util.indexing.IdFilter;
+import com.magicapi.idea.lang.psi.stubs.MSSymbolNameIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Magic Script 的 Go to Symbol 贡献器
+ * 名称和元素都来自顶层符号的存根索引，不需要解析工作区中的脚本
+ */
+public class MagicScriptGotoSymbolContributor implements ChooseByNameContributorEx {
+    
+    @Override
+    public void processNames(@NotNull Processor<? super String> processor,
+                             @NotNull GlobalSearchScope scope,
+                             @Nullable IdFilter filter) {
+        StubIndex.getInstance().processAllKeys(MSSymbolNameIndex.KEY, processor, scope, filter);
+    }
+    
+    @Override
+    public void processElementsWithName(@NotNull String name,
+                                        @NotNull Processor<? super NavigationItem> processor,
+                                        @NotNull FindSymbolParameters parameters) {
+        StubIndex.getInstance().processElements(
+            MSSymbolNameIndex.KEY,
+            name,
+            parameters.getProject(),
+            parameters.getSearchScope(),
+            parameters.getIdFilter(),
+            NavigatablePsiElement.class,
+            processor::process
+        );
+    }
+}
@@ -0,0 +1,104 @@
+package com.magicapi.idea.optimization;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.EditorFactory;
+import com.intellij.openapi.editor.event.DocumentEvent;
+import com.intellij.openapi.editor.event.DocumentListener;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileTypes.FileTypeRegistry;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.magicapi.idea.completion.context.FlowTypeInference;
+import com.magicapi.idea.lang.MagicScriptFileType;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.search.MagicScriptFunctionSummaries;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.concurrency.CancellablePromise;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 推断缓存预热
+ *
+ * 脚本在编辑器中打开或切换到前台时，在后台以非阻塞读操作解析 import、读取被调用函数的摘要，
+ * 并分析顶层变量和各顶层函数的类型，使第一次补全直接命中缓存。
+ * 用户开始编辑该文件时取消尚未完成的预热，把读锁和 CPU 让给输入和补全。
+ */
+@Service(Service.Level.PROJECT)
+public final class MagicScriptCacheWarmUp implements Disposable {
+
+    private final Project project;
+    private final Map<VirtualFile, CancellablePromise<?>> pending = new ConcurrentHashMap<>();
+
+    public MagicScriptCacheWarmUp(@NotNull Project project) {
+        this.project = project;
+        EditorFactory.getInstance().getEventMulticaster().addDocumentListener(new DocumentListener() {
+            @Override
+            public void beforeDocumentChange(@NotNull DocumentEvent event) {
+                VirtualFile file = FileDocumentManager.getInstance().getFile(event.getDocument());
+                if (file != null) {
+                    cancel(file);
+                }
+            }
+        }, this);
+    }
+
+    @NotNull
+    public static MagicScriptCacheWarmUp getInstance(@NotNull Project project) {
+        return project.getService(MagicScriptCacheWarmUp.class);
+    }
+
+    /**
+     * 安排预热；同一文件已有未完成的预热时替换它
+     */
+    public void schedule(@Nullable VirtualFile file) {
+        if (file == null || !file.isValid() || !FileTypeRegistry.getInstance().isFileOfType(file, MagicScriptFileType.INSTANCE)) {
+            return;
+        }
+        CancellablePromise<?> promise = ReadAction.nonBlocking(() -> warmUp(file))
+            .inSmartMode(project)
+            .withDocumentsCommitted(project)
+            .coalesceBy(this, file)
+            .expireWith(this)
+            .submit(AppExecutorUtil.getAppExecutorService());
+        CancellablePromise<?> previous = pending.put(file, promise);
+        if (previous != null) {
+            previous.cancel();
+        }
+        promise.onProcessed(ignored -> pending.remove(file, promise));
+    }
+
+    /**
+     * 取消文件上尚未完成的预热
+     */
+    public void cancel(@NotNull VirtualFile file) {
+        CancellablePromise<?> promise = pending.remove(file);
+        if (promise != null) {
+            promise.cancel();
+        }
+    }
+
+    private void warmUp(@NotNull VirtualFile file) {
+        if (!file.isValid()) {
+            return;
+        }
+        PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+        if (psiFile instanceof MSFile) {
+            MagicScriptFunctionSummaries.getInstance(project).warmUp((MSFile) psiFile);
+            FlowTypeInference.warmUp((MSFile) psiFile);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        pending.values().forEach(CancellablePromise::cancel);
+        pending.clear();
+    }
+}
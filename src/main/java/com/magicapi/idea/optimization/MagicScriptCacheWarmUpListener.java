@@ -0,0 +1,30 @@
+package com.magicapi.idea.optimization;
+
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.fileEditor.FileEditorManagerEvent;
+import com.intellij.openapi.fileEditor.FileEditorManagerListener;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 脚本打开或切换到前台时安排推断缓存预热
+ */
+public class MagicScriptCacheWarmUpListener implements FileEditorManagerListener {
+
+    private final Project project;
+
+    public MagicScriptCacheWarmUpListener(@NotNull Project project) {
+        this.project = project;
+    }
+
+    @Override
+    public void fileOpened(@NotNull FileEditorManager source, @NotNull VirtualFile file) {
+        MagicScriptCacheWarmUp.getInstance(project).schedule(file);
+    }
+
+    @Override
+    public void selectionChanged(@NotNull FileEditorManagerEvent event) {
+        MagicScriptCacheWarmUp.getInstance(project).schedule(event.getNewFile());
+    }
+}
@@ -6,6 +6,8 @@ import com.magicapi.idea.registry.providers.ExtensionMethodProvider;
 import com.magicapi.idea.registry.providers.TypeSystemProvider;
 import com.magicapi.idea.completion.model.ApiMethod;
 import com.magicapi.idea.completion.model.MagicApiModule;
+import com.magicapi.idea.completion.model.MagicType;
+import com.intellij.openapi.util.ModificationTracker;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,7 +20,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * 负责管理所有的API模块、全局函数、扩展方法和类型定义
  * 提供统一的访问接口和缓存机制
  */
-public class ModuleRegistry {
+public class ModuleRegistry implements ModificationTracker {
     
     // 单例实例
     private static volatile ModuleRegistry instance;
@@ -39,6 +41,9 @@ public class ModuleRegistry {
     private final Map<String, Set<String>> versionCompatibility = new ConcurrentHashMap<>();
     private String currentApiVersion = "2.7.0";
     
+    // 修改计数，每次重新加载后增加，依据注册表生成的数据（如补全候选项表）据此判断是否需要重建
+    private volatile long modificationCount;
+    
     private ModuleRegistry() {
         this.builtinModuleProvider = new BuiltinModuleProvider(this);
         this.globalFunctionProvider = new GlobalFunctionProvider(this);
@@ -134,6 +139,14 @@ public class ModuleRegistry {
         return globalFunctionCache.getOrDefault("all", Collections.emptyList());
     }
     
+    /**
+     * 按名称查找全局函数
+     */
+    @Nullable
+    public ApiMethod getGlobalFunction(@NotNull String name) {
+        return typeSystemProvider.getGlobalFunction(name);
+    }
+    
     /**
      * 获取指定类别的全局函数
      */
@@ -208,19 +221,11 @@ public class ModuleRegistry {
         return typeCache.get(typeName);
     }
     
-    /**
-     * 推断表达式类型
-     */
-    @NotNull
-    public String inferType(@NotNull String expression) {
-        return typeSystemProvider.inferExpressionType(expression);
-    }
-    
     /**
      * 获取方法返回类型
      */
     @NotNull
-    public String getMethodReturnType(@NotNull String objectType, @NotNull String methodName) {
+    public MagicType getMethodReturnType(@NotNull MagicType objectType, @NotNull String methodName) {
         return typeSystemProvider.getMethodReturnType(objectType, methodName);
     }
     
@@ -391,6 +396,15 @@ public class ModuleRegistry {
     public void reload() {
         clearCache();
         initialize();
+        modificationCount++;
+    }
+    
+    /**
+     * 获取修改计数，注册表重新加载后增加
+     */
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
     }
     
     /**
@@ -49,6 +49,9 @@ public class ExtensionMethodProvider {
         
         // 注册Object扩展方法
         registerObjectExtensionMethods();
+        
+        // 注册模块方法返回的结果对象的方法
+        registerResultTypeMethods();
     }
     
     /**
@@ -1092,6 +1095,101 @@ public class ExtensionMethodProvider {
         registry.registerExtensionMethods("Object", methods);
     }
     
+    /**
+     * 注册结果对象方法
+     * db.page()、http.connect()、db.cache() 等返回的对象没有对应的模块，
+     * 在这里登记它们的成员，类型推断和链式补全都从这里读取返回类型
+     */
+    private void registerResultTypeMethods() {
+        // 分页结果
+        List<ApiMethod> pageResultMethods = new ArrayList<>();
+        pageResultMethods.add(createMethod("getRecords", "List", "获取当前页数据"));
+        pageResultMethods.add(createMethod("getTotal", "Long", "获取总记录数"));
+        pageResultMethods.add(createMethod("getPages", "Long", "获取总页数"));
+        pageResultMethods.add(createMethod("getCurrent", "Long", "获取当前页码"));
+        pageResultMethods.add(createMethod("getSize", "Long", "获取每页条数"));
+        registerResultType("PageResult", pageResultMethods);
+        
+        // HTTP响应
+        List<ApiMethod> httpResponseMethods = new ArrayList<>();
+        httpResponseMethods.add(createMethod("json", "Object", "以JSON解析响应体"));
+        httpResponseMethods.add(createMethod("text", "String", "获取响应文本"));
+        httpResponseMethods.add(createMethod("bytes", "byte[]", "获取响应字节"));
+        httpResponseMethods.add(createMethod("headers", "Map", "获取响应头"));
+        httpResponseMethods.add(createMethod("status", "Integer", "获取状态码"));
+        httpResponseMethods.add(createMethod("cookies", "Map", "获取响应Cookie"));
+        registerResultType("HttpResponse", httpResponseMethods);
+        
+        // HTTP请求构建器
+        List<ApiMethod> requestBuilderMethods = new ArrayList<>();
+        requestBuilderMethods.add(createMethod("param", "HttpRequestBuilder", "添加查询参数",
+                createParam("name", "String", "参数名", true),
+                createParam("value", "Object", "参数值", true)
+        ));
+        requestBuilderMethods.add(createMethod("header", "HttpRequestBuilder", "设置请求头",
+                createParam("name", "String", "请求头名称", true),
+                createParam("value", "String", "请求头值", true)
+        ));
+        requestBuilderMethods.add(createMethod("data", "HttpRequestBuilder", "设置表单数据",
+                createParam("data", "Map", "表单数据", true)
+        ));
+        requestBuilderMethods.add(createMethod("body", "HttpRequestBuilder", "设置请求体",
+                createParam("body", "Object", "请求体", true)
+        ));
+        requestBuilderMethods.add(createMethod("contentType", "HttpRequestBuilder", "设置Content-Type",
+                createParam("contentType", "String", "内容类型", true)
+        ));
+        requestBuilderMethods.add(createMethod("timeout", "HttpRequestBuilder", "设置超时时间",
+                createParam("timeout", "Integer", "超时毫秒数", true)
+        ));
+        requestBuilderMethods.add(createMethod("get", "HttpResponse", "发送GET请求"));
+        requestBuilderMethods.add(createMethod("post", "HttpResponse", "发送POST请求"));
+        requestBuilderMethods.add(createMethod("put", "HttpResponse", "发送PUT请求"));
+        requestBuilderMethods.add(createMethod("delete", "HttpResponse", "发送DELETE请求"));
+        requestBuilderMethods.add(createMethod("patch", "HttpResponse", "发送PATCH请求"));
+        registerResultType("HttpRequestBuilder", requestBuilderMethods);
+        
+        // 可缓存查询
+        List<ApiMethod> cacheableQueryMethods = new ArrayList<>();
+        cacheableQueryMethods.add(createMethod("select", "List", "查询多条数据",
+                createParam("sql", "String", "SQL语句", true),
+                createParam("params", "Object", "查询参数", false)
+        ));
+        cacheableQueryMethods.add(createMethod("selectOne", "Object", "查询单条数据",
+                createParam("sql", "String", "SQL语句", true),
+                createParam("params", "Object", "查询参数", false)
+        ));
+        cacheableQueryMethods.add(createMethod("selectInt", "Integer", "查询整数值",
+                createParam("sql", "String", "SQL语句", true),
+                createParam("params", "Object", "查询参数", false)
+        ));
+        cacheableQueryMethods.add(createMethod("page", "PageResult", "分页查询",
+                createParam("sql", "String", "SQL语句", true),
+                createParam("params", "Object", "查询参数", false)
+        ));
+        cacheableQueryMethods.add(createMethod("ttl", "CacheableQuery", "设置缓存时间",
+                createParam("ttl", "Long", "缓存毫秒数", true)
+        ));
+        cacheableQueryMethods.add(createMethod("key", "CacheableQuery", "设置缓存键",
+                createParam("key", "String", "缓存键", true)
+        ));
+        registerResultType("CacheableQuery", cacheableQueryMethods);
+        
+        // 事务
+        List<ApiMethod> transactionMethods = new ArrayList<>();
+        transactionMethods.add(createMethod("commit", "void", "提交事务"));
+        transactionMethods.add(createMethod("rollback", "void", "回滚事务"));
+        transactionMethods.add(createMethod("execute", "Object", "在事务中执行函数",
+                createParam("callback", "Function", "事务内执行的函数", true)
+        ));
+        registerResultType("TransactionManager", transactionMethods);
+    }
+    
+    private void registerResultType(@NotNull String typeName, @NotNull List<ApiMethod> methods) {
+        extensionMethods.put(typeName, methods);
+        registry.registerExtensionMethods(typeName, methods);
+    }
+    
     // ==================== 辅助方法 ====================
     
     /**
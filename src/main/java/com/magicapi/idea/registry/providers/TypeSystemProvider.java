@@ -1,11 +1,14 @@
 package com.magicapi.idea.registry.providers;
 
 import com.magicapi.idea.completion.model.ApiMethod;
+import com.magicapi.idea.completion.model.MagicApiModule;
+import com.magicapi.idea.completion.model.MagicType;
 import com.magicapi.idea.registry.ModuleRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -13,38 +16,53 @@ import java.util.regex.Pattern;
  * 
  * 负责管理Magic API的完整类型系统，包括类型定义、类型推断、类型转换等
  * 为代码补全和语法分析提供精确的类型信息支持
+ *
+ * 所有类型都以驻留的 {@link MagicType} 表示。初始化时把继承关系和隐式转换展开成
+ * 每个类型的全部父类型集合和全部可赋值目标集合，子类型和兼容性判断只需一次查表。
+ *
+ * 方法返回类型只来自注册表的元数据：模块方法、扩展方法和全局函数在初始化时按类型和名称建立索引，
+ * 查询结果按（接收者类型，方法名）缓存，补全和类型推断共用这一份数据，不再各自维护返回类型表。
  */
 public class TypeSystemProvider {
     
     private final ModuleRegistry registry;
     
     // 基础类型定义
-    private final Set<String> primitiveTypes = new HashSet<>();
-    private final Set<String> objectTypes = new HashSet<>();
-    private final Set<String> collectionTypes = new HashSet<>();
+    private final Set<MagicType> primitiveTypes = new HashSet<>();
+    private final Set<MagicType> objectTypes = new HashSet<>();
+    private final Set<MagicType> collectionTypes = new HashSet<>();
     
-    // 类型层次结构
-    private final Map<String, Set<String>> typeHierarchy = new HashMap<>();
-    private final Map<String, String> typeSuperTypes = new HashMap<>();
+    // 类型层次结构（父类型 -> 直接子类型）
+    private final Map<MagicType, Set<MagicType>> typeHierarchy = new HashMap<>();
     
     // 类型转换规则
-    private final Map<String, Set<String>> implicitConversions = new HashMap<>();
-    private final Map<String, Set<String>> explicitConversions = new HashMap<>();
+    private final Map<MagicType, Set<MagicType>> implicitConversions = new HashMap<>();
+    private final Map<MagicType, Set<MagicType>> explicitConversions = new HashMap<>();
+    
+    // 展开后的查询表：类型 -> 全部父类型（含自身）、类型 -> 可隐式赋值的全部目标类型（含父类型）
+    private Map<MagicType, Set<MagicType>> directSupertypes = Collections.emptyMap();
+    private Map<MagicType, Set<MagicType>> supertypeClosure = Collections.emptyMap();
+    private Map<MagicType, Set<MagicType>> assignableClosure = Collections.emptyMap();
+    
+    // 成员索引：类型 -> 该类型自身声明的成员（方法名 -> 方法），全局函数名 -> 函数
+    private Map<MagicType, Map<String, ApiMethod>> declaredMembers = Collections.emptyMap();
+    private Map<String, ApiMethod> globalFunctions = Collections.emptyMap();
+    
+    // 查询缓存：原始类型 -> 含继承成员的全部成员，接收者类型 -> 方法名 -> 返回类型
+    private final Map<MagicType, Map<String, ApiMethod>> visibleMembers = new ConcurrentHashMap<>();
+    private final Map<MagicType, Map<String, MagicType>> returnTypes = new ConcurrentHashMap<>();
     
     // 类型方法映射
-    private final Map<String, Set<String>> typeMethods = new HashMap<>();
+    private final Map<MagicType, Set<String>> typeMethods = new HashMap<>();
     
     // 类型属性映射
-    private final Map<String, Set<String>> typeProperties = new HashMap<>();
-    
-    // 类型别名
-    private final Map<String, String> typeAliases = new HashMap<>();
+    private final Map<MagicType, Set<String>> typeProperties = new HashMap<>();
     
     // 类型正则表达式
-    private final Map<String, Pattern> typePatterns = new HashMap<>();
+    private final Map<MagicType, Pattern> typePatterns = new HashMap<>();
     
     // 默认值映射
-    private final Map<String, Object> defaultValues = new HashMap<>();
+    private final Map<MagicType, Object> defaultValues = new HashMap<>();
     
     public TypeSystemProvider(@NotNull ModuleRegistry registry) {
         this.registry = registry;
@@ -69,15 +87,18 @@ public class TypeSystemProvider {
         // 初始化类型转换规则
         initializeTypeConversions();
         
+        // 展开父类型和可赋值类型查询表
+        buildClosures();
+        
+        // 按类型索引模块方法、扩展方法和全局函数
+        indexMembers();
+        
         // 初始化类型方法映射
         initializeTypeMethods();
         
         // 初始化类型属性映射
         initializeTypeProperties();
         
-        // 初始化类型别名
-        initializeTypeAliases();
-        
         // 初始化类型模式
         initializeTypePatterns();
         
@@ -89,25 +110,18 @@ public class TypeSystemProvider {
      * 初始化基础类型
      */
     private void initializePrimitiveTypes() {
-        primitiveTypes.addAll(Arrays.asList(
+        // 小写别名（int、string 等）已由 MagicType 解析到对应的包装类型
+        addTypes(primitiveTypes,
                 "void", "null", "undefined",
-                "Boolean", "boolean",
-                "Integer", "int",
-                "Long", "long", 
-                "Double", "double",
-                "Float", "float",
-                "Number",
-                "String", "string",
-                "Char", "char",
-                "Byte", "byte"
-        ));
+                "Boolean", "Integer", "Long", "Double", "Float",
+                "Number", "String", "Char", "Byte");
     }
     
     /**
      * 初始化对象类型
      */
     private void initializeObjectTypes() {
-        objectTypes.addAll(Arrays.asList(
+        addTypes(objectTypes,
                 "Object",
                 "Date", "Timestamp",
                 "File", "InputStream", "OutputStream",
@@ -115,21 +129,25 @@ public class TypeSystemProvider {
                 "Class",
                 "Exception", "Throwable",
                 "UUID",
-                "URL", "URI"
-        ));
+                "URL", "URI");
     }
     
     /**
      * 初始化集合类型
      */
     private void initializeCollectionTypes() {
-        collectionTypes.addAll(Arrays.asList(
+        addTypes(collectionTypes,
                 "Array", "List", "ArrayList", "LinkedList",
                 "Set", "HashSet", "TreeSet", "LinkedHashSet",
                 "Map", "HashMap", "TreeMap", "LinkedHashMap",
                 "Queue", "Deque",
-                "Collection", "Iterable"
-        ));
+                "Collection", "Iterable");
+    }
+    
+    private static void addTypes(@NotNull Set<MagicType> target, @NotNull String... names) {
+        for (String name : names) {
+            target.add(MagicType.of(name));
+        }
     }
     
     /**
@@ -137,7 +155,7 @@ public class TypeSystemProvider {
      */
     private void initializeTypeHierarchy() {
         // Object作为根类型
-        typeHierarchy.put("Object", Collections.emptySet());
+        typeHierarchy.put(MagicType.OBJECT, new HashSet<>());
         
         // 基础类型继承关系
         setSubTypes("Object", "String", "Number", "Boolean", "Date", "Array", "Map");
@@ -152,21 +170,16 @@ public class TypeSystemProvider {
         setSubTypes("Object", "HttpResponse", "HttpRequestBuilder", "PageResult", 
                    "TransactionManager", "CacheableQuery", "TableQuery", "LogicDeleteQuery",
                    "DatabaseQuery", "ResponseBuilder", "MultipartFile", "HttpSession");
-        
-        // 构建反向映射
-        for (Map.Entry<String, Set<String>> entry : typeHierarchy.entrySet()) {
-            String superType = entry.getKey();
-            for (String subType : entry.getValue()) {
-                typeSuperTypes.put(subType, superType);
-            }
-        }
     }
     
     /**
-     * 设置子类型关系
+     * 设置子类型关系，同一父类型可多次追加，一个类型也可以有多个父类型（如 List 同时属于 Array 和 Collection）
      */
     private void setSubTypes(@NotNull String superType, @NotNull String... subTypes) {
-        typeHierarchy.put(superType, new HashSet<>(Arrays.asList(subTypes)));
+        Set<MagicType> children = typeHierarchy.computeIfAbsent(MagicType.of(superType), k -> new HashSet<>());
+        for (String subType : subTypes) {
+            children.add(MagicType.of(subType));
+        }
     }
     
     /**
@@ -181,8 +194,8 @@ public class TypeSystemProvider {
         setImplicitConversions("Byte", "Integer", "Long", "Double", "Float", "Number");
         
         // 所有类型都可以转换为String和Object
-        for (String type : getAllTypes()) {
-            setImplicitConversions(type, "String", "Object");
+        for (MagicType type : getAllTypes()) {
+            setImplicitConversions(type.getName(), "String", "Object");
         }
         
         // 显式转换（需要调用转换方法）
@@ -200,17 +213,69 @@ public class TypeSystemProvider {
     }
     
     /**
-     * 设置隐式转换规则
+     * 设置隐式转换规则（追加，不覆盖已有规则）
      */
     private void setImplicitConversions(@NotNull String fromType, @NotNull String... toTypes) {
-        implicitConversions.put(fromType, new HashSet<>(Arrays.asList(toTypes)));
+        Set<MagicType> targets = implicitConversions.computeIfAbsent(MagicType.of(fromType), k -> new HashSet<>());
+        for (String toType : toTypes) {
+            targets.add(MagicType.of(toType));
+        }
     }
     
     /**
-     * 设置显式转换规则
+     * 设置显式转换规则（追加，不覆盖已有规则）
      */
     private void setExplicitConversions(@NotNull String fromType, @NotNull String... toTypes) {
-        explicitConversions.put(fromType, new HashSet<>(Arrays.asList(toTypes)));
+        Set<MagicType> targets = explicitConversions.computeIfAbsent(MagicType.of(fromType), k -> new HashSet<>());
+        for (String toType : toTypes) {
+            targets.add(MagicType.of(toType));
+        }
+    }
+    
+    /**
+     * 展开查询表：父类型集合沿继承关系取传递闭包，可赋值集合再并上每个父类型的隐式转换目标及其父类型
+     */
+    private void buildClosures() {
+        Map<MagicType, Set<MagicType>> directSupertypes = new HashMap<>();
+        for (Map.Entry<MagicType, Set<MagicType>> entry : typeHierarchy.entrySet()) {
+            for (MagicType subType : entry.getValue()) {
+                directSupertypes.computeIfAbsent(subType, k -> new HashSet<>()).add(entry.getKey());
+            }
+        }
+        
+        Set<MagicType> known = new HashSet<>(getAllTypes());
+        known.addAll(directSupertypes.keySet());
+        known.addAll(implicitConversions.keySet());
+        
+        Map<MagicType, Set<MagicType>> supertypes = new HashMap<>();
+        for (MagicType type : known) {
+            Set<MagicType> closure = new HashSet<>();
+            Deque<MagicType> pending = new ArrayDeque<>();
+            pending.push(type);
+            while (!pending.isEmpty()) {
+                MagicType current = pending.pop();
+                if (closure.add(current)) {
+                    pending.addAll(directSupertypes.getOrDefault(current, Collections.emptySet()));
+                }
+            }
+            closure.add(MagicType.OBJECT);
+            supertypes.put(type, closure);
+        }
+        
+        Map<MagicType, Set<MagicType>> assignable = new HashMap<>();
+        for (Map.Entry<MagicType, Set<MagicType>> entry : supertypes.entrySet()) {
+            Set<MagicType> targets = new HashSet<>(entry.getValue());
+            for (MagicType supertype : entry.getValue()) {
+                for (MagicType target : implicitConversions.getOrDefault(supertype, Collections.emptySet())) {
+                    targets.addAll(supertypes.getOrDefault(target, Collections.singleton(target)));
+                }
+            }
+            assignable.put(entry.getKey(), targets);
+        }
+        
+        this.directSupertypes = directSupertypes;
+        this.supertypeClosure = supertypes;
+        this.assignableClosure = assignable;
     }
     
     /**
@@ -252,7 +317,7 @@ public class TypeSystemProvider {
      * 设置类型方法
      */
     private void setTypeMethods(@NotNull String type, @NotNull String... methods) {
-        typeMethods.put(type, new HashSet<>(Arrays.asList(methods)));
+        typeMethods.put(MagicType.of(type), new HashSet<>(Arrays.asList(methods)));
     }
     
     /**
@@ -283,33 +348,7 @@ public class TypeSystemProvider {
      * 设置类型属性
      */
     private void setTypeProperties(@NotNull String type, @NotNull String... properties) {
-        typeProperties.put(type, new HashSet<>(Arrays.asList(properties)));
-    }
-    
-    /**
-     * 初始化类型别名
-     */
-    private void initializeTypeAliases() {
-        // 基础类型别名
-        typeAliases.put("int", "Integer");
-        typeAliases.put("long", "Long");
-        typeAliases.put("double", "Double");
-        typeAliases.put("float", "Float");
-        typeAliases.put("boolean", "Boolean");
-        typeAliases.put("char", "Char");
-        typeAliases.put("byte", "Byte");
-        typeAliases.put("string", "String");
-        
-        // 集合类型别名
-        typeAliases.put("list", "List");
-        typeAliases.put("array", "Array");
-        typeAliases.put("map", "Map");
-        typeAliases.put("set", "Set");
-        
-        // 特殊类型别名
-        typeAliases.put("date", "Date");
-        typeAliases.put("object", "Object");
-        typeAliases.put("number", "Number");
+        typeProperties.put(MagicType.of(type), new HashSet<>(Arrays.asList(properties)));
     }
     
     /**
@@ -317,738 +356,340 @@ public class TypeSystemProvider {
      */
     private void initializeTypePatterns() {
         // 字符串字面量模式
-        typePatterns.put("String", Pattern.compile("^[\"'].*[\"']$"));
+        typePatterns.put(MagicType.of("String"), Pattern.compile("^[\"'].*[\"']$"));
         
         // 数值字面量模式
-        typePatterns.put("Integer", Pattern.compile("^-?\\d+$"));
-        typePatterns.put("Long", Pattern.compile("^-?\\d+[Ll]$"));
-        typePatterns.put("Double", Pattern.compile("^-?\\d*\\.\\d+$"));
-        typePatterns.put("Float", Pattern.compile("^-?\\d*\\.\\d+[Ff]$"));
+        typePatterns.put(MagicType.of("Integer"), Pattern.compile("^-?\\d+$"));
+        typePatterns.put(MagicType.of("Long"), Pattern.compile("^-?\\d+[Ll]$"));
+        typePatterns.put(MagicType.of("Double"), Pattern.compile("^-?\\d*\\.\\d+$"));
+        typePatterns.put(MagicType.of("Float"), Pattern.compile("^-?\\d*\\.\\d+[Ff]$"));
         
         // 布尔字面量模式
-        typePatterns.put("Boolean", Pattern.compile("^(true|false)$"));
+        typePatterns.put(MagicType.of("Boolean"), Pattern.compile("^(true|false)$"));
         
         // 数组字面量模式
-        typePatterns.put("Array", Pattern.compile("^\\[.*\\]$"));
+        typePatterns.put(MagicType.of("Array"), Pattern.compile("^\\[.*\\]$"));
         
         // 对象字面量模式
-        typePatterns.put("Map", Pattern.compile("^\\{.*\\}$"));
+        typePatterns.put(MagicType.of("Map"), Pattern.compile("^\\{.*\\}$"));
         
         // 空值模式
-        typePatterns.put("null", Pattern.compile("^(null|undefined)$"));
-        
-        // 函数调用模式
-        typePatterns.put("Function", Pattern.compile("^\\w+\\(.*\\)$"));
-        
-        // 变量命名模式
-        typePatterns.put("Variable", Pattern.compile("^[a-zA-Z_$][a-zA-Z0-9_$]*$"));
+        typePatterns.put(MagicType.of("null"), Pattern.compile("^(null|undefined)$"));
     }
     
     /**
      * 初始化默认值
      */
     private void initializeDefaultValues() {
-        defaultValues.put("String", "\"\"");
-        defaultValues.put("Integer", 0);
-        defaultValues.put("Long", 0L);
-        defaultValues.put("Double", 0.0);
-        defaultValues.put("Float", 0.0f);
-        defaultValues.put("Boolean", false);
-        defaultValues.put("Array", "[]");
-        defaultValues.put("List", "[]");
-        defaultValues.put("Map", "{}");
-        defaultValues.put("Set", "[]");
-        defaultValues.put("Object", null);
-        defaultValues.put("Date", null);
-    }
-    
-    // ==================== 公共API方法 ====================
-    
-    /**
-     * 推断表达式类型
-     */
-    @NotNull
-    public String inferExpressionType(@NotNull String expression) {
-        String trimmed = expression.trim();
-        
-        // 检查字面量类型
-        for (Map.Entry<String, Pattern> entry : typePatterns.entrySet()) {
-            if (entry.getValue().matcher(trimmed).matches()) {
-                return resolveTypeAlias(entry.getKey());
+        defaultValues.put(MagicType.of("String"), "\"\"");
+        defaultValues.put(MagicType.of("Integer"), 0);
+        defaultValues.put(MagicType.of("Long"), 0L);
+        defaultValues.put(MagicType.of("Double"), 0.0);
+        defaultValues.put(MagicType.of("Float"), 0.0f);
+        defaultValues.put(MagicType.of("Boolean"), false);
+        defaultValues.put(MagicType.of("Array"), "[]");
+        defaultValues.put(MagicType.of("List"), "[]");
+        defaultValues.put(MagicType.of("Map"), "{}");
+        defaultValues.put(MagicType.of("Set"), "[]");
+        defaultValues.put(MagicType.of("Object"), null);
+        defaultValues.put(MagicType.of("Date"), null);
+    }
+    
+    /**
+     * 建立成员索引：模块方法以模块名作为类型，扩展方法以登记的类型名作为类型，全局函数按函数名索引。
+     * 返回类型全部取自注册表中的元数据；注册表重新加载时随类型系统一起重建，已缓存的查询结果同时作废
+     */
+    private void indexMembers() {
+        Map<MagicType, Map<String, ApiMethod>> members = new HashMap<>();
+        for (String moduleName : registry.getModuleNames()) {
+            MagicApiModule module = registry.getModule(moduleName);
+            if (module != null) {
+                indexMethods(members, MagicType.of(moduleName), module.getMethods());
             }
         }
-        
-        // 检查函数调用
-        if (trimmed.contains("(") && trimmed.contains(")")) {
-            return inferFunctionCallType(trimmed);
+        for (String typeName : registry.getExtensionMethodTypes()) {
+            indexMethods(members, MagicType.of(typeName), registry.getExtensionMethods(typeName));
         }
         
-        // 检查成员访问
-        if (trimmed.contains(".")) {
-            return inferMemberAccessType(trimmed);
+        Map<String, ApiMethod> functions = new HashMap<>();
+        for (ApiMethod function : registry.getGlobalFunctions()) {
+            functions.putIfAbsent(function.getName(), function);
         }
         
-        // 基于命名约定推断
-        return inferTypeByNaming(trimmed);
+        this.declaredMembers = members;
+        this.globalFunctions = functions;
+        visibleMembers.clear();
+        returnTypes.clear();
     }
     
     /**
-     * 推断函数调用类型
+     * 同名重载只保留先登记的一个，补全时保持登记顺序
      */
-    @NotNull
-    private String inferFunctionCallType(@NotNull String functionCall) {
-        // 数据库函数
-        if (functionCall.contains("db.select") || functionCall.contains("select(")) {
-            return "Array";
-        }
-        if (functionCall.contains("db.selectOne") || functionCall.contains("selectOne(")) {
-            return "Object";
-        }
-        if (functionCall.contains("db.selectInt") || functionCall.contains("selectInt(")) {
-            return "Integer";
-        }
-        if (functionCall.contains("db.page") || functionCall.contains("page(")) {
-            return "PageResult";
+    private static void indexMethods(@NotNull Map<MagicType, Map<String, ApiMethod>> members,
+                                     @NotNull MagicType type, @NotNull Collection<ApiMethod> methods) {
+        Map<String, ApiMethod> declared = members.computeIfAbsent(type, k -> new LinkedHashMap<>());
+        for (ApiMethod method : methods) {
+            declared.putIfAbsent(method.getName(), method);
         }
-        
-        // HTTP函数
-        if (functionCall.matches(".*http\\.(get|post|put|delete|patch)\\(.*")) {
-            return "HttpResponse";
-        }
-        
-        // 字符串函数
-        if (functionCall.contains("uuid(") || functionCall.contains("concat(") ||
-            functionCall.contains("format(") || functionCall.contains("md5(")) {
-            return "String";
-        }
-        
-        // 数学函数
-        if (functionCall.contains("sum(") || functionCall.contains("max(") ||
-            functionCall.contains("min(") || functionCall.contains("count(")) {
-            return "Number";
-        }
-        
-        // 数组构造函数
-        if (functionCall.contains("new_array(") || functionCall.contains("new_list(")) {
-            return "Array";
-        }
-        if (functionCall.contains("new_map(")) {
-            return "Map";
-        }
-        
-        return "Object";
     }
     
     /**
-     * 推断成员访问类型
+     * 成员查找顺序：先自身，再沿继承关系由近及远的父类型，Object 最后
      */
     @NotNull
-    private String inferMemberAccessType(@NotNull String memberAccess) {
-        String[] parts = memberAccess.split("\\.");
-        if (parts.length < 2) {
-            return "Object";
+    private List<MagicType> lookupOrder(@NotNull MagicType rawType) {
+        List<MagicType> order = new ArrayList<>();
+        Deque<MagicType> pending = new ArrayDeque<>();
+        pending.add(rawType);
+        while (!pending.isEmpty()) {
+            MagicType current = pending.poll();
+            if (current != MagicType.OBJECT && !order.contains(current)) {
+                order.add(current);
+                pending.addAll(directSupertypes.getOrDefault(current, Collections.emptySet()));
+            }
         }
-        
-        String objectType = inferExpressionType(parts[0]);
-        String memberName = parts[parts.length - 1];
-        
-        return getMethodReturnType(objectType, memberName);
+        order.add(MagicType.OBJECT);
+        return order;
     }
     
+    // ==================== 公共API方法 ====================
+    
     /**
-     * 基于命名约定推断类型
+     * 基于命名约定推断类型，用于参数和无法从数据流得到类型的名称
      */
     @NotNull
-    private String inferTypeByNaming(@NotNull String name) {
+    public MagicType inferTypeByNaming(@NotNull String name) {
         String lowerName = name.toLowerCase();
         
         // 字符串类型
-        if (lowerName.contains("name") || lowerName.contains("text") || 
-            lowerName.contains("str") || lowerName.contains("message") ||
+        if (lowerName.contains("str") || lowerName.contains("name") || 
+            lowerName.contains("text") || lowerName.contains("message") ||
+            lowerName.contains("desc") || lowerName.contains("title") ||
             lowerName.contains("url") || lowerName.contains("path")) {
-            return "String";
+            return MagicType.STRING;
         }
         
-        // 数组类型
+        // 数组/集合类型
         if (lowerName.contains("list") || lowerName.contains("array") || 
-            lowerName.endsWith("s") || lowerName.contains("items") ||
+            lowerName.contains("items") || lowerName.endsWith("s") ||
             lowerName.contains("records") || lowerName.contains("results")) {
-            return "Array";
+            return MagicType.ARRAY;
         }
         
         // Map类型
-        if (lowerName.contains("map") || lowerName.contains("dict") ||
+        if (lowerName.contains("map") || lowerName.contains("dict") || 
             lowerName.contains("config") || lowerName.contains("params") ||
-            lowerName.contains("headers") || lowerName.contains("attrs")) {
-            return "Map";
+            lowerName.contains("props") || lowerName.contains("attrs") ||
+            lowerName.contains("headers") || lowerName.contains("cookies")) {
+            return MagicType.MAP;
         }
         
         // 数值类型
-        if (lowerName.contains("count") || lowerName.contains("num") ||
+        if (lowerName.contains("count") || lowerName.contains("num") || 
             lowerName.contains("size") || lowerName.contains("id") ||
-            lowerName.contains("index") || lowerName.contains("total")) {
-            return "Integer";
+            lowerName.contains("index") || lowerName.contains("length") ||
+            lowerName.contains("total") || lowerName.contains("amount")) {
+            return MagicType.NUMBER;
         }
         
         // 日期类型
-        if (lowerName.contains("date") || lowerName.contains("time") ||
+        if (lowerName.contains("date") || lowerName.contains("time") || 
             lowerName.contains("timestamp") || lowerName.contains("created") ||
-            lowerName.contains("updated")) {
-            return "Date";
+            lowerName.contains("updated") || lowerName.contains("modified") ||
+            lowerName.contains("expired") || lowerName.contains("start") ||
+            lowerName.contains("end")) {
+            return MagicType.DATE;
         }
         
         // 布尔类型
-        if (lowerName.contains("is") || lowerName.contains("has") ||
-            lowerName.contains("can") || lowerName.contains("flag") ||
-            lowerName.contains("enable") || lowerName.contains("valid")) {
-            return "Boolean";
-        }
-        
-        return "Object";
-    }
-    
-    /**
-     * 获取方法返回类型
-     */
-    @NotNull
-    public String getMethodReturnType(@NotNull String objectType, @NotNull String methodName) {
-        String resolvedType = resolveTypeAlias(objectType);
-        
-        // 检查是否为内置模块
-        if (isBuiltinModule(resolvedType)) {
-            return getBuiltinModuleMethodReturnType(resolvedType, methodName);
+        if (lowerName.contains("flag") || lowerName.contains("is") || 
+            lowerName.contains("has") || lowerName.contains("can") ||
+            lowerName.contains("should") || lowerName.contains("enable") ||
+            lowerName.contains("active") || lowerName.contains("valid")) {
+            return MagicType.BOOLEAN;
         }
         
-        // 检查扩展方法
-        return getExtensionMethodReturnType(resolvedType, methodName);
-    }
-    
-    /**
-     * 获取内置模块方法返回类型
-     */
-    @NotNull
-    private String getBuiltinModuleMethodReturnType(@NotNull String moduleName, @NotNull String methodName) {
-        switch (moduleName) {
-            case "db":
-                return getDatabaseMethodReturnType(methodName);
-            case "http":
-                return getHttpMethodReturnType(methodName);
-            case "request":
-                return getRequestMethodReturnType(methodName);
-            case "response":
-                return getResponseMethodReturnType(methodName);
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 获取数据库方法返回类型
-     */
-    @NotNull
-    private String getDatabaseMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "select":
-            case "selectByKey":
-                return "Array";
-            case "selectOne":
-            case "selectByPrimaryKey":
-                return "Object";
-            case "selectInt":
-            case "count":
-                return "Integer";
-            case "selectLong":
-                return "Long";
-            case "selectDouble":
-                return "Double";
-            case "selectValue":
-                return "Object";
-            case "page":
-                return "PageResult";
-            case "insert":
-            case "update":
-            case "delete":
-                return "Integer";
-            case "cache":
-                return "CacheableQuery";
-            case "transaction":
-                return "TransactionManager";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 获取HTTP方法返回类型
-     */
-    @NotNull
-    private String getHttpMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "get":
-            case "post":
-            case "put":
-            case "delete":
-            case "patch":
-                return "HttpResponse";
-            case "connect":
-            case "header":
-            case "data":
-            case "body":
-            case "timeout":
-                return "HttpRequestBuilder";
-            default:
-                return "Object";
-        }
-    }
-    
-    /**
-     * 获取请求方法返回类型
-     */
-    @NotNull
-    private String getRequestMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "getParameter":
-            case "getHeader":
-            case "getCookie":
-                return "String";
-            case "getParameters":
-            case "getHeaders":
-            case "getCookies":
-                return "Map";
-            case "getBody":
-                return "Object";
-            case "getFiles":
-                return "Array";
-            case "getFile":
-                return "MultipartFile";
-            default:
-                return "Object";
-        }
+        return MagicType.OBJECT;
     }
     
     /**
-     * 获取响应方法返回类型
+     * 获取方法返回类型，按（接收者类型，方法名）缓存
      */
     @NotNull
-    private String getResponseMethodReturnType(@NotNull String methodName) {
-        // response模块的所有方法都返回ResponseBuilder
-        return "ResponseBuilder";
+    public MagicType getMethodReturnType(@NotNull MagicType objectType, @NotNull String methodName) {
+        return returnTypes.computeIfAbsent(objectType, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(methodName, name -> resolveReturnType(objectType, name));
     }
     
-    /**
-     * 获取扩展方法返回类型
-     */
     @NotNull
-    private String getExtensionMethodReturnType(@NotNull String objectType, @NotNull String methodName) {
-        String resolvedType = resolveTypeAlias(objectType);
-        
-        // String扩展方法
-        if ("String".equals(resolvedType)) {
-            return getStringExtensionMethodReturnType(methodName);
+    private MagicType resolveReturnType(@NotNull MagicType objectType, @NotNull String methodName) {
+        ApiMethod method = findMember(objectType, methodName);
+        MagicType returnType = method != null ? method.getReturnType() : null;
+        if (returnType == null) {
+            return MagicType.OBJECT;
         }
-        
-        // Number扩展方法
-        if (isNumberType(resolvedType)) {
-            return getNumberExtensionMethodReturnType(methodName);
-        }
-        
-        // Array扩展方法
-        if (isArrayType(resolvedType)) {
-            return getArrayExtensionMethodReturnType(methodName);
-        }
-        
-        // Map扩展方法
-        if ("Map".equals(resolvedType)) {
-            return getMapExtensionMethodReturnType(methodName);
+        // 取元素的方法在元数据中声明为 Object，接收者带泛型参数时返回元素类型，如 List<Map<String,Object>>.first() 为 Map<String,Object>
+        if (returnType == MagicType.OBJECT && objectType.isParameterized() && isArrayType(objectType)) {
+            return objectType.getTypeArgument(0);
         }
-        
-        // Date扩展方法
-        if ("Date".equals(resolvedType)) {
-            return getDateExtensionMethodReturnType(methodName);
-        }
-        
-        // Boolean扩展方法
-        if ("Boolean".equals(resolvedType)) {
-            return getBooleanExtensionMethodReturnType(methodName);
-        }
-        
-        // Object扩展方法
-        return getObjectExtensionMethodReturnType(methodName);
+        return returnType;
     }
     
     /**
-     * 获取String扩展方法返回类型
+     * 查找类型上可调用的成员，包括从父类型继承的扩展方法
      */
-    @NotNull
-    private String getStringExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "isBlank":
-            case "isNotBlank":
-            case "isEmpty":
-            case "isNotEmpty":
-            case "startsWith":
-            case "endsWith":
-            case "contains":
-            case "matches":
-            case "isNumeric":
-            case "isAlpha":
-                return "Boolean";
-            case "length":
-            case "size":
-            case "indexOf":
-            case "lastIndexOf":
-                return "Integer";
-            case "split":
-            case "lines":
-            case "words":
-                return "Array";
-            default:
-                return "String";
-        }
+    @Nullable
+    public ApiMethod findMember(@NotNull MagicType type, @NotNull String name) {
+        return getMembers(type).get(name);
     }
     
     /**
-     * 获取Number扩展方法返回类型
+     * 获取类型上可调用的全部成员（成员名 -> 方法），近处的定义覆盖父类型的同名方法
      */
     @NotNull
-    private String getNumberExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "toFixed":
-            case "asPercent":
-            case "asCurrency":
-            case "toBinary":
-            case "toHex":
-                return "String";
-            case "isFinite":
-            case "isNaN":
-            case "isInteger":
-            case "isPositive":
-            case "isNegative":
-            case "isZero":
-            case "isEven":
-            case "isOdd":
-            case "between":
-                return "Boolean";
-            case "toRadians":
-            case "toDegrees":
-                return "Double";
-            default:
-                return "Number";
-        }
+    public Map<String, ApiMethod> getMembers(@NotNull MagicType type) {
+        return visibleMembers.computeIfAbsent(type.getRawType(), rawType -> {
+            Map<String, ApiMethod> members = new LinkedHashMap<>();
+            for (MagicType owner : lookupOrder(rawType)) {
+                for (Map.Entry<String, ApiMethod> entry : declaredMembers.getOrDefault(owner, Collections.emptyMap()).entrySet()) {
+                    members.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+            return Collections.unmodifiableMap(members);
+        });
     }
     
     /**
-     * 获取Array扩展方法返回类型
+     * 查找具有全部给定成员的最通用的类型（不含模块），用于由变量上调用的方法反推变量类型
+     * 如调用了 size() 和 get() 的变量为 List；所有类型都有的成员（如 toString）不提供信息
+     * @param names 成员名
+     * @return 唯一的最通用类型；没有或不唯一时返回 null
      */
-    @NotNull
-    private String getArrayExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "size":
-            case "length":
-            case "indexOf":
-            case "lastIndexOf":
-            case "count":
-                return "Integer";
-            case "isEmpty":
-            case "isNotEmpty":
-            case "contains":
-            case "every":
-            case "some":
-            case "none":
-                return "Boolean";
-            case "join":
-            case "mkString":
-                return "String";
-            case "first":
-            case "last":
-            case "get":
-            case "pop":
-            case "shift":
-            case "find":
-            case "max":
-            case "min":
-                return "Object";
-            case "sum":
-                return "Number";
-            case "average":
-                return "Double";
-            default:
-                return "Array";
+    @Nullable
+    public MagicType findTypeWithMembers(@NotNull Collection<String> names) {
+        if (names.isEmpty()) {
+            return null;
+        }
+        List<MagicType> candidates = new ArrayList<>();
+        for (MagicType type : declaredMembers.keySet()) {
+            if (!registry.hasModule(type.getName()) && getMembers(type).keySet().containsAll(names)) {
+                candidates.add(type);
+            }
         }
-    }
-    
-    /**
-     * 获取Map扩展方法返回类型
-     */
-    @NotNull
-    private String getMapExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "containsKey":
-            case "containsValue":
-            case "isEmpty":
-            case "isNotEmpty":
-                return "Boolean";
-            case "size":
-                return "Integer";
-            case "keys":
-            case "values":
-            case "entries":
-                return "Array";
-            case "keySet":
-            case "valueSet":
-            case "entrySet":
-                return "Set";
-            case "get":
-            case "put":
-            case "remove":
-            case "getOrDefault":
-            case "putIfAbsent":
-            case "computeIfAbsent":
-            case "computeIfPresent":
-                return "Object";
-            default:
-                return "Map";
+        MagicType result = null;
+        for (MagicType candidate : candidates) {
+            boolean general = true;
+            for (MagicType other : candidates) {
+                if (other != candidate && isSubtypeOf(candidate, other)) {
+                    general = false;
+                    break;
+                }
+            }
+            if (general) {
+                if (result != null) {
+                    return null;
+                }
+                result = candidate;
+            }
         }
+        return result != MagicType.OBJECT ? result : null;
     }
     
     /**
-     * 获取Date扩展方法返回类型
+     * 按名称查找全局函数
      */
-    @NotNull
-    private String getDateExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "format":
-            case "toISOString":
-            case "toDateString":
-            case "toTimeString":
-            case "toString":
-                return "String";
-            case "isAfter":
-            case "isBefore":
-            case "isEqual":
-            case "isSameDay":
-            case "isSameMonth":
-            case "isSameYear":
-                return "Boolean";
-            case "getYear":
-            case "getMonth":
-            case "getDay":
-            case "getWeekday":
-            case "getHour":
-            case "getMinute":
-            case "getSecond":
-            case "getMillisecond":
-            case "getDayOfYear":
-            case "getWeekOfYear":
-                return "Integer";
-            case "getTime":
-            case "diffYears":
-            case "diffMonths":
-            case "diffWeeks":
-            case "diffDays":
-            case "diffHours":
-            case "diffMinutes":
-            case "diffSeconds":
-            case "diffMilliseconds":
-                return "Long";
-            default:
-                return "Date";
-        }
+    @Nullable
+    public ApiMethod getGlobalFunction(@NotNull String name) {
+        return globalFunctions.get(name);
     }
     
-    /**
-     * 获取Boolean扩展方法返回类型
-     */
-    @NotNull
-    private String getBooleanExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "toString":
-            case "toYesNo":
-            case "toOnOff":
-            case "toTrueFalse":
-                return "String";
-            case "toInt":
-                return "Integer";
-            case "then":
-            case "otherwise":
-            case "ifTrue":
-            case "ifFalse":
-                return "Object";
-            case "compare":
-                return "Integer";
-            default:
-                return "Boolean";
-        }
-    }
+    // ==================== 辅助方法 ====================
     
     /**
-     * 获取Object扩展方法返回类型
+     * 解析类型别名
      */
     @NotNull
-    private String getObjectExtensionMethodReturnType(@NotNull String methodName) {
-        switch (methodName) {
-            case "asString":
-            case "toString":
-            case "getClass":
-            case "getType":
-            case "toJson":
-            case "toXml":
-            case "toYaml":
-                return "String";
-            case "asInt":
-                return "Integer";
-            case "asLong":
-                return "Long";
-            case "asDouble":
-                return "Double";
-            case "asFloat":
-                return "Float";
-            case "asBoolean":
-            case "is":
-            case "isString":
-            case "isNumber":
-            case "isInteger":
-            case "isFloat":
-            case "isBoolean":
-            case "isArray":
-            case "isList":
-            case "isMap":
-            case "isSet":
-            case "isDate":
-            case "isFunction":
-            case "isNull":
-            case "isNotNull":
-            case "isEmpty":
-            case "isNotEmpty":
-            case "isBlank":
-            case "isNotBlank":
-            case "equals":
-            case "hasProperty":
-            case "hasMethod":
-                return "Boolean";
-            case "hashCode":
-                return "Integer";
-            case "asDate":
-                return "Date";
-            case "asArray":
-                return "Array";
-            case "asMap":
-                return "Map";
-            case "clone":
-            case "deepClone":
-            case "orElse":
-            case "orElseGet":
-            case "orElseThrow":
-            case "getProperty":
-            case "setProperty":
-            case "invokeMethod":
-                return "Object";
-            default:
-                return "Object";
-        }
+    public MagicType resolveTypeAlias(@NotNull String type) {
+        return MagicType.of(type);
     }
     
-    // ==================== 辅助方法 ====================
-    
     /**
-     * 解析类型别名
+     * 检查是否为数值类型
      */
-    @NotNull
-    public String resolveTypeAlias(@NotNull String type) {
-        return typeAliases.getOrDefault(type, type);
+    public boolean isNumberType(@NotNull MagicType type) {
+        return isSubtypeOf(type, MagicType.NUMBER);
     }
     
     /**
-     * 检查是否为内置模块
+     * 检查是否为数组类型
      */
-    private boolean isBuiltinModule(@NotNull String name) {
-        return "db".equals(name) || "http".equals(name) || "request".equals(name) || 
-               "response".equals(name) || "env".equals(name) || "log".equals(name) ||
-               "magic".equals(name);
+    public boolean isArrayType(@NotNull MagicType type) {
+        return isSubtypeOf(type, MagicType.ARRAY);
     }
     
     /**
-     * 检查是否为数值类型
+     * 检查是否为集合类型
      */
-    public boolean isNumberType(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return "Number".equals(resolvedType) || "Integer".equals(resolvedType) || 
-               "Long".equals(resolvedType) || "Double".equals(resolvedType) || 
-               "Float".equals(resolvedType) || "Byte".equals(resolvedType);
+    public boolean isCollectionType(@NotNull MagicType type) {
+        return collectionTypes.contains(type.getRawType());
     }
     
     /**
-     * 检查是否为数组类型
+     * 检查是否为基础类型
      */
-    public boolean isArrayType(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return "Array".equals(resolvedType) || "List".equals(resolvedType) || 
-               "ArrayList".equals(resolvedType) || "LinkedList".equals(resolvedType);
+    public boolean isPrimitiveType(@NotNull MagicType type) {
+        return primitiveTypes.contains(type);
     }
     
     /**
-     * 检查是否为集合类型
+     * 检查类型兼容性：fromType 的值能否不经显式转换赋给 toType
      */
-    public boolean isCollectionType(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return collectionTypes.contains(resolvedType);
+    public boolean isCompatible(@NotNull MagicType fromType, @NotNull MagicType toType) {
+        return fromType == toType || conformsTo(assignableClosure, fromType, toType);
     }
     
     /**
-     * 检查是否为基础类型
+     * 检查是否为子类型
      */
-    public boolean isPrimitiveType(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return primitiveTypes.contains(resolvedType);
+    public boolean isSubtypeOf(@NotNull MagicType subType, @NotNull MagicType superType) {
+        return subType == superType || conformsTo(supertypeClosure, subType, superType);
     }
     
     /**
-     * 检查类型兼容性
+     * 原始类型查表；双方都带泛型参数时再逐个比较参数（协变），未带参数的一侧视为任意参数
      */
-    public boolean isCompatible(@NotNull String fromType, @NotNull String toType) {
-        String resolvedFromType = resolveTypeAlias(fromType);
-        String resolvedToType = resolveTypeAlias(toType);
-        
-        // 相同类型
-        if (resolvedFromType.equals(resolvedToType)) {
+    private boolean conformsTo(@NotNull Map<MagicType, Set<MagicType>> closure,
+                               @NotNull MagicType from, @NotNull MagicType to) {
+        if (to == MagicType.OBJECT) {
             return true;
         }
-        
-        // 检查隐式转换
-        Set<String> implicitTargets = implicitConversions.get(resolvedFromType);
-        if (implicitTargets != null && implicitTargets.contains(resolvedToType)) {
+        Set<MagicType> targets = closure.get(from.getRawType());
+        MagicType toRaw = to.getRawType();
+        if (targets == null ? from.getRawType() != toRaw : !targets.contains(toRaw)) {
+            return false;
+        }
+        if (!from.isParameterized() || !to.isParameterized()) {
             return true;
         }
-        
-        // 检查继承关系
-        return isSubtypeOf(resolvedFromType, resolvedToType);
-    }
-    
-    /**
-     * 检查是否为子类型
-     */
-    public boolean isSubtypeOf(@NotNull String subType, @NotNull String superType) {
-        if (subType.equals(superType)) {
+        List<MagicType> fromArguments = from.getTypeArguments();
+        List<MagicType> toArguments = to.getTypeArguments();
+        if (fromArguments.size() != toArguments.size()) {
             return true;
         }
-        
-        String currentSuperType = typeSuperTypes.get(subType);
-        while (currentSuperType != null) {
-            if (currentSuperType.equals(superType)) {
-                return true;
+        for (int i = 0; i < fromArguments.size(); i++) {
+            if (!conformsTo(closure, fromArguments.get(i), toArguments.get(i))) {
+                return false;
             }
-            currentSuperType = typeSuperTypes.get(currentSuperType);
         }
-        
-        return false;
+        return true;
     }
     
     /**
      * 获取所有类型
      */
     @NotNull
-    public Set<String> getAllTypes() {
-        Set<String> allTypes = new HashSet<>();
+    public Set<MagicType> getAllTypes() {
+        Set<MagicType> allTypes = new HashSet<>();
         allTypes.addAll(primitiveTypes);
         allTypes.addAll(objectTypes);
         allTypes.addAll(collectionTypes);
@@ -1060,27 +701,24 @@ public class TypeSystemProvider {
      * 获取类型的默认值
      */
     @Nullable
-    public Object getDefaultValue(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return defaultValues.get(resolvedType);
+    public Object getDefaultValue(@NotNull MagicType type) {
+        return defaultValues.get(type.getRawType());
     }
     
     /**
      * 获取类型的方法列表
      */
     @NotNull
-    public Set<String> getTypeMethods(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return typeMethods.getOrDefault(resolvedType, Collections.emptySet());
+    public Set<String> getTypeMethods(@NotNull MagicType type) {
+        return typeMethods.getOrDefault(type.getRawType(), Collections.emptySet());
     }
     
     /**
      * 获取类型的属性列表
      */
     @NotNull
-    public Set<String> getTypeProperties(@NotNull String type) {
-        String resolvedType = resolveTypeAlias(type);
-        return typeProperties.getOrDefault(resolvedType, Collections.emptySet());
+    public Set<String> getTypeProperties(@NotNull MagicType type) {
+        return typeProperties.getOrDefault(type.getRawType(), Collections.emptySet());
     }
     
     /**
@@ -1094,16 +732,18 @@ public class TypeSystemProvider {
         stats.put("objectTypes", objectTypes.size());
         stats.put("collectionTypes", collectionTypes.size());
         stats.put("typeHierarchy", typeHierarchy.size());
-        stats.put("typeAliases", typeAliases.size());
+        stats.put("typeAliases", MagicType.getAliases().size());
         stats.put("typePatterns", typePatterns.size());
         stats.put("implicitConversions", implicitConversions.size());
         stats.put("explicitConversions", explicitConversions.size());
         stats.put("typeMethods", typeMethods.size());
         stats.put("typeProperties", typeProperties.size());
+        stats.put("indexedTypes", declaredMembers.size());
+        stats.put("indexedGlobalFunctions", globalFunctions.size());
         
         int totalTypes = primitiveTypes.size() + objectTypes.size() + collectionTypes.size();
         stats.put("totalTypes", totalTypes);
         
         return stats;
     }
-}
\ No newline at end of file
+}
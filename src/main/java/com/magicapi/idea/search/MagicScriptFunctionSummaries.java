@@ -0,0 +1,235 @@
+package com.magicapi.idea.search;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeAnyChangeAbstractAdapter;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSImportStatement;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.navigation.ImportReference;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 跨文件函数摘要
+ *
+ * 按 import 关系从 {@link MagicScriptFunctionSummaryIndex} 中查找被调用函数的摘要，
+ * 从 {@link MagicScriptVariableTypeIndex} 中查找被引用的顶层变量的类型，
+ * 同时作为依赖这些结果的推断缓存的 {@link ModificationTracker}：
+ * 被读取过的脚本发生修改时重新读取其摘要和变量类型，只有确实变化才增加修改计数。
+ * 因此编辑公共脚本中函数的实现而不改变其参数和返回类型时，引用它的脚本的推断缓存保持有效。
+ */
+@Service(Service.Level.PROJECT)
+public final class MagicScriptFunctionSummaries implements ModificationTracker, Disposable {
+
+    private final Project project;
+
+    // 被读取过的脚本 -> 读取时的函数摘要和变量类型
+    private final Map<VirtualFile, ScriptTypes> observed = new HashMap<>();
+    // 读取过、之后又被修改的脚本
+    private final Set<VirtualFile> changed = new HashSet<>();
+    private volatile long modificationCount;
+
+    public MagicScriptFunctionSummaries(@NotNull Project project) {
+        this.project = project;
+        PsiManager.getInstance(project).addPsiTreeChangeListener(new PsiTreeAnyChangeAbstractAdapter() {
+            @Override
+            protected void onChange(@Nullable PsiFile file) {
+                fileChanged(file);
+            }
+        }, this);
+    }
+
+    @NotNull
+    public static MagicScriptFunctionSummaries getInstance(@NotNull Project project) {
+        return project.getService(MagicScriptFunctionSummaries.class);
+    }
+
+    /**
+     * 查找 context 所在脚本 import 的脚本中名为 name 的函数摘要，按 import 顺序取第一个
+     */
+    @Nullable
+    public MagicScriptFunctionSummary findImportedFunction(@NotNull PsiElement context, @NotNull String name) {
+        PsiFile file = context.getContainingFile();
+        if (!(file instanceof MSFile)) {
+            return null;
+        }
+        for (VirtualFile imported : getImportedFiles((MSFile) file.getOriginalFile())) {
+            MagicScriptFunctionSummary summary = getTypes(imported).functions.get(name);
+            if (summary != null) {
+                return summary;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 查找 context 所在脚本 import 的脚本中名为 name 的顶层变量的类型，按 import 顺序取第一个
+     */
+    @Nullable
+    public MagicType findImportedVariable(@NotNull PsiElement context, @NotNull String name) {
+        PsiFile file = context.getContainingFile();
+        if (!(file instanceof MSFile)) {
+            return null;
+        }
+        for (VirtualFile imported : getImportedFiles((MSFile) file.getOriginalFile())) {
+            MagicType type = getTypes(imported).variables.get(name);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 预先解析脚本的 import 并读取被 import 脚本的函数摘要和变量类型
+     */
+    public void warmUp(@NotNull MSFile file) {
+        for (VirtualFile imported : getImportedFiles(file)) {
+            getTypes(imported);
+        }
+    }
+
+    @Override
+    public long getModificationCount() {
+        refresh();
+        return modificationCount;
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    /**
+     * 读取脚本中的全部函数摘要和变量类型并记录下来，供之后比较
+     */
+    @NotNull
+    private ScriptTypes getTypes(@NotNull VirtualFile file) {
+        refresh();
+        synchronized (this) {
+            ScriptTypes types = observed.get(file);
+            if (types != null) {
+                return types;
+            }
+        }
+        ScriptTypes types = readTypes(file);
+        synchronized (this) {
+            observed.putIfAbsent(file, types);
+        }
+        return types;
+    }
+
+    /**
+     * 重新读取修改过的脚本，有变化时增加修改计数
+     */
+    private void refresh() {
+        List<VirtualFile> files;
+        synchronized (this) {
+            if (changed.isEmpty()) {
+                return;
+            }
+            files = new ArrayList<>(changed);
+            changed.clear();
+        }
+        // 读取索引可能触发重新索引，不在锁内进行
+        for (VirtualFile file : files) {
+            ScriptTypes types = file.isValid() ? readTypes(file) : null;
+            synchronized (this) {
+                ScriptTypes previous = types != null ? observed.put(file, types) : observed.remove(file);
+                if (!Objects.equals(previous, types)) {
+                    modificationCount++;
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private ScriptTypes readTypes(@NotNull VirtualFile file) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        return new ScriptTypes(
+            index.getFileData(MagicScriptFunctionSummaryIndex.NAME, file, project),
+            index.getFileData(MagicScriptVariableTypeIndex.NAME, file, project)
+        );
+    }
+
+    private synchronized void fileChanged(@Nullable PsiFile file) {
+        if (file == null) {
+            // 文件增删、移动等结构变化可能改变 import 的解析结果
+            observed.clear();
+            changed.clear();
+            modificationCount++;
+            return;
+        }
+        VirtualFile virtualFile = file.getViewProvider().getVirtualFile();
+        if (observed.containsKey(virtualFile)) {
+            changed.add(virtualFile);
+        }
+    }
+
+    /**
+     * 脚本 import 的文件，按 import 顺序排列
+     * 结果缓存在文件上，随文件内容和文件系统结构的变化失效
+     */
+    @NotNull
+    public static List<VirtualFile> getImportedFiles(@NotNull MSFile file) {
+        return CachedValuesManager.getCachedValue(file, () -> {
+            List<VirtualFile> files = new ArrayList<>();
+            for (MSImportStatement importStatement : PsiTreeUtil.getChildrenOfTypeAsList(file, MSImportStatement.class)) {
+                ASTNode path = importStatement.getNode().findChildByType(MSTypes.STRING_LITERAL);
+                PsiElement imported = path != null ? new ImportReference(path.getPsi()).resolve() : null;
+                if (imported instanceof MSFile && ((MSFile) imported).getVirtualFile() != null) {
+                    files.add(((MSFile) imported).getVirtualFile());
+                }
+            }
+            return CachedValueProvider.Result.create(Collections.unmodifiableList(files), file, VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS);
+        });
+    }
+
+    /**
+     * 单个脚本的函数摘要和顶层变量类型
+     */
+    private static final class ScriptTypes {
+        final Map<String, MagicScriptFunctionSummary> functions;
+        final Map<String, MagicType> variables;
+
+        ScriptTypes(@NotNull Map<String, MagicScriptFunctionSummary> functions, @NotNull Map<String, MagicType> variables) {
+            this.functions = functions;
+            this.variables = variables;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ScriptTypes)) return false;
+            ScriptTypes that = (ScriptTypes) o;
+            return functions.equals(that.functions) && variables.equals(that.variables);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(functions, variables);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.magicapi.idea.search;
+
+import com.magicapi.idea.completion.model.MagicType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单个函数的类型摘要：各参数的类型和返回类型
+ */
+public final class MagicScriptFunctionSummary {
+
+    private final List<MagicType> parameterTypes;
+    private final MagicType returnType;
+
+    public MagicScriptFunctionSummary(@NotNull List<MagicType> parameterTypes, @NotNull MagicType returnType) {
+        this.parameterTypes = parameterTypes;
+        this.returnType = returnType;
+    }
+
+    /**
+     * 参数类型，按声明顺序排列
+     */
+    @NotNull
+    public List<MagicType> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    /**
+     * 返回类型，多个 return 的类型已合并；没有 return 时为 null 类型
+     */
+    @NotNull
+    public MagicType getReturnType() {
+        return returnType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MagicScriptFunctionSummary)) return false;
+        MagicScriptFunctionSummary that = (MagicScriptFunctionSummary) o;
+        // 类型实例全局驻留，直接比较引用即可
+        return parameterTypes.equals(that.parameterTypes) && returnType == that.returnType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(parameterTypes, returnType);
+    }
+
+    @Override
+    public String toString() {
+        return parameterTypes + " -> " + returnType;
+    }
+}
@@ -0,0 +1,121 @@
+package com.magicapi.idea.search;
+
+import com.intellij.ide.plugins.IdeaPluginDescriptor;
+import com.intellij.ide.plugins.PluginManagerCore;
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.extensions.PluginId;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.magicapi.idea.completion.context.FlowTypeInference;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.MagicScriptFileType;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Magic Script 函数摘要索引
+ * 键为顶层函数名（含 export 的函数），值为该函数的参数类型和返回类型。
+ *
+ * 摘要只依据脚本自身的内容计算（调用其它脚本中的函数按 Object 处理），因此和其它基于内容的索引一样，
+ * 只在文件内容变化时重新计算，内容相同的文件共享同一份结果。跨文件的传递在查询时由
+ * {@link MagicScriptFunctionSummaries} 完成。
+ */
+public class MagicScriptFunctionSummaryIndex extends FileBasedIndexExtension<String, MagicScriptFunctionSummary> {
+
+    public static final ID<String, MagicScriptFunctionSummary> NAME = ID.create("magicscript.function.summary");
+
+    private static final String PLUGIN_ID = "com.magicapi.idea.plugin";
+
+    @NotNull
+    @Override
+    public ID<String, MagicScriptFunctionSummary> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, MagicScriptFunctionSummary, FileContent> getIndexer() {
+        return inputData -> {
+            Map<String, MagicScriptFunctionSummary> summaries = new HashMap<>();
+            for (ASTNode statement = inputData.getPsiFile().getNode().getFirstChildNode();
+                 statement != null; statement = statement.getTreeNext()) {
+                ASTNode function = statement.getElementType() == MSTypes.EXPORT_STATEMENT
+                    ? statement.findChildByType(MSTypes.FUNCTION_DECLARATION)
+                    : statement.getElementType() == MSTypes.FUNCTION_DECLARATION ? statement : null;
+                ASTNode name = function != null ? function.findChildByType(MSTypes.NAMES) : null;
+                if (name != null) {
+                    // 同名函数以第一个为准，与引用解析一致
+                    summaries.putIfAbsent(name.getText(), FlowTypeInference.computeIndependentSummary(function));
+                }
+            }
+            return summaries;
+        };
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<MagicScriptFunctionSummary> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, MagicScriptFunctionSummary value) throws IOException {
+                DataInputOutputUtil.writeSeq(out, value.getParameterTypes(),
+                    type -> IOUtil.writeUTF(out, type.getPresentableText()));
+                IOUtil.writeUTF(out, value.getReturnType().getPresentableText());
+            }
+
+            @Override
+            public MagicScriptFunctionSummary read(@NotNull DataInput in) throws IOException {
+                List<MagicType> parameterTypes = DataInputOutputUtil.readSeq(in, () -> MagicType.of(IOUtil.readUTF(in)));
+                return new MagicScriptFunctionSummary(parameterTypes, MagicType.of(IOUtil.readUTF(in)));
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return withPluginVersion(2);
+    }
+
+    /**
+     * 索引版本：格式版本加上插件版本
+     * 推断出的类型依赖插件内置的模块元数据，插件升级后按新的元数据重新计算
+     */
+    static int withPluginVersion(int formatVersion) {
+        IdeaPluginDescriptor plugin = PluginManagerCore.getPlugin(PluginId.getId(PLUGIN_ID));
+        String pluginVersion = plugin != null ? plugin.getVersion() : null;
+        return formatVersion * 1000 + (pluginVersion != null ? Math.floorMod(pluginVersion.hashCode(), 1000) : 0);
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(MagicScriptFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
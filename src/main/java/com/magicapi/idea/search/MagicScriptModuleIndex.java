@@ -0,0 +1,217 @@
+package com.magicapi.idea.search;
+
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.impl.source.tree.LightTreeUtil;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.tree.TokenSet;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.PsiDependentFileContent;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.magicapi.idea.lang.MagicScriptFileType;
+import com.magicapi.idea.lang.lexer.MagicScriptLexerAdapter;
+import com.magicapi.idea.lang.parser.MagicScriptParserDefinition;
+import com.magicapi.idea.lang.psi.MSTypes;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Magic Script 模块索引
+ * 键为脚本的模块名（不含扩展名的文件名），值为该脚本导出的名称和 import 的路径。
+ * 索引基于词法/语法分析产生的 LighterAST 计算，不构建 PSI。
+ */
+public class MagicScriptModuleIndex extends FileBasedIndexExtension<String, MagicScriptModuleInfo> {
+    
+    public static final ID<String, MagicScriptModuleInfo> NAME = ID.create("magicscript.module");
+    
+    private static final TokenSet DECLARATIONS = TokenSet.create(MSTypes.VAR_DECLARATION, MSTypes.FUNCTION_DECLARATION);
+    private static final TokenSet PROPERTY_KEYS = TokenSet.orSet(MSTypes.NAMES, TokenSet.create(MSTypes.STRING_LITERAL));
+    private static final TokenSet OPENING = TokenSet.create(MSTypes.LBRACE, MSTypes.LBRACKET, MSTypes.LPAREN);
+    private static final TokenSet CLOSING = TokenSet.create(MSTypes.RBRACE, MSTypes.RBRACKET, MSTypes.RPAREN);
+    
+    @NotNull
+    @Override
+    public ID<String, MagicScriptModuleInfo> getName() {
+        return NAME;
+    }
+    
+    @NotNull
+    @Override
+    public DataIndexer<String, MagicScriptModuleInfo, FileContent> getIndexer() {
+        return inputData -> {
+            LighterAST tree = ((PsiDependentFileContent) inputData).getLighterAST();
+            return Map.of(inputData.getFile().getNameWithoutExtension(), computeModuleInfo(tree));
+        };
+    }
+    
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+    
+    @NotNull
+    @Override
+    public DataExternalizer<MagicScriptModuleInfo> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, MagicScriptModuleInfo value) throws IOException {
+                DataInputOutputUtil.writeSeq(out, value.getExportedNames(), name -> IOUtil.writeUTF(out, name));
+                DataInputOutputUtil.writeSeq(out, value.getImportPaths(), path -> IOUtil.writeUTF(out, path));
+            }
+            
+            @Override
+            public MagicScriptModuleInfo read(@NotNull DataInput in) throws IOException {
+                List<String> exportedNames = DataInputOutputUtil.readSeq(in, () -> IOUtil.readUTF(in));
+                List<String> importPaths = DataInputOutputUtil.readSeq(in, () -> IOUtil.readUTF(in));
+                return new MagicScriptModuleInfo(exportedNames, importPaths);
+            }
+        };
+    }
+    
+    @Override
+    public int getVersion() {
+        return 1;
+    }
+    
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(MagicScriptFileType.INSTANCE);
+    }
+    
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+    
+    /**
+     * 按模块名查找脚本
+     */
+    @NotNull
+    public static Collection<VirtualFile> findScripts(@NotNull String moduleName, @NotNull GlobalSearchScope scope) {
+        return FileBasedIndex.getInstance().getContainingFiles(NAME, moduleName, scope);
+    }
+    
+    /**
+     * 遍历作用域内的全部脚本及其模块信息
+     */
+    public static void processScripts(@NotNull Project project,
+                                      @NotNull GlobalSearchScope scope,
+                                      @NotNull BiConsumer<VirtualFile, MagicScriptModuleInfo> consumer) {
+        FileBasedIndex index = FileBasedIndex.getInstance();
+        for (String moduleName : index.getAllKeys(NAME, project)) {
+            index.processValues(NAME, moduleName, null, (file, info) -> {
+                consumer.accept(file, info);
+                return true;
+            }, scope);
+        }
+    }
+    
+    /**
+     * 从 LighterAST 中收集顶层 export 和 import 语句
+     */
+    @NotNull
+    static MagicScriptModuleInfo computeModuleInfo(@NotNull LighterAST tree) {
+        List<String> exportedNames = new ArrayList<>();
+        List<String> importPaths = new ArrayList<>();
+        
+        for (LighterASTNode statement : tree.getChildren(tree.getRoot())) {
+            IElementType type = statement.getTokenType();
+            if (type == MSTypes.IMPORT_STATEMENT) {
+                LighterASTNode path = LightTreeUtil.firstChildOfType(tree, statement, MSTypes.STRING_LITERAL);
+                if (path != null) {
+                    importPaths.add(StringUtil.unquoteString(LightTreeUtil.toFilteredString(tree, path, null)));
+                }
+            } else if (type == MSTypes.EXPORT_STATEMENT) {
+                collectExportedNames(tree, statement, exportedNames);
+            }
+        }
+        return new MagicScriptModuleInfo(exportedNames, importPaths);
+    }
+    
+    private static void collectExportedNames(@NotNull LighterAST tree,
+                                             @NotNull LighterASTNode export,
+                                             @NotNull List<String> names) {
+        // export var/function
+        LighterASTNode declaration = LightTreeUtil.firstChildOfType(tree, export, DECLARATIONS);
+        if (declaration != null) {
+            LighterASTNode name = LightTreeUtil.firstChildOfType(tree, declaration, MSTypes.NAMES);
+            if (name != null) {
+                names.add(LightTreeUtil.toFilteredString(tree, name, null));
+            }
+            return;
+        }
+        
+        LighterASTNode expression = LightTreeUtil.firstChildOfType(tree, export, MSTypes.PRIMARY_EXPRESSION);
+        if (expression == null) {
+            return;
+        }
+        
+        // export name
+        List<LighterASTNode> children = tree.getChildren(expression);
+        if (children.size() == 1 && MSTypes.NAMES.contains(children.get(0).getTokenType())) {
+            names.add(LightTreeUtil.toFilteredString(tree, children.get(0), null));
+            return;
+        }
+        
+        // export { key: value, ... }：对象字面量是懒解析节点，直接对其文本做词法分析取出第一层属性名
+        LighterASTNode literal = LightTreeUtil.firstChildOfType(tree, expression, MSTypes.OBJECT_LITERAL);
+        if (literal != null) {
+            collectPropertyKeys(LightTreeUtil.toFilteredString(tree, literal, null), names);
+        }
+    }
+    
+    private static void collectPropertyKeys(@NotNull CharSequence objectLiteral, @NotNull List<String> names) {
+        Lexer lexer = new MagicScriptLexerAdapter();
+        lexer.start(objectLiteral);
+        
+        int depth = 0;
+        IElementType previous = null;
+        String pendingKey = null;
+        IElementType type;
+        while ((type = lexer.getTokenType()) != null) {
+            if (MagicScriptParserDefinition.WHITE_SPACES.contains(type)
+                || MagicScriptParserDefinition.COMMENTS.contains(type)) {
+                lexer.advance();
+                continue;
+            }
+            
+            if (pendingKey != null && type == MSTypes.COLON) {
+                names.add(pendingKey);
+            }
+            pendingKey = depth == 1 && (previous == MSTypes.LBRACE || previous == MSTypes.COMMA)
+                && PROPERTY_KEYS.contains(type) ? StringUtil.unquoteString(lexer.getTokenText()) : null;
+            
+            if (OPENING.contains(type)) {
+                depth++;
+            } else if (CLOSING.contains(type)) {
+                depth--;
+            }
+            previous = type;
+            lexer.advance();
+        }
+    }
+}
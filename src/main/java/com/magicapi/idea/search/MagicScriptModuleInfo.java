@@ -0,0 +1,49 @@
+package com.magicapi.idea.search;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 单个脚本的模块信息：导出的名称和 import 的路径
+ */
+public final class MagicScriptModuleInfo {
+    
+    private final List<String> exportedNames;
+    private final List<String> importPaths;
+    
+    public MagicScriptModuleInfo(@NotNull List<String> exportedNames, @NotNull List<String> importPaths) {
+        this.exportedNames = exportedNames;
+        this.importPaths = importPaths;
+    }
+    
+    /**
+     * 导出的名称
+     */
+    @NotNull
+    public List<String> getExportedNames() {
+        return exportedNames;
+    }
+    
+    /**
+     * import 语句中的路径（不含引号）
+     */
+    @NotNull
+    public List<String> getImportPaths() {
+        return importPaths;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MagicScriptModuleInfo)) return false;
+        MagicScriptModuleInfo that = (MagicScriptModuleInfo) o;
+        return exportedNames.equals(that.exportedNames) && importPaths.equals(that.importPaths);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(exportedNames, importPaths);
+    }
+}
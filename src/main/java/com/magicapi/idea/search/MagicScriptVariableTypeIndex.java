@@ -0,0 +1,82 @@
+package com.magicapi.idea.search;
+
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import com.magicapi.idea.completion.context.FlowTypeInference;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.MagicScriptFileType;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Magic Script 顶层变量类型索引
+ * 键为顶层变量名（含 export 的变量），值为该变量在脚本结束处推断出的类型。
+ *
+ * 与 {@link MagicScriptFunctionSummaryIndex} 一样只依据脚本自身的内容计算，按内容持久化，
+ * 重启 IDE 后 import 了这些脚本的文件可以直接得到其中变量的类型，不必重新分析被 import 的脚本。
+ */
+public class MagicScriptVariableTypeIndex extends FileBasedIndexExtension<String, MagicType> {
+
+    public static final ID<String, MagicType> NAME = ID.create("magicscript.variable.type");
+
+    @NotNull
+    @Override
+    public ID<String, MagicType> getName() {
+        return NAME;
+    }
+
+    @NotNull
+    @Override
+    public DataIndexer<String, MagicType, FileContent> getIndexer() {
+        return inputData -> FlowTypeInference.computeIndependentTopLevelTypes(inputData.getPsiFile().getNode());
+    }
+
+    @NotNull
+    @Override
+    public KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @NotNull
+    @Override
+    public DataExternalizer<MagicType> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, MagicType value) throws IOException {
+                IOUtil.writeUTF(out, value.getPresentableText());
+            }
+
+            @Override
+            public MagicType read(@NotNull DataInput in) throws IOException {
+                return MagicType.of(IOUtil.readUTF(in));
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return MagicScriptFunctionSummaryIndex.withPluginVersion(2);
+    }
+
+    @NotNull
+    @Override
+    public FileBasedIndex.InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(MagicScriptFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+}
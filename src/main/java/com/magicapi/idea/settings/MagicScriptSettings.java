@@ -17,10 +17,22 @@ import org.jetbrains.annotations.Nullable;
 )
 public class MagicScriptSettings implements PersistentStateComponent<MagicScriptSettings> {
     
+    /**
+     * 单次类型推断请求的默认时间预算（毫秒）
+     */
+    public static final long DEFAULT_INFERENCE_BUDGET_MILLIS = 200;
+    
+    /**
+     * 补全时读取其它脚本中候选项的默认时间预算（毫秒）
+     */
+    public static final long DEFAULT_CROSS_FILE_COMPLETION_BUDGET_MILLIS = 100;
+    
     private boolean codeCompletionEnabled = true;
     private boolean syntaxHighlightingEnabled = true;
     private boolean errorCheckingEnabled = true;
     private String apiBaseUrl = "http://localhost:9999";
+    private long inferenceBudgetMillis = DEFAULT_INFERENCE_BUDGET_MILLIS;
+    private long crossFileCompletionBudgetMillis = DEFAULT_CROSS_FILE_COMPLETION_BUDGET_MILLIS;
     
     public static MagicScriptSettings getInstance() {
         return ApplicationManager.getApplication().getService(MagicScriptSettings.class);
@@ -68,4 +80,20 @@ public class MagicScriptSettings implements PersistentStateComponent<MagicScript
     public void setApiBaseUrl(String apiBaseUrl) {
         this.apiBaseUrl = apiBaseUrl;
     }
+    
+    public long getInferenceBudgetMillis() {
+        return inferenceBudgetMillis;
+    }
+    
+    public void setInferenceBudgetMillis(long inferenceBudgetMillis) {
+        this.inferenceBudgetMillis = inferenceBudgetMillis;
+    }
+    
+    public long getCrossFileCompletionBudgetMillis() {
+        return crossFileCompletionBudgetMillis;
+    }
+    
+    public void setCrossFileCompletionBudgetMillis(long crossFileCompletionBudgetMillis) {
+        this.crossFileCompletionBudgetMillis = crossFileCompletionBudgetMillis;
+    }
 }
\ No newline at end of file
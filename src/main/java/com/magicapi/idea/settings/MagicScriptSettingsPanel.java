@@ -1,5 +1,8 @@
 package com.magicapi.idea.settings;
 
+import com.magicapi.idea.completion.CompletionTelemetry;
+import com.magicapi.idea.completion.context.InferenceBudget;
+
 import javax.swing.*;
 import java.awt.*;
 
@@ -13,6 +16,10 @@ public class MagicScriptSettingsPanel {
     private JCheckBox enableSyntaxHighlightingCheckBox;
     private JCheckBox enableErrorCheckingCheckBox;
     private JTextField apiBaseUrlField;
+    private JSpinner inferenceBudgetSpinner;
+    private JLabel inferenceBudgetExceededLabel;
+    private JSpinner crossFileCompletionBudgetSpinner;
+    private JLabel completionTelemetryLabel;
     
     public MagicScriptSettingsPanel() {
         createUIComponents();
@@ -63,6 +70,42 @@ public class MagicScriptSettingsPanel {
         gbc.gridx = 0; gbc.gridy = 5; gbc.gridwidth = 2; gbc.anchor = GridBagConstraints.WEST;
         gbc.insets = new Insets(5, 0, 0, 0);
         mainPanel.add(helpLabel, gbc);
+        
+        // 类型推断时间预算
+        JLabel inferenceBudgetLabel = new JLabel("类型推断时间预算(毫秒):");
+        gbc.gridx = 0; gbc.gridy = 6; gbc.gridwidth = 1; gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(20, 0, 5, 10);
+        mainPanel.add(inferenceBudgetLabel, gbc);
+        
+        inferenceBudgetSpinner = new JSpinner(new SpinnerNumberModel(200L, 10L, 10000L, 10L));
+        gbc.gridx = 1; gbc.gridy = 6; gbc.gridwidth = 1; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(20, 0, 5, 0);
+        mainPanel.add(inferenceBudgetSpinner, gbc);
+        
+        // 超出预算的次数
+        inferenceBudgetExceededLabel = new JLabel();
+        inferenceBudgetExceededLabel.setFont(inferenceBudgetExceededLabel.getFont().deriveFont(12f));
+        gbc.gridx = 0; gbc.gridy = 7; gbc.gridwidth = 2; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(5, 0, 0, 0);
+        mainPanel.add(inferenceBudgetExceededLabel, gbc);
+        
+        // 跨文件补全时间预算
+        JLabel crossFileCompletionBudgetLabel = new JLabel("跨文件补全时间预算(毫秒):");
+        gbc.gridx = 0; gbc.gridy = 8; gbc.gridwidth = 1; gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(20, 0, 5, 10);
+        mainPanel.add(crossFileCompletionBudgetLabel, gbc);
+        
+        crossFileCompletionBudgetSpinner = new JSpinner(new SpinnerNumberModel(100L, 10L, 10000L, 10L));
+        gbc.gridx = 1; gbc.gridy = 8; gbc.gridwidth = 1; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(20, 0, 5, 0);
+        mainPanel.add(crossFileCompletionBudgetSpinner, gbc);
+        
+        // 补全各阶段的耗时
+        completionTelemetryLabel = new JLabel();
+        completionTelemetryLabel.setFont(completionTelemetryLabel.getFont().deriveFont(12f));
+        gbc.gridx = 0; gbc.gridy = 9; gbc.gridwidth = 2; gbc.anchor = GridBagConstraints.WEST;
+        gbc.insets = new Insets(5, 0, 0, 0);
+        mainPanel.add(completionTelemetryLabel, gbc);
     }
     
     private void initializeSettings() {
@@ -71,6 +114,19 @@ public class MagicScriptSettingsPanel {
         enableSyntaxHighlightingCheckBox.setSelected(settings.isSyntaxHighlightingEnabled());
         enableErrorCheckingCheckBox.setSelected(settings.isErrorCheckingEnabled());
         apiBaseUrlField.setText(settings.getApiBaseUrl());
+        inferenceBudgetSpinner.setValue(settings.getInferenceBudgetMillis());
+        inferenceBudgetExceededLabel.setText("<html><i>本次启动以来超出预算的推断请求: "
+            + InferenceBudget.getExceededCount() + "</i></html>");
+        crossFileCompletionBudgetSpinner.setValue(settings.getCrossFileCompletionBudgetMillis());
+        completionTelemetryLabel.setText(String.format(
+            "<html><i>本次启动以来补全耗时: 本地 %d 次, 平均 %.1fms, 最长 %.1fms; 跨文件 %d 次, 平均 %.1fms, 最长 %.1fms, 超出预算 %d 次</i></html>",
+            CompletionTelemetry.getCount(CompletionTelemetry.Phase.LOCAL),
+            CompletionTelemetry.getAverageMillis(CompletionTelemetry.Phase.LOCAL),
+            CompletionTelemetry.getMaxMillis(CompletionTelemetry.Phase.LOCAL),
+            CompletionTelemetry.getCount(CompletionTelemetry.Phase.CROSS_FILE),
+            CompletionTelemetry.getAverageMillis(CompletionTelemetry.Phase.CROSS_FILE),
+            CompletionTelemetry.getMaxMillis(CompletionTelemetry.Phase.CROSS_FILE),
+            CompletionTelemetry.getCrossFileTruncatedCount()));
     }
     
     public JPanel getPanel() {
@@ -82,7 +138,9 @@ public class MagicScriptSettingsPanel {
         return enableCodeCompletionCheckBox.isSelected() != settings.isCodeCompletionEnabled() ||
                enableSyntaxHighlightingCheckBox.isSelected() != settings.isSyntaxHighlightingEnabled() ||
                enableErrorCheckingCheckBox.isSelected() != settings.isErrorCheckingEnabled() ||
-               !apiBaseUrlField.getText().equals(settings.getApiBaseUrl());
+               !apiBaseUrlField.getText().equals(settings.getApiBaseUrl()) ||
+               ((Number) inferenceBudgetSpinner.getValue()).longValue() != settings.getInferenceBudgetMillis() ||
+               ((Number) crossFileCompletionBudgetSpinner.getValue()).longValue() != settings.getCrossFileCompletionBudgetMillis();
     }
     
     public void apply() {
@@ -91,6 +149,8 @@ public class MagicScriptSettingsPanel {
         settings.setSyntaxHighlightingEnabled(enableSyntaxHighlightingCheckBox.isSelected());
         settings.setErrorCheckingEnabled(enableErrorCheckingCheckBox.isSelected());
         settings.setApiBaseUrl(apiBaseUrlField.getText().trim());
+        settings.setInferenceBudgetMillis(((Number) inferenceBudgetSpinner.getValue()).longValue());
+        settings.setCrossFileCompletionBudgetMillis(((Number) crossFileCompletionBudgetSpinner.getValue()).longValue());
     }
     
     public void reset() {
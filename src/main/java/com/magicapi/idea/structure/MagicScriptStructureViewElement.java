@@ -6,9 +6,9 @@ import com.intellij.ide.util.treeView.smartTree.TreeElement;
 import com.intellij.navigation.ItemPresentation;
 import com.intellij.psi.NavigatablePsiElement;
 import com.intellij.psi.PsiElement;
-import com.intellij.psi.util.PsiTreeUtil;
 import com.magicapi.idea.icons.MagicScriptIcons;
 import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.MSPsiUtil;
 import com.magicapi.idea.lang.psi.MSVarDeclaration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -80,7 +80,7 @@ public class MagicScriptStructureViewElement implements StructureViewTreeElement
         
         if (element instanceof PsiElement) {
             Collection<MSFunctionDeclaration> functions = 
-                PsiTreeUtil.findChildrenOfType(element, MSFunctionDeclaration.class);
+                MSPsiUtil.findDeclarations(element, MSFunctionDeclaration.class);
             for (MSFunctionDeclaration function : functions) {
                 if (function instanceof NavigatablePsiElement) {
                     children.add(new MagicScriptStructureViewElement((NavigatablePsiElement) function));
@@ -88,7 +88,7 @@ public class MagicScriptStructureViewElement implements StructureViewTreeElement
             }
             
             Collection<MSVarDeclaration> variables = 
-                PsiTreeUtil.findChildrenOfType(element, MSVarDeclaration.class);
+                MSPsiUtil.findDeclarations(element, MSVarDeclaration.class);
             for (MSVarDeclaration variable : variables) {
                 if (variable instanceof NavigatablePsiElement) {
                     children.add(new MagicScriptStructureViewElement((NavigatablePsiElement) variable));
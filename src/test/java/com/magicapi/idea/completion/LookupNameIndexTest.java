@@ -0,0 +1,87 @@
+package com.magicapi.idea.completion;
+
+import com.intellij.codeInsight.lookup.LookupElement;
+import com.intellij.codeInsight.lookup.LookupElementBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupNameIndexTest {
+
+    private static final List<String> NAMES = Arrays.asList(
+        "group_concat", "selectOne", "select", "selectInt", "getHTTPUrl", "getHeader", "count", "sum");
+
+    private final LookupNameIndex index = new LookupNameIndex(elements(NAMES));
+
+    @Test
+    public void testUnderscoreSegments() {
+        // 下划线分段：gc 匹配 group_ 和 concat 的首字母
+        assertTrue(names("gc").contains("group_concat"));
+        assertTrue(names("group_c").contains("group_concat"));
+        assertFalse(names("gc").contains("getHeader"));
+    }
+
+    @Test
+    public void testCamelCaseSegments() {
+        // 驼峰分段：so 匹配 select 和 One 的首字母，sel、selecto 按前缀匹配
+        assertTrue(names("so").contains("selectOne"));
+        assertTrue(names("selecto").contains("selectOne"));
+        assertEquals(Arrays.asList("select", "selectInt", "selectOne"), sorted(names("sel")));
+        assertFalse(names("sx").contains("selectOne"));
+    }
+
+    @Test
+    public void testAcronymSegments() {
+        // getHTTPUrl 切分为 get、http、url
+        assertTrue(names("ghu").contains("getHTTPUrl"));
+        assertTrue(names("gethttpu").contains("getHTTPUrl"));
+        assertTrue(names("getHttpUrl").contains("getHTTPUrl"));
+        // 不能跳过中间的段
+        assertFalse(names("getu").contains("getHTTPUrl"));
+        assertEquals(Arrays.asList("getHTTPUrl", "getHeader"), sorted(names("geth")));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        assertTrue(names("SO").contains("selectOne"));
+        assertTrue(names("GC").contains("group_concat"));
+        assertTrue(names("GHU").contains("getHTTPUrl"));
+        assertEquals(names("selecto"), names("SelectO"));
+    }
+
+    @Test
+    public void testEmptyPrefixReturnsAll() {
+        assertEquals(sorted(NAMES), sorted(names("")));
+    }
+
+    @Test
+    public void testNoMatch() {
+        assertTrue(names("xyz").isEmpty());
+    }
+
+    private List<String> names(String prefix) {
+        List<String> names = new ArrayList<>();
+        for (LookupElement element : index.find(prefix)) {
+            names.add(element.getLookupString());
+        }
+        return names;
+    }
+
+    private static List<String> sorted(List<String> names) {
+        List<String> result = new ArrayList<>(names);
+        result.sort(null);
+        return result;
+    }
+
+    private static List<LookupElement> elements(List<String> names) {
+        List<LookupElement> elements = new ArrayList<>();
+        for (String name : names) {
+            elements.add(LookupElementBuilder.create(name));
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,59 @@
+package com.magicapi.idea.completion;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.settings.MagicScriptSettings;
+
+import java.util.List;
+
+/**
+ * 跨文件补全阶段测试
+ * import 的脚本中的名称在时间预算内加入，超出预算时停止读取，本地阶段的候选项照常返回
+ */
+public class MagicScriptCrossFileCompletionTest extends BasePlatformTestCase {
+
+    private long savedBudget;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        savedBudget = MagicScriptSettings.getInstance().getCrossFileCompletionBudgetMillis();
+        myFixture.addFileToProject("common.ms", "export function readConfig(key) { return key; }\n");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            MagicScriptSettings.getInstance().setCrossFileCompletionBudgetMillis(savedBudget);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testImportedNamesWithinBudget() {
+        MagicScriptSettings.getInstance().setCrossFileCompletionBudgetMillis(60_000);
+        List<String> lookup = completeInImporter();
+
+        assertContainsElements(lookup, "return", "readConfig");
+    }
+
+    public void testDeadlineKeepsLocalResults() {
+        MagicScriptSettings.getInstance().setCrossFileCompletionBudgetMillis(0);
+        long truncated = CompletionTelemetry.getCrossFileTruncatedCount();
+        List<String> lookup = completeInImporter();
+
+        // 预算为 0 时第一个 import 的脚本也不读取，关键字等本地候选项仍然返回
+        assertContainsElements(lookup, "return", "var");
+        assertDoesntContain(lookup, "readConfig");
+        assertEquals(truncated + 1, CompletionTelemetry.getCrossFileTruncatedCount());
+    }
+
+    private List<String> completeInImporter() {
+        myFixture.configureByText("main.ms",
+            "import \"common\";\n" +
+            "<caret>\n");
+        myFixture.completeBasic();
+        List<String> lookup = myFixture.getLookupElementStrings();
+        assertNotNull(lookup);
+        return lookup;
+    }
+}
@@ -0,0 +1,58 @@
+package com.magicapi.idea.completion;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.completion.context.CompletionContext;
+import com.magicapi.idea.completion.context.CompletionContextAnalyzer;
+
+import java.util.List;
+
+/**
+ * 参数位置补全测试
+ * 补全位置在调用的参数列表中时，按被调用的方法（带接收者类型）和参数位置给出候选项
+ */
+public class MagicScriptParameterCompletionTest extends BasePlatformTestCase {
+
+    public void testCompletionInsideDbSelect() {
+        myFixture.configureByText("param.ms", "var users = db.select(<caret>);\n");
+        myFixture.completeBasic();
+        List<String> lookup = myFixture.getLookupElementStrings();
+        assertNotNull(lookup);
+        assertContainsElements(lookup, "\"SELECT * FROM table\"", "null", "true", "false");
+    }
+
+    public void testSecondArgumentOfDbSelect() {
+        myFixture.configureByText("param.ms", "var users = db.select(\"select 1\", <caret>);\n");
+        myFixture.completeBasic();
+        List<String> lookup = myFixture.getLookupElementStrings();
+        assertNotNull(lookup);
+        assertContainsElements(lookup, "null");
+        assertDoesntContain(lookup, "\"SELECT * FROM table\"");
+    }
+
+    public void testParameterContextOfMethodCall() {
+        CompletionContext context = contextAtCaret("var users = db.select(sql, ids<caret>);\n");
+        assertEquals(CompletionContext.Type.FUNCTION_PARAMETER, context.getType());
+        assertEquals("db.select", context.getFunctionName());
+        assertEquals(1, context.getParameterIndex());
+    }
+
+    public void testParameterContextOfGlobalFunction() {
+        CompletionContext context = contextAtCaret("var id = uuid(a<caret>);\n");
+        assertEquals(CompletionContext.Type.FUNCTION_PARAMETER, context.getType());
+        assertEquals("uuid", context.getFunctionName());
+        assertEquals(0, context.getParameterIndex());
+    }
+
+    public void testLambdaArgumentIsNotParameterPosition() {
+        CompletionContext context = contextAtCaret("list.map(item => item<caret>);\n");
+        assertFalse(context.isParameterPosition());
+    }
+
+    private CompletionContext contextAtCaret(String text) {
+        myFixture.configureByText("param.ms", text);
+        PsiElement position = myFixture.getFile().findElementAt(myFixture.getCaretOffset() - 1);
+        assertNotNull(position);
+        return CompletionContextAnalyzer.analyzeContext(position);
+    }
+}
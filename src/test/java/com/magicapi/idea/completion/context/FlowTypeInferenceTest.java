@@ -0,0 +1,170 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiElement;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.MSFile;
+
+import java.util.List;
+
+/**
+ * 流敏感类型推断测试
+ * 变量的类型由到达引用处的赋值决定，分支汇合处取公共父类型，循环迭代到不动点
+ */
+public class FlowTypeInferenceTest extends BasePlatformTestCase {
+
+    public void testPageResultFromDbPage() {
+        MagicType type = typeAtCaret(
+            "var p = db.page(\"select * from users\");\n" +
+            "p<caret>;\n");
+        assertSame(MagicType.PAGE_RESULT, type);
+    }
+
+    public void testReassignmentInsideBranch() {
+        MagicType type = typeAtCaret(
+            "var x = 1;\n" +
+            "if (flag) {\n" +
+            "    x = \"text\";\n" +
+            "    x<caret>;\n" +
+            "}\n");
+        assertSame(MagicType.STRING, type);
+    }
+
+    public void testReassignmentOnOneBranchJoinsToCommonType() {
+        MagicType type = typeAtCaret(
+            "var x = 1;\n" +
+            "if (flag) {\n" +
+            "    x = \"text\";\n" +
+            "}\n" +
+            "x<caret>;\n");
+        assertSame(MagicType.OBJECT, type);
+    }
+
+    public void testNullOnOtherBranchKeepsAssignedType() {
+        MagicType type = typeAtCaret(
+            "var p = null;\n" +
+            "if (flag) {\n" +
+            "    p = db.page(\"select * from users\");\n" +
+            "} else {\n" +
+            "    p = null;\n" +
+            "}\n" +
+            "p<caret>;\n");
+        assertSame(MagicType.PAGE_RESULT, type);
+    }
+
+    public void testLoopReachesFixpoint() {
+        // 第一次进入循环时 n 为 Integer，回边带回 Number，合并后循环内外都是 Number
+        String text =
+            "var n = 1;\n" +
+            "while (n < 10) {\n" +
+            "    n = n + 0.5;\n" +
+            "}\n" +
+            "n<caret>;\n";
+        assertSame(MagicType.NUMBER, typeAtCaret(text));
+
+        MagicType insideLoop = typeAtCaret(
+            "var n = 1;\n" +
+            "while (n < 10) {\n" +
+            "    n<caret>;\n" +
+            "    n = n + 0.5;\n" +
+            "}\n");
+        assertSame(MagicType.NUMBER, insideLoop);
+    }
+
+    public void testLambdaSeesEditedOuterVariable() {
+        MagicType before = typeAtCaret(
+            "var outer = 1;\n" +
+            "var f = () => outer<caret>;\n");
+        assertSame(MagicType.INTEGER, before);
+
+        // 只编辑外层的初始化，lambda 本身没有变化，其分析结果仍要随外层失效
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf('1');
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(offset, offset + 1, "\"text\""));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        assertSame(MagicType.STRING, typeAtCaret());
+    }
+
+    public void testLambdaIgnoresUnreadOuterVariable() {
+        MagicType before = typeAtCaret(
+            "var outer = 1;\n" +
+            "var other = 2;\n" +
+            "var f = () => outer<caret>;\n");
+        assertSame(MagicType.INTEGER, before);
+        long analyses = FlowTypeInference.getFunctionAnalysisCount();
+
+        // 只改动 lambda 没有读取的外层变量，lambda 的分析结果保持有效
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf('2');
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(offset, offset + 1, "\"text\""));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        assertSame(MagicType.INTEGER, typeAtCaret());
+        assertEquals("lambda was analyzed again", analyses, FlowTypeInference.getFunctionAnalysisCount());
+    }
+
+    public void testChainFollowsEditedQualifier() {
+        myFixture.configureByText("chain.ms", "var y = x::Integer++<caret>;\n");
+        assertSame(MagicType.INTEGER, chainTypeAtCaret());
+        // 再次查询直接取末尾环节上的缓存
+        assertSame(MagicType.INTEGER, chainTypeAtCaret());
+
+        // 只编辑中间的类型转换，末尾的 ++ 本身没有变化，其缓存要随前一环节失效
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf("Integer");
+        WriteCommandAction.runWriteCommandAction(getProject(),
+            () -> document.replaceString(offset, offset + "Integer".length(), "String"));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        assertSame(MagicType.NUMBER, chainTypeAtCaret());
+    }
+
+    public void testCompletionReusesWarmedUpFunctions() {
+        myFixture.configureByText("warm.ms",
+            "function load(id) {\n" +
+            "    var page = db.page(\"select * from users\");\n" +
+            "    return page;\n" +
+            "}\n" +
+            "function count(limit) {\n" +
+            "    var total = 0;\n" +
+            "    while (total < limit) {\n" +
+            "        total = total + 1;\n" +
+            "    }\n" +
+            "    return total;\n" +
+            "}\n" +
+            "var size = count(10);\n" +
+            "var result = load(size);\n" +
+            "result.<caret>\n");
+        FlowTypeInference.warmUp((MSFile) myFixture.getFile());
+        long analyses = FlowTypeInference.getFunctionAnalysisCount();
+
+        // 补全在副本上进行，副本中的 load、count 映射回原文件，使用预热得到的摘要
+        myFixture.completeBasic();
+        List<String> lookup = myFixture.getLookupElementStrings();
+        assertNotNull(lookup);
+        assertContainsElements(lookup, "getRecords", "getTotal");
+        assertEquals("functions were analyzed again on the completion copy",
+            analyses, FlowTypeInference.getFunctionAnalysisCount());
+    }
+
+    private MagicType typeAtCaret(String text) {
+        myFixture.configureByText("flow.ms", text);
+        return typeAtCaret();
+    }
+
+    private MagicType chainTypeAtCaret() {
+        PsiElement last = myFixture.getFile().findElementAt(myFixture.getCaretOffset() - 1);
+        assertNotNull(last);
+        return FlowTypeInference.getExpressionType(last.getParent());
+    }
+
+    private MagicType typeAtCaret() {
+        PsiElement reference = myFixture.getFile().findElementAt(myFixture.getCaretOffset() - 1);
+        assertNotNull(reference);
+        return FlowTypeInference.getVariableType(reference);
+    }
+}
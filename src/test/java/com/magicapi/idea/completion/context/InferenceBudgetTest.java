@@ -0,0 +1,86 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.settings.MagicScriptSettings;
+
+/**
+ * 推断时间预算测试
+ * 超出预算的请求返回未知类型并计数，预算内的请求不受影响
+ */
+public class InferenceBudgetTest extends BasePlatformTestCase {
+
+    private long savedBudget;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        savedBudget = MagicScriptSettings.getInstance().getInferenceBudgetMillis();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try {
+            MagicScriptSettings.getInstance().setInferenceBudgetMillis(savedBudget);
+        } finally {
+            super.tearDown();
+        }
+    }
+
+    public void testExhaustedBudgetReturnsObject() {
+        MagicScriptSettings.getInstance().setInferenceBudgetMillis(1);
+        long exceeded = InferenceBudget.getExceededCount();
+
+        MagicType type = InferenceBudget.run(() -> {
+            sleep(20);
+            InferenceBudget.checkpoint();
+            return MagicType.STRING;
+        }, MagicType.OBJECT);
+
+        assertSame(MagicType.OBJECT, type);
+        assertEquals(exceeded + 1, InferenceBudget.getExceededCount());
+    }
+
+    public void testNestedRequestsShareDeadlineAndCountOnce() {
+        MagicScriptSettings.getInstance().setInferenceBudgetMillis(1);
+        long exceeded = InferenceBudget.getExceededCount();
+
+        // 内层推断超出预算后返回自己的 unknown，外层继续执行，整个请求只计一次
+        MagicType type = InferenceBudget.run(() -> {
+            MagicType inner = InferenceBudget.run(() -> {
+                sleep(20);
+                InferenceBudget.checkpoint();
+                return MagicType.STRING;
+            }, MagicType.OBJECT);
+            MagicType second = InferenceBudget.run(() -> {
+                InferenceBudget.checkpoint();
+                return MagicType.STRING;
+            }, MagicType.OBJECT);
+            return inner == MagicType.OBJECT && second == MagicType.OBJECT ? MagicType.BOOLEAN : MagicType.STRING;
+        }, MagicType.OBJECT);
+
+        assertSame(MagicType.BOOLEAN, type);
+        assertEquals(exceeded + 1, InferenceBudget.getExceededCount());
+    }
+
+    public void testRequestWithinBudgetKeepsResult() {
+        MagicScriptSettings.getInstance().setInferenceBudgetMillis(60_000);
+        long exceeded = InferenceBudget.getExceededCount();
+
+        MagicType type = InferenceBudget.run(() -> {
+            InferenceBudget.checkpoint();
+            return MagicType.STRING;
+        }, MagicType.OBJECT);
+
+        assertSame(MagicType.STRING, type);
+        assertEquals(exceeded, InferenceBudget.getExceededCount());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.magicapi.idea.completion.context;
+
+import com.intellij.lang.ASTNode;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.ModificationTracker;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.MSFile;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import com.magicapi.idea.lang.psi.MSTypes;
+
+/**
+ * 参数类型求解测试
+ * 用法约束与调用处实参的合并、迭代轮数上限、编辑后只重新计算受影响的调用处，以及只在没有约束时才使用的命名约定
+ */
+public class ParameterTypeSolverTest extends BasePlatformTestCase {
+
+    public void testMutuallyRecursiveHelpersConverge() {
+        MSFile file = configure(
+            "function even(n) { return odd(n); }\n" +
+            "function odd(m) { return even(m); }\n" +
+            "even(1);\n");
+        ParameterTypeSolver.Solution solution = ParameterTypeSolver.solve(file.getNode(), null);
+
+        assertTrue(solution.rounds < ParameterTypeSolver.MAX_ROUNDS);
+        assertSame(MagicType.INTEGER, solution.types.get(parameter(file, "even")));
+        assertSame(MagicType.INTEGER, solution.types.get(parameter(file, "odd")));
+    }
+
+    public void testLongRecursiveCycleStopsAtRoundCap() {
+        // h1 -> h2 -> ... -> h40 -> h1：每轮只沿调用和实参去向各传播一步，到达上限时停在当前结果
+        int helpers = 40;
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= helpers; i++) {
+            text.append("function h").append(i).append("(p) { return h").append(i % helpers + 1).append("(p); }\n");
+        }
+        text.append("h1(1);\n");
+        MSFile file = configure(text.toString());
+        ParameterTypeSolver.Solution solution = ParameterTypeSolver.solve(file.getNode(), null);
+
+        assertEquals(ParameterTypeSolver.MAX_ROUNDS, solution.rounds);
+        assertSame(MagicType.INTEGER, solution.types.get(parameter(file, "h1")));
+        assertSame(MagicType.INTEGER, solution.types.get(parameter(file, "h2")));
+        assertNull(solution.types.get(parameter(file, "h" + helpers / 2)));
+    }
+
+    public void testCallSiteRefinesCompatibleUsage() {
+        MSFile file = configure(
+            "function scale(v) { return v * 2; }\n" +
+            "scale(3);\n");
+        assertSame(MagicType.INTEGER, ParameterTypeSolver.getParameterType(parameter(file, "scale")));
+    }
+
+    public void testUsageWinsOverIncompatibleCallSite() {
+        MSFile file = configure(
+            "function scale(v) { return v * 2; }\n" +
+            "scale(\"3\");\n");
+        assertSame(MagicType.NUMBER, ParameterTypeSolver.getParameterType(parameter(file, "scale")));
+    }
+
+    public void testCallSiteWithoutUsage() {
+        MSFile file = configure(
+            "function echo(v) { return v; }\n" +
+            "echo(\"text\");\n");
+        assertSame(MagicType.STRING, ParameterTypeSolver.getParameterType(parameter(file, "echo")));
+    }
+
+    public void testNamingFallbackOnlyWithoutConstraints() {
+        MSFile unconstrained = configure("function greet(userName) { return userName; }\n");
+        assertNull(ParameterTypeSolver.getParameterType(parameter(unconstrained, "greet")));
+        assertSame(MagicType.STRING, parameterSummaryType(unconstrained, "greet"));
+
+        MSFile called = configure(
+            "function greet(userName) { return userName; }\n" +
+            "greet(42);\n");
+        assertSame(MagicType.INTEGER, parameterSummaryType(called, "greet"));
+
+        MSFile used = configure("function greet(userName) { return userName * 2; }\n");
+        assertSame(MagicType.NUMBER, parameterSummaryType(used, "greet"));
+    }
+
+    public void testEditReevaluatesOnlyEditedFunctionCalls() {
+        MSFile file = configure(
+            "function helper(v) { return v; }\n" +
+            "function first(x) { var t = 1; return helper(t); }\n" +
+            "function second(y) { var s = 2; return helper(s); }\n");
+        assertSame(MagicType.INTEGER, ParameterTypeSolver.getParameterType(parameter(file, "helper")));
+        ModificationTracker second = ParameterTypeSolver.tracker(function(file, "second").getNode());
+        long secondStamp = second.getModificationCount();
+        long analyses = FlowTypeInference.getFunctionAnalysisCount();
+
+        // 只编辑 first 的函数体：second 中调用处的实参类型取缓存，参数类型都没有变化
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf("t = 1") + "t = ".length();
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(offset, offset + 1, "3"));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        assertSame(MagicType.INTEGER, ParameterTypeSolver.getParameterType(parameter(file, "helper")));
+        assertEquals("only the edited function is analyzed again", analyses + 1, FlowTypeInference.getFunctionAnalysisCount());
+        assertEquals(secondStamp, second.getModificationCount());
+    }
+
+    private MSFile configure(String text) {
+        return (MSFile) myFixture.configureByText("solver.ms", text);
+    }
+
+    private static MSFunctionDeclaration function(MSFile file, String name) {
+        MSFunctionDeclaration function = (MSFunctionDeclaration) file.findTopLevelDeclaration(name);
+        assertNotNull(name, function);
+        return function;
+    }
+
+    private static ASTNode parameter(MSFile file, String function) {
+        ASTNode parameterList = function(file, function).getNode().findChildByType(MSTypes.PARAMETER_LIST);
+        assertNotNull(parameterList);
+        ASTNode parameter = parameterList.findChildByType(MSTypes.PARAMETER);
+        assertNotNull(parameter);
+        return parameter;
+    }
+
+    private static MagicType parameterSummaryType(MSFile file, String function) {
+        return FlowTypeInference.getSummary(function(file, function)).getParameterTypes().get(0);
+    }
+}
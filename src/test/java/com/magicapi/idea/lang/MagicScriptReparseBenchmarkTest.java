@@ -0,0 +1,141 @@
+package com.magicapi.idea.lang;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.lang.psi.MSFunctionDeclaration;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 增量重解析基准测试
+ * 在函数体内部编辑时，重解析的区间应与文件大小无关，且其它函数的 PSI 保持不变
+ */
+public class MagicScriptReparseBenchmarkTest extends BasePlatformTestCase {
+
+    private static final String EDIT_MARKER = "/*edit*/";
+    private static final int EDITS = 50;
+
+    public void testReparsedRangeStaysFlatAsFileGrows() {
+        int small = measureReparsedRange(50);
+        int medium = measureReparsedRange(400);
+        int large = measureReparsedRange(1600);
+
+        // 文件大小增长 32 倍，每次编辑只重解析被编辑的函数体，重解析区间不随之增长
+        assertEquals("reparsed range grows with file size", small, medium);
+        assertEquals("reparsed range grows with file size", small, large);
+        assertTrue("reparsed " + large + " chars for an edit inside one function",
+            large > 0 && large < generateScript(1).length() + EDITS);
+    }
+
+    public void testEditInsideFunctionKeepsOtherFunctions() {
+        PsiFile file = myFixture.configureByText("keep.ms", generateScript(20));
+        List<MSFunctionDeclaration> before = new ArrayList<>(
+            PsiTreeUtil.findChildrenOfType(file, MSFunctionDeclaration.class));
+
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf(EDIT_MARKER);
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(offset, "total = total + 1;"));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        List<MSFunctionDeclaration> after = new ArrayList<>(
+            PsiTreeUtil.findChildrenOfType(file, MSFunctionDeclaration.class));
+        assertEquals(before.size(), after.size());
+        for (int i = 0; i < before.size(); i++) {
+            assertSame("function " + i + " was rebuilt", before.get(i), after.get(i));
+            assertTrue(after.get(i).isValid());
+        }
+    }
+
+    public void testUnclosedFunctionBodyKeepsFollowingFunctions() {
+        PsiFile file = myFixture.configureByText("unclosed.ms", generateScript(20));
+        List<MSFunctionDeclaration> before = new ArrayList<>(
+            PsiTreeUtil.findChildrenOfType(file, MSFunctionDeclaration.class));
+
+        // 删掉中间函数的右括号，模拟输入到一半的函数体
+        Document document = myFixture.getEditor().getDocument();
+        int offset = document.getText().indexOf("}\n\n", document.getText().indexOf(EDIT_MARKER));
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.deleteString(offset, offset + 1));
+        PsiDocumentManager.getInstance(getProject()).commitDocument(document);
+
+        List<MSFunctionDeclaration> after = new ArrayList<>(
+            PsiTreeUtil.findChildrenOfType(file, MSFunctionDeclaration.class));
+        assertEquals(before.size(), after.size());
+        int edited = before.size() / 2;
+        for (int i = 0; i < before.size(); i++) {
+            if (i != edited) {
+                assertSame("function " + i + " was rebuilt", before.get(i), after.get(i));
+            }
+        }
+    }
+
+    /**
+     * 在中间函数体内连续输入，返回每次提交文档（触发重解析）时被替换或新增的 PSI 的最大文本长度
+     */
+    private int measureReparsedRange(int functionCount) {
+        PsiFile file = myFixture.configureByText("bench" + functionCount + ".ms", generateScript(functionCount));
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+        Document document = documentManager.getDocument(file);
+        assertNotNull(document);
+
+        int[] reparsed = {0};
+        Disposable listenerDisposable = Disposer.newDisposable();
+        PsiManager.getInstance(getProject()).addPsiTreeChangeListener(new PsiTreeChangeAdapter() {
+            @Override
+            public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+                reparsed[0] = Math.max(reparsed[0], event.getNewChild().getTextLength());
+            }
+
+            @Override
+            public void childAdded(@NotNull PsiTreeChangeEvent event) {
+                reparsed[0] = Math.max(reparsed[0], event.getChild().getTextLength());
+            }
+        }, listenerDisposable);
+
+        try {
+            int offset = document.getText().indexOf(EDIT_MARKER);
+            for (int i = 0; i < EDITS; i++) {
+                int insertAt = offset + i;
+                WriteCommandAction.runWriteCommandAction(getProject(), () -> document.insertString(insertAt, "x"));
+                documentManager.commitDocument(document);
+            }
+        } finally {
+            Disposer.dispose(listenerDisposable);
+        }
+        return reparsed[0];
+    }
+
+    /**
+     * 生成由若干个大小相同的函数组成的脚本，编辑标记位于正中间的函数体内
+     */
+    private static String generateScript(int functionCount) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < functionCount; i++) {
+            builder.append("function handler").append(i).append("(id, name) {\n");
+            builder.append("    var user = db.selectOne(\"SELECT * FROM users WHERE id = ?\", [id]);\n");
+            builder.append("    var total = 0;\n");
+            if (i == functionCount / 2) {
+                builder.append("    ").append(EDIT_MARKER).append("\n");
+            }
+            builder.append("    for (var j = 0; j < 10; j++) {\n");
+            builder.append("        total = total + j * 2;\n");
+            builder.append("    }\n");
+            builder.append("    if (user != null && name != null) {\n");
+            builder.append("        return {id: user.id, name: name, total: total};\n");
+            builder.append("    }\n");
+            builder.append("    return null;\n");
+            builder.append("}\n\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,294 @@
+package com.magicapi.idea.lang.lexer;
+
+import com.intellij.codeInspection.InspectionManager;
+import com.intellij.codeInspection.ProblemsHolder;
+import com.intellij.lexer.Lexer;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.editor.colors.TextAttributesKey;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiElementVisitor;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.SyntaxTraverser;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiUtilCore;
+import com.intellij.testFramework.EdtTestUtil;
+import com.intellij.testFramework.LightProjectDescriptor;
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture;
+import com.intellij.testFramework.fixtures.IdeaProjectTestFixture;
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory;
+import com.intellij.testFramework.fixtures.TestFixtureBuilder;
+import com.magicapi.idea.highlighting.MagicScriptSyntaxHighlighter;
+import com.magicapi.idea.inspection.MagicScriptInspection;
+import com.magicapi.idea.lang.psi.MSTypes;
+import com.magicapi.idea.navigation.MagicScriptGotoDeclarationHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 词法分析吞吐量基准
+ * 通过 MagicScriptLexerAdapter 分析一组真实大小的脚本，输出每秒符号数和每个符号的分配字节数。
+ *
+ * 运行：./gradlew jmh
+ *
+ * 除词法分析本身外，还分别测量三个逐符号的消费者：语法高亮（MagicScriptSyntaxHighlighter）、
+ * 代码检查（MagicScriptInspection 的访问器逐个访问标识符）和跳转到声明（MagicScriptGotoDeclarationHandler）。
+ * 检查和跳转需要 PSI，语料在轻量测试项目中解析一次，测量时只在读操作中遍历已有的标识符。
+ * identifierTexts 为每个标识符复制一次文本，作为改为比较字符序列之前每个标识符的分配量；
+ * main 校验高亮路径不分配内存、检查和跳转路径的分配低于复制文本的分配，缺少分配数据时直接失败。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MagicScriptLexerBenchmark {
+    
+    private static final String[] CORPUS = {
+        "/testData/test-script.ms", "/testData/simple.ms", "/testData/simple-test.ms", "/testData/test-completion.ms"
+    };
+    
+    /**
+     * 语料总长度下限，不足时重复拼接
+     */
+    private static final int MIN_CORPUS_LENGTH = 256 * 1024;
+    
+    private CharSequence text;
+    private Lexer lexer;
+    private MagicScriptSyntaxHighlighter highlighter;
+    private MagicScriptInspection inspection;
+    private MagicScriptGotoDeclarationHandler gotoHandler;
+    private CodeInsightTestFixture fixture;
+    private PsiFile file;
+    private List<PsiElement> identifiers;
+    
+    @Setup
+    public void setUp() throws Exception {
+        text = loadCorpus();
+        lexer = new MagicScriptLexerAdapter();
+        highlighter = new MagicScriptSyntaxHighlighter();
+        inspection = new MagicScriptInspection();
+        gotoHandler = new MagicScriptGotoDeclarationHandler();
+        
+        IdeaTestFixtureFactory factory = IdeaTestFixtureFactory.getFixtureFactory();
+        TestFixtureBuilder<IdeaProjectTestFixture> builder =
+            factory.createLightFixtureBuilder(LightProjectDescriptor.EMPTY_PROJECT_DESCRIPTOR, getClass().getName());
+        fixture = factory.createCodeInsightFixture(builder.getFixture());
+        EdtTestUtil.runInEdtAndWait(() -> {
+            fixture.setUp();
+            file = fixture.configureByText("corpus.ms", text.toString());
+        });
+        // 预先展开全部延迟解析的块，测量时只遍历已有的 PSI
+        identifiers = ReadAction.compute(() -> new ArrayList<>(SyntaxTraverser.psiTraverser(file)
+            .filter(element -> PsiUtilCore.getElementType(element) == MSTypes.IDENTIFIER)
+            .toList()));
+    }
+    
+    @TearDown
+    public void tearDown() throws Exception {
+        EdtTestUtil.runInEdtAndWait(() -> fixture.tearDown());
+    }
+    
+    /**
+     * 只做词法分析
+     */
+    @Benchmark
+    public int lex(Blackhole blackhole) {
+        lexer.start(text);
+        int tokens = 0;
+        IElementType type;
+        while ((type = lexer.getTokenType()) != null) {
+            blackhole.consume(type);
+            tokens++;
+            lexer.advance();
+        }
+        return tokens;
+    }
+    
+    /**
+     * 词法分析并为每个符号取高亮属性，与编辑器高亮的逐符号路径相同
+     */
+    @Benchmark
+    public int highlight(Blackhole blackhole) {
+        lexer.start(text);
+        int tokens = 0;
+        IElementType type;
+        while ((type = lexer.getTokenType()) != null) {
+            TextAttributesKey[] keys = highlighter.getTokenHighlights(type);
+            blackhole.consume(keys);
+            tokens++;
+            lexer.advance();
+        }
+        return tokens;
+    }
+    
+    /**
+     * 代码检查：检查工具的访问器逐个访问标识符，与编辑器中运行检查的路径相同
+     */
+    @Benchmark
+    public int inspect() {
+        return ReadAction.compute(() -> {
+            ProblemsHolder holder = new ProblemsHolder(InspectionManager.getInstance(fixture.getProject()), file, false);
+            PsiElementVisitor visitor = inspection.buildVisitor(holder, false);
+            for (PsiElement identifier : identifiers) {
+                identifier.accept(visitor);
+            }
+            return holder.getResultCount();
+        });
+    }
+    
+    /**
+     * 跳转到声明：对每个标识符查找声明
+     */
+    @Benchmark
+    public int gotoDeclaration(Blackhole blackhole) {
+        return ReadAction.compute(() -> {
+            int targets = 0;
+            for (PsiElement identifier : identifiers) {
+                PsiElement[] found = gotoHandler.getGotoDeclarationTargets(identifier, identifier.getTextOffset(), null);
+                blackhole.consume(found);
+                targets += found != null ? found.length : 0;
+            }
+            return targets;
+        });
+    }
+    
+    /**
+     * 参照：为每个标识符复制一次文本，即消费者比较字符序列之前的分配
+     */
+    @Benchmark
+    public int identifierTexts(Blackhole blackhole) {
+        return ReadAction.compute(() -> {
+            for (PsiElement identifier : identifiers) {
+                blackhole.consume(identifier.getText());
+            }
+            return identifiers.size();
+        });
+    }
+    
+    static CharSequence loadCorpus() {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < MIN_CORPUS_LENGTH) {
+            for (String path : CORPUS) {
+                try (InputStream stream = MagicScriptLexerBenchmark.class.getResourceAsStream(path)) {
+                    if (stream == null) {
+                        throw new IllegalStateException("找不到基准语料: " + path);
+                    }
+                    builder.append(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).append('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return builder.toString();
+    }
+    
+    static int countTokens(CharSequence text) {
+        Lexer lexer = new MagicScriptLexerAdapter();
+        lexer.start(text);
+        int tokens = 0;
+        while (lexer.getTokenType() != null) {
+            tokens++;
+            lexer.advance();
+        }
+        return tokens;
+    }
+    
+    static int countIdentifiers(CharSequence text) {
+        Lexer lexer = new MagicScriptLexerAdapter();
+        lexer.start(text);
+        int identifiers = 0;
+        IElementType type;
+        while ((type = lexer.getTokenType()) != null) {
+            if (type == MSTypes.IDENTIFIER) {
+                identifiers++;
+            }
+            lexer.advance();
+        }
+        return identifiers;
+    }
+    
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(MagicScriptLexerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+        
+        CharSequence corpus = loadCorpus();
+        int tokens = countTokens(corpus);
+        int identifiers = countIdentifiers(corpus);
+        Map<String, double[]> summary = new TreeMap<>();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            double opsPerSecond = result.getPrimaryResult().getScore();
+            double bytesPerOp = allocationPerOp(name, result.getSecondaryResults());
+            // 高亮和词法分析按符号计，检查、跳转和参照按标识符计
+            int units = name.equals("lex") || name.equals("highlight") ? tokens : identifiers;
+            summary.put(name, new double[]{opsPerSecond * units, bytesPerOp / units});
+        }
+        
+        System.out.printf("%n语料符号数: %d, 标识符数: %d%n", tokens, identifiers);
+        System.out.printf("%-20s %18s %18s%n", "benchmark", "units/s", "bytes/unit");
+        summary.forEach((name, values) ->
+            System.out.printf("%-20s %18.0f %18.3f%n", name, values[0], values[1]));
+        
+        // 高亮路径不应分配内存；检查和跳转路径比较字符序列，每个标识符的分配应明显少于复制一次文本
+        double highlight = require(summary, "highlight")[1];
+        double inspect = require(summary, "inspect")[1];
+        double gotoDeclaration = require(summary, "gotoDeclaration")[1];
+        double copies = require(summary, "identifierTexts")[1];
+        if (highlight > 1.0) {
+            throw new IllegalStateException("高亮路径每个符号分配了 " + highlight + " 字节");
+        }
+        if (inspect * 2 > copies) {
+            throw new IllegalStateException("检查路径没有减少分配: " + inspect + " vs " + copies + " 字节/标识符");
+        }
+        if (gotoDeclaration * 2 > copies) {
+            throw new IllegalStateException("跳转路径没有减少分配: " + gotoDeclaration + " vs " + copies + " 字节/标识符");
+        }
+    }
+    
+    private static double[] require(Map<String, double[]> summary, String benchmark) {
+        double[] values = summary.get(benchmark);
+        if (values == null) {
+            throw new IllegalStateException("缺少基准结果: " + benchmark);
+        }
+        return values;
+    }
+    
+    /**
+     * 从 GC 分析器的结果中取出每次操作的分配字节数（不同 JMH 版本的结果名带或不带前缀 "·"）
+     */
+    private static double allocationPerOp(String benchmark, Map<String, Result> secondaryResults) {
+        for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                double bytes = entry.getValue().getScore();
+                if (Double.isNaN(bytes)) {
+                    break;
+                }
+                return bytes;
+            }
+        }
+        throw new IllegalStateException("GC 分析器没有给出 " + benchmark + " 的分配数据: " + secondaryResults.keySet());
+    }
+}
@@ -0,0 +1,147 @@
+package com.magicapi.idea.lang.lexer;
+
+import com.intellij.lexer.Lexer;
+import com.intellij.testFramework.LexerTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 词法分析器符号序列测试
+ * 覆盖多行字符串、模板字符串及其 ${...} 插值状态，以及未闭合插值时的行为和从任意符号处重启
+ */
+public class MagicScriptLexerTest extends LexerTestCase {
+
+    @Override
+    protected Lexer createLexer() {
+        return new MagicScriptLexerAdapter();
+    }
+
+    @Override
+    protected String getDirPath() {
+        return "src/test/resources/testData/lexer";
+    }
+
+    public void testTextBlock() {
+        // 多行字符串内不识别插值，${id} 是普通内容
+        doTest("\"\"\"\nselect * from t\nwhere id = ${id}\n\"\"\"",
+            "MSTokenType.TEXT_BLOCK_QUOTE ('\"\"\"')\n" +
+            "MSTokenType.STRING_CONTENT ('\\n')\n" +
+            "MSTokenType.STRING_CONTENT ('select * from t')\n" +
+            "MSTokenType.STRING_CONTENT ('\\n')\n" +
+            "MSTokenType.STRING_CONTENT ('where id = ${id}')\n" +
+            "MSTokenType.STRING_CONTENT ('\\n')\n" +
+            "MSTokenType.TEXT_BLOCK_QUOTE ('\"\"\"')\n");
+    }
+
+    public void testTemplateWithInterpolations() {
+        doTest("`Hello ${user.name}, ${count + 1}!`",
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.STRING_CONTENT ('Hello ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "MSTokenType.IDENTIFIER ('user')\n" +
+            "MSTokenType.DOT ('.')\n" +
+            "MSTokenType.IDENTIFIER ('name')\n" +
+            "MSTokenType.INTERPOLATION_END ('}')\n" +
+            "MSTokenType.STRING_CONTENT (', ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "MSTokenType.IDENTIFIER ('count')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.PLUS ('+')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.NUMBER_LITERAL ('1')\n" +
+            "MSTokenType.INTERPOLATION_END ('}')\n" +
+            "MSTokenType.STRING_CONTENT ('!')\n" +
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n");
+    }
+
+    public void testNestedTemplate() {
+        doTest("`outer ${`inner ${x}`} end`",
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.STRING_CONTENT ('outer ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.STRING_CONTENT ('inner ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "MSTokenType.IDENTIFIER ('x')\n" +
+            "MSTokenType.INTERPOLATION_END ('}')\n" +
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.INTERPOLATION_END ('}')\n" +
+            "MSTokenType.STRING_CONTENT (' end')\n" +
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n");
+    }
+
+    public void testBracesInsideInterpolation() {
+        // 插值内部的 '{' '}' 配对计数，只有最外层的 '}' 结束插值
+        doTest("`a ${ {k: 1}.k } b`",
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.STRING_CONTENT ('a ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.LBRACE ('{')\n" +
+            "MSTokenType.IDENTIFIER ('k')\n" +
+            "MSTokenType.COLON (':')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.NUMBER_LITERAL ('1')\n" +
+            "MSTokenType.RBRACE ('}')\n" +
+            "MSTokenType.DOT ('.')\n" +
+            "MSTokenType.IDENTIFIER ('k')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.INTERPOLATION_END ('}')\n" +
+            "MSTokenType.STRING_CONTENT (' b')\n" +
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n");
+    }
+
+    public void testUnterminatedInterpolation() {
+        // 缺少 '}' 时插值一直延续到文件结尾，其中的内容仍按普通代码切分
+        doTest("`broken ${name\nvar next = 1;",
+            "MSTokenType.TEMPLATE_QUOTE ('`')\n" +
+            "MSTokenType.STRING_CONTENT ('broken ')\n" +
+            "MSTokenType.INTERPOLATION_START ('${')\n" +
+            "MSTokenType.IDENTIFIER ('name')\n" +
+            "WHITE_SPACE ('\\n')\n" +
+            "MSTokenType.VAR ('var')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.IDENTIFIER ('next')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.ASSIGN ('=')\n" +
+            "WHITE_SPACE (' ')\n" +
+            "MSTokenType.NUMBER_LITERAL ('1')\n" +
+            "MSTokenType.SEMICOLON (';')\n");
+    }
+
+    public void testRestartFromEveryToken() {
+        // 从任意符号处以记录的状态重启，得到的后续符号与完整分析一致
+        checkRestartFromEveryToken("var s = `outer ${`inner ${ {k: x}.k }`} end` + \"\"\"\ntext\n\"\"\";");
+        checkRestartFromEveryToken("`broken ${name\nvar next = 1;");
+    }
+
+    private void checkRestartFromEveryToken(String text) {
+        List<String> tokens = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> states = new ArrayList<>();
+        Lexer lexer = createLexer();
+        lexer.start(text);
+        while (lexer.getTokenType() != null) {
+            tokens.add(describe(lexer, text));
+            starts.add(lexer.getTokenStart());
+            states.add(lexer.getState());
+            lexer.advance();
+        }
+
+        for (int i = 0; i < tokens.size(); i++) {
+            Lexer restarted = createLexer();
+            restarted.start(text, starts.get(i), text.length(), states.get(i));
+            List<String> rest = new ArrayList<>();
+            while (restarted.getTokenType() != null) {
+                rest.add(describe(restarted, text));
+                restarted.advance();
+            }
+            assertEquals("restart at offset " + starts.get(i), tokens.subList(i, tokens.size()), rest);
+        }
+    }
+
+    private static String describe(Lexer lexer, String text) {
+        return lexer.getTokenType() + " ('" + text.substring(lexer.getTokenStart(), lexer.getTokenEnd()) + "')";
+    }
+}
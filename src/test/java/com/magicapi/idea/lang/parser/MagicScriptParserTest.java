@@ -0,0 +1,48 @@
+package com.magicapi.idea.lang.parser;
+
+import com.intellij.testFramework.ParsingTestCase;
+
+/**
+ * 语法分析器 PSI 树测试
+ * 每个用例解析 testData/parser 下同名的 .ms 文件，与同名 .txt 中的 PSI 树比对；
+ * 懒解析区域（代码块、函数体）在比对前展开，重解析结果也必须一致
+ */
+public class MagicScriptParserTest extends ParsingTestCase {
+
+    public MagicScriptParserTest() {
+        super("parser", "ms", new MagicScriptParserDefinition());
+    }
+
+    @Override
+    protected String getTestDataPath() {
+        return "src/test/resources/testData";
+    }
+
+    public void testVarAndFunctionDeclarations() {
+        doTest(true);
+    }
+
+    public void testOperatorPrecedence() {
+        doTest(true);
+    }
+
+    public void testCallAndMemberChains() {
+        doTest(true);
+    }
+
+    public void testBrokenStatementRecovery() {
+        doTest(true);
+    }
+
+    public void testLambdaAndSpread() {
+        doTest(true);
+    }
+
+    public void testTypeConversionAndExit() {
+        doTest(true);
+    }
+
+    public void testLinqQuery() {
+        doTest(true);
+    }
+}
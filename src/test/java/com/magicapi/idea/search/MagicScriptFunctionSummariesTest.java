@@ -0,0 +1,71 @@
+package com.magicapi.idea.search;
+
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.psi.PsiDocumentManager;
+import com.intellij.psi.PsiFile;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.magicapi.idea.completion.model.MagicType;
+import com.magicapi.idea.lang.psi.MSFile;
+
+/**
+ * 跨文件函数摘要测试
+ * 被 import 的脚本修改后，只有函数摘要确实变化时才增加修改计数
+ */
+public class MagicScriptFunctionSummariesTest extends BasePlatformTestCase {
+
+    private static final String COMMON =
+        "export function load(id) {\n" +
+        "    var total = 1;\n" +
+        "    return \"text\";\n" +
+        "}\n";
+
+    public void testBodyEditKeepsModificationCount() {
+        PsiFile common = myFixture.addFileToProject("common.ms", COMMON);
+        MSFile main = configureImporter();
+        MagicScriptFunctionSummaries summaries = MagicScriptFunctionSummaries.getInstance(getProject());
+        assertSame(MagicType.STRING, returnType(summaries, main));
+        long count = summaries.getModificationCount();
+
+        // 只改函数体的实现，参数和返回类型不变
+        replace(common, "var total = 1;", "var total = 2;");
+
+        assertEquals("summary count changed after a body-only edit", count, summaries.getModificationCount());
+        assertSame(MagicType.STRING, returnType(summaries, main));
+    }
+
+    public void testReturnTypeChangeBumpsModificationCount() {
+        PsiFile common = myFixture.addFileToProject("common.ms", COMMON);
+        MSFile main = configureImporter();
+        MagicScriptFunctionSummaries summaries = MagicScriptFunctionSummaries.getInstance(getProject());
+        assertSame(MagicType.STRING, returnType(summaries, main));
+        long count = summaries.getModificationCount();
+
+        replace(common, "return \"text\";", "return 42;");
+
+        assertTrue("summary count unchanged after the return type changed", summaries.getModificationCount() > count);
+        assertSame(MagicType.INTEGER, returnType(summaries, main));
+    }
+
+    private MSFile configureImporter() {
+        return (MSFile) myFixture.configureByText("main.ms",
+            "import \"common\";\n" +
+            "var result = load(1);\n");
+    }
+
+    private static MagicType returnType(MagicScriptFunctionSummaries summaries, MSFile main) {
+        MagicScriptFunctionSummary summary = summaries.findImportedFunction(main, "load");
+        assertNotNull(summary);
+        return summary.getReturnType();
+    }
+
+    private void replace(PsiFile file, String from, String to) {
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(getProject());
+        Document document = documentManager.getDocument(file);
+        assertNotNull(document);
+        int offset = document.getText().indexOf(from);
+        assertTrue(from, offset >= 0);
+        WriteCommandAction.runWriteCommandAction(getProject(), () -> document.replaceString(offset, offset + from.length(), to));
+        documentManager.commitDocument(document);
+    }
+}